@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.adapter.reactor;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.alibaba.csp.sentinel.AsyncEntry;
@@ -28,6 +29,7 @@ import com.alibaba.csp.sentinel.util.function.Supplier;
 
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.context.Context;
 
 /**
@@ -44,6 +46,13 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
     private volatile AsyncEntry currentEntry;
     private final AtomicBoolean entryExited = new AtomicBoolean(false);
 
+    /**
+     * Whether the actual subscriber has been subscribed, which may be delayed by non-blocking pacing.
+     * Terminal signals that arrive before it are deferred until the subscription.
+     */
+    private volatile boolean actualSubscribed = false;
+    private Runnable pendingTerminal;
+
     public SentinelReactorSubscriber(EntryConfig entryConfig,
                                      CoreSubscriber<? super T> actual,
                                      boolean unary) {
@@ -83,34 +92,71 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
     }
 
     private void entryWhenSubscribed() {
+        // The Sentinel context is passed explicitly, so no context will be bound to current thread:
+        // the async context of upstream entry (if present) comes first, then the context of current thread.
+        com.alibaba.csp.sentinel.context.Context sentinelContext = currentContext()
+            .<com.alibaba.csp.sentinel.context.Context>getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY)
+            .orElseGet(ContextUtil::getContext);
         ContextConfig sentinelContextConfig = entryConfig.getContextConfig();
-        if (sentinelContextConfig != null) {
+        if (sentinelContext == null && sentinelContextConfig != null) {
             // If current we're already in a context, the context config won't work.
-            ContextUtil.enter(sentinelContextConfig.getContextName(), sentinelContextConfig.getOrigin());
+            sentinelContext = ContextUtil.newDetachedContext(sentinelContextConfig.getContextName(),
+                sentinelContextConfig.getOrigin());
         }
         try {
-            AsyncEntry entry = SphU.asyncEntry(entryConfig.getResourceName(), entryConfig.getResourceType(),
-                entryConfig.getEntryType(), entryConfig.getAcquireCount(), entryConfig.getArgs());
+            AsyncEntry entry = SphU.asyncEntryWithNonBlockingPacing(sentinelContext, entryConfig.getResourceName(),
+                entryConfig.getResourceType(), entryConfig.getEntryType(), entryConfig.getAcquireCount(),
+                entryConfig.getArgs());
             this.currentEntry = entry;
-            actual.onSubscribe(this);
+            long waitMs = entry.getPacingWaitMs();
+            if (waitMs > 0) {
+                // Non-blocking pacing: delay the subscription with a timer rather than blocking current thread.
+                Schedulers.parallel().schedule(this::subscribeActual, waitMs, TimeUnit.MILLISECONDS);
+            } else {
+                subscribeActual();
+            }
         } catch (BlockException ex) {
             // Mark as completed (exited) explicitly.
             entryExited.set(true);
             // Signal cancel and propagate the {@code BlockException}.
             cancel();
-            actual.onSubscribe(this);
+            subscribeActual();
             actual.onError(ex);
-        } finally {
-            if (sentinelContextConfig != null) {
-                ContextUtil.exit();
+        }
+    }
+
+    private void subscribeActual() {
+        Runnable terminal;
+        synchronized (this) {
+            actualSubscribed = true;
+            terminal = pendingTerminal;
+            pendingTerminal = null;
+        }
+        actual.onSubscribe(this);
+        if (terminal != null) {
+            terminal.run();
+        }
+    }
+
+    /**
+     * @return true if the terminal signal is deferred as the actual subscriber has not been subscribed yet
+     */
+    private boolean deferTerminal(Runnable terminal) {
+        if (actualSubscribed) {
+            return false;
+        }
+        synchronized (this) {
+            if (actualSubscribed) {
+                return false;
             }
+            pendingTerminal = terminal;
+            return true;
         }
     }
 
     @Override
     protected void hookOnSubscribe(Subscription subscription) {
-        doWithContextOrCurrent(() -> currentContext().getOrEmpty(SentinelReactorConstants.SENTINEL_CONTEXT_KEY),
-            this::entryWhenSubscribed);
+        entryWhenSubscribed();
     }
 
     @Override
@@ -132,6 +178,9 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
     @Override
     protected void hookOnComplete() {
+        if (deferTerminal(this::hookOnComplete)) {
+            return;
+        }
         tryCompleteEntry();
         actual.onComplete();
     }
@@ -145,6 +194,9 @@ public class SentinelReactorSubscriber<T> extends InheritableBaseSubscriber<T> {
 
     @Override
     protected void hookOnError(Throwable t) {
+        if (deferTerminal(() -> hookOnError(t))) {
+            return;
+        }
         if (currentEntry != null && currentEntry.getAsyncContext() != null) {
             // Normal requests with non-BlockException will go through here.
             Tracer.traceContext(t, 1, currentEntry.getAsyncContext());
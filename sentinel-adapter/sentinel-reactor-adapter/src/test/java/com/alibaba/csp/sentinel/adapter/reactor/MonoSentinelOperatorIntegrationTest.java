@@ -6,9 +6,11 @@ import java.util.Collections;
 
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.node.ClusterNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
@@ -184,6 +186,35 @@ public class MonoSentinelOperatorIntegrationTest {
         FlowRuleManager.loadRules(new ArrayList<>());
     }
 
+    @Test
+    public void testNonBlockingPacing() {
+        String resourceName = createResourceName("testNonBlockingPacing");
+        FlowRuleManager.loadRules(Collections.singletonList(
+            new FlowRule(resourceName).setCount(5)
+                .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+                .setMaxQueueingTimeMs(1000)
+        ));
+        SentinelConfig.setConfig(SentinelConfig.FLOW_PACING_NON_BLOCKING, "true");
+        try {
+            StepVerifier.create(Mono.just(1).transform(new SentinelReactorTransformer<>(resourceName)))
+                .expectNext(1)
+                .verifyComplete();
+            // The second request is delayed by a timer (200ms) rather than blocking the subscribing thread.
+            long start = System.currentTimeMillis();
+            StepVerifier.Step<Integer> step = StepVerifier.create(
+                Mono.just(2).transform(new SentinelReactorTransformer<>(resourceName)));
+            assertTrue(System.currentTimeMillis() - start < 150);
+            Duration duration = step.expectNext(2).verifyComplete();
+            assertTrue(duration.toMillis() >= 100);
+            // Empty source completes before the delayed subscription, which should be deferred.
+            StepVerifier.create(Mono.empty().transform(new SentinelReactorTransformer<>(resourceName)))
+                .verifyComplete();
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.FLOW_PACING_NON_BLOCKING);
+            FlowRuleManager.loadRules(new ArrayList<>());
+        }
+    }
+
     private String createResourceName(String resourceName) {
         return "reactor_test_mono_" + resourceName;
     }
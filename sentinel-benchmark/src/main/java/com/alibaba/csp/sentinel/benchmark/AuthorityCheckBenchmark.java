@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRule;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRuleManager;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthoritySlot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the white list check of {@link AuthoritySlot}, which matches the origin of the context
+ * against the limit apps of the rule. The origin is the last one of the limit apps.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class AuthorityCheckBenchmark {
+
+    private static final String RESOURCE_NAME = "authority-benchmark";
+
+    /**
+     * Amount of apps in the white list.
+     */
+    @Param({"1", "10", "100"})
+    private int appCount;
+
+    private final ResourceWrapper resourceWrapper = new StringResourceWrapper(RESOURCE_NAME, EntryType.IN);
+    private final AuthoritySlot slot = new AuthoritySlot();
+    private String origin;
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        private Context context;
+
+        @Setup
+        public void enter(AuthorityCheckBenchmark benchmark) {
+            context = ContextUtil.enter("authority-benchmark-context", benchmark.origin);
+        }
+
+        @TearDown
+        public void exit() {
+            ContextUtil.exit();
+        }
+    }
+
+    @Setup
+    public void prepare() {
+        StringBuilder limitApp = new StringBuilder();
+        for (int i = 0; i < appCount; i++) {
+            if (i > 0) {
+                limitApp.append(',');
+            }
+            limitApp.append("app-").append(i);
+        }
+        origin = "app-" + (appCount - 1);
+        AuthorityRule rule = new AuthorityRule();
+        rule.setStrategy(RuleConstant.AUTHORITY_WHITE);
+        rule.setResource(RESOURCE_NAME);
+        rule.setLimitApp(limitApp.toString());
+        AuthorityRuleManager.loadRules(Collections.singletonList(rule));
+    }
+
+    @TearDown
+    public void tearDown() {
+        AuthorityRuleManager.loadRules(Collections.<AuthorityRule>emptyList());
+    }
+
+    @Benchmark
+    public void testWhiteListCheck(Caller caller) throws Throwable {
+        slot.entry(caller.context, resourceWrapper, null, 1, false);
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.BenchmarkList;
+import org.openjdk.jmh.runner.BenchmarkListEntry;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+/**
+ * <p>
+ * Runs the benchmarks with each of several thread counts and the GC profiler ({@code -prof gc}), and writes
+ * the results into a CSV file, one line per benchmark, parameters and thread count, with the score and
+ * the allocated bytes per operation. Benchmarks annotated with {@code @Threads} are run only once with their
+ * own thread count.
+ * </p>
+ * <p>
+ * If a baseline file is provided and exists, the results are compared with it, and the runner exits
+ * with status 1 if a score or the allocation gets worse than the baseline beyond the tolerance. If the
+ * baseline file does not exist yet, the results are recorded as the baseline. Baselines are only comparable
+ * on the same machine and JVM.
+ * </p>
+ * <pre>
+ * java -cp benchmarks.jar com.alibaba.csp.sentinel.benchmark.BenchmarkRunner \
+ *     --include=LeapArrayBenchmark --threads=1,4,16 --baseline=baseline.csv --tolerance=0.1
+ * </pre>
+ * <p>
+ * Options (all optional): {@code include} (regex of benchmarks, all by default), {@code threads}
+ * (default {@code 1,4,16}), {@code forks} (default 1), {@code warmupIterations} and {@code iterations}
+ * (as annotated by default), {@code baseline}, {@code tolerance} (default 0.1) and {@code output}
+ * (default {@code benchmark-result.csv}).
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class BenchmarkRunner {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String HEADER = "benchmark,params,threads,mode,score,scoreError,unit,allocBytesPerOp";
+    private static final String ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Map<String, String> options = parseOptions(args);
+        String include = getOption(options, "include", BenchmarkRunner.class.getPackage().getName() + ".*");
+        double tolerance = Double.parseDouble(getOption(options, "tolerance", "0.1"));
+        int forks = Integer.parseInt(getOption(options, "forks", "1"));
+        File output = new File(getOption(options, "output", "benchmark-result.csv"));
+
+        // Benchmarks with a fixed thread count (@Threads) are run once as annotated, and the others are run
+        // with each of the thread counts, as the thread count of the options would override @Threads.
+        Set<String> fixed = new LinkedHashSet<>();
+        Set<String> swept = new LinkedHashSet<>();
+        OutputFormat silent = OutputFormatFactory.createFormatInstance(System.out, VerboseMode.SILENT);
+        for (BenchmarkListEntry entry : BenchmarkList.defaultList()
+            .find(silent, Collections.singletonList(include), Collections.<String>emptyList())) {
+            String pattern = '^' + Pattern.quote(entry.getUsername()) + '$';
+            if (entry.getThreads().hasValue()) {
+                fixed.add(pattern);
+            } else {
+                swept.add(pattern);
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        if (!fixed.isEmpty()) {
+            lines.addAll(run(newOptions(options, fixed, forks)));
+        }
+        if (!swept.isEmpty()) {
+            for (String threads : getOption(options, "threads", "1,4,16").split(",")) {
+                lines.addAll(run(newOptions(options, swept, forks).threads(Integer.parseInt(threads.trim()))));
+            }
+        }
+        writeLines(output, lines);
+        System.out.println("Results written to " + output.getAbsolutePath());
+
+        String baselinePath = options.get("baseline");
+        if (baselinePath == null) {
+            return;
+        }
+        File baseline = new File(baselinePath);
+        if (!baseline.exists()) {
+            writeLines(baseline, lines);
+            System.out.println("Baseline recorded to " + baseline.getAbsolutePath());
+            return;
+        }
+        List<String> regressions = compare(readLines(baseline), lines, tolerance);
+        if (regressions.isEmpty()) {
+            System.out.println("No regression compared with the baseline (tolerance=" + tolerance + ")");
+            return;
+        }
+        System.out.println("Regressions compared with the baseline (tolerance=" + tolerance + "):");
+        for (String regression : regressions) {
+            System.out.println("  " + regression);
+        }
+        System.exit(1);
+    }
+
+    private static ChainedOptionsBuilder newOptions(Map<String, String> options, Set<String> includes, int forks) {
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+            .forks(forks)
+            .addProfiler(GCProfiler.class);
+        for (String include : includes) {
+            builder.include(include);
+        }
+        if (options.containsKey("warmupIterations")) {
+            builder.warmupIterations(Integer.parseInt(options.get("warmupIterations")));
+        }
+        if (options.containsKey("iterations")) {
+            builder.measurementIterations(Integer.parseInt(options.get("iterations")));
+        }
+        return builder;
+    }
+
+    private static List<String> run(ChainedOptionsBuilder builder) throws RunnerException {
+        List<String> lines = new ArrayList<>();
+        for (RunResult result : new Runner(builder.build()).run()) {
+            lines.add(toLine(result));
+        }
+        return lines;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int idx = option.indexOf('=');
+            if (idx <= 0) {
+                throw new IllegalArgumentException("Invalid option (should be --key=value): " + arg);
+            }
+            options.put(option.substring(0, idx), option.substring(idx + 1));
+        }
+        return options;
+    }
+
+    private static String getOption(Map<String, String> options, String key, String defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    private static String toLine(RunResult result) {
+        BenchmarkParams params = result.getParams();
+        StringBuilder paramsValue = new StringBuilder();
+        for (String key : new TreeSet<>(params.getParamsKeys())) {
+            if (paramsValue.length() > 0) {
+                paramsValue.append(';');
+            }
+            paramsValue.append(key).append('=').append(params.getParam(key));
+        }
+        Result primary = result.getPrimaryResult();
+        double alloc = Double.NaN;
+        for (Map.Entry<String, Result> e : result.getSecondaryResults().entrySet()) {
+            if (e.getKey().endsWith(ALLOC_RATE_NORM)) {
+                alloc = e.getValue().getScore();
+            }
+        }
+        return params.getBenchmark() + ',' + paramsValue + ',' + params.getThreads() + ','
+            + params.getMode().shortLabel() + ',' + primary.getScore() + ',' + primary.getScoreError() + ','
+            + primary.getScoreUnit() + ',' + alloc;
+    }
+
+    /**
+     * Compare the results with the baseline. Throughput should not be lower, while the time and allocation
+     * should not be higher. Results absent in the baseline are ignored.
+     */
+    static List<String> compare(List<String> baselineLines, List<String> lines, double tolerance) {
+        Map<String, String[]> baseline = new LinkedHashMap<>();
+        for (String line : baselineLines) {
+            String[] columns = line.split(",", -1);
+            baseline.put(keyOf(columns), columns);
+        }
+        List<String> regressions = new ArrayList<>();
+        for (String line : lines) {
+            String[] columns = line.split(",", -1);
+            String[] base = baseline.get(keyOf(columns));
+            if (base == null) {
+                continue;
+            }
+            double score = Double.parseDouble(columns[4]);
+            double baseScore = Double.parseDouble(base[4]);
+            boolean throughput = "thrpt".equals(columns[3]);
+            if (throughput ? score < baseScore * (1 - tolerance) : score > baseScore * (1 + tolerance)) {
+                regressions.add(keyOf(columns) + ": score " + baseScore + " -> " + score + " " + columns[6]);
+            }
+            double alloc = Double.parseDouble(columns[7]);
+            double baseAlloc = Double.parseDouble(base[7]);
+            // One byte of slack, as the normalized allocation of allocation-free code is not exactly zero.
+            if (alloc > baseAlloc * (1 + tolerance) + 1) {
+                regressions.add(keyOf(columns) + ": allocation " + baseAlloc + " -> " + alloc + " B/op");
+            }
+        }
+        return regressions;
+    }
+
+    private static String keyOf(String[] columns) {
+        return columns[0] + '(' + columns[1] + ") threads=" + columns[2] + " mode=" + columns[3];
+    }
+
+    private static List<String> readLines(File file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !HEADER.equals(line)) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static void writeLines(File file, List<String> lines) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file), UTF_8))) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    private BenchmarkRunner() {}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ResponseTimeCircuitBreaker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the pass check and completion statistics of {@link ResponseTimeCircuitBreaker} and
+ * {@link ExceptionCircuitBreaker}, which are shared by all threads. The thresholds are never exceeded,
+ * so the breakers stay closed.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class CircuitBreakerBenchmark {
+
+    private static final String RESOURCE_NAME = "circuit-breaker-benchmark";
+
+    private CircuitBreaker responseTimeBreaker;
+    private CircuitBreaker exceptionBreaker;
+
+    /**
+     * The context and the entry of each thread, which the breakers read when requests complete.
+     */
+    @State(Scope.Thread)
+    public static class Invocation {
+
+        private Context context;
+        private Entry entry;
+
+        @Setup
+        public void enter() throws BlockException {
+            context = ContextUtil.enter("circuit-breaker-benchmark-context");
+            entry = SphU.entry(RESOURCE_NAME);
+        }
+
+        @TearDown
+        public void exit() {
+            entry.exit();
+            ContextUtil.exit();
+        }
+    }
+
+    @Setup
+    public void prepare() {
+        responseTimeBreaker = new ResponseTimeCircuitBreaker(new DegradeRule(RESOURCE_NAME)
+            .setGrade(RuleConstant.DEGRADE_GRADE_RT)
+            .setCount(Integer.MAX_VALUE)
+            .setSlowRatioThreshold(1.0d)
+            .setTimeWindow(10));
+        exceptionBreaker = new ExceptionCircuitBreaker(new DegradeRule(RESOURCE_NAME)
+            .setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO)
+            .setCount(1.0d)
+            .setTimeWindow(10));
+    }
+
+    private boolean invoke(CircuitBreaker breaker, Invocation invocation) {
+        if (breaker.tryPass(invocation.context)) {
+            breaker.onRequestComplete(invocation.context);
+            return true;
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean testResponseTimeCircuitBreaker(Invocation invocation) {
+        return invoke(responseTimeBreaker, invocation);
+    }
+
+    @Benchmark
+    public boolean testExceptionCircuitBreaker(Invocation invocation) {
+        return invoke(exceptionBreaker, invocation);
+    }
+}
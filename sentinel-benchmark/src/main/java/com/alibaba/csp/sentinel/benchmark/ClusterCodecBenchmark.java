@@ -0,0 +1,127 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.codec.DefaultRequestEntityDecoder;
+import com.alibaba.csp.sentinel.cluster.server.codec.DefaultResponseEntityWriter;
+import com.alibaba.csp.sentinel.cluster.server.init.DefaultClusterServerInitFunc;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the token server codec: decoding flow requests and writing flow responses,
+ * both single and batched, with pooled buffers as the Netty pipeline does.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ClusterCodecBenchmark {
+
+    /**
+     * Amount of requests in a batch frame.
+     */
+    @Param({"16"})
+    private int batchSize;
+
+    private final DefaultRequestEntityDecoder decoder = new DefaultRequestEntityDecoder();
+    private final DefaultResponseEntityWriter writer = new DefaultResponseEntityWriter();
+
+    private ByteBuf flowRequest;
+    private ByteBuf batchRequest;
+    private ByteBuf out;
+    private ClusterResponse<FlowTokenResponseData> flowResponse;
+    private ClusterResponse<BatchFlowTokenResponseData> batchResponse;
+
+    @Setup
+    public void prepare() throws Exception {
+        new DefaultClusterServerInitFunc().init();
+
+        flowRequest = PooledByteBufAllocator.DEFAULT.buffer();
+        flowRequest.writeInt(1).writeByte(ClusterConstants.MSG_TYPE_FLOW)
+            .writeLong(111L).writeInt(1).writeBoolean(false);
+        batchRequest = PooledByteBufAllocator.DEFAULT.buffer();
+        batchRequest.writeInt(2).writeByte(ClusterConstants.MSG_TYPE_FLOW_BATCH).writeShort(batchSize);
+        BatchFlowTokenResponseData batchData = new BatchFlowTokenResponseData(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batchRequest.writeLong(100L + i).writeInt(1).writeBoolean(false);
+            batchData.add(0, 100, 0);
+        }
+        out = PooledByteBufAllocator.DEFAULT.buffer();
+
+        flowResponse = new ClusterResponse<>(1, ClusterConstants.MSG_TYPE_FLOW, ClusterConstants.RESPONSE_STATUS_OK,
+            new FlowTokenResponseData().setRemainingCount(100).setWaitInMs(0));
+        batchResponse = new ClusterResponse<>(2, ClusterConstants.MSG_TYPE_FLOW_BATCH,
+            ClusterConstants.RESPONSE_STATUS_OK, batchData);
+    }
+
+    @TearDown
+    public void tearDown() {
+        flowRequest.release();
+        batchRequest.release();
+        out.release();
+    }
+
+    private ClusterRequest decode(ByteBuf request) {
+        // Read the same frame again.
+        request.readerIndex(0);
+        return decoder.decode(request);
+    }
+
+    @Benchmark
+    public ClusterRequest testDecodeFlowRequest() {
+        return decode(flowRequest);
+    }
+
+    @Benchmark
+    public ClusterRequest testDecodeBatchFlowRequest() {
+        return decode(batchRequest);
+    }
+
+    @Benchmark
+    public int testWriteFlowResponse() {
+        out.clear();
+        writer.writeTo(flowResponse, out);
+        return out.writerIndex();
+    }
+
+    @Benchmark
+    public int testWriteBatchFlowResponse() {
+        out.clear();
+        writer.writeTo(batchResponse, out);
+        return out.writerIndex();
+    }
+}
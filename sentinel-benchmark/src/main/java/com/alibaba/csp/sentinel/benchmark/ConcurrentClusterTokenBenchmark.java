@@ -0,0 +1,162 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.ConcurrentClusterFlowChecker;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for acquiring and releasing cluster concurrent tokens of one rule with
+ * {@link ConcurrentClusterFlowChecker}, compared with the former admission that locks the concurrency counter
+ * of the rule. Each thread acts as a client connection with its own address, under 8-64 connections.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ConcurrentClusterTokenBenchmark {
+
+    private static final String NAMESPACE = "benchmark";
+    private static final long FLOW_ID = 1001L;
+
+    /**
+     * The global concurrency threshold of the rule.
+     */
+    @Param({"32"})
+    private int count;
+
+    private FlowRule rule;
+
+    @State(Scope.Thread)
+    public static class Connection {
+
+        private static final AtomicInteger CONNECTION_COUNT = new AtomicInteger(0);
+
+        private String clientAddress;
+
+        @Setup
+        public void connect() {
+            clientAddress = "127.0.0.1:" + (40000 + CONNECTION_COUNT.incrementAndGet());
+        }
+    }
+
+    @Setup
+    public void prepare() {
+        FlowRule flowRule = new FlowRule("benchmark-resource")
+            .setCount(count)
+            .setGrade(RuleConstant.FLOW_GRADE_THREAD)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(FLOW_ID)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.singletonList(flowRule));
+        rule = ClusterFlowRuleManager.getFlowRuleById(FLOW_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.<FlowRule>emptyList());
+    }
+
+    private int acquireAndRelease(Connection connection) {
+        TokenResult result = ConcurrentClusterFlowChecker.acquireConcurrentToken(connection.clientAddress, rule, 1);
+        if (result.getStatus() == TokenResultStatus.OK) {
+            return ConcurrentClusterFlowChecker.releaseConcurrentToken(result.getTokenId()).getStatus();
+        }
+        return result.getStatus();
+    }
+
+    private int acquireAndReleaseLegacy(Connection connection) {
+        TokenResult result = LegacyConcurrentTokenAcquirer.acquireConcurrentToken(connection.clientAddress, rule, 1);
+        if (result.getStatus() == TokenResultStatus.OK) {
+            return ConcurrentClusterFlowChecker.releaseConcurrentToken(result.getTokenId()).getStatus();
+        }
+        return result.getStatus();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int testLegacy8Connections(Connection connection) {
+        return acquireAndReleaseLegacy(connection);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int test8Connections(Connection connection) {
+        return acquireAndRelease(connection);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int testLegacy16Connections(Connection connection) {
+        return acquireAndReleaseLegacy(connection);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public int test16Connections(Connection connection) {
+        return acquireAndRelease(connection);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public int testLegacy32Connections(Connection connection) {
+        return acquireAndReleaseLegacy(connection);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public int test32Connections(Connection connection) {
+        return acquireAndRelease(connection);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int testLegacy64Connections(Connection connection) {
+        return acquireAndReleaseLegacy(connection);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int test64Connections(Connection connection) {
+        return acquireAndRelease(connection);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for entering and exiting contexts with {@link ContextUtil}, cycling over a number of context names.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ContextBenchmark {
+
+    /**
+     * Amount of distinct context names.
+     */
+    @Param({"1", "100"})
+    private int contextCount;
+
+    private String[] names;
+
+    @State(Scope.Thread)
+    public static class NameCursor {
+        private int next;
+    }
+
+    @Setup
+    public void prepare() {
+        names = new String[contextCount];
+        for (int i = 0; i < contextCount; i++) {
+            names[i] = "context-benchmark-" + i;
+        }
+    }
+
+    private String nextName(NameCursor cursor) {
+        String name = names[cursor.next];
+        cursor.next = cursor.next + 1 == contextCount ? 0 : cursor.next + 1;
+        return name;
+    }
+
+    @Benchmark
+    public Context testEnterAndExit(NameCursor cursor) {
+        Context context = ContextUtil.enter(nextName(cursor));
+        ContextUtil.exit();
+        return context;
+    }
+
+    @Benchmark
+    public Context testEnterWithOriginAndExit(NameCursor cursor) {
+        Context context = ContextUtil.enter(nextName(cursor), "benchmark-origin");
+        ContextUtil.exit();
+        return context;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.DefaultController;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.WarmUpController;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link DefaultController} and {@link WarmUpController} checking against a shared node.
+ * Passed requests are recorded to the node as {@code FlowSlot} and {@code StatisticSlot} do.
+ * See {@link RateLimiterControllerBenchmark} for the rate limiter.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class FlowControllerBenchmark {
+
+    /**
+     * The QPS threshold. The low one makes most requests blocked, and the high one makes all of them passed.
+     */
+    @Param({"1000", "100000000"})
+    private double count;
+
+    private StatisticNode defaultNode;
+    private StatisticNode warmUpNode;
+    private TrafficShapingController defaultController;
+    private TrafficShapingController warmUpController;
+
+    @Setup
+    public void prepare() {
+        defaultNode = new StatisticNode();
+        warmUpNode = new StatisticNode();
+        defaultController = new DefaultController(count, RuleConstant.FLOW_GRADE_QPS);
+        warmUpController = new WarmUpController(count, 10);
+    }
+
+    private boolean check(TrafficShapingController controller, StatisticNode node) {
+        if (controller.canPass(node, 1)) {
+            node.addPassRequest(1);
+            return true;
+        }
+        node.increaseBlockQps(1);
+        return false;
+    }
+
+    @Benchmark
+    public boolean testDefaultController() {
+        return check(defaultController, defaultNode);
+    }
+
+    @Benchmark
+    public boolean testWarmUpController() {
+        return check(warmUpController, warmUpNode);
+    }
+}
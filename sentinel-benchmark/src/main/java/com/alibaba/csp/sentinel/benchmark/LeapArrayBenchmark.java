@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
+import com.alibaba.csp.sentinel.slots.statistic.metric.BucketLeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.metric.LockFreeBucketLeapArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the sliding window statistics: bucket rotation of {@link LeapArray}, increments of
+ * {@link MetricBucket} and the reads and writes of {@link ArrayMetric}. All threads share the same
+ * array, so running with more threads measures the contention.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class LeapArrayBenchmark {
+
+    private static final int SAMPLE_COUNT = 2;
+    private static final int INTERVAL_IN_MS = 1000;
+    private static final int WINDOW_LENGTH_IN_MS = INTERVAL_IN_MS / SAMPLE_COUNT;
+
+    @Param({"locking", "lockFree"})
+    private String leapArray;
+
+    private LeapArray<MetricBucket> array;
+    private ArrayMetric metric;
+    private final MetricBucket bucket = new MetricBucket();
+    /**
+     * A virtual clock shared by all threads, which moves forward by one window in each rotation.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    @Setup
+    public void prepare() {
+        array = newLeapArray();
+        metric = new ArrayMetric(newLeapArray());
+        clock.set(System.currentTimeMillis());
+    }
+
+    private LeapArray<MetricBucket> newLeapArray() {
+        if ("lockFree".equals(leapArray)) {
+            return new LockFreeBucketLeapArray(SAMPLE_COUNT, INTERVAL_IN_MS);
+        }
+        return new BucketLeapArray(SAMPLE_COUNT, INTERVAL_IN_MS);
+    }
+
+    @Benchmark
+    public WindowWrap<MetricBucket> testCurrentWindow() {
+        return array.currentWindow();
+    }
+
+    @Benchmark
+    public WindowWrap<MetricBucket> testRotateWindow() {
+        // Each call lands on a deprecated bucket, which has to be reset.
+        return array.currentWindow(clock.addAndGet(WINDOW_LENGTH_IN_MS));
+    }
+
+    @Benchmark
+    public MetricBucket testBucketAdd() {
+        return bucket.add(MetricEvent.PASS, 1);
+    }
+
+    @Benchmark
+    public void testMetricAddPass() {
+        metric.addPass(1);
+    }
+
+    @Benchmark
+    public long testMetricPass() {
+        return metric.pass();
+    }
+}
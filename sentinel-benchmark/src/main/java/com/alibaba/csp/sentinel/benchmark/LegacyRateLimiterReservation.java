@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * The reservation logic of the former {@code RateLimiterController} (a single {@link AtomicLong} timeline
+ * in milliseconds), without sleeping, used as the baseline of {@link RateLimiterControllerBenchmark}.
+ */
+class LegacyRateLimiterReservation {
+
+    private final int maxQueueingTimeMs;
+    private final double count;
+
+    private final AtomicLong latestPassedTime = new AtomicLong(-1);
+
+    LegacyRateLimiterReservation(int maxQueueingTimeMs, double count) {
+        this.maxQueueingTimeMs = maxQueueingTimeMs;
+        this.count = count;
+    }
+
+    long tryReserve(int acquireCount) {
+        long currentTime = TimeUtil.currentTimeMillis();
+        long costTime = Math.round(1.0 * (acquireCount) / count * 1000);
+        long expectedTime = costTime + latestPassedTime.get();
+
+        if (expectedTime <= currentTime) {
+            latestPassedTime.set(currentTime);
+            return 0;
+        }
+        long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
+        if (waitTime > maxQueueingTimeMs) {
+            return -1;
+        }
+        long oldTime = latestPassedTime.addAndGet(costTime);
+        waitTime = oldTime - TimeUtil.currentTimeMillis();
+        if (waitTime > maxQueueingTimeMs) {
+            latestPassedTime.addAndGet(-costTime);
+            return -1;
+        }
+        return Math.max(waitTime, 0);
+    }
+}
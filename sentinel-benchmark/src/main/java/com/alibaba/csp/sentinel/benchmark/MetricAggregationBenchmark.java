@@ -0,0 +1,124 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.metric.MetricBatch;
+import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.node.metric.MetricTimerListener;
+import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark for the per-second metric aggregation of {@link MetricTimerListener} over 1k-50k resources,
+ * comparing the pooled {@link MetricBatch} path with the former path that builds a map of new metric nodes for
+ * each resource and groups them in a {@code TreeMap}. Writing files is excluded.
+ * Run with {@code -prof gc} to compare the allocation rate.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class MetricAggregationBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    private int resourceCount;
+
+    private ArrayMetric[] metrics;
+    private String[] names;
+    private final MetricBatch batch = new MetricBatch();
+
+    @Setup
+    public void prepare() {
+        metrics = new ArrayMetric[resourceCount];
+        names = new String[resourceCount];
+        for (int i = 0; i < resourceCount; i++) {
+            metrics[i] = new ArrayMetric(60, 60 * 1000, false);
+            names[i] = "resource-" + i;
+        }
+    }
+
+    /**
+     * Record data in current second, so that the data won't be deprecated during the iteration.
+     */
+    @Setup(Level.Iteration)
+    public void record() {
+        for (int i = 0; i < resourceCount; i++) {
+            metrics[i].addPass(i % 100 + 1);
+            metrics[i].addSuccess(i % 100 + 1);
+            metrics[i].addRT(i % 50);
+        }
+    }
+
+    @Benchmark
+    public void testLegacyAggregation(Blackhole bh) {
+        Map<Long, List<MetricNode>> maps = new TreeMap<>();
+        for (int i = 0; i < resourceCount; i++) {
+            Map<Long, MetricNode> nodes = new ConcurrentHashMap<>();
+            for (MetricNode node : metrics[i].details()) {
+                if (node.getPassQps() > 0 || node.getBlockQps() > 0 || node.getSuccessQps() > 0
+                    || node.getExceptionQps() > 0 || node.getRt() > 0 || node.getOccupiedPassQps() > 0) {
+                    nodes.put(node.getTimestamp(), node);
+                }
+            }
+            for (Entry<Long, MetricNode> entry : nodes.entrySet()) {
+                MetricNode node = entry.getValue();
+                node.setResource(names[i]);
+                List<MetricNode> list = maps.get(entry.getKey());
+                if (list == null) {
+                    list = new ArrayList<>();
+                    maps.put(entry.getKey(), list);
+                }
+                list.add(node);
+            }
+        }
+        for (List<MetricNode> list : maps.values()) {
+            bh.consume(list);
+        }
+    }
+
+    @Benchmark
+    public void testBatchAggregation(Blackhole bh) {
+        batch.clear();
+        for (int i = 0; i < resourceCount; i++) {
+            batch.setResource(names[i], 0);
+            metrics[i].fillDetails(batch, -1, Long.MAX_VALUE);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            bh.consume(batch.metricsAt(i));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowChecker;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParameterMetricStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link ParamFlowChecker} checking the QPS of hot parameters, with the values of the parameter
+ * spread over a number of distinct keys.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class ParamFlowCheckerBenchmark {
+
+    private static final String RESOURCE_NAME = "param-flow-benchmark";
+
+    /**
+     * Amount of distinct values of the parameter.
+     */
+    @Param({"1", "1000", "100000"})
+    private int keyCount;
+
+    /**
+     * The QPS threshold of each value.
+     */
+    @Param({"10", "100000000"})
+    private double count;
+
+    private final ResourceWrapper resourceWrapper = new StringResourceWrapper(RESOURCE_NAME, EntryType.IN);
+    private ParamFlowRule rule;
+    private Long[] keys;
+
+    @State(Scope.Thread)
+    public static class KeyCursor {
+        private int next;
+    }
+
+    @Setup
+    public void prepare() {
+        ParamFlowRuleManager.loadRules(Collections.singletonList(new ParamFlowRule(RESOURCE_NAME)
+            .setGrade(RuleConstant.FLOW_GRADE_QPS)
+            .setParamIdx(0)
+            .setCount(count)));
+        rule = ParamFlowRuleManager.getRulesOfResource(RESOURCE_NAME).get(0);
+        ParameterMetricStorage.initParamMetricsFor(resourceWrapper, rule);
+        keys = new Long[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = (long)i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ParamFlowRuleManager.loadRules(Collections.<ParamFlowRule>emptyList());
+    }
+
+    @Benchmark
+    public boolean testPassCheck(KeyCursor cursor) {
+        Long key = keys[cursor.next];
+        cursor.next = cursor.next + 1 == keyCount ? 0 : cursor.next + 1;
+        return ParamFlowChecker.passCheck(resourceWrapper, rule, 1, key);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.RateLimiterController;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the leaky bucket reservation of {@link RateLimiterController} (without waiting),
+ * compared with the former single {@code AtomicLong} timeline under 1-64 threads contending one resource.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class RateLimiterControllerBenchmark {
+
+    @Param({"1000", "200000", "1000000"})
+    private double count;
+
+    @Param({"500"})
+    private int maxQueueingTimeMs;
+
+    private RateLimiterController controller;
+    private LegacyRateLimiterReservation legacy;
+    private final Node node = new StatisticNode();
+
+    @Setup
+    public void prepare() {
+        controller = new RateLimiterController(maxQueueingTimeMs, count);
+        legacy = new LegacyRateLimiterReservation(maxQueueingTimeMs, count);
+    }
+
+    private long reserve() {
+        return controller.tryReserve(node, 1, false);
+    }
+
+    private long reserveLegacy() {
+        return legacy.tryReserve(1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long testLegacySingleThread() {
+        return reserveLegacy();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long testSingleThread() {
+        return reserve();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long testLegacy4Threads() {
+        return reserveLegacy();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long test4Threads() {
+        return reserve();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long testLegacy16Threads() {
+        return reserveLegacy();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long test16Threads() {
+        return reserve();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long testLegacy64Threads() {
+        return reserveLegacy();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long test64Threads() {
+        return reserve();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRule;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.system.SystemRule;
+import com.alibaba.csp.sentinel.slots.system.SystemRuleManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the whole slot chain of an entry with the rule of one slot loaded, so that the cost of each
+ * checking slot can be compared with the chain without rules. The thresholds are never exceeded.
+ *
+ * @since 1.8.6
+ */
+@Warmup(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SlotChainBenchmark {
+
+    private static final String RESOURCE_NAME = "slot-chain-benchmark";
+    private static final String ORIGIN = "benchmark-origin";
+
+    @Param({"none", "flow", "degrade", "authority", "system", "paramFlow"})
+    private String rule;
+
+    @State(Scope.Thread)
+    public static class Caller {
+
+        @Setup
+        public void enter() {
+            ContextUtil.enter("slot-chain-benchmark-context", ORIGIN);
+        }
+
+        @TearDown
+        public void exit() {
+            ContextUtil.exit();
+        }
+    }
+
+    @Setup
+    public void prepare() {
+        if ("flow".equals(rule)) {
+            FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(RESOURCE_NAME)
+                .setGrade(RuleConstant.FLOW_GRADE_QPS)
+                .setCount(Integer.MAX_VALUE)));
+        } else if ("degrade".equals(rule)) {
+            DegradeRuleManager.loadRules(Collections.singletonList(new DegradeRule(RESOURCE_NAME)
+                .setGrade(RuleConstant.DEGRADE_GRADE_RT)
+                .setCount(Integer.MAX_VALUE)
+                .setSlowRatioThreshold(1.0d)
+                .setTimeWindow(10)));
+        } else if ("authority".equals(rule)) {
+            AuthorityRule authorityRule = new AuthorityRule();
+            authorityRule.setStrategy(RuleConstant.AUTHORITY_WHITE);
+            authorityRule.setResource(RESOURCE_NAME);
+            authorityRule.setLimitApp(ORIGIN);
+            AuthorityRuleManager.loadRules(Collections.singletonList(authorityRule));
+        } else if ("system".equals(rule)) {
+            SystemRule systemRule = new SystemRule();
+            systemRule.setQps(Integer.MAX_VALUE);
+            SystemRuleManager.loadRules(Collections.singletonList(systemRule));
+        } else if ("paramFlow".equals(rule)) {
+            ParamFlowRuleManager.loadRules(Collections.singletonList(new ParamFlowRule(RESOURCE_NAME)
+                .setGrade(RuleConstant.FLOW_GRADE_QPS)
+                .setParamIdx(0)
+                .setCount(Integer.MAX_VALUE)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        FlowRuleManager.loadRules(Collections.<FlowRule>emptyList());
+        DegradeRuleManager.loadRules(Collections.<DegradeRule>emptyList());
+        AuthorityRuleManager.loadRules(Collections.<AuthorityRule>emptyList());
+        SystemRuleManager.loadRules(Collections.<SystemRule>emptyList());
+        ParamFlowRuleManager.loadRules(Collections.<ParamFlowRule>emptyList());
+    }
+
+    @Benchmark
+    public boolean testEntryAndExit(Caller caller) {
+        Entry entry = null;
+        try {
+            entry = SphU.entry(RESOURCE_NAME, EntryType.IN, 1, "benchmark-param");
+            return true;
+        } catch (BlockException e) {
+            return false;
+        } finally {
+            if (entry != null) {
+                entry.exit(1, "benchmark-param");
+            }
+        }
+    }
+}
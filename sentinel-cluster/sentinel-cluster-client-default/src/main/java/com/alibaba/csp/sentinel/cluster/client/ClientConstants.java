@@ -24,6 +24,14 @@ public final class ClientConstants {
     public static final int TYPE_PING = 0;
     public static final int TYPE_FLOW = 1;
     public static final int TYPE_PARAM_FLOW = 2;
+    /**
+     * @since 1.8.6
+     */
+    public static final int TYPE_FLOW_LEASE = 5;
+    /**
+     * @since 1.8.6
+     */
+    public static final int TYPE_FLOW_BATCH = 6;
 
     public static final int CLIENT_STATUS_OFF = 0;
     public static final int CLIENT_STATUS_PENDING = 1;
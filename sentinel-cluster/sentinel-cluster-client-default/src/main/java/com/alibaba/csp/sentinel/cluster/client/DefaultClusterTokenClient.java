@@ -16,7 +16,13 @@
 package com.alibaba.csp.sentinel.cluster.client;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
@@ -33,8 +39,10 @@ import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
 import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.shard.TokenServerShardRing;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
  * Default implementation of {@link ClusterTokenClient}.
@@ -46,9 +54,18 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
 
     private ClusterTransportClient transportClient;
     private TokenServerDescriptor serverDescriptor;
+    /**
+     * Transport clients of sharded token servers (null if sharded mode is disabled).
+     */
+    private volatile ShardedClients shardedClients;
 
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
 
+    /**
+     * Token leases of cluster flow rules (flowId, lease).
+     */
+    private final ConcurrentMap<Long, TokenLease> leaseMap = new ConcurrentHashMap<>();
+
     public DefaultClusterTokenClient() {
         ClusterClientConfigManager.addServerChangeObserver(new ServerChangeObserver() {
             @Override
@@ -70,6 +87,15 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         if (transportClient != null) {
             return;
         }
+        List<String> shardServers = ClusterClientConfigManager.getShardServers();
+        if (shardServers != null) {
+            try {
+                applyShards(shardServers, ClusterClientConfigManager.getShardVirtualNodes());
+            } catch (Exception ex) {
+                RecordLog.warn("[DefaultClusterTokenClient] Failed to initialize new sharded token clients", ex);
+            }
+            return;
+        }
         String host = ClusterClientConfigManager.getServerHost();
         int port = ClusterClientConfigManager.getServerPort();
         if (StringUtil.isBlank(host) || port <= 0) {
@@ -86,13 +112,16 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
     }
 
     private void changeServer(/*@Valid*/ ClusterClientAssignConfig config) {
-        if (serverEqual(serverDescriptor, config)) {
+        if (ClusterClientConfigManager.isShardedAssignConfig(config)) {
+            changeShards(config);
+            return;
+        }
+        if (shardedClients == null && serverEqual(serverDescriptor, config)) {
             return;
         }
         try {
-            if (transportClient != null) {
-                transportClient.stop();
-            }
+            stopAllClients();
+            this.shardedClients = null;
             // Replace with new, even if the new client is not ready.
             this.transportClient = new NettyTransportClient(config.getServerHost(), config.getServerPort());
             this.serverDescriptor = new TokenServerDescriptor(config.getServerHost(), config.getServerPort());
@@ -103,10 +132,66 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    private void changeShards(/*@Valid*/ ClusterClientAssignConfig config) {
+        try {
+            ClusterTransportClient[] formerClients = getAllClients();
+            // Replace with new, even if the new clients are not ready.
+            applyShards(config.getShardServers(), ClusterClientConfigManager.getShardVirtualNodes(config));
+            for (ClusterTransportClient client : formerClients) {
+                client.stop();
+            }
+            startClientIfScheduled();
+        } catch (Exception ex) {
+            RecordLog.warn("[DefaultClusterTokenClient] Failed to change sharded remote token servers", ex);
+        }
+    }
+
+    private void applyShards(List<String> shardServers, int virtualNodes) {
+        TokenServerShardRing ring = TokenServerShardRing.of(shardServers, virtualNodes);
+        List<TokenServerDescriptor> servers = ring.getServers();
+        ClusterTransportClient[] clients = new ClusterTransportClient[servers.size()];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = new NettyTransportClient(servers.get(i).getHost(), servers.get(i).getPort());
+        }
+        this.shardedClients = new ShardedClients(ring, clients);
+        // The first shard represents the current server.
+        this.transportClient = clients[0];
+        this.serverDescriptor = servers.get(0);
+        RecordLog.info("[DefaultClusterTokenClient] New sharded clients created: {}", ring);
+    }
+
+    /**
+     * Get the transport client of the token server which owns the flow ID.
+     */
+    private ClusterTransportClient getTransportClient(long flowId) {
+        ShardedClients shards = shardedClients;
+        if (shards != null) {
+            return shards.clients[shards.ring.indexOf(flowId)];
+        }
+        return transportClient;
+    }
+
+    private ClusterTransportClient[] getAllClients() {
+        ShardedClients shards = shardedClients;
+        if (shards != null) {
+            return shards.clients;
+        }
+        ClusterTransportClient client = transportClient;
+        return client == null ? new ClusterTransportClient[0] : new ClusterTransportClient[] {client};
+    }
+
+    private void stopAllClients() throws Exception {
+        for (ClusterTransportClient client : getAllClients()) {
+            client.stop();
+        }
+    }
+
     private void startClientIfScheduled() throws Exception {
         if (shouldStart.get()) {
             if (transportClient != null) {
-                transportClient.start();
+                for (ClusterTransportClient client : getAllClients()) {
+                    client.start();
+                }
             } else {
                 RecordLog.warn("[DefaultClusterTokenClient] Cannot start transport client: client not created");
             }
@@ -115,9 +200,7 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
 
     private void stopClientIfStarted() throws Exception {
         if (shouldStart.compareAndSet(true, false)) {
-            if (transportClient != null) {
-                transportClient.stop();
-            }
+            stopAllClients();
         }
     }
 
@@ -138,7 +221,13 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         if (transportClient == null) {
             return ClientConstants.CLIENT_STATUS_OFF;
         }
-        return transportClient.isReady() ? ClientConstants.CLIENT_STATUS_STARTED : ClientConstants.CLIENT_STATUS_OFF;
+        // In sharded mode, the client is started only if all shards are ready.
+        for (ClusterTransportClient client : getAllClients()) {
+            if (!client.isReady()) {
+                return ClientConstants.CLIENT_STATUS_OFF;
+            }
+        }
+        return ClientConstants.CLIENT_STATUS_STARTED;
     }
 
     @Override
@@ -151,11 +240,80 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         if (notValidRequest(flowId, acquireCount)) {
             return badRequest();
         }
+        if (!prioritized && ClusterClientConfigManager.isLeaseEnabled()) {
+            TokenResult result = requestTokenFromLease(flowId, acquireCount);
+            if (result != null) {
+                return result;
+            }
+        }
         FlowRequestData data = new FlowRequestData().setCount(acquireCount)
             .setFlowId(flowId).setPriority(prioritized);
         ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
         try {
-            TokenResult result = sendTokenRequest(request);
+            TokenResult result = sendTokenRequest(flowId, request);
+            logForResult(result);
+            return result;
+        } catch (Exception ex) {
+            ClusterClientStatLogUtil.log(ex.getMessage());
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+    }
+
+    /**
+     * Serve the request with leased tokens, and renew the lease if it's used up or expired.
+     *
+     * @return the result, or null if the request should be sent to the token server as usual
+     */
+    private TokenResult requestTokenFromLease(Long flowId, int acquireCount) {
+        TokenLease lease = leaseMap.get(flowId);
+        if (lease == null) {
+            TokenLease newLease = new TokenLease();
+            lease = leaseMap.putIfAbsent(flowId, newLease);
+            if (lease == null) {
+                lease = newLease;
+            }
+        }
+        long currentTime = TimeUtil.currentTimeMillis();
+        if (lease.tryAcquire(acquireCount, currentTime)) {
+            return leasePassResult(lease);
+        }
+        // If another thread is renewing the lease, do not wait for it.
+        if (!lease.tryStartRenew()) {
+            return null;
+        }
+        try {
+            TokenResult leaseResult = requestTokenLease(flowId, lease.nextLeaseCount(acquireCount, currentTime));
+            int status = leaseResult.getStatus();
+            if (status == TokenResultStatus.OK) {
+                // The server reserves the tokens from when it grants them, so the lease starts no later than
+                // the request is sent, rather than when the response is received.
+                lease.renew(leaseResult.getRemaining(), leaseResult.getWaitInMs(), currentTime);
+                // The server may grant fewer tokens than requested.
+                return lease.tryAcquire(acquireCount, TimeUtil.currentTimeMillis()) ? leasePassResult(lease) : null;
+            }
+            // Other results indicate that lease is not available for now, so fall back to normal request.
+            return status == TokenResultStatus.BLOCKED ? leaseResult : null;
+        } finally {
+            lease.endRenew();
+        }
+    }
+
+    private TokenResult leasePassResult(TokenLease lease) {
+        return new TokenResult(TokenResultStatus.OK)
+            .setRemaining(lease.getRemaining())
+            .setWaitInMs(0);
+    }
+
+    @Override
+    public TokenResult requestTokenLease(Long flowId, int acquireCount) {
+        if (notValidRequest(flowId, acquireCount)) {
+            return badRequest();
+        }
+        FlowRequestData data = new FlowRequestData().setCount(acquireCount)
+            .setFlowId(flowId).setPriority(false);
+        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW_LEASE, data);
+        try {
+            TokenResult result = sendTokenRequest(flowId, request);
             logForResult(result);
             return result;
         } catch (Exception ex) {
@@ -164,6 +322,45 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
+    /**
+     * Get the token lease of provided flow rule. Package-private for test.
+     */
+    TokenLease getLease(Long flowId) {
+        return leaseMap.get(flowId);
+    }
+
+    @Override
+    public CompletableFuture<TokenResult> requestTokenAsync(Long flowId, int acquireCount, boolean prioritized) {
+        if (notValidRequest(flowId, acquireCount)) {
+            return CompletableFuture.completedFuture(badRequest());
+        }
+        ClusterTransportClient client = getTransportClient(flowId);
+        if (client == null) {
+            RecordLog.warn(
+                "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
+            return CompletableFuture.completedFuture(clientFail());
+        }
+        FlowRequestData data = new FlowRequestData().setCount(acquireCount)
+            .setFlowId(flowId).setPriority(prioritized);
+        ClusterRequest<FlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
+        return client.sendRequestAsync(request).handle(resultHandler);
+    }
+
+    private final BiFunction<ClusterResponse, Throwable, TokenResult> resultHandler
+        = new BiFunction<ClusterResponse, Throwable, TokenResult>() {
+        @Override
+        public TokenResult apply(ClusterResponse response, Throwable ex) {
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                ClusterClientStatLogUtil.log(cause.getMessage());
+                return clientFail();
+            }
+            TokenResult result = toTokenResult(response);
+            logForResult(result);
+            return result;
+        }
+    };
+
     @Override
     public TokenResult requestParamToken(Long flowId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(flowId, acquireCount) || params == null || params.isEmpty()) {
@@ -173,7 +370,7 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
             .setFlowId(flowId).setParams(params);
         ClusterRequest<ParamFlowRequestData> request = new ClusterRequest<>(ClusterConstants.MSG_TYPE_PARAM_FLOW, data);
         try {
-            TokenResult result = sendTokenRequest(request);
+            TokenResult result = sendTokenRequest(flowId, request);
             logForResult(result);
             return result;
         } catch (Exception ex) {
@@ -203,13 +400,17 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
         }
     }
 
-    private TokenResult sendTokenRequest(ClusterRequest request) throws Exception {
-        if (transportClient == null) {
+    private TokenResult sendTokenRequest(long flowId, ClusterRequest request) throws Exception {
+        ClusterTransportClient client = getTransportClient(flowId);
+        if (client == null) {
             RecordLog.warn(
                 "[DefaultClusterTokenClient] Client not created, please check your config for cluster client");
             return clientFail();
         }
-        ClusterResponse response = transportClient.sendRequest(request);
+        return toTokenResult(client.sendRequest(request));
+    }
+
+    private TokenResult toTokenResult(ClusterResponse response) {
         TokenResult result = new TokenResult(response.getStatus());
         if (response.getData() != null) {
             FlowTokenResponseData responseData = (FlowTokenResponseData)response.getData();
@@ -230,4 +431,18 @@ public class DefaultClusterTokenClient implements ClusterTokenClient {
     private TokenResult clientFail() {
         return new TokenResult(TokenResultStatus.FAIL);
     }
+
+    /**
+     * Shard ring and the transport clients of the servers, indexed in the same order as the ring servers.
+     */
+    private static final class ShardedClients {
+
+        private final TokenServerShardRing ring;
+        private final ClusterTransportClient[] clients;
+
+        private ShardedClients(TokenServerShardRing ring, ClusterTransportClient[] clients) {
+            this.ring = ring;
+            this.clients = clients;
+        }
+    }
 }
@@ -15,24 +15,35 @@
  */
 package com.alibaba.csp.sentinel.cluster.client;
 
-import java.util.AbstractMap.SimpleEntry;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
 import com.alibaba.csp.sentinel.cluster.ClusterTransportClient;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyRequestEncoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.netty.NettyResponseDecoder;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
 import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientHandler;
-import com.alibaba.csp.sentinel.cluster.client.handler.TokenClientPromiseHolder;
+import com.alibaba.csp.sentinel.cluster.client.handler.PendingRequestRing;
 import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
+import com.alibaba.csp.sentinel.cluster.netty.NettyTransportSupport;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.request.Request;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
 import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.util.AssertUtil;
@@ -44,16 +55,25 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.ChannelPromise;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
 
 /**
- * Netty transport client implementation for Sentinel cluster transport.
+ * <p>Netty transport client implementation for Sentinel cluster transport.</p>
+ * <p>
+ * Requests are pipelined: they are queued and written by the event loop, which flushes all requests queued
+ * meanwhile at once, so that concurrent requests share one write (and syscall) rather than
+ * each of them scheduling its own write and flush. Pending requests are tracked in a {@link PendingRequestRing}
+ * and completed by the responses in any order.
+ * </p>
+ * <p>
+ * If batch is enabled, the flow requests queued meanwhile are coalesced into batch frames
+ * ({@link ClusterConstants#MSG_TYPE_FLOW_BATCH}), which are evaluated by the token server in one pass.
+ * </p>
  *
  * @author Eric Zhao
  * @since 1.4.0
@@ -69,8 +89,8 @@ public class NettyTransportClient implements ClusterTransportClient {
     private final String host;
     private final int port;
 
-    private Channel channel;
-    private NioEventLoopGroup eventLoopGroup;
+    private volatile Channel channel;
+    private EventLoopGroup eventLoopGroup;
     private TokenClientHandler clientHandler;
 
     private final AtomicInteger idGenerator = new AtomicInteger(0);
@@ -79,6 +99,10 @@ public class NettyTransportClient implements ClusterTransportClient {
 
     private final AtomicBoolean shouldRetry = new AtomicBoolean(true);
 
+    private final PendingRequestRing pendingRequests = new PendingRequestRing();
+    private final Queue<ClusterRequest> writeQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
     public NettyTransportClient(String host, int port) {
         AssertUtil.assertNotBlank(host, "remote host cannot be blank");
         AssertUtil.isTrue(port > 0, "port should be positive");
@@ -87,17 +111,18 @@ public class NettyTransportClient implements ClusterTransportClient {
     }
 
     private Bootstrap initClientBootstrap() {
+        boolean epoll = useNativeTransport();
         Bootstrap b = new Bootstrap();
-        eventLoopGroup = new NioEventLoopGroup();
+        eventLoopGroup = NettyTransportSupport.newEventLoopGroup(0, epoll);
         b.group(eventLoopGroup)
-            .channel(NioSocketChannel.class)
+            .channel(NettyTransportSupport.socketChannelClass(epoll))
             .option(ChannelOption.TCP_NODELAY, true)
             .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ClusterClientConfigManager.getConnectTimeout())
             .handler(new ChannelInitializer<SocketChannel>() {
                 @Override
                 public void initChannel(SocketChannel ch) throws Exception {
-                    clientHandler = new TokenClientHandler(currentState, disconnectCallback);
+                    clientHandler = new TokenClientHandler(currentState, disconnectCallback, pendingRequests);
 
                     ChannelPipeline pipeline = ch.pipeline();
                     pipeline.addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
@@ -111,6 +136,18 @@ public class NettyTransportClient implements ClusterTransportClient {
         return b;
     }
 
+    private boolean useNativeTransport() {
+        if (!ClusterClientConfigManager.isNativeTransport()) {
+            return false;
+        }
+        if (!NettyTransportSupport.isEpollAvailable()) {
+            RecordLog.warn("[NettyTransportClient] Native epoll transport is unavailable, using NIO transport instead",
+                NettyTransportSupport.getEpollUnavailabilityCause());
+            return false;
+        }
+        return true;
+    }
+
     private void connect(Bootstrap b) {
         if (currentState.compareAndSet(ClientConstants.CLIENT_STATUS_OFF, ClientConstants.CLIENT_STATUS_PENDING)) {
             b.connect(host, port)
@@ -212,30 +249,206 @@ public class NettyTransportClient implements ClusterTransportClient {
         if (!validRequest(request)) {
             throw new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST);
         }
-        int xid = getCurrentId();
+        CompletableFuture<ClusterResponse> future = send(request);
         try {
-            request.setId(xid);
+            return future.get(ClusterClientConfigManager.getRequestTimeout(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            pendingRequests.fail(request.getId(), ex);
+            throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception)cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Send the request without blocking. The returned future completes on the I/O thread, so dependent
+     * actions of the future should not block. The future completes exceptionally with
+     * {@link SentinelClusterException} if the request times out or cannot be sent.
+     *
+     * @param request Sentinel cluster request
+     * @return future of the response
+     * @since 1.8.6
+     */
+    @Override
+    public CompletableFuture<ClusterResponse> sendRequestAsync(ClusterRequest request) {
+        if (!isReady()) {
+            return failedFuture(new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+        }
+        if (!validRequest(request)) {
+            return failedFuture(new SentinelClusterException(ClusterErrorMessages.BAD_REQUEST));
+        }
+        CompletableFuture<ClusterResponse> future = send(request);
+        Channel ch = channel;
+        if (!future.isDone() && ch != null) {
+            scheduleTimeout(ch, request.getId(), future);
+        }
+        return future;
+    }
+
+    private CompletableFuture<ClusterResponse> send(ClusterRequest request) {
+        int xid = getCurrentId();
+        request.setId(xid);
+        CompletableFuture<ClusterResponse> future = pendingRequests.register(xid);
+        if (future == null) {
+            return failedFuture(new SentinelClusterException(ClusterErrorMessages.TOO_MANY_REQUESTS));
+        }
+        Channel ch = channel;
+        if (ch == null) {
+            pendingRequests.fail(xid, new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+            return future;
+        }
+        writeQueue.offer(request);
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                ch.eventLoop().execute(flushTask);
+            } catch (Exception ex) {
+                // The event loop has been shut down.
+                flushScheduled.set(false);
+                failQueuedRequests();
+            }
+        }
+        return future;
+    }
 
-            channel.writeAndFlush(request);
+    /**
+     * Write all queued requests and flush them at once.
+     */
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushScheduled.set(false);
+            Channel ch = channel;
+            if (ch == null || !ch.isActive()) {
+                failQueuedRequests();
+                return;
+            }
+            boolean batchEnabled = ClusterClientConfigManager.isBatchEnabled();
+            FlowRequestBatch batch = null;
+            ClusterRequest request;
+            while ((request = writeQueue.poll()) != null) {
+                if (batchEnabled && request.getType() == ClusterConstants.MSG_TYPE_FLOW
+                    && request.getData() instanceof FlowRequestData) {
+                    if (batch == null) {
+                        batch = new FlowRequestBatch();
+                    }
+                    batch.add(request);
+                    if (batch.isFull()) {
+                        writeBatch(ch, batch);
+                        batch = null;
+                    }
+                } else {
+                    ch.write(request, ch.voidPromise());
+                }
+            }
+            if (batch != null) {
+                writeBatch(ch, batch);
+            }
+            ch.flush();
+        }
+    };
 
-            ChannelPromise promise = channel.newPromise();
-            TokenClientPromiseHolder.putPromise(xid, promise);
+    /**
+     * Write the coalesced flow requests as one batch frame. The batch has its own request ID, and its response
+     * is split into the responses of the flow requests, which are still tracked (and timed out) by their own IDs.
+     */
+    private void writeBatch(Channel ch, FlowRequestBatch batch) {
+        if (batch.size() > 1) {
+            int xid = getCurrentId();
+            CompletableFuture<ClusterResponse> future = pendingRequests.register(xid);
+            if (future != null) {
+                future.whenComplete(batch);
+                ch.write(new ClusterRequest<>(xid, ClusterConstants.MSG_TYPE_FLOW_BATCH, batch.data), ch.voidPromise());
+                scheduleTimeout(ch, xid, future);
+                return;
+            }
+        }
+        // Send the requests respectively if the batch cannot be registered.
+        for (int i = 0; i < batch.size(); i++) {
+            ch.write(batch.requests[i], ch.voidPromise());
+        }
+    }
 
-            if (!promise.await(ClusterClientConfigManager.getRequestTimeout())) {
-                throw new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT);
+    /**
+     * Fail the request if it is not completed in time. The timeout task is cancelled once the request completes,
+     * so that completed requests do not pile up in the scheduled task queue of the event loop.
+     */
+    private void scheduleTimeout(Channel ch, final int xid, CompletableFuture<ClusterResponse> future) {
+        final ScheduledFuture<?> timeout = ch.eventLoop().schedule(new Runnable() {
+            @Override
+            public void run() {
+                pendingRequests.fail(xid, new SentinelClusterException(ClusterErrorMessages.REQUEST_TIME_OUT));
             }
+        }, ClusterClientConfigManager.getRequestTimeout(), TimeUnit.MILLISECONDS);
+        future.whenComplete(new BiConsumer<ClusterResponse, Throwable>() {
+            @Override
+            public void accept(ClusterResponse response, Throwable ex) {
+                timeout.cancel(false);
+            }
+        });
+    }
 
-            SimpleEntry<ChannelPromise, ClusterResponse> entry = TokenClientPromiseHolder.getEntry(xid);
-            if (entry == null || entry.getValue() == null) {
-                // Should not go through here.
-                throw new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
+    /**
+     * Flow requests coalesced into a batch frame.
+     */
+    private final class FlowRequestBatch implements BiConsumer<ClusterResponse, Throwable> {
+
+        private final BatchFlowRequestData data = new BatchFlowRequestData();
+        private final ClusterRequest[] requests = new ClusterRequest[BatchFlowRequestData.MAX_BATCH_SIZE];
+
+        void add(ClusterRequest request) {
+            FlowRequestData flowData = (FlowRequestData)request.getData();
+            requests[data.size()] = request;
+            data.add(flowData.getFlowId(), flowData.getCount(), flowData.isPriority());
+        }
+
+        int size() {
+            return data.size();
+        }
+
+        boolean isFull() {
+            return data.isFull();
+        }
+
+        @Override
+        public void accept(ClusterResponse response, Throwable ex) {
+            int size = data.size();
+            Object responseData = response == null ? null : response.getData();
+            if (ex != null || !(responseData instanceof BatchFlowTokenResponseData)
+                || ((BatchFlowTokenResponseData)responseData).size() != size) {
+                Throwable cause = ex != null ? ex : new SentinelClusterException(ClusterErrorMessages.UNEXPECTED_STATUS);
+                for (int i = 0; i < size; i++) {
+                    pendingRequests.fail(requests[i].getId(), cause);
+                }
+                return;
+            }
+            BatchFlowTokenResponseData results = (BatchFlowTokenResponseData)responseData;
+            for (int i = 0; i < size; i++) {
+                int xid = requests[i].getId();
+                pendingRequests.complete(xid, new ClusterResponse<>(xid, ClusterConstants.MSG_TYPE_FLOW,
+                    results.getStatus(i), new FlowTokenResponseData()
+                    .setRemainingCount(results.getRemainingCount(i))
+                    .setWaitInMs(results.getWaitInMs(i))));
             }
-            return entry.getValue();
-        } finally {
-            TokenClientPromiseHolder.remove(xid);
         }
     }
 
+    private void failQueuedRequests() {
+        ClusterRequest request;
+        while ((request = writeQueue.poll()) != null) {
+            pendingRequests.fail(request.getId(), new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
+        }
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable ex) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+
     private int getCurrentId() {
         int pre, next;
         do {
@@ -245,28 +458,6 @@ public class NettyTransportClient implements ClusterTransportClient {
         return next;
     }
 
-    /*public CompletableFuture<ClusterResponse> sendRequestAsync(ClusterRequest request) {
-        // Uncomment this when min target JDK is 1.8.
-        if (!validRequest(request)) {
-            return CompletableFuture.failedFuture(new IllegalArgumentException("Bad request"));
-        }
-        int xid = getCurrentId();
-        request.setId(xid);
-
-        CompletableFuture<ClusterResponse> future = new CompletableFuture<>();
-        channel.writeAndFlush(request)
-            .addListener(f -> {
-                if (f.isSuccess()) {
-                    future.complete(someResult);
-                } else if (f.cause() != null) {
-                    future.completeExceptionally(f.cause());
-                } else {
-                    future.cancel(false);
-                }
-            });
-        return future;
-    }*/
-
     private static final int MIN_ID = 1;
     private static final int MAX_ID = 999_999_999;
 }
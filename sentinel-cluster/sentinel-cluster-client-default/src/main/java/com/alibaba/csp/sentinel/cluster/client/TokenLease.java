@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Tokens leased from the token server for a cluster flow rule, which are served locally until used up
+ * or the lease expires.</p>
+ * <p>
+ * The size of the next lease is adapted to the QPS share of the client observed in current lease:
+ * the tokens consumed in current lease are projected over a whole lease time, and the size is allowed
+ * to grow at most twice per lease to avoid a burst of reservation on the server.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+final class TokenLease {
+
+    static final int INITIAL_LEASE_COUNT = 4;
+    static final int MAX_LEASE_COUNT = 10000;
+
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicBoolean renewing = new AtomicBoolean(false);
+
+    private volatile long startTime;
+    private volatile long expireTime;
+    private volatile int grantedCount;
+
+    boolean tryAcquire(int acquireCount, long currentTime) {
+        if (currentTime >= expireTime) {
+            return false;
+        }
+        while (true) {
+            int current = remaining.get();
+            if (current < acquireCount) {
+                return false;
+            }
+            if (remaining.compareAndSet(current, current - acquireCount)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Only one thread can renew the lease at a time.
+     *
+     * @return true if current thread should renew the lease
+     */
+    boolean tryStartRenew() {
+        return renewing.compareAndSet(false, true);
+    }
+
+    void endRenew() {
+        renewing.set(false);
+    }
+
+    void renew(int grantedCount, int leaseTimeInMs, long currentTime) {
+        this.startTime = currentTime;
+        this.grantedCount = grantedCount;
+        remaining.set(grantedCount);
+        this.expireTime = currentTime + leaseTimeInMs;
+    }
+
+    int nextLeaseCount(int acquireCount, long currentTime) {
+        int granted = grantedCount;
+        long leaseTime = expireTime - startTime;
+        if (granted <= 0 || leaseTime <= 0) {
+            return Math.max(acquireCount, INITIAL_LEASE_COUNT);
+        }
+        int used = granted - Math.max(remaining.get(), 0);
+        long elapsed = Math.max(1, Math.min(currentTime, expireTime) - startTime);
+        long projected = (used * leaseTime + elapsed - 1) / elapsed;
+        long next = Math.min(projected, Math.min(2L * granted, MAX_LEASE_COUNT));
+        return (int) Math.max(next, Math.max(acquireCount, 1));
+    }
+
+    int getRemaining() {
+        return remaining.get();
+    }
+}
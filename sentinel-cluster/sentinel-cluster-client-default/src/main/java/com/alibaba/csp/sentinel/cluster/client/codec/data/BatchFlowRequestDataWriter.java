@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityWriter;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * +-------------------+--------------+----------+----------------+---------------+------------------+-----+
+ * | RequestID(4 byte) | Type(1 byte) | Size (2) | FlowID(8 byte) | Count(4 byte) | PriorityFlag (1) | ... |
+ * +-------------------+--------------+----------+----------------+---------------+------------------+-----+
+ *
+ * @since 1.8.6
+ */
+public class BatchFlowRequestDataWriter implements EntityWriter<BatchFlowRequestData, ByteBuf> {
+
+    @Override
+    public void writeTo(BatchFlowRequestData entity, ByteBuf target) {
+        int size = entity.size();
+        target.writeShort(size);
+        for (int i = 0; i < size; i++) {
+            target.writeLong(entity.getFlowId(i));
+            target.writeInt(entity.getCount(i));
+            target.writeBoolean(entity.isPriority(i));
+        }
+    }
+}
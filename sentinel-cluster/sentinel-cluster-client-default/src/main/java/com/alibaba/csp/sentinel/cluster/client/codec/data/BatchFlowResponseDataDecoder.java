@@ -0,0 +1,52 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Decoder for {@link BatchFlowTokenResponseData}, which reads the results from the frame buffer directly.
+ * The layout:
+ * <pre>
+ * | size (2) | status (1) | remaining count (4) | wait in ms (4) | ... (repeated for each entry)
+ * </pre>
+ *
+ * @since 1.8.6
+ */
+public class BatchFlowResponseDataDecoder implements EntityDecoder<ByteBuf, BatchFlowTokenResponseData> {
+
+    private static final int ENTRY_BYTES = 9;
+
+    @Override
+    public BatchFlowTokenResponseData decode(ByteBuf source) {
+        if (source.readableBytes() < 2) {
+            return null;
+        }
+        int size = source.readUnsignedShort();
+        if (size <= 0 || size > BatchFlowRequestData.MAX_BATCH_SIZE || source.readableBytes() < size * ENTRY_BYTES) {
+            return null;
+        }
+        BatchFlowTokenResponseData data = new BatchFlowTokenResponseData(size);
+        for (int i = 0; i < size; i++) {
+            data.add(source.readByte(), source.readInt(), source.readInt());
+        }
+        return data;
+    }
+}
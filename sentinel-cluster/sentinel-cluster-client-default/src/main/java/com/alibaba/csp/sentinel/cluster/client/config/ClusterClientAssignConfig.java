@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.client.config;
 
+import java.util.List;
+
 /**
  * @author Eric Zhao
  * @since 1.4.1
@@ -24,6 +26,20 @@ public class ClusterClientAssignConfig {
     private String serverHost;
     private Integer serverPort;
 
+    /**
+     * Addresses of sharded token servers in {@code host:port} format. If present, the requests will be
+     * routed to the owner of the flow ID, instead of the single server.
+     *
+     * @since 1.8.6
+     */
+    private List<String> shardServers;
+    /**
+     * Amount of virtual nodes of each shard, which should be the same as the token servers.
+     *
+     * @since 1.8.6
+     */
+    private Integer shardVirtualNodes;
+
     public ClusterClientAssignConfig() {}
 
     public ClusterClientAssignConfig(String serverHost, Integer serverPort) {
@@ -49,11 +65,31 @@ public class ClusterClientAssignConfig {
         return this;
     }
 
+    public List<String> getShardServers() {
+        return shardServers;
+    }
+
+    public ClusterClientAssignConfig setShardServers(List<String> shardServers) {
+        this.shardServers = shardServers;
+        return this;
+    }
+
+    public Integer getShardVirtualNodes() {
+        return shardVirtualNodes;
+    }
+
+    public ClusterClientAssignConfig setShardVirtualNodes(Integer shardVirtualNodes) {
+        this.shardVirtualNodes = shardVirtualNodes;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientAssignConfig{" +
             "serverHost='" + serverHost + '\'' +
             ", serverPort=" + serverPort +
+            ", shardServers=" + shardServers +
+            ", shardVirtualNodes=" + shardVirtualNodes +
             '}';
     }
 }
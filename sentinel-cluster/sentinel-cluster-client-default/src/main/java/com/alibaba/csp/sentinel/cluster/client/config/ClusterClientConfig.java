@@ -22,6 +22,25 @@ package com.alibaba.csp.sentinel.cluster.client.config;
 public class ClusterClientConfig {
 
     private Integer requestTimeout;
+    /**
+     * Whether to lease tokens from the token server and serve them locally (for non-prioritized requests).
+     * Only {@code requestToken} is served from leases, while {@code requestTokenAsync} always asks the server.
+     *
+     * @since 1.8.6
+     */
+    private Boolean leaseEnabled;
+    /**
+     * Whether to coalesce the flow requests queued meanwhile into batch frames.
+     *
+     * @since 1.8.6
+     */
+    private Boolean batchEnabled;
+    /**
+     * Whether to use the native epoll transport of Netty (on Linux, if available) for new connections.
+     *
+     * @since 1.8.6
+     */
+    private Boolean nativeTransport;
 
     public Integer getRequestTimeout() {
         return requestTimeout;
@@ -32,10 +51,40 @@ public class ClusterClientConfig {
         return this;
     }
 
+    public Boolean getLeaseEnabled() {
+        return leaseEnabled;
+    }
+
+    public ClusterClientConfig setLeaseEnabled(Boolean leaseEnabled) {
+        this.leaseEnabled = leaseEnabled;
+        return this;
+    }
+
+    public Boolean getBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public ClusterClientConfig setBatchEnabled(Boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+        return this;
+    }
+
+    public Boolean getNativeTransport() {
+        return nativeTransport;
+    }
+
+    public ClusterClientConfig setNativeTransport(Boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ClusterClientConfig{" +
             "requestTimeout=" + requestTimeout +
+            ", leaseEnabled=" + leaseEnabled +
+            ", batchEnabled=" + batchEnabled +
+            ", nativeTransport=" + nativeTransport +
             '}';
     }
 }
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
+import com.alibaba.csp.sentinel.cluster.shard.TokenServerShardRing;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
@@ -37,9 +39,17 @@ public final class ClusterClientConfigManager {
      */
     private static volatile String serverHost = null;
     private static volatile int serverPort = ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT;
+    /**
+     * Shard map of token servers (null if sharded mode is disabled).
+     */
+    private static volatile List<String> shardServers = null;
+    private static volatile int shardVirtualNodes = TokenServerShardRing.DEFAULT_VIRTUAL_NODES;
 
     private static volatile int requestTimeout = ClusterConstants.DEFAULT_REQUEST_TIMEOUT;
     private static volatile int connectTimeout = ClusterConstants.DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private static volatile boolean leaseEnabled = false;
+    private static volatile boolean batchEnabled = false;
+    private static volatile boolean nativeTransport = false;
 
     private static final PropertyListener<ClusterClientConfig> CONFIG_PROPERTY_LISTENER
         = new ClientConfigPropertyListener();
@@ -127,7 +137,7 @@ public final class ClusterClientConfigManager {
                     "[ClusterClientConfigManager] Invalid cluster client assign config, ignoring: " + config);
                 return;
             }
-            if (serverPort == config.getServerPort() && config.getServerHost().equals(serverHost)) {
+            if (isSameAssignment(config)) {
                 return;
             }
 
@@ -170,11 +180,39 @@ public final class ClusterClientConfigManager {
         if (config.getRequestTimeout() != requestTimeout) {
             requestTimeout = config.getRequestTimeout();
         }
+        if (config.getLeaseEnabled() != null) {
+            leaseEnabled = config.getLeaseEnabled();
+        }
+        if (config.getBatchEnabled() != null) {
+            batchEnabled = config.getBatchEnabled();
+        }
+        if (config.getNativeTransport() != null) {
+            nativeTransport = config.getNativeTransport();
+        }
+    }
+
+    private static boolean isSameAssignment(/*@Valid*/ ClusterClientAssignConfig config) {
+        if (isShardedAssignConfig(config)) {
+            return config.getShardServers().equals(shardServers)
+                && getShardVirtualNodes(config) == shardVirtualNodes;
+        }
+        return shardServers == null && serverPort == config.getServerPort()
+            && config.getServerHost().equals(serverHost);
     }
 
     private static void updateServerAssignment(/*@Valid*/ ClusterClientAssignConfig config) {
         String host = config.getServerHost();
-        int port = config.getServerPort();
+        int port = config.getServerPort() == null ? 0 : config.getServerPort();
+        List<String> shards = null;
+        if (isShardedAssignConfig(config)) {
+            shards = new ArrayList<>(config.getShardServers());
+            if (StringUtil.isBlank(host) || port <= 0) {
+                // The first shard represents the assigned server.
+                TokenServerDescriptor first = TokenServerShardRing.parseAddress(shards.get(0));
+                host = first.getHost();
+                port = first.getPort();
+            }
+        }
 
         for (ServerChangeObserver observer : SERVER_CHANGE_OBSERVERS) {
             observer.onRemoteServerChange(config);
@@ -182,14 +220,47 @@ public final class ClusterClientConfigManager {
 
         serverHost = host;
         serverPort = port;
+        shardVirtualNodes = getShardVirtualNodes(config);
+        shardServers = shards;
     }
 
     public static boolean isValidAssignConfig(ClusterClientAssignConfig config) {
-        return config != null && StringUtil.isNotBlank(config.getServerHost())
+        if (config == null) {
+            return false;
+        }
+        if (isShardedAssignConfig(config)) {
+            try {
+                TokenServerShardRing.of(config.getShardServers(), getShardVirtualNodes(config));
+                return true;
+            } catch (IllegalArgumentException ex) {
+                return false;
+            }
+        }
+        return StringUtil.isNotBlank(config.getServerHost())
+            && config.getServerPort() != null
             && config.getServerPort() > 0
             && config.getServerPort() <= 65535;
     }
 
+    /**
+     * @param config cluster client assign config
+     * @return whether the config assigns the client to sharded token servers
+     * @since 1.8.6
+     */
+    public static boolean isShardedAssignConfig(ClusterClientAssignConfig config) {
+        return config != null && config.getShardServers() != null && !config.getShardServers().isEmpty();
+    }
+
+    /**
+     * @param config cluster client assign config
+     * @return amount of virtual nodes of each shard in the config
+     * @since 1.8.6
+     */
+    public static int getShardVirtualNodes(ClusterClientAssignConfig config) {
+        Integer virtualNodes = config.getShardVirtualNodes();
+        return virtualNodes == null || virtualNodes <= 0 ? TokenServerShardRing.DEFAULT_VIRTUAL_NODES : virtualNodes;
+    }
+
     public static boolean isValidClientConfig(ClusterClientConfig config) {
         return config != null && config.getRequestTimeout() > 0;
     }
@@ -202,6 +273,22 @@ public final class ClusterClientConfigManager {
         return serverPort;
     }
 
+    /**
+     * @return addresses of sharded token servers, or null if sharded mode is disabled
+     * @since 1.8.6
+     */
+    public static List<String> getShardServers() {
+        return shardServers;
+    }
+
+    /**
+     * @return amount of virtual nodes of each shard
+     * @since 1.8.6
+     */
+    public static int getShardVirtualNodes() {
+        return shardVirtualNodes;
+    }
+
     public static int getRequestTimeout() {
         return requestTimeout;
     }
@@ -210,5 +297,29 @@ public final class ClusterClientConfigManager {
         return connectTimeout;
     }
 
+    /**
+     * @return whether token lease is enabled
+     * @since 1.8.6
+     */
+    public static boolean isLeaseEnabled() {
+        return leaseEnabled;
+    }
+
+    /**
+     * @return whether flow requests should be coalesced into batch frames
+     * @since 1.8.6
+     */
+    public static boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    /**
+     * @return whether new connections should use the native epoll transport
+     * @since 1.8.6
+     */
+    public static boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
     private ClusterClientConfigManager() {}
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>
+ * Preallocated ring of pending requests keyed by xid (the slot of a request is {@code xid & (capacity - 1)}),
+ * which replaces the map of promises. As xids are generated sequentially, a slot is reused only after
+ * {@code capacity} later requests, so a request is rejected (rather than overriding a pending one)
+ * only if there are too many pending requests.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class PendingRequestRing {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private final AtomicReferenceArray<PendingRequest> slots;
+    private final int mask;
+
+    public PendingRequestRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PendingRequestRing(int capacity) {
+        AssertUtil.isTrue(capacity > 0 && (capacity & (capacity - 1)) == 0, "capacity should be a power of 2");
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Register a pending request.
+     *
+     * @param xid id of the request
+     * @return future of the response, or null if the slot is occupied by another pending request
+     */
+    public CompletableFuture<ClusterResponse> register(int xid) {
+        PendingRequest request = new PendingRequest(xid);
+        return slots.compareAndSet(xid & mask, null, request) ? request.future : null;
+    }
+
+    /**
+     * Complete the pending request with the response.
+     *
+     * @param xid      id of the request
+     * @param response response of the request
+     * @return true if the pending request exists and is completed
+     */
+    public boolean complete(int xid, ClusterResponse response) {
+        PendingRequest request = remove(xid);
+        return request != null && request.future.complete(response);
+    }
+
+    /**
+     * Complete the pending request exceptionally.
+     *
+     * @param xid id of the request
+     * @param ex  the error
+     * @return true if the pending request exists and is completed
+     */
+    public boolean fail(int xid, Throwable ex) {
+        PendingRequest request = remove(xid);
+        return request != null && request.future.completeExceptionally(ex);
+    }
+
+    /**
+     * Complete all pending requests exceptionally (e.g. when the connection is lost).
+     *
+     * @param ex the error
+     */
+    public void failAll(Throwable ex) {
+        for (int i = 0; i < slots.length(); i++) {
+            PendingRequest request = slots.getAndSet(i, null);
+            if (request != null) {
+                request.future.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private PendingRequest remove(int xid) {
+        int slot = xid & mask;
+        PendingRequest request = slots.get(slot);
+        if (request != null && request.xid == xid && slots.compareAndSet(slot, request, null)) {
+            return request;
+        }
+        return null;
+    }
+
+    /**
+     * @return amount of pending requests (for test)
+     */
+    int pendingCount() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static final class PendingRequest {
+        private final int xid;
+        private final CompletableFuture<ClusterResponse> future = new CompletableFuture<>();
+
+        private PendingRequest(int xid) {
+            this.xid = xid;
+        }
+    }
+}
@@ -19,7 +19,9 @@ import java.net.InetSocketAddress;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.ClusterErrorMessages;
 import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
+import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
 import com.alibaba.csp.sentinel.cluster.registry.ConfigSupplierRegistry;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
@@ -38,10 +40,13 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
 
     private final AtomicInteger currentState;
     private final Runnable disconnectCallback;
+    private final PendingRequestRing pendingRequests;
 
-    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback) {
+    public TokenClientHandler(AtomicInteger currentState, Runnable disconnectCallback,
+                              PendingRequestRing pendingRequests) {
         this.currentState = currentState;
         this.disconnectCallback = disconnectCallback;
+        this.pendingRequests = pendingRequests;
     }
 
     @Override
@@ -61,7 +66,7 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
                 return;
             }
 
-            TokenClientPromiseHolder.completePromise(response.getId(), response);
+            pendingRequests.complete(response.getId(), response);
         }
     }
 
@@ -97,6 +102,8 @@ public class TokenClientHandler extends ChannelInboundHandlerAdapter {
     public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
         RecordLog.info("[TokenClientHandler] Client channel unregistered, remote address: {}", getRemoteAddress(ctx));
         currentState.set(ClientConstants.CLIENT_STATUS_OFF);
+        // Responses of pending requests will never arrive.
+        pendingRequests.failAll(new SentinelClusterException(ClusterErrorMessages.CLIENT_NOT_READY));
 
         disconnectCallback.run();
     }
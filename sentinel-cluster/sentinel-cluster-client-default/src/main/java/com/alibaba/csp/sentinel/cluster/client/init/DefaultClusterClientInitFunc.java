@@ -16,6 +16,8 @@
 package com.alibaba.csp.sentinel.cluster.client.init;
 
 import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.BatchFlowRequestDataWriter;
+import com.alibaba.csp.sentinel.cluster.client.codec.data.BatchFlowResponseDataDecoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.data.FlowRequestDataWriter;
 import com.alibaba.csp.sentinel.cluster.client.codec.data.FlowResponseDataDecoder;
 import com.alibaba.csp.sentinel.cluster.client.codec.data.ParamFlowRequestDataWriter;
@@ -43,6 +45,8 @@ public class DefaultClusterClientInitFunc implements InitFunc {
     private void initDefaultEntityWriters() {
         RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_PING, new PingRequestDataWriter());
         RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_FLOW, new FlowRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_FLOW_LEASE, new FlowRequestDataWriter());
+        RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_FLOW_BATCH, new BatchFlowRequestDataWriter());
         Integer maxParamByteSize = ClusterClientStartUpConfig.getMaxParamByteSize();
         if (maxParamByteSize == null) {
             RequestDataWriterRegistry.addWriter(ClientConstants.TYPE_PARAM_FLOW, new ParamFlowRequestDataWriter());
@@ -55,5 +59,7 @@ public class DefaultClusterClientInitFunc implements InitFunc {
         ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_PING, new PingResponseDataDecoder());
         ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_FLOW, new FlowResponseDataDecoder());
         ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_PARAM_FLOW, new FlowResponseDataDecoder());
+        ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_FLOW_LEASE, new FlowResponseDataDecoder());
+        ResponseDataDecodeRegistry.addDecoder(ClientConstants.TYPE_FLOW_BATCH, new BatchFlowResponseDataDecoder());
     }
 }
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.command.entity;
 
+import java.util.List;
+
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
 import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
 
@@ -27,6 +29,9 @@ public class ClusterClientStateEntity {
     private String serverHost;
     private Integer serverPort;
 
+    private List<String> shardServers;
+    private Integer shardVirtualNodes;
+
     private Integer clientState;
 
     private Integer requestTimeout;
@@ -49,6 +54,24 @@ public class ClusterClientStateEntity {
         return this;
     }
 
+    public List<String> getShardServers() {
+        return shardServers;
+    }
+
+    public ClusterClientStateEntity setShardServers(List<String> shardServers) {
+        this.shardServers = shardServers;
+        return this;
+    }
+
+    public Integer getShardVirtualNodes() {
+        return shardVirtualNodes;
+    }
+
+    public ClusterClientStateEntity setShardVirtualNodes(Integer shardVirtualNodes) {
+        this.shardVirtualNodes = shardVirtualNodes;
+        return this;
+    }
+
     public Integer getRequestTimeout() {
         return requestTimeout;
     }
@@ -74,7 +97,9 @@ public class ClusterClientStateEntity {
     public ClusterClientAssignConfig toAssignConfig() {
         return new ClusterClientAssignConfig()
             .setServerHost(serverHost)
-            .setServerPort(serverPort);
+            .setServerPort(serverPort)
+            .setShardServers(shardServers)
+            .setShardVirtualNodes(shardVirtualNodes);
     }
 
     @Override
@@ -82,6 +107,8 @@ public class ClusterClientStateEntity {
         return "ClusterClientStateEntity{" +
             "serverHost='" + serverHost + '\'' +
             ", serverPort=" + serverPort +
+            ", shardServers=" + shardServers +
+            ", shardVirtualNodes=" + shardVirtualNodes +
             ", clientState=" + clientState +
             ", requestTimeout=" + requestTimeout +
             '}';
@@ -37,6 +37,8 @@ public class FetchClusterClientConfigHandler implements CommandHandler<String> {
         ClusterClientStateEntity stateVO = new ClusterClientStateEntity()
             .setServerHost(ClusterClientConfigManager.getServerHost())
             .setServerPort(ClusterClientConfigManager.getServerPort())
+            .setShardServers(ClusterClientConfigManager.getShardServers())
+            .setShardVirtualNodes(ClusterClientConfigManager.getShardVirtualNodes())
             .setRequestTimeout(ClusterClientConfigManager.getRequestTimeout());
         if (TokenClientProvider.isClientSpiAvailable()) {
             stateVO.setClientState(TokenClientProvider.getClient().getState());
@@ -0,0 +1,205 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.init.DefaultClusterClientInitFunc;
+import com.alibaba.csp.sentinel.cluster.exception.SentinelClusterException;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link NettyTransportClient} against a loopback server that answers flow requests
+ * (including those in batch frames) with the flow ID as the remaining count, and never answers requests of flow ID {@link #SILENT_FLOW_ID}.
+ */
+public class NettyTransportClientTest {
+
+    private static final long SILENT_FLOW_ID = 999;
+
+    private static final AtomicInteger BATCH_FRAMES = new AtomicInteger();
+
+    private NioEventLoopGroup serverGroup;
+    private Channel serverChannel;
+    private NettyTransportClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        new DefaultClusterClientInitFunc().init();
+        // Long enough for a cold JVM.
+        ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig().setRequestTimeout(1000));
+        serverGroup = new NioEventLoopGroup(1);
+        serverChannel = new ServerBootstrap().group(serverGroup)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(1024, 0, 2, 0, 2));
+                    ch.pipeline().addLast(new LengthFieldPrepender(2));
+                    ch.pipeline().addLast(new FakeTokenServerHandler());
+                }
+            })
+            .bind("127.0.0.1", 0).sync().channel();
+        int port = ((InetSocketAddress)serverChannel.localAddress()).getPort();
+
+        client = new NettyTransportClient("127.0.0.1", port);
+        client.start();
+        for (int i = 0; i < 100 && !client.isReady(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(client.isReady());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.stop();
+        ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig()
+            .setRequestTimeout(ClusterConstants.DEFAULT_REQUEST_TIMEOUT).setBatchEnabled(false));
+        serverChannel.close().sync();
+        serverGroup.shutdownGracefully();
+    }
+
+    private static ClusterRequest<FlowRequestData> flowRequest(long flowId) {
+        FlowRequestData data = new FlowRequestData().setFlowId(flowId).setCount(1).setPriority(false);
+        return new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data);
+    }
+
+    @Test
+    public void testPipelinedAsyncRequests() throws Exception {
+        List<CompletableFuture<ClusterResponse>> futures = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            futures.add(client.sendRequestAsync(flowRequest(i)));
+        }
+        for (int i = 1; i <= 200; i++) {
+            ClusterResponse response = futures.get(i - 1).get();
+            assertEquals(TokenResultStatus.OK, response.getStatus());
+            // Each response is delivered to its own request.
+            assertEquals(i, ((FlowTokenResponseData)response.getData()).getRemainingCount());
+        }
+
+        ClusterResponse response = client.sendRequest(flowRequest(7));
+        assertEquals(7, ((FlowTokenResponseData)response.getData()).getRemainingCount());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        try {
+            client.sendRequestAsync(flowRequest(SILENT_FLOW_ID)).get();
+            fail("should time out");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof SentinelClusterException);
+        }
+        try {
+            client.sendRequest(flowRequest(SILENT_FLOW_ID));
+            fail("should time out");
+        } catch (SentinelClusterException ex) {
+            // Expected.
+        }
+        // Following requests are not affected.
+        assertEquals(1, ((FlowTokenResponseData)client.sendRequest(flowRequest(1)).getData()).getRemainingCount());
+    }
+
+    @Test
+    public void testCoalescedBatchRequests() throws Exception {
+        ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig().setRequestTimeout(1000)
+            .setBatchEnabled(true));
+        BATCH_FRAMES.set(0);
+        List<CompletableFuture<ClusterResponse>> futures = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            futures.add(client.sendRequestAsync(flowRequest(i)));
+        }
+        for (int i = 1; i <= 500; i++) {
+            ClusterResponse response = futures.get(i - 1).get();
+            assertEquals(ClusterConstants.MSG_TYPE_FLOW, response.getType());
+            assertEquals(TokenResultStatus.OK, response.getStatus());
+            // Results in the batch response are delivered to their own requests.
+            assertEquals(i, ((FlowTokenResponseData)response.getData()).getRemainingCount());
+        }
+        assertTrue(BATCH_FRAMES.get() > 0);
+
+        ClusterResponse response = client.sendRequest(flowRequest(7));
+        assertEquals(7, ((FlowTokenResponseData)response.getData()).getRemainingCount());
+    }
+
+    private static class FakeTokenServerHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ByteBuf in = (ByteBuf)msg;
+            try {
+                int xid = in.readInt();
+                int type = in.readByte();
+                ByteBuf out = ctx.alloc().buffer();
+                out.writeInt(xid);
+                out.writeByte(type);
+                out.writeByte(ClusterConstants.RESPONSE_STATUS_OK);
+                if (type == ClusterConstants.MSG_TYPE_PING) {
+                    out.writeInt(1);
+                } else if (type == ClusterConstants.MSG_TYPE_FLOW_BATCH) {
+                    BATCH_FRAMES.incrementAndGet();
+                    int size = in.readUnsignedShort();
+                    out.writeShort(size);
+                    for (int i = 0; i < size; i++) {
+                        long flowId = in.readLong();
+                        in.skipBytes(5);
+                        out.writeByte(TokenResultStatus.OK);
+                        out.writeInt((int)flowId);
+                        out.writeInt(0);
+                    }
+                } else {
+                    long flowId = in.readLong();
+                    if (flowId == SILENT_FLOW_ID) {
+                        out.release();
+                        return;
+                    }
+                    out.writeInt((int)flowId);
+                    out.writeInt(0);
+                }
+                ctx.writeAndFlush(out);
+            } finally {
+                in.release();
+            }
+        }
+    }
+}
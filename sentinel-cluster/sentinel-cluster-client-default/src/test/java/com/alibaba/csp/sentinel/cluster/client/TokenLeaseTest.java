@@ -0,0 +1,69 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link TokenLease}.
+ */
+public class TokenLeaseTest {
+
+    @Test
+    public void testAcquireWithinLease() {
+        TokenLease lease = new TokenLease();
+        assertFalse(lease.tryAcquire(1, 1000));
+
+        lease.renew(5, 900, 1000);
+        assertTrue(lease.tryAcquire(3, 1000));
+        assertFalse(lease.tryAcquire(3, 1100));
+        assertTrue(lease.tryAcquire(2, 1100));
+        assertEquals(0, lease.getRemaining());
+
+        lease.renew(5, 900, 2000);
+        // Leased tokens cannot be used after the lease expires.
+        assertFalse(lease.tryAcquire(1, 2900));
+        assertEquals(5, lease.getRemaining());
+    }
+
+    @Test
+    public void testNextLeaseCount() {
+        TokenLease lease = new TokenLease();
+        assertEquals(TokenLease.INITIAL_LEASE_COUNT, lease.nextLeaseCount(1, 1000));
+        assertEquals(20, lease.nextLeaseCount(20, 1000));
+
+        // Used up in 100ms, so the projected count is 90, while the lease is allowed to grow twice at most.
+        lease.renew(10, 900, 1000);
+        assertTrue(lease.tryAcquire(10, 1000));
+        assertEquals(20, lease.nextLeaseCount(1, 1100));
+
+        // Used up in 450ms.
+        lease.renew(20, 900, 2000);
+        assertTrue(lease.tryAcquire(20, 2000));
+        assertEquals(40, lease.nextLeaseCount(1, 2450));
+
+        // Only 6 tokens are used during the whole lease, so the lease shrinks.
+        lease.renew(40, 900, 3000);
+        assertTrue(lease.tryAcquire(6, 3000));
+        assertEquals(6, lease.nextLeaseCount(1, 4000));
+
+        // Nothing is used, but the lease should fit the request.
+        lease.renew(6, 900, 5000);
+        assertEquals(2, lease.nextLeaseCount(2, 6000));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.client.handler;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link PendingRequestRing}.
+ */
+public class PendingRequestRingTest {
+
+    private static ClusterResponse response(int xid) {
+        return new ClusterResponse<>(xid, ClusterConstants.MSG_TYPE_FLOW, ClusterConstants.RESPONSE_STATUS_OK, null);
+    }
+
+    @Test
+    public void testRegisterAndComplete() throws Exception {
+        PendingRequestRing ring = new PendingRequestRing(4);
+        CompletableFuture<ClusterResponse> f1 = ring.register(1);
+        CompletableFuture<ClusterResponse> f2 = ring.register(2);
+        assertNotNull(f1);
+        assertNotNull(f2);
+        assertEquals(2, ring.pendingCount());
+
+        // Responses may arrive in any order.
+        assertTrue(ring.complete(2, response(2)));
+        assertEquals(2, f2.get().getId());
+        assertFalse(f1.isDone());
+        assertFalse(ring.complete(2, response(2)));
+
+        assertTrue(ring.fail(1, new IllegalStateException()));
+        assertTrue(f1.isCompletedExceptionally());
+        assertEquals(0, ring.pendingCount());
+    }
+
+    @Test
+    public void testSlotOccupied() {
+        PendingRequestRing ring = new PendingRequestRing(4);
+        assertNotNull(ring.register(1));
+        // The slot of xid 5 is occupied by the pending request of xid 1.
+        assertNull(ring.register(5));
+        // A stale response of xid 5 won't complete the request of xid 1.
+        assertFalse(ring.complete(5, response(5)));
+        assertEquals(1, ring.pendingCount());
+
+        assertTrue(ring.complete(1, response(1)));
+        assertNotNull(ring.register(5));
+    }
+
+    @Test
+    public void testFailAll() {
+        PendingRequestRing ring = new PendingRequestRing(8);
+        CompletableFuture<ClusterResponse> f1 = ring.register(3);
+        CompletableFuture<ClusterResponse> f2 = ring.register(4);
+        ring.failAll(new IllegalStateException());
+        assertTrue(f1.isCompletedExceptionally());
+        assertTrue(f2.isCompletedExceptionally());
+        assertEquals(0, ring.pendingCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new PendingRequestRing(6);
+    }
+}
@@ -26,6 +26,20 @@ public final class ClusterConstants {
     public static final int MSG_TYPE_PARAM_FLOW = 2;
     public static final int MSG_TYPE_CONCURRENT_FLOW_ACQUIRE = 3;
     public static final int MSG_TYPE_CONCURRENT_FLOW_RELEASE = 4;
+    /**
+     * Token lease request, which carries the same data as {@link #MSG_TYPE_FLOW}. In the response,
+     * the remaining count is the amount of granted tokens and the waiting time is the lease time.
+     *
+     * @since 1.8.6
+     */
+    public static final int MSG_TYPE_FLOW_LEASE = 5;
+    /**
+     * Batch of flow token requests, which carries a vector of (flow ID, count, priority flag)
+     * and responds with a vector of (status, remaining count, waiting time).
+     *
+     * @since 1.8.6
+     */
+    public static final int MSG_TYPE_FLOW_BATCH = 6;
 
 
     public static final int RESPONSE_STATUS_BAD = -1;
@@ -0,0 +1,158 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.netty;
+
+import java.lang.reflect.Constructor;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * <p>
+ * Creates event loop groups and channels of the token server and client, with either the NIO transport or
+ * the native epoll transport of Netty.
+ * </p>
+ * <p>
+ * The native transport is resolved by reflection, so it only requires {@code netty-transport-native-epoll}
+ * (with the classifier of the platform) to be present at runtime. If it's absent or cannot be loaded on the
+ * current platform, the NIO transport will be used.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class NettyTransportSupport {
+
+    private static final String EPOLL_PACKAGE = "io.netty.channel.epoll.";
+
+    private static final Constructor<? extends EventLoopGroup> EPOLL_EVENT_LOOP_GROUP_CONSTRUCTOR;
+    private static final Class<? extends ServerChannel> EPOLL_SERVER_CHANNEL_CLASS;
+    private static final Class<? extends SocketChannel> EPOLL_SOCKET_CHANNEL_CLASS;
+    private static final ChannelOption<Boolean> EPOLL_REUSE_PORT;
+    private static final Throwable EPOLL_UNAVAILABILITY_CAUSE;
+
+    static {
+        Constructor<? extends EventLoopGroup> groupConstructor = null;
+        Class<? extends ServerChannel> serverChannelClass = null;
+        Class<? extends SocketChannel> socketChannelClass = null;
+        ChannelOption<Boolean> reusePort = null;
+        Throwable cause;
+        try {
+            Class<?> epoll = Class.forName(EPOLL_PACKAGE + "Epoll");
+            if ((Boolean)epoll.getMethod("isAvailable").invoke(null)) {
+                groupConstructor = Class.forName(EPOLL_PACKAGE + "EpollEventLoopGroup")
+                    .asSubclass(EventLoopGroup.class).getConstructor(int.class);
+                serverChannelClass = Class.forName(EPOLL_PACKAGE + "EpollServerSocketChannel")
+                    .asSubclass(ServerChannel.class);
+                socketChannelClass = Class.forName(EPOLL_PACKAGE + "EpollSocketChannel")
+                    .asSubclass(SocketChannel.class);
+                reusePort = castOption(Class.forName(EPOLL_PACKAGE + "EpollChannelOption")
+                    .getField("SO_REUSEPORT").get(null));
+                cause = null;
+            } else {
+                cause = (Throwable)epoll.getMethod("unavailabilityCause").invoke(null);
+            }
+        } catch (Throwable ex) {
+            groupConstructor = null;
+            serverChannelClass = null;
+            socketChannelClass = null;
+            reusePort = null;
+            cause = ex;
+        }
+        EPOLL_EVENT_LOOP_GROUP_CONSTRUCTOR = groupConstructor;
+        EPOLL_SERVER_CHANNEL_CLASS = serverChannelClass;
+        EPOLL_SOCKET_CHANNEL_CLASS = socketChannelClass;
+        EPOLL_REUSE_PORT = reusePort;
+        EPOLL_UNAVAILABILITY_CAUSE = cause;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChannelOption<Boolean> castOption(Object option) {
+        return (ChannelOption<Boolean>)option;
+    }
+
+    /**
+     * @return whether the native epoll transport can be used
+     */
+    public static boolean isEpollAvailable() {
+        return EPOLL_EVENT_LOOP_GROUP_CONSTRUCTOR != null;
+    }
+
+    /**
+     * @return the reason why the native epoll transport cannot be used, or null if it's available
+     */
+    public static Throwable getEpollUnavailabilityCause() {
+        return EPOLL_UNAVAILABILITY_CAUSE;
+    }
+
+    /**
+     * Create a new event loop group.
+     *
+     * @param threads amount of threads, or 0 for the default amount of Netty
+     * @param epoll   whether to use the native epoll transport, which should be available
+     * @return the event loop group
+     */
+    public static EventLoopGroup newEventLoopGroup(int threads, boolean epoll) {
+        if (epoll) {
+            checkEpollAvailable();
+            try {
+                return EPOLL_EVENT_LOOP_GROUP_CONSTRUCTOR.newInstance(threads);
+            } catch (Exception ex) {
+                throw new IllegalStateException("Failed to create epoll event loop group", ex);
+            }
+        }
+        return new NioEventLoopGroup(threads);
+    }
+
+    public static Class<? extends ServerChannel> serverChannelClass(boolean epoll) {
+        if (epoll) {
+            checkEpollAvailable();
+            return EPOLL_SERVER_CHANNEL_CLASS;
+        }
+        return NioServerSocketChannel.class;
+    }
+
+    public static Class<? extends SocketChannel> socketChannelClass(boolean epoll) {
+        if (epoll) {
+            checkEpollAvailable();
+            return EPOLL_SOCKET_CHANNEL_CLASS;
+        }
+        return NioSocketChannel.class;
+    }
+
+    /**
+     * Get the {@code SO_REUSEPORT} option of the native epoll transport, with which several server channels
+     * can be bound to the same port, so that connections are accepted by several threads.
+     *
+     * @return the option
+     */
+    public static ChannelOption<Boolean> reusePortOption() {
+        checkEpollAvailable();
+        return EPOLL_REUSE_PORT;
+    }
+
+    private static void checkEpollAvailable() {
+        if (!isEpollAvailable()) {
+            throw new IllegalStateException("Native epoll transport is unavailable", EPOLL_UNAVAILABILITY_CAUSE);
+        }
+    }
+
+    private NettyTransportSupport() {}
+}
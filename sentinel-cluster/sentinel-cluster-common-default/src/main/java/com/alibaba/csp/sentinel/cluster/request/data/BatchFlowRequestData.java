@@ -0,0 +1,101 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.request.data;
+
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>A vector of flow token requests, which are sent in one frame and evaluated in one pass.</p>
+ * <p>
+ * The entries are kept in primitive arrays (rather than a list of {@link FlowRequestData}), so that they can be
+ * written to and read from the frame buffer directly.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class BatchFlowRequestData {
+
+    /**
+     * Max amount of entries in a batch, so that the frame won't exceed the max frame length (1024 bytes).
+     */
+    public static final int MAX_BATCH_SIZE = 64;
+
+    private final long[] flowIds;
+    private final int[] counts;
+    private final boolean[] priorities;
+    private int size;
+
+    public BatchFlowRequestData() {
+        this(MAX_BATCH_SIZE);
+    }
+
+    public BatchFlowRequestData(int capacity) {
+        AssertUtil.isTrue(capacity > 0 && capacity <= MAX_BATCH_SIZE, "capacity should be in (0, MAX_BATCH_SIZE]");
+        this.flowIds = new long[capacity];
+        this.counts = new int[capacity];
+        this.priorities = new boolean[capacity];
+    }
+
+    /**
+     * Add a flow token request to the batch.
+     *
+     * @param flowId   flow ID
+     * @param count    token count to acquire
+     * @param priority whether the request is prioritized
+     * @return false if the batch is full
+     */
+    public boolean add(long flowId, int count, boolean priority) {
+        if (size >= flowIds.length) {
+            return false;
+        }
+        flowIds[size] = flowId;
+        counts[size] = count;
+        priorities[size] = priority;
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size >= flowIds.length;
+    }
+
+    public long getFlowId(int idx) {
+        return flowIds[idx];
+    }
+
+    public int getCount(int idx) {
+        return counts[idx];
+    }
+
+    public boolean isPriority(int idx) {
+        return priorities[idx];
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFlowRequestData{" +
+            "flowIds=" + Arrays.toString(Arrays.copyOf(flowIds, size)) +
+            ", counts=" + Arrays.toString(Arrays.copyOf(counts, size)) +
+            ", priorities=" + Arrays.toString(Arrays.copyOf(priorities, size)) +
+            '}';
+    }
+}
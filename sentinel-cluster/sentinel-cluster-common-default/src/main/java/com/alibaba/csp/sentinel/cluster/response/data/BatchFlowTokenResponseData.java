@@ -0,0 +1,86 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.response.data;
+
+import java.util.Arrays;
+
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * Results of a {@link BatchFlowRequestData}, in the same order as the requests.
+ *
+ * @since 1.8.6
+ */
+public class BatchFlowTokenResponseData {
+
+    private final int[] statuses;
+    private final int[] remainingCounts;
+    private final int[] waitInMs;
+    private int size;
+
+    public BatchFlowTokenResponseData(int capacity) {
+        AssertUtil.isTrue(capacity > 0 && capacity <= BatchFlowRequestData.MAX_BATCH_SIZE,
+            "capacity should be in (0, MAX_BATCH_SIZE]");
+        this.statuses = new int[capacity];
+        this.remainingCounts = new int[capacity];
+        this.waitInMs = new int[capacity];
+    }
+
+    /**
+     * Add the result of next request in the batch.
+     *
+     * @param status         token result status
+     * @param remainingCount remaining count
+     * @param waitInMs       waiting time (in ms)
+     * @return false if the response is full
+     */
+    public boolean add(int status, int remainingCount, int waitInMs) {
+        if (size >= statuses.length) {
+            return false;
+        }
+        this.statuses[size] = status;
+        this.remainingCounts[size] = remainingCount;
+        this.waitInMs[size] = waitInMs;
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getStatus(int idx) {
+        return statuses[idx];
+    }
+
+    public int getRemainingCount(int idx) {
+        return remainingCounts[idx];
+    }
+
+    public int getWaitInMs(int idx) {
+        return waitInMs[idx];
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFlowTokenResponseData{" +
+            "statuses=" + Arrays.toString(Arrays.copyOf(statuses, size)) +
+            ", remainingCounts=" + Arrays.toString(Arrays.copyOf(remainingCounts, size)) +
+            ", waitInMs=" + Arrays.toString(Arrays.copyOf(waitInMs, size)) +
+            '}';
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.shard;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>
+ * A consistent-hash ring that assigns flow IDs to token server shards. Each server is placed on the ring
+ * at several virtual nodes, and a flow ID belongs to the first virtual node clockwise from its hash.
+ * Adding or removing a server only moves the flow IDs of the neighbouring virtual nodes.
+ * </p>
+ * <p>
+ * The hashing only depends on the server addresses ({@code host:port}) and the amount of virtual nodes,
+ * so token servers and clients with the same shard map route flow IDs in the same way.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class TokenServerShardRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final List<TokenServerDescriptor> servers;
+    /**
+     * Sorted hash of virtual nodes, and the index of the server of each virtual node.
+     */
+    private final long[] points;
+    private final int[] owners;
+
+    private TokenServerShardRing(List<TokenServerDescriptor> servers, int virtualNodes) {
+        this.servers = Collections.unmodifiableList(servers);
+        int total = servers.size() * virtualNodes;
+        long[][] nodes = new long[total][];
+        for (int i = 0; i < servers.size(); i++) {
+            String address = toAddress(servers.get(i));
+            for (int v = 0; v < virtualNodes; v++) {
+                nodes[i * virtualNodes + v] = new long[] {hash(address + "#" + v), i};
+            }
+        }
+        Arrays.sort(nodes, new Comparator<long[]>() {
+            @Override
+            public int compare(long[] a, long[] b) {
+                return Long.compare(a[0], b[0]);
+            }
+        });
+        this.points = new long[total];
+        this.owners = new int[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = nodes[i][0];
+            owners[i] = (int)nodes[i][1];
+        }
+    }
+
+    /**
+     * Build the ring from server addresses.
+     *
+     * @param addresses    addresses of token servers in {@code host:port} format
+     * @param virtualNodes amount of virtual nodes of each server; the default value will be used if not positive
+     * @return the ring
+     * @throws IllegalArgumentException if the addresses are empty or invalid
+     */
+    public static TokenServerShardRing of(List<String> addresses, int virtualNodes) {
+        AssertUtil.isTrue(addresses != null && !addresses.isEmpty(), "server addresses cannot be empty");
+        List<TokenServerDescriptor> servers = new ArrayList<>(addresses.size());
+        List<String> distinct = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            TokenServerDescriptor server = parseAddress(address);
+            AssertUtil.isTrue(server != null, "invalid server address: " + address);
+            String normalized = toAddress(server);
+            if (!distinct.contains(normalized)) {
+                distinct.add(normalized);
+                servers.add(server);
+            }
+        }
+        return new TokenServerShardRing(servers, virtualNodes > 0 ? virtualNodes : DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Parse a server address in {@code host:port} format.
+     *
+     * @param address server address
+     * @return the server descriptor, or null if the address is invalid
+     */
+    public static TokenServerDescriptor parseAddress(String address) {
+        if (StringUtil.isBlank(address)) {
+            return null;
+        }
+        int idx = address.lastIndexOf(':');
+        if (idx <= 0 || idx == address.length() - 1) {
+            return null;
+        }
+        try {
+            int port = Integer.parseInt(address.substring(idx + 1).trim());
+            if (port <= 0 || port > 65535) {
+                return null;
+            }
+            return new TokenServerDescriptor(address.substring(0, idx).trim(), port);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String toAddress(TokenServerDescriptor server) {
+        return server.getHost() + ":" + server.getPort();
+    }
+
+    /**
+     * Get the index of the server that owns the flow ID.
+     *
+     * @param flowId flow ID
+     * @return index of the owner in {@link #getServers()}
+     */
+    public int indexOf(long flowId) {
+        int idx = Arrays.binarySearch(points, mix(flowId));
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        // Wrap around the ring.
+        return owners[idx == points.length ? 0 : idx];
+    }
+
+    /**
+     * Get the server that owns the flow ID.
+     *
+     * @param flowId flow ID
+     * @return the owner server
+     */
+    public TokenServerDescriptor route(long flowId) {
+        return servers.get(indexOf(flowId));
+    }
+
+    public List<TokenServerDescriptor> getServers() {
+        return servers;
+    }
+
+    private static long hash(String key) {
+        // 64-bit FNV-1a, then mixed for better distribution.
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long k) {
+        // Finalizer of MurmurHash3 (64-bit).
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenServerShardRing{" +
+            "servers=" + servers +
+            ", virtualNodes=" + (servers.isEmpty() ? 0 : points.length / servers.size()) +
+            '}';
+    }
+}
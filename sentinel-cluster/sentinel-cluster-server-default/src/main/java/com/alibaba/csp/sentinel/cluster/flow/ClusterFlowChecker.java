@@ -111,6 +111,58 @@ final class ClusterFlowChecker {
         }
     }
 
+    /**
+     * <p>Grant a lease of at most {@code acquireCount} tokens, which the client will serve locally.</p>
+     * <p>
+     * The granted tokens are added to the pass count at once (at grant time), so the outstanding leased tokens
+     * are reserved from the global threshold. The lease time is cut down to the minimal time that the reservation
+     * stays in the sliding window ({@code minRetainedTime}). However, leased tokens may be spent at any time
+     * within the lease, i.e. up to {@code minRetainedTime} after they're counted, so the real passes of a
+     * sliding window may exceed the threshold by up to {@code maxLeaseRatio * threshold} per client per window.
+     * Leased tokens left unused when the lease expires are wasted, which is bounded by the same amount.
+     * </p>
+     * <p>
+     * Note that only synchronous token requests of clients are served from leases; async token requests
+     * always go to the token server.
+     * </p>
+     *
+     * @param rule         valid cluster flow rule
+     * @param acquireCount amount of tokens to lease
+     * @return OK result with the granted count as remaining and the lease time as waitInMs, or blocked result
+     * @since 1.8.6
+     */
+    static TokenResult acquireClusterLease(/*@Valid*/ FlowRule rule, int acquireCount) {
+        Long id = rule.getClusterConfig().getFlowId();
+
+        if (!allowProceed(id)) {
+            return new TokenResult(TokenResultStatus.TOO_MANY_REQUEST);
+        }
+
+        ClusterMetric metric = ClusterMetricStatistics.getMetric(id);
+        if (metric == null) {
+            return new TokenResult(TokenResultStatus.FAIL);
+        }
+
+        double latestQps = metric.getAvg(ClusterFlowEvent.PASS);
+        double globalThreshold = calcGlobalThreshold(rule) * ClusterServerConfigManager.getExceedCount();
+        int maxLeaseCount = Math.max(1, (int) (globalThreshold * ClusterServerConfigManager.getMaxLeaseRatio()));
+        int grantedCount = (int) Math.min(Math.min(acquireCount, maxLeaseCount), globalThreshold - latestQps);
+        int leaseTimeInMs = metric.getMinRetainedTimeInMs();
+
+        if (grantedCount > 0 && leaseTimeInMs > 0) {
+            metric.add(ClusterFlowEvent.PASS, grantedCount);
+            metric.add(ClusterFlowEvent.PASS_REQUEST, 1);
+            ClusterServerStatLogUtil.log("flow|lease|" + id, grantedCount);
+            return new TokenResult(TokenResultStatus.OK)
+                .setRemaining(grantedCount)
+                .setWaitInMs(leaseTimeInMs);
+        }
+        // Nothing left to lease, so the request is blocked.
+        metric.add(ClusterFlowEvent.BLOCK_REQUEST, 1);
+        ClusterServerStatLogUtil.log("flow|block_request|" + id, 1);
+        return blockedResult();
+    }
+
     private static TokenResult blockedResult() {
         return new TokenResult(TokenResultStatus.BLOCKED)
             .setRemaining(0)
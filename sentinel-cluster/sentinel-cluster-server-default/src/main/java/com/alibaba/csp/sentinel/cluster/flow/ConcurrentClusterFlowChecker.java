@@ -53,23 +53,17 @@ final public class ConcurrentClusterFlowChecker {
             return new TokenResult(TokenResultStatus.FAIL);
         }
 
-        // check before enter the lock to improve the efficiency
-        if (nowCalls.get() + acquireCount > calcGlobalThreshold(rule)) {
-            ClusterServerStatLogUtil.log("concurrent|block|" + flowId, acquireCount);
-            return new TokenResult(TokenResultStatus.BLOCKED);
-        }
-
-        // ensure the atomicity of operations
-        // lock different nowCalls to improve the efficiency
-        synchronized (nowCalls) {
-            // check again whether the request can pass.
-            if (nowCalls.get() + acquireCount > calcGlobalThreshold(rule)) {
+        // Admit with CAS instead of locking, so that the exact bound is kept without serializing
+        // all acquire requests of the rule on one monitor.
+        double threshold = calcGlobalThreshold(rule);
+        int current;
+        do {
+            current = nowCalls.get();
+            if (current + acquireCount > threshold) {
                 ClusterServerStatLogUtil.log("concurrent|block|" + flowId, acquireCount);
                 return new TokenResult(TokenResultStatus.BLOCKED);
-            } else {
-                nowCalls.getAndAdd(acquireCount);
             }
-        }
+        } while (!nowCalls.compareAndSet(current, current + acquireCount));
         ClusterServerStatLogUtil.log("concurrent|pass|" + flowId, acquireCount);
         TokenCacheNode node = TokenCacheNode.generateTokenCacheNode(rule, acquireCount, clientAddress);
         TokenCacheNodeManager.putTokenCacheNode(node.getTokenId(), node);
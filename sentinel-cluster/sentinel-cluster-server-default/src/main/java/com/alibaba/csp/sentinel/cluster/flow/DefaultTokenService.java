@@ -49,6 +49,20 @@ public class DefaultTokenService implements TokenService {
         return ClusterFlowChecker.acquireClusterToken(rule, acquireCount, prioritized);
     }
 
+    @Override
+    public TokenResult requestTokenLease(Long ruleId, int acquireCount) {
+        if (notValidRequest(ruleId, acquireCount)) {
+            return badRequest();
+        }
+        // The rule should be valid.
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(ruleId);
+        if (rule == null) {
+            return new TokenResult(TokenResultStatus.NO_RULE_EXISTS);
+        }
+
+        return ClusterFlowChecker.acquireClusterLease(rule, acquireCount);
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (notValidRequest(ruleId, acquireCount) || params == null || params.isEmpty()) {
@@ -15,9 +15,10 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent;
 
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire.HierarchicalTimingWheel;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
 
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * We use TokenCacheNodeManager to store the tokenId, whose the underlying storage structure
@@ -39,6 +40,10 @@ public class TokenCacheNode {
      * the resource called over time detection time
      */
     private Long resourceTimeout;
+    /**
+     * the time when the token is issued (in ms), from which the expiry deadlines are computed
+     */
+    private long saveTime;
     /**
      * the flow rule id  corresponding to the token
      */
@@ -53,14 +58,18 @@ public class TokenCacheNode {
      */
     private String clientAddress;
 
+    /**
+     * the expiry check of the token scheduled in the timing wheel.
+     */
+    private volatile HierarchicalTimingWheel.Timeout<TokenCacheNode> expireTimeout;
+
     public TokenCacheNode() {
     }
 
     public static TokenCacheNode generateTokenCacheNode(FlowRule rule, int acquireCount, String clientAddress) {
         TokenCacheNode node = new TokenCacheNode();
-        // getMostSignificantBits() returns the most significant 64 bits of this UUID's 128 bit value.
-        // The probability of collision is extremely low.
-        node.setTokenId(UUID.randomUUID().getMostSignificantBits());
+        node.setTokenId(generateTokenId());
+        node.setSaveTime(System.currentTimeMillis());
         node.setFlowId(rule.getClusterConfig().getFlowId());
         node.setClientTimeout(rule.getClusterConfig().getClientOfflineTime());
         node.setResourceTimeout(rule.getClusterConfig().getResourceTimeout());
@@ -69,6 +78,22 @@ public class TokenCacheNode {
         return node;
     }
 
+    /**
+     * Generate a random non-zero token ID. The probability of collision is extremely low.
+     * {@link ThreadLocalRandom} is used instead of {@code UUID.randomUUID()}, which is backed by a shared
+     * {@code SecureRandom} and will be contended when many tokens are issued concurrently.
+     *
+     * @return the token ID
+     * @since 1.8.6
+     */
+    static long generateTokenId() {
+        long tokenId;
+        do {
+            tokenId = ThreadLocalRandom.current().nextLong();
+        } while (tokenId == 0);
+        return tokenId;
+    }
+
     public Long getTokenId() {
         return tokenId;
     }
@@ -93,6 +118,18 @@ public class TokenCacheNode {
         this.resourceTimeout = resourceTimeout + System.currentTimeMillis();
     }
 
+    /**
+     * @return the time when the token is issued (in ms), or 0 if unknown
+     * @since 1.8.6
+     */
+    public long getSaveTime() {
+        return saveTime;
+    }
+
+    public void setSaveTime(long saveTime) {
+        this.saveTime = saveTime;
+    }
+
     public Long getFlowId() {
         return flowId;
     }
@@ -117,12 +154,21 @@ public class TokenCacheNode {
         this.clientAddress = clientAddress;
     }
 
+    public HierarchicalTimingWheel.Timeout<TokenCacheNode> getExpireTimeout() {
+        return expireTimeout;
+    }
+
+    public void setExpireTimeout(HierarchicalTimingWheel.Timeout<TokenCacheNode> expireTimeout) {
+        this.expireTimeout = expireTimeout;
+    }
+
     @Override
     public String toString() {
         return "TokenCacheNode{" +
                 "tokenId=" + tokenId +
                 ", clientTimeout=" + clientTimeout +
                 ", resourceTimeout=" + resourceTimeout +
+                ", saveTime=" + saveTime +
                 ", flowId=" + flowId +
                 ", acquireCount=" + acquireCount +
                 ", clientAddress='" + clientAddress + '\'' +
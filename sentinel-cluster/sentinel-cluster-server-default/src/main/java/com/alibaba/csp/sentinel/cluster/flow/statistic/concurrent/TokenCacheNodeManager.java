@@ -15,7 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent;
 
-import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire.RegularExpireStrategy;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire.ExpireStrategy;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire.TimingWheelExpireStrategy;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 import com.googlecode.concurrentlinkedhashmap.Weighers;
@@ -27,6 +28,7 @@ import java.util.Set;
  */
 public class TokenCacheNodeManager {
     private static ConcurrentLinkedHashMap<Long, TokenCacheNode> TOKEN_CACHE_NODE_MAP;
+    private static volatile ExpireStrategy expireStrategy;
 
 
     private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
@@ -45,9 +47,13 @@ public class TokenCacheNodeManager {
                 .maximumWeightedCapacity(maximumWeightedCapacity)
                 .weigher(Weighers.singleton())
                 .build();
-        // Start the task of regularly clearing expired keys
-        RegularExpireStrategy strategy = new RegularExpireStrategy(TOKEN_CACHE_NODE_MAP);
+        if (expireStrategy != null) {
+            expireStrategy.stopClearTask();
+        }
+        // Start the task of clearing expired keys
+        ExpireStrategy strategy = new TimingWheelExpireStrategy(TOKEN_CACHE_NODE_MAP);
         strategy.startClearTaskRegularly();
+        expireStrategy = strategy;
     }
 
 
@@ -57,7 +63,11 @@ public class TokenCacheNodeManager {
     }
 
     public static void putTokenCacheNode(long tokenId, TokenCacheNode cacheNode) {
-        TOKEN_CACHE_NODE_MAP.put(tokenId, cacheNode);
+        TokenCacheNode oldNode = TOKEN_CACHE_NODE_MAP.put(tokenId, cacheNode);
+        if (oldNode != null && oldNode != cacheNode) {
+            expireStrategy.onTokenRemoved(oldNode);
+        }
+        expireStrategy.onTokenAdded(cacheNode);
     }
 
     public static boolean isContainsTokenId(long tokenId) {
@@ -65,7 +75,11 @@ public class TokenCacheNodeManager {
     }
 
     public static TokenCacheNode removeTokenCacheNode(long tokenId) {
-        return TOKEN_CACHE_NODE_MAP.remove(tokenId);
+        TokenCacheNode node = TOKEN_CACHE_NODE_MAP.remove(tokenId);
+        if (node != null) {
+            expireStrategy.onTokenRemoved(node);
+        }
+        return node;
     }
 
     public static int getSize() {
@@ -76,6 +90,14 @@ public class TokenCacheNodeManager {
         return TOKEN_CACHE_NODE_MAP.keySet();
     }
 
+    /**
+     * @return the strategy that clears expired tokens
+     * @since 1.8.6
+     */
+    public static ExpireStrategy getExpireStrategy() {
+        return expireStrategy;
+    }
+
     public static boolean validToken(TokenCacheNode cacheNode) {
         return cacheNode.getTokenId() != null && cacheNode.getFlowId() != null && cacheNode.getClientTimeout() >= 0 && cacheNode.getResourceTimeout() >= 0;
     }
@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire;
 
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.TokenCacheNode;
+
 /**
  * @author yunfeiyagnggzq
  */
@@ -23,4 +25,27 @@ public interface ExpireStrategy {
      * clean expired token regularly.
      */
     void startClearTaskRegularly();
+
+    /**
+     * stop the task of cleaning expired token.
+     *
+     * @since 1.8.6
+     */
+    default void stopClearTask() {}
+
+    /**
+     * callback when the token is saved in the local cache.
+     *
+     * @param node the saved token
+     * @since 1.8.6
+     */
+    default void onTokenAdded(TokenCacheNode node) {}
+
+    /**
+     * callback when the token is released and removed from the local cache.
+     *
+     * @param node the removed token
+     * @since 1.8.6
+     */
+    default void onTokenRemoved(TokenCacheNode node) {}
 }
@@ -0,0 +1,330 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>
+ * A hierarchical timing wheel. Each level has {@code 2^wheelBits} buckets, and a bucket of level {@code L}
+ * covers {@code 2^(wheelBits * L)} ticks. A timeout is placed at the lowest level whose span covers it, and
+ * is moved down to lower levels (cascaded) as time goes by, until it expires in a bucket of level 0.
+ * Timeouts beyond the span of the highest level are parked at the highest level and placed again later.
+ * </p>
+ * <p>
+ * Both scheduling and cancellation are O(1): they only enqueue the timeout, and the wheel itself is only
+ * touched by the thread that calls {@link #advance(long)}, which places new timeouts, unlinks cancelled ones
+ * from their buckets and expires the due ones. Timeouts never expire before their deadline, and expire at most
+ * one tick (plus the delay of advancing) after it.
+ * </p>
+ *
+ * @param <T> type of the value that the timeouts carry
+ * @since 1.8.6
+ */
+public class HierarchicalTimingWheel<T> {
+
+    /**
+     * Handler of expired timeouts, which runs on the thread that advances the wheel.
+     */
+    public interface ExpireHandler<T> {
+
+        /**
+         * @param timeout the expired timeout
+         * @param lagMs   the time between the deadline and the expiry (in ms)
+         */
+        void onExpire(Timeout<T> timeout, long lagMs);
+    }
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final long tickMs;
+    private final int wheelBits;
+    private final long wheelMask;
+    private final Bucket<T>[][] wheels;
+    /**
+     * Amount of ticks that the highest level covers.
+     */
+    private final long horizonTicks;
+    private final ExpireHandler<T> handler;
+
+    private final Queue<Timeout<T>> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger(0);
+
+    /**
+     * The latest processed tick, only accessed while advancing.
+     */
+    private long currentTick;
+
+    /**
+     * @param tickMs    duration of a tick (in ms)
+     * @param wheelBits each level has {@code 2^wheelBits} buckets
+     * @param levels    amount of levels
+     * @param startMs   start time of the wheel (in ms)
+     * @param handler   handler of expired timeouts
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelBits, int levels, long startMs, ExpireHandler<T> handler) {
+        AssertUtil.isTrue(tickMs > 0, "tickMs should be positive");
+        AssertUtil.isTrue(wheelBits > 0 && levels > 0 && wheelBits * levels < 48, "invalid wheel size");
+        AssertUtil.notNull(handler, "expire handler cannot be null");
+        this.tickMs = tickMs;
+        this.wheelBits = wheelBits;
+        this.wheelMask = (1L << wheelBits) - 1;
+        this.horizonTicks = 1L << (wheelBits * levels);
+        this.handler = handler;
+        this.wheels = new Bucket[levels][1 << wheelBits];
+        for (int i = 0; i < levels; i++) {
+            for (int j = 0; j < wheels[i].length; j++) {
+                wheels[i][j] = new Bucket<>();
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedule a timeout, which expires once the wheel is advanced to the deadline.
+     *
+     * @param value      value of the timeout
+     * @param deadlineMs deadline of the timeout (in ms)
+     * @return the timeout, which can be cancelled
+     */
+    public Timeout<T> schedule(T value, long deadlineMs) {
+        Timeout<T> timeout = new Timeout<>(this, value, deadlineMs);
+        pendingCount.incrementAndGet();
+        newTimeouts.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advance the wheel to provided time, and expire all timeouts whose deadline has passed.
+     * This method should be called regularly (in every tick) by a single thread.
+     *
+     * @param nowMs current time (in ms)
+     * @return amount of expired timeouts
+     */
+    public synchronized int advance(long nowMs) {
+        Timeout<T> timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+        int expired = 0;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.state == STATE_PENDING) {
+                expired += place(timeout, nowMs);
+            }
+        }
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade from the highest level, so that a timeout may go down several levels in the same tick.
+            for (int level = wheels.length - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (wheelBits * level)) - 1)) == 0) {
+                    expired += cascade(wheels[level][bucketIndex(currentTick, level)], nowMs);
+                }
+            }
+            expired += cascade(wheels[0][bucketIndex(currentTick, 0)], nowMs);
+        }
+        return expired;
+    }
+
+    private int cascade(Bucket<T> bucket, long nowMs) {
+        int expired = 0;
+        Timeout<T> timeout = bucket.clear();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+            if (timeout.state == STATE_PENDING) {
+                expired += place(timeout, nowMs);
+            }
+            timeout = next;
+        }
+        return expired;
+    }
+
+    private int place(Timeout<T> timeout, long nowMs) {
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            return expire(timeout, nowMs) ? 1 : 0;
+        }
+        long tick = timeout.deadlineTick;
+        if (delta >= horizonTicks) {
+            // Park at the highest level, and it will be placed again once cascaded.
+            delta = horizonTicks - 1;
+            tick = currentTick + delta;
+        }
+        int level = 0;
+        while (delta >= (1L << (wheelBits * (level + 1)))) {
+            level++;
+        }
+        wheels[level][bucketIndex(tick, level)].add(timeout);
+        return 0;
+    }
+
+    private int bucketIndex(long tick, int level) {
+        return (int)((tick >>> (wheelBits * level)) & wheelMask);
+    }
+
+    private boolean expire(Timeout<T> timeout, long nowMs) {
+        if (!Timeout.STATE_UPDATER.compareAndSet(timeout, STATE_PENDING, STATE_EXPIRED)) {
+            return false;
+        }
+        pendingCount.decrementAndGet();
+        try {
+            handler.onExpire(timeout, Math.max(0, nowMs - timeout.deadlineMs));
+        } catch (Throwable ex) {
+            RecordLog.warn("[HierarchicalTimingWheel] Unexpected error when handling expired timeout", ex);
+        }
+        return true;
+    }
+
+    /**
+     * @return amount of timeouts that are neither expired nor cancelled
+     */
+    public int pendingCount() {
+        return pendingCount.get();
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    /**
+     * A scheduled timeout of the wheel.
+     */
+    public static final class Timeout<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER
+            = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HierarchicalTimingWheel<T> wheel;
+        private final T value;
+        private final long deadlineMs;
+        /**
+         * The first tick that is not earlier than the deadline.
+         */
+        private final long deadlineTick;
+
+        private volatile int state = STATE_PENDING;
+
+        /**
+         * Links in the bucket, only accessed while advancing.
+         */
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(HierarchicalTimingWheel<T> wheel, T value, long deadlineMs) {
+            this.wheel = wheel;
+            this.value = value;
+            this.deadlineMs = deadlineMs;
+            this.deadlineTick = (deadlineMs + wheel.tickMs - 1) / wheel.tickMs;
+        }
+
+        /**
+         * Cancel the timeout, which will be unlinked from the wheel in the next tick.
+         *
+         * @return true if cancelled, or false if the timeout has already expired or been cancelled
+         */
+        @SuppressWarnings("unchecked")
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, STATE_PENDING, STATE_CANCELLED)) {
+                return false;
+            }
+            wheel.pendingCount.decrementAndGet();
+            wheel.cancelledTimeouts.offer(this);
+            return true;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        public boolean isCancelled() {
+            return state == STATE_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == STATE_EXPIRED;
+        }
+    }
+
+    /**
+     * Doubly-linked list of timeouts.
+     */
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            if (tail == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        /**
+         * Detach all timeouts from the bucket.
+         *
+         * @return the first timeout, which links to the others
+         */
+        Timeout<T> clear() {
+            Timeout<T> first = head;
+            for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+            }
+            head = tail = null;
+            return first;
+        }
+    }
+}
@@ -44,7 +44,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  * token server will continue to save it.
  *
  * @author yunfeiyanggzq
+ * @deprecated since 1.8.6, scanning the whole cache regularly does not scale with the amount of tokens,
+ * use {@link TimingWheelExpireStrategy} instead.
  **/
+@Deprecated
 public class RegularExpireStrategy implements ExpireStrategy {
     /**
      * The max number of token deleted each time,
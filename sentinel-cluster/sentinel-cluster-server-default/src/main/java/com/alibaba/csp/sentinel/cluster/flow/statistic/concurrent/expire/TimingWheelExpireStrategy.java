@@ -0,0 +1,259 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.CurrentConcurrencyManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.TokenCacheNode;
+import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
+import com.alibaba.csp.sentinel.cluster.server.log.ClusterServerStatLogUtil;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * <p>
+ * Expire strategy that schedules each token in a {@link HierarchicalTimingWheel} when it is issued, and cancels
+ * it when the token is released. The token is checked when its earliest possible expiry comes, with the same
+ * conditions as {@link RegularExpireStrategy}: the token is removed if the client is offline and the token is saved
+ * for more than the client offline time, or the token is saved for more than twice of the resource timeout.
+ * If the client is still online, the token will be checked again later.
+ * </p>
+ * <p>
+ * Unlike scanning the whole token cache regularly, both scheduling and cancellation are O(1), and expired tokens
+ * are removed within one tick. The delay between the expiry and the removal of tokens (expiry lag) is recorded.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class TimingWheelExpireStrategy implements ExpireStrategy {
+
+    private static final long DEFAULT_TICK_MS = 100;
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_LEVELS = 4;
+    /**
+     * Interval to check again whether the client of the token goes offline.
+     */
+    private static final long CLIENT_CHECK_INTERVAL_MS = 1000;
+
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+        new NamedThreadFactory("sentinel-cluster-token-expire-task", true));
+
+    /**
+     * the local cache of tokenId
+     */
+    private final ConcurrentLinkedHashMap<Long, TokenCacheNode> localCache;
+    private final HierarchicalTimingWheel<TokenCacheNode> wheel;
+
+    private final AtomicLong expiredCount = new AtomicLong(0);
+    private final AtomicLong totalExpireLagMs = new AtomicLong(0);
+    private final AtomicLong maxExpireLagMs = new AtomicLong(0);
+
+    private ScheduledFuture<?> tickFuture;
+    /**
+     * Time of current advance, which expired tokens are checked against.
+     */
+    private volatile long currentTime;
+
+    public TimingWheelExpireStrategy(ConcurrentLinkedHashMap<Long, TokenCacheNode> localCache) {
+        this(localCache, DEFAULT_TICK_MS);
+    }
+
+    public TimingWheelExpireStrategy(ConcurrentLinkedHashMap<Long, TokenCacheNode> localCache, long tickMs) {
+        AssertUtil.isTrue(localCache != null, " local cache can't be null");
+        this.localCache = localCache;
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, WHEEL_BITS, WHEEL_LEVELS, System.currentTimeMillis(),
+            new HierarchicalTimingWheel.ExpireHandler<TokenCacheNode>() {
+                @Override
+                public void onExpire(HierarchicalTimingWheel.Timeout<TokenCacheNode> timeout, long lagMs) {
+                    checkToken(timeout.getValue(), lagMs);
+                }
+            });
+    }
+
+    @Override
+    public synchronized void startClearTaskRegularly() {
+        if (tickFuture != null) {
+            return;
+        }
+        long tickMs = wheel.getTickMs();
+        tickFuture = EXECUTOR.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    advance(System.currentTimeMillis());
+                } catch (Throwable e) {
+                    RecordLog.warn("[TimingWheelExpireStrategy] undefined throwable during clear token: ", e);
+                }
+            }
+        }, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stopClearTask() {
+        if (tickFuture != null) {
+            tickFuture.cancel(false);
+            tickFuture = null;
+        }
+    }
+
+    @Override
+    public void onTokenAdded(TokenCacheNode node) {
+        long now = System.currentTimeMillis();
+        if (node.getSaveTime() <= 0) {
+            node.setSaveTime(now);
+        }
+        schedule(node, now);
+    }
+
+    @Override
+    public void onTokenRemoved(TokenCacheNode node) {
+        HierarchicalTimingWheel.Timeout<TokenCacheNode> timeout = node.getExpireTimeout();
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Advance the timing wheel and remove expired tokens. Package-private for test.
+     */
+    int advance(long nowMs) {
+        currentTime = nowMs;
+        return wheel.advance(nowMs);
+    }
+
+    private void schedule(TokenCacheNode node, long now) {
+        node.setExpireTimeout(wheel.schedule(node, nextCheckTime(node, now)));
+    }
+
+    private long nextCheckTime(TokenCacheNode node, long now) {
+        long clientDeadline = getClientDeadline(node);
+        if (clientDeadline < now) {
+            clientDeadline = now + CLIENT_CHECK_INTERVAL_MS;
+        }
+        // Conditions of expiry are strict inequality.
+        return Math.min(clientDeadline, getResourceDeadline(node)) + 1;
+    }
+
+    /**
+     * The token may be removed after the client offline time since it's issued, if the client is offline.
+     */
+    private long getClientDeadline(TokenCacheNode node) {
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(node.getFlowId());
+        long clientOfflineTime = rule == null ? 0 : rule.getClusterConfig().getClientOfflineTime();
+        return node.getSaveTime() + clientOfflineTime;
+    }
+
+    /**
+     * The token is removed after twice of the resource timeout since it's issued.
+     */
+    private long getResourceDeadline(TokenCacheNode node) {
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(node.getFlowId());
+        long resourceTimeout = rule == null ? 0 : rule.getClusterConfig().getResourceTimeout();
+        return node.getSaveTime() + resourceTimeout * 2;
+    }
+
+    private void checkToken(TokenCacheNode node, long lagMs) {
+        Long tokenId = node.getTokenId();
+        if (localCache.getQuietly(tokenId) != node) {
+            // Already released.
+            return;
+        }
+        long now = currentTime;
+        // remove the token whose client is offline and saved for more than clientTimeout
+        if (!ConnectionManager.isClientOnline(node.getClientAddress()) && now > getClientDeadline(node)) {
+            if (removeToken(tokenId, node, lagMs)) {
+                RecordLog.info("[TimingWheelExpireStrategy] Delete the expired token<{}> because of client offline for ruleId<{}>", tokenId, node.getFlowId());
+            }
+            return;
+        }
+        // If we find that token's save time is more than 2 times of the client's call resource timeout time,
+        // the token will be determined to timeout.
+        if (now > getResourceDeadline(node)) {
+            if (removeToken(tokenId, node, lagMs)) {
+                RecordLog.info("[TimingWheelExpireStrategy] Delete the expired token<{}> because of resource timeout for ruleId<{}>", tokenId, node.getFlowId());
+            }
+            return;
+        }
+        // Not expired yet (e.g. the client is still online), so check it later.
+        schedule(node, now);
+    }
+
+    private boolean removeToken(long tokenId, TokenCacheNode node, long lagMs) {
+        if (!localCache.remove(tokenId, node)) {
+            RecordLog.info("[TimingWheelExpireStrategy] Token<{}> is already released for ruleId<{}>", tokenId, node.getFlowId());
+            return false;
+        }
+        recordExpireLag(lagMs);
+        ClusterServerStatLogUtil.log("concurrent|expire|" + node.getFlowId(), node.getAcquireCount());
+        ClusterServerStatLogUtil.log("concurrent|expire_lag_ms", (int)Math.min(lagMs, Integer.MAX_VALUE));
+        AtomicInteger nowCalls = CurrentConcurrencyManager.get(node.getFlowId());
+        if (nowCalls == null) {
+            return true;
+        }
+        nowCalls.getAndAdd(node.getAcquireCount() * -1);
+        return true;
+    }
+
+    private void recordExpireLag(long lagMs) {
+        expiredCount.incrementAndGet();
+        totalExpireLagMs.addAndGet(lagMs);
+        long max;
+        while ((max = maxExpireLagMs.get()) < lagMs) {
+            if (maxExpireLagMs.compareAndSet(max, lagMs)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return amount of tokens removed because of expiry
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * @return total delay between the expiry and the removal of expired tokens (in ms)
+     */
+    public long getTotalExpireLagMs() {
+        return totalExpireLagMs.get();
+    }
+
+    /**
+     * @return max delay between the expiry and the removal of expired tokens (in ms)
+     */
+    public long getMaxExpireLagMs() {
+        return maxExpireLagMs.get();
+    }
+
+    /**
+     * @return amount of tokens waiting for expiry check
+     */
+    public int getScheduledCount() {
+        return wheel.pendingCount();
+    }
+}
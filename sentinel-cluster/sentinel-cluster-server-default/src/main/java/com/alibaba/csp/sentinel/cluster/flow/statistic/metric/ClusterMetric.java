@@ -71,6 +71,17 @@ public class ClusterMetric {
         return getSum(event) / metric.getIntervalInSecond();
     }
 
+    /**
+     * Get the minimal time (in ms) that a count added right now will stay in the sliding window,
+     * which is the interval minus the length of a bucket.
+     *
+     * @return minimal retained time of a count (in ms)
+     * @since 1.8.6
+     */
+    public int getMinRetainedTimeInMs() {
+        return metric.getIntervalInMs() - metric.getIntervalInMs() / metric.getSampleCount();
+    }
+
     /**
      * Try to pre-occupy upcoming buckets.
      *
@@ -51,6 +51,14 @@ public class DefaultEmbeddedTokenServer implements EmbeddedClusterTokenServer {
         return new TokenResult(TokenResultStatus.FAIL);
     }
 
+    @Override
+    public TokenResult requestTokenLease(Long ruleId, int acquireCount) {
+        if (tokenService != null) {
+            return tokenService.requestTokenLease(ruleId, acquireCount);
+        }
+        return new TokenResult(TokenResultStatus.FAIL);
+    }
+
     @Override
     public TokenResult requestParamToken(Long ruleId, int acquireCount, Collection<Object> params) {
         if (tokenService != null) {
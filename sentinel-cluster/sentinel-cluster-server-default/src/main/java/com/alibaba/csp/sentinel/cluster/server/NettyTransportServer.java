@@ -19,12 +19,15 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import com.alibaba.csp.sentinel.cluster.netty.NettyTransportSupport;
 import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyRequestDecoder;
 import com.alibaba.csp.sentinel.cluster.server.codec.netty.NettyResponseEncoder;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
 import com.alibaba.csp.sentinel.cluster.server.connection.Connection;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
 import com.alibaba.csp.sentinel.cluster.server.handler.TokenServerHandler;
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
@@ -32,9 +35,9 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.logging.LogLevel;
@@ -56,9 +59,10 @@ public class NettyTransportServer implements ClusterTokenServer {
     private static final int RETRY_SLEEP_MS = 2000;
 
     private final int port;
+    private final ServerTransportConfig transportConfig;
 
-    private NioEventLoopGroup bossGroup;
-    private NioEventLoopGroup workerGroup;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
 
     private final ConnectionPool connectionPool = new ConnectionPool();
 
@@ -66,7 +70,18 @@ public class NettyTransportServer implements ClusterTokenServer {
     private final AtomicInteger failedTimes = new AtomicInteger(0);
 
     public NettyTransportServer(int port) {
+        this(port, new ServerTransportConfig());
+    }
+
+    /**
+     * @param port            the port to listen on
+     * @param transportConfig config of the event loops and socket options (the port in it is ignored)
+     * @since 1.8.6
+     */
+    public NettyTransportServer(int port, ServerTransportConfig transportConfig) {
+        AssertUtil.notNull(transportConfig, "transport config cannot be null");
         this.port = port;
+        this.transportConfig = transportConfig;
     }
 
     @Override
@@ -75,11 +90,17 @@ public class NettyTransportServer implements ClusterTokenServer {
             return;
         }
 
-        ServerBootstrap b = new ServerBootstrap();
-        this.bossGroup = new NioEventLoopGroup(1);
-        this.workerGroup = new NioEventLoopGroup(DEFAULT_EVENT_LOOP_THREADS);
+        boolean epoll = useNativeTransport();
+        // Several accept threads are only possible with SO_REUSEPORT of the native transport.
+        final int acceptThreads = epoll ? transportConfig.getAcceptThreads() : 1;
+        int workerThreads = transportConfig.getWorkerThreads() > 0
+            ? transportConfig.getWorkerThreads() : DEFAULT_EVENT_LOOP_THREADS;
+
+        final ServerBootstrap b = new ServerBootstrap();
+        this.bossGroup = NettyTransportSupport.newEventLoopGroup(acceptThreads, epoll);
+        this.workerGroup = NettyTransportSupport.newEventLoopGroup(workerThreads, epoll);
         b.group(bossGroup, workerGroup)
-            .channel(NioServerSocketChannel.class)
+            .channel(NettyTransportSupport.serverChannelClass(epoll))
             .option(ChannelOption.SO_BACKLOG, 128)
             .handler(new LoggingHandler(LogLevel.INFO))
             .childHandler(new ChannelInitializer<SocketChannel>() {
@@ -90,15 +111,20 @@ public class NettyTransportServer implements ClusterTokenServer {
                     p.addLast(new NettyRequestDecoder());
                     p.addLast(new LengthFieldPrepender(2));
                     p.addLast(new NettyResponseEncoder());
-                    p.addLast(new TokenServerHandler(connectionPool));
+                    p.addLast(new TokenServerHandler(connectionPool, port));
                 }
             })
             .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
-            .childOption(ChannelOption.SO_SNDBUF, 32 * 1024)
+            .childOption(ChannelOption.SO_SNDBUF, transportConfig.getSendBufferSize())
             .childOption(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
             .childOption(ChannelOption.SO_TIMEOUT, 10)
             .childOption(ChannelOption.TCP_NODELAY, true)
-            .childOption(ChannelOption.SO_RCVBUF, 32 * 1024);
+            .childOption(ChannelOption.SO_RCVBUF, transportConfig.getReceiveBufferSize())
+            .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                transportConfig.getWriteBufferLowWaterMark(), transportConfig.getWriteBufferHighWaterMark()));
+        if (acceptThreads > 1) {
+            b.option(NettyTransportSupport.reusePortOption(), true);
+        }
         b.bind(port).addListener(new GenericFutureListener<ChannelFuture>() {
             @Override
             public void operationComplete(ChannelFuture future) {
@@ -118,13 +144,42 @@ public class NettyTransportServer implements ClusterTokenServer {
                         RecordLog.info("[NettyTransportServer] Failed to start token server when retrying", e);
                     }
                 } else {
-                    RecordLog.info("[NettyTransportServer] Token server started success at port {}", port);
+                    // Each server channel is registered to the next accept thread of the boss group.
+                    for (int i = 1; i < acceptThreads; i++) {
+                        bindReusedPort(b);
+                    }
+                    RecordLog.info("[NettyTransportServer] Token server started success at port {} ({} transport, "
+                        + "acceptThreads={})", port, future.channel().getClass().getSimpleName(), acceptThreads);
                     currentState.compareAndSet(SERVER_STATUS_STARTING, SERVER_STATUS_STARTED);
                 }
             }
         });
     }
 
+    private boolean useNativeTransport() {
+        if (!transportConfig.isNativeTransport()) {
+            return false;
+        }
+        if (!NettyTransportSupport.isEpollAvailable()) {
+            RecordLog.warn("[NettyTransportServer] Native epoll transport is unavailable, using NIO transport instead",
+                NettyTransportSupport.getEpollUnavailabilityCause());
+            return false;
+        }
+        return true;
+    }
+
+    private void bindReusedPort(ServerBootstrap b) {
+        b.bind(port).addListener(new GenericFutureListener<ChannelFuture>() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+                if (future.cause() != null) {
+                    RecordLog.warn("[NettyTransportServer] Failed to bind another accept channel (port=" + port + ")",
+                        future.cause());
+                }
+            }
+        });
+    }
+
     @Override
     public void stop() {
         // If still initializing, wait for ready.
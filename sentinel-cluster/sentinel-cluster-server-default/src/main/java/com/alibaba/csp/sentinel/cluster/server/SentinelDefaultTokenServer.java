@@ -40,6 +40,7 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
 
     private ClusterTokenServer server;
     private int port;
+    private ServerTransportConfig transportConfig;
     private final AtomicBoolean shouldStart = new AtomicBoolean(false);
 
     static {
@@ -67,7 +68,8 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
         }
         int port = ClusterServerConfigManager.getPort();
         if (port > 0) {
-            this.server = new NettyTransportServer(port);
+            this.transportConfig = ClusterServerConfigManager.getTransportConfig();
+            this.server = new NettyTransportServer(port, transportConfig);
             this.port = port;
         }
     }
@@ -77,15 +79,16 @@ public class SentinelDefaultTokenServer implements ClusterTokenServer {
             return;
         }
         int newPort = config.getPort();
-        if (newPort == port) {
+        if (newPort == port && config.hasSameServerOptions(transportConfig)) {
             return;
         }
         try {
             if (server != null) {
                 stopServer();
             }
-            this.server = new NettyTransportServer(newPort);
+            this.server = new NettyTransportServer(newPort, config);
             this.port = newPort;
+            this.transportConfig = config;
             startServerIfScheduled();
         } catch (Exception ex) {
             RecordLog.warn("[SentinelDefaultTokenServer] Failed to apply modification to token server", ex);
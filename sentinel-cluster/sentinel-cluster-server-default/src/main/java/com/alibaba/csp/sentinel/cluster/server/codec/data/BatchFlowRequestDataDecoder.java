@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.codec.EntityDecoder;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * <p>
+ * Decoder for {@link BatchFlowRequestData} from {@code ByteBuf} stream. The entries are read from the
+ * frame buffer directly into the primitive arrays of the batch. The layout:
+ * </p>
+ * <pre>
+ * | size (2) | flow ID (8) | count (4) | priority flag (1) | ... (repeated for each entry)
+ * </pre>
+ *
+ * @since 1.8.6
+ */
+public class BatchFlowRequestDataDecoder implements EntityDecoder<ByteBuf, BatchFlowRequestData> {
+
+    private static final int ENTRY_BYTES = 13;
+
+    @Override
+    public BatchFlowRequestData decode(ByteBuf source) {
+        if (source.readableBytes() < 2) {
+            return null;
+        }
+        int size = source.readUnsignedShort();
+        if (size <= 0 || size > BatchFlowRequestData.MAX_BATCH_SIZE || source.readableBytes() < size * ENTRY_BYTES) {
+            return null;
+        }
+        BatchFlowRequestData data = new BatchFlowRequestData(size);
+        for (int i = 0; i < size; i++) {
+            data.add(source.readLong(), source.readInt(), source.readBoolean());
+        }
+        return data;
+    }
+}
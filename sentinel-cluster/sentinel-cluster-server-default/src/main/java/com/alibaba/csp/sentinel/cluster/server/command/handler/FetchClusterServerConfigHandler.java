@@ -55,7 +55,8 @@ public class FetchClusterServerConfigHandler implements CommandHandler<String> {
     private CommandResponse<String> globalConfigResult() {
         ServerTransportConfig transportConfig = new ServerTransportConfig()
             .setPort(ClusterServerConfigManager.getPort())
-            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds());
+            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds())
+            .setServerOptions(ClusterServerConfigManager.getTransportConfig());
         ServerFlowConfig flowConfig = new ServerFlowConfig()
             .setExceedCount(ClusterServerConfigManager.getExceedCount())
             .setMaxOccupyRatio(ClusterServerConfigManager.getMaxOccupyRatio())
@@ -52,7 +52,8 @@ public class FetchClusterServerInfoCommandHandler implements CommandHandler<Stri
 
         ServerTransportConfig transportConfig = new ServerTransportConfig()
             .setPort(ClusterServerConfigManager.getPort())
-            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds());
+            .setIdleSeconds(ClusterServerConfigManager.getIdleSeconds())
+            .setServerOptions(ClusterServerConfigManager.getTransportConfig());
         ServerFlowConfig flowConfig = new ServerFlowConfig()
             .setExceedCount(ClusterServerConfigManager.getExceedCount())
             .setMaxOccupyRatio(ClusterServerConfigManager.getMaxOccupyRatio())
@@ -72,6 +73,8 @@ public class FetchClusterServerInfoCommandHandler implements CommandHandler<Stri
 
         // Since 1.5.0 the appName is carried so that the caller can identify the appName of the token server.
         info.put("appName", AppNameUtil.getAppName());
+        // Since 1.8.6 the shard map is carried so that the clients can be assigned with the same shard map.
+        info.put("shard", ClusterServerConfigManager.getShardConfig());
 
         return CommandResponse.ofSuccess(info.toJSONString());
     }
@@ -44,8 +44,28 @@ public class ModifyClusterServerTransportConfigHandler implements CommandHandler
             int port = Integer.valueOf(portValue);
             int idleSeconds = Integer.valueOf(idleSecondsValue);
 
-            ClusterServerConfigManager.loadGlobalTransportConfig(new ServerTransportConfig()
-                .setPort(port).setIdleSeconds(idleSeconds));
+            // Options absent in the request remain unchanged.
+            ServerTransportConfig current = ClusterServerConfigManager.getTransportConfig();
+            ServerTransportConfig config = new ServerTransportConfig()
+                .setPort(port).setIdleSeconds(idleSeconds)
+                .setServerOptions(current);
+            String nativeTransportValue = request.getParam("nativeTransport");
+            if (StringUtil.isNotBlank(nativeTransportValue)) {
+                config.setNativeTransport(Boolean.parseBoolean(nativeTransportValue));
+            }
+            config.setAcceptThreads(parseIntParam(request, "acceptThreads", current.getAcceptThreads()))
+                .setWorkerThreads(parseIntParam(request, "workerThreads", current.getWorkerThreads()))
+                .setSendBufferSize(parseIntParam(request, "sendBufferSize", current.getSendBufferSize()))
+                .setReceiveBufferSize(parseIntParam(request, "receiveBufferSize", current.getReceiveBufferSize()))
+                .setWriteBufferLowWaterMark(parseIntParam(request, "writeBufferLowWaterMark",
+                    current.getWriteBufferLowWaterMark()))
+                .setWriteBufferHighWaterMark(parseIntParam(request, "writeBufferHighWaterMark",
+                    current.getWriteBufferHighWaterMark()));
+            if (!ClusterServerConfigManager.isValidTransportConfig(config)) {
+                return CommandResponse.ofFailure(new IllegalArgumentException("invalid transport config"));
+            }
+
+            ClusterServerConfigManager.loadGlobalTransportConfig(config);
             return CommandResponse.ofSuccess("success");
         } catch (NumberFormatException e) {
             return CommandResponse.ofFailure(new IllegalArgumentException("invalid parameter"));
@@ -53,4 +73,9 @@ public class ModifyClusterServerTransportConfigHandler implements CommandHandler
             return CommandResponse.ofFailure(new IllegalArgumentException("unexpected error"));
         }
     }
+
+    private int parseIntParam(CommandRequest request, String name, int defaultValue) {
+        String value = request.getParam(name);
+        return StringUtil.isBlank(value) ? defaultValue : Integer.valueOf(value);
+    }
 }
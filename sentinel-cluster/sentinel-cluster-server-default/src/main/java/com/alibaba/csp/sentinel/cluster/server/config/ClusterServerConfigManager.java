@@ -15,6 +15,8 @@
  */
 package com.alibaba.csp.sentinel.cluster.server.config;
 
+import java.net.InetAddress;
+import java.net.NetworkInterface;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -24,6 +26,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenServerDescriptor;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterParamFlowRuleManager;
 import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterMetricStatistics;
@@ -31,12 +34,15 @@ import com.alibaba.csp.sentinel.cluster.flow.statistic.ClusterParamMetricStatist
 import com.alibaba.csp.sentinel.cluster.flow.statistic.limit.GlobalRequestLimiter;
 import com.alibaba.csp.sentinel.cluster.registry.ConfigSupplierRegistry;
 import com.alibaba.csp.sentinel.cluster.server.ServerConstants;
+import com.alibaba.csp.sentinel.cluster.shard.TokenServerShardRing;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
 import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleUtil;
 import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.HostNameUtil;
+import com.alibaba.csp.sentinel.util.StringUtil;
 
 /**
  * @author Eric Zhao
@@ -51,6 +57,10 @@ public final class ClusterServerConfigManager {
      */
     private static volatile int port = ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT;
     private static volatile int idleSeconds = ServerTransportConfig.DEFAULT_IDLE_SECONDS;
+    /**
+     * The latest valid transport config, including the event loops and socket options of the server.
+     */
+    private static volatile ServerTransportConfig transportConfig = new ServerTransportConfig();
     private static volatile Set<String> namespaceSet = Collections.singleton(ServerConstants.DEFAULT_NAMESPACE);
 
     /**
@@ -61,6 +71,7 @@ public final class ClusterServerConfigManager {
     private static volatile int intervalMs = ServerFlowConfig.DEFAULT_INTERVAL_MS;
     private static volatile int sampleCount = ServerFlowConfig.DEFAULT_SAMPLE_COUNT;
     private static volatile double maxAllowedQps = ServerFlowConfig.DEFAULT_MAX_ALLOWED_QPS;
+    private static volatile double maxLeaseRatio = ServerFlowConfig.DEFAULT_MAX_LEASE_RATIO;
 
     /**
      * Namespace-specific flow config for token server.
@@ -68,6 +79,20 @@ public final class ClusterServerConfigManager {
      */
     private static final Map<String, ServerFlowConfig> NAMESPACE_CONF = new ConcurrentHashMap<>();
 
+    /**
+     * Consistent-hash ring of token server shards (null if sharded mode is disabled).
+     */
+    private static volatile TokenServerShardRing shardRing = null;
+    private static volatile ServerShardConfig shardConfig = null;
+    /**
+     * Address of this token server in the shard map, or null to match the hosts of local network interfaces.
+     */
+    private static volatile TokenServerDescriptor localShardServer = null;
+    /**
+     * Hosts in the shard map that refer to this machine, resolved when the shard map is loaded.
+     */
+    private static volatile Set<String> localShardHosts = Collections.emptySet();
+
     private static final List<ServerTransportConfigObserver> TRANSPORT_CONFIG_OBSERVERS = new ArrayList<>();
 
     /**
@@ -82,6 +107,10 @@ public final class ClusterServerConfigManager {
      * Property for cluster server global flow control configuration.
      */
     private static SentinelProperty<ServerFlowConfig> globalFlowProperty = new DynamicSentinelProperty<>();
+    /**
+     * Property for the shard map of token servers.
+     */
+    private static SentinelProperty<ServerShardConfig> shardProperty = new DynamicSentinelProperty<>();
 
     private static final PropertyListener<ServerTransportConfig> TRANSPORT_PROPERTY_LISTENER
         = new ServerGlobalTransportPropertyListener();
@@ -89,11 +118,14 @@ public final class ClusterServerConfigManager {
         = new ServerGlobalFlowPropertyListener();
     private static final PropertyListener<Set<String>> NAMESPACE_SET_PROPERTY_LISTENER
         = new ServerNamespaceSetPropertyListener();
+    private static final PropertyListener<ServerShardConfig> SHARD_PROPERTY_LISTENER
+        = new ServerShardPropertyListener();
 
     static {
         transportConfigProperty.addListener(TRANSPORT_PROPERTY_LISTENER);
         globalFlowProperty.addListener(GLOBAL_FLOW_PROPERTY_LISTENER);
         namespaceSetProperty.addListener(NAMESPACE_SET_PROPERTY_LISTENER);
+        shardProperty.addListener(SHARD_PROPERTY_LISTENER);
     }
 
     /**
@@ -147,6 +179,34 @@ public final class ClusterServerConfigManager {
         }
     }
 
+    /**
+     * Register the dynamic property of token server shard map.
+     *
+     * @param property shard map dynamic property
+     * @since 1.8.6
+     */
+    public static void registerShardProperty(SentinelProperty<ServerShardConfig> property) {
+        AssertUtil.notNull(property, "cluster server shard config dynamic property cannot be null");
+        synchronized (SHARD_PROPERTY_LISTENER) {
+            RecordLog.info(
+                "[ClusterServerConfigManager] Registering new server shard dynamic property to Sentinel server "
+                    + "config manager");
+            shardProperty.removeListener(SHARD_PROPERTY_LISTENER);
+            property.addListener(SHARD_PROPERTY_LISTENER);
+            shardProperty = property;
+        }
+    }
+
+    /**
+     * Load provided shard map of token servers to property in memory.
+     *
+     * @param config shard map of token servers; null or empty server list to disable sharded mode
+     * @since 1.8.6
+     */
+    public static void loadShardConfig(ServerShardConfig config) {
+        shardProperty.updateValue(config);
+    }
+
     /**
      * Load provided server namespace set to property in memory.
      *
@@ -290,7 +350,9 @@ public final class ClusterServerConfigManager {
     private static void updateTokenServer(ServerTransportConfig config) {
         int newPort = config.getPort();
         AssertUtil.isTrue(newPort > 0, "token server port should be valid (positive)");
-        if (newPort == port) {
+        ServerTransportConfig oldConfig = transportConfig;
+        ClusterServerConfigManager.transportConfig = config;
+        if (newPort == port && config.hasSameServerOptions(oldConfig)) {
             return;
         }
         ClusterServerConfigManager.port = newPort;
@@ -325,6 +387,9 @@ public final class ClusterServerConfigManager {
             if (config.getMaxOccupyRatio() != maxOccupyRatio) {
                 maxOccupyRatio = config.getMaxOccupyRatio();
             }
+            if (config.getMaxLeaseRatio() != maxLeaseRatio) {
+                maxLeaseRatio = config.getMaxLeaseRatio();
+            }
             if (config.getMaxAllowedQps() != maxAllowedQps) {
                 maxAllowedQps = config.getMaxAllowedQps();
                 GlobalRequestLimiter.applyMaxQpsChange(maxAllowedQps);
@@ -345,13 +410,59 @@ public final class ClusterServerConfigManager {
         }
     }
 
+    private static class ServerShardPropertyListener implements PropertyListener<ServerShardConfig> {
+
+        @Override
+        public void configLoad(ServerShardConfig config) {
+            applyShardConfig(config);
+        }
+
+        @Override
+        public void configUpdate(ServerShardConfig config) {
+            applyShardConfig(config);
+        }
+
+        private synchronized void applyShardConfig(ServerShardConfig config) {
+            if (config == null || config.getServers() == null || config.getServers().isEmpty()) {
+                RecordLog.info("[ClusterServerConfigManager] Sharded mode of token server disabled");
+                shardRing = null;
+                shardConfig = null;
+                localShardServer = null;
+                localShardHosts = Collections.emptySet();
+                return;
+            }
+            try {
+                TokenServerShardRing ring = TokenServerShardRing.of(config.getServers(), config.getVirtualNodes());
+                TokenServerDescriptor localServer = null;
+                if (StringUtil.isNotBlank(config.getLocalServer())) {
+                    localServer = TokenServerShardRing.parseAddress(config.getLocalServer());
+                    AssertUtil.isTrue(localServer != null, "invalid local server address: "
+                        + config.getLocalServer());
+                }
+                localShardServer = localServer;
+                localShardHosts = resolveLocalHosts(config.getServers());
+                shardRing = ring;
+                shardConfig = config;
+                RecordLog.info("[ClusterServerConfigManager] Updating new server shard config: {}", config);
+            } catch (IllegalArgumentException ex) {
+                RecordLog.warn("[ClusterServerConfigManager] Invalid cluster server shard config, ignoring: "
+                    + config, ex);
+            }
+        }
+    }
+
     public static boolean isValidTransportConfig(ServerTransportConfig config) {
-        return config != null && config.getPort() > 0 && config.getPort() <= 65535;
+        return config != null && config.getPort() > 0 && config.getPort() <= 65535
+            && config.getAcceptThreads() > 0 && config.getWorkerThreads() >= 0
+            && config.getSendBufferSize() > 0 && config.getReceiveBufferSize() > 0
+            && config.getWriteBufferLowWaterMark() > 0
+            && config.getWriteBufferLowWaterMark() <= config.getWriteBufferHighWaterMark();
     }
 
     public static boolean isValidFlowConfig(ServerFlowConfig config) {
         return config != null && config.getMaxOccupyRatio() >= 0 && config.getExceedCount() >= 0
             && config.getMaxAllowedQps() >= 0
+            && config.getMaxLeaseRatio() >= 0 && config.getMaxLeaseRatio() <= 1
             && FlowRuleUtil.isWindowConfigValid(config.getSampleCount(), config.getIntervalMs());
     }
 
@@ -410,6 +521,82 @@ public final class ClusterServerConfigManager {
         return maxAllowedQps;
     }
 
+    public static double getMaxLeaseRatio(String namespace) {
+        AssertUtil.notEmpty(namespace, "namespace cannot be empty");
+        ServerFlowConfig config = NAMESPACE_CONF.get(namespace);
+        if (config != null) {
+            return config.getMaxLeaseRatio();
+        }
+        return maxLeaseRatio;
+    }
+
+    public static double getMaxLeaseRatio() {
+        return maxLeaseRatio;
+    }
+
+    /**
+     * Check whether the flow ID is owned by the token server listening on provided port.
+     * Any flow ID is owned if sharded mode is disabled. If the local server address of the shard map is present,
+     * the owner should be that address, otherwise the owner should listen on provided port of a local host.
+     *
+     * @param flowId     flow ID
+     * @param serverPort port of the token server
+     * @return true if the token server should serve the flow ID
+     * @since 1.8.6
+     */
+    public static boolean isFlowIdOwned(long flowId, int serverPort) {
+        TokenServerShardRing ring = shardRing;
+        if (ring == null) {
+            return true;
+        }
+        TokenServerDescriptor owner = ring.route(flowId);
+        TokenServerDescriptor localServer = localShardServer;
+        if (localServer != null) {
+            return owner.getPort() == localServer.getPort() && owner.getHost().equalsIgnoreCase(localServer.getHost());
+        }
+        return owner.getPort() == serverPort && localShardHosts.contains(owner.getHost());
+    }
+
+    /**
+     * Find the hosts of the servers that refer to this machine, i.e. any-local or loopback addresses, or
+     * addresses of any local network interface.
+     */
+    private static Set<String> resolveLocalHosts(List<String> servers) {
+        Set<String> hosts = new HashSet<>();
+        for (String server : servers) {
+            TokenServerDescriptor descriptor = TokenServerShardRing.parseAddress(server);
+            if (descriptor != null && isLocalHost(descriptor.getHost())) {
+                hosts.add(descriptor.getHost());
+            }
+        }
+        return hosts;
+    }
+
+    private static boolean isLocalHost(String host) {
+        if (host.equalsIgnoreCase(HostNameUtil.getHostName())) {
+            return true;
+        }
+        try {
+            for (InetAddress address : InetAddress.getAllByName(host)) {
+                if (address.isAnyLocalAddress() || address.isLoopbackAddress()
+                    || NetworkInterface.getByInetAddress(address) != null) {
+                    return true;
+                }
+            }
+        } catch (Exception ex) {
+            RecordLog.warn("[ClusterServerConfigManager] Failed to resolve token server host: " + host, ex);
+        }
+        return false;
+    }
+
+    /**
+     * @return current shard map of token servers, or null if sharded mode is disabled
+     * @since 1.8.6
+     */
+    public static ServerShardConfig getShardConfig() {
+        return shardConfig;
+    }
+
     public static double getExceedCount() {
         return exceedCount;
     }
@@ -430,6 +617,14 @@ public final class ClusterServerConfigManager {
         return idleSeconds;
     }
 
+    /**
+     * @return the latest valid transport config
+     * @since 1.8.6
+     */
+    public static ServerTransportConfig getTransportConfig() {
+        return transportConfig;
+    }
+
     public static int getIntervalMs() {
         return intervalMs;
     }
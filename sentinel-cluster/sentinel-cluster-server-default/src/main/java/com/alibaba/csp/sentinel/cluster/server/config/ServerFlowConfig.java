@@ -29,6 +29,10 @@ public class ServerFlowConfig {
     public static final int DEFAULT_INTERVAL_MS = 1000;
     public static final int DEFAULT_SAMPLE_COUNT= 10;
     public static final double DEFAULT_MAX_ALLOWED_QPS= 30000;
+    /**
+     * @since 1.8.6
+     */
+    public static final double DEFAULT_MAX_LEASE_RATIO = 0.1d;
 
     private final String namespace;
 
@@ -38,6 +42,12 @@ public class ServerFlowConfig {
     private int sampleCount = DEFAULT_SAMPLE_COUNT;
 
     private double maxAllowedQps = DEFAULT_MAX_ALLOWED_QPS;
+    /**
+     * Max ratio of the global threshold that can be granted in a single token lease.
+     *
+     * @since 1.8.6
+     */
+    private double maxLeaseRatio = DEFAULT_MAX_LEASE_RATIO;
 
     public ServerFlowConfig() {
         this(ServerConstants.DEFAULT_NAMESPACE);
@@ -96,6 +106,15 @@ public class ServerFlowConfig {
         return this;
     }
 
+    public double getMaxLeaseRatio() {
+        return maxLeaseRatio;
+    }
+
+    public ServerFlowConfig setMaxLeaseRatio(double maxLeaseRatio) {
+        this.maxLeaseRatio = maxLeaseRatio;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "ServerFlowConfig{" +
@@ -105,6 +124,7 @@ public class ServerFlowConfig {
             ", intervalMs=" + intervalMs +
             ", sampleCount=" + sampleCount +
             ", maxAllowedQps=" + maxAllowedQps +
+            ", maxLeaseRatio=" + maxLeaseRatio +
             '}';
     }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.config;
+
+import java.util.List;
+
+import com.alibaba.csp.sentinel.cluster.shard.TokenServerShardRing;
+
+/**
+ * <p>Shard map of token servers. In sharded mode, each token server only serves the flow IDs it owns
+ * according to the consistent-hash ring of the servers ({@link TokenServerShardRing}), and requests of
+ * other flow IDs will be rejected. The clients should be assigned with the same shard map.</p>
+ * <p>An empty server list means the sharded mode is disabled.</p>
+ *
+ * @since 1.8.6
+ */
+public class ServerShardConfig {
+
+    /**
+     * Addresses of all token servers in {@code host:port} format.
+     */
+    private List<String> servers;
+    /**
+     * Address of this token server in {@code host:port} format, which should be one of {@link #servers}.
+     * If absent, the hosts of the servers are matched against the addresses of local network interfaces.
+     */
+    private String localServer;
+    private int virtualNodes = TokenServerShardRing.DEFAULT_VIRTUAL_NODES;
+
+    public List<String> getServers() {
+        return servers;
+    }
+
+    public ServerShardConfig setServers(List<String> servers) {
+        this.servers = servers;
+        return this;
+    }
+
+    public String getLocalServer() {
+        return localServer;
+    }
+
+    public ServerShardConfig setLocalServer(String localServer) {
+        this.localServer = localServer;
+        return this;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public ServerShardConfig setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerShardConfig{" +
+            "servers=" + servers +
+            ", localServer='" + localServer + '\'' +
+            ", virtualNodes=" + virtualNodes +
+            '}';
+    }
+}
@@ -24,10 +24,60 @@ import com.alibaba.csp.sentinel.cluster.ClusterConstants;
 public class ServerTransportConfig {
 
     public static final int DEFAULT_IDLE_SECONDS = 600;
+    /**
+     * @since 1.8.6
+     */
+    public static final int DEFAULT_ACCEPT_THREADS = 1;
+    /**
+     * @since 1.8.6
+     */
+    public static final int DEFAULT_SOCKET_BUFFER_SIZE = 32 * 1024;
+    /**
+     * @since 1.8.6
+     */
+    public static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
+    /**
+     * @since 1.8.6
+     */
+    public static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
 
     private int port;
     private int idleSeconds;
 
+    /**
+     * Whether to use the native epoll transport of Netty (on Linux, if available).
+     *
+     * @since 1.8.6
+     */
+    private boolean nativeTransport = false;
+    /**
+     * Amount of threads to accept connections. Several server channels will be bound to the port with
+     * {@code SO_REUSEPORT}, so it only takes effect with the native epoll transport.
+     *
+     * @since 1.8.6
+     */
+    private int acceptThreads = DEFAULT_ACCEPT_THREADS;
+    /**
+     * Amount of I/O worker threads, or 0 for the default amount (twice the amount of processors).
+     *
+     * @since 1.8.6
+     */
+    private int workerThreads = 0;
+    /**
+     * {@code SO_SNDBUF} and {@code SO_RCVBUF} of client connections.
+     *
+     * @since 1.8.6
+     */
+    private int sendBufferSize = DEFAULT_SOCKET_BUFFER_SIZE;
+    private int receiveBufferSize = DEFAULT_SOCKET_BUFFER_SIZE;
+    /**
+     * Write buffer water marks of client connections.
+     *
+     * @since 1.8.6
+     */
+    private int writeBufferLowWaterMark = DEFAULT_WRITE_BUFFER_LOW_WATER_MARK;
+    private int writeBufferHighWaterMark = DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK;
+
     public ServerTransportConfig() {
         this(ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT, DEFAULT_IDLE_SECONDS);
     }
@@ -55,11 +105,118 @@ public class ServerTransportConfig {
         return this;
     }
 
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    public ServerTransportConfig setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+        return this;
+    }
+
+    public int getAcceptThreads() {
+        return acceptThreads;
+    }
+
+    public ServerTransportConfig setAcceptThreads(int acceptThreads) {
+        this.acceptThreads = acceptThreads;
+        return this;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public ServerTransportConfig setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+        return this;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public ServerTransportConfig setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+        return this;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public ServerTransportConfig setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+        return this;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public ServerTransportConfig setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        return this;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public ServerTransportConfig setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        return this;
+    }
+
+    /**
+     * Copy the event loops and socket options from provided config.
+     *
+     * @param config another config
+     * @return this config
+     * @since 1.8.6
+     */
+    public ServerTransportConfig setServerOptions(ServerTransportConfig config) {
+        this.nativeTransport = config.nativeTransport;
+        this.acceptThreads = config.acceptThreads;
+        this.workerThreads = config.workerThreads;
+        this.sendBufferSize = config.sendBufferSize;
+        this.receiveBufferSize = config.receiveBufferSize;
+        this.writeBufferLowWaterMark = config.writeBufferLowWaterMark;
+        this.writeBufferHighWaterMark = config.writeBufferHighWaterMark;
+        return this;
+    }
+
+    /**
+     * Check whether the event loops and socket options (which take effect after restarting the server)
+     * are the same as provided config.
+     *
+     * @param config another config
+     * @return true if the event loops and socket options are the same
+     * @since 1.8.6
+     */
+    public boolean hasSameServerOptions(ServerTransportConfig config) {
+        return config != null
+            && nativeTransport == config.nativeTransport
+            && acceptThreads == config.acceptThreads
+            && workerThreads == config.workerThreads
+            && sendBufferSize == config.sendBufferSize
+            && receiveBufferSize == config.receiveBufferSize
+            && writeBufferLowWaterMark == config.writeBufferLowWaterMark
+            && writeBufferHighWaterMark == config.writeBufferHighWaterMark;
+    }
+
     @Override
     public String toString() {
         return "ServerTransportConfig{" +
             "port=" + port +
             ", idleSeconds=" + idleSeconds +
+            ", nativeTransport=" + nativeTransport +
+            ", acceptThreads=" + acceptThreads +
+            ", workerThreads=" + workerThreads +
+            ", sendBufferSize=" + sendBufferSize +
+            ", receiveBufferSize=" + receiveBufferSize +
+            ", writeBufferLowWaterMark=" + writeBufferLowWaterMark +
+            ", writeBufferHighWaterMark=" + writeBufferHighWaterMark +
             '}';
     }
 }
@@ -18,8 +18,14 @@ package com.alibaba.csp.sentinel.cluster.server.handler;
 import java.net.InetSocketAddress;
 
 import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
 import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.request.data.ParamFlowRequestData;
 import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.FlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionManager;
 import com.alibaba.csp.sentinel.cluster.server.connection.ConnectionPool;
 import com.alibaba.csp.sentinel.cluster.server.processor.RequestProcessor;
@@ -39,9 +45,23 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 public class TokenServerHandler extends ChannelInboundHandlerAdapter {
 
     private final ConnectionPool globalConnectionPool;
+    /**
+     * Port of the token server, which identifies the server in the shard map (-1 if unknown).
+     */
+    private final int serverPort;
 
     public TokenServerHandler(ConnectionPool globalConnectionPool) {
+        this(globalConnectionPool, -1);
+    }
+
+    /**
+     * @param globalConnectionPool connection pool of the token server
+     * @param serverPort           port of the token server
+     * @since 1.8.6
+     */
+    public TokenServerHandler(ConnectionPool globalConnectionPool, int serverPort) {
         this.globalConnectionPool = globalConnectionPool;
+        this.serverPort = serverPort;
     }
 
     @Override
@@ -68,6 +88,11 @@ public class TokenServerHandler extends ChannelInboundHandlerAdapter {
                 handlePingRequest(ctx, request);
                 return;
             }
+            // In sharded mode, reject the request of flow IDs owned by other token servers.
+            if (!isOwnedRequest(request)) {
+                writeNotOwnedResponse(ctx, request);
+                return;
+            }
 
             // Pick request processor for request type.
             RequestProcessor<?, ?> processor = RequestProcessorProvider.getProcessor(request.getType());
@@ -87,6 +112,39 @@ public class TokenServerHandler extends ChannelInboundHandlerAdapter {
         writeResponse(ctx, response);
     }
 
+    private boolean isOwnedRequest(ClusterRequest request) {
+        if (serverPort <= 0) {
+            return true;
+        }
+        Object data = request.getData();
+        if (data instanceof FlowRequestData) {
+            return ClusterServerConfigManager.isFlowIdOwned(((FlowRequestData)data).getFlowId(), serverPort);
+        }
+        if (data instanceof ParamFlowRequestData) {
+            return ClusterServerConfigManager.isFlowIdOwned(((ParamFlowRequestData)data).getFlowId(), serverPort);
+        }
+        if (data instanceof BatchFlowRequestData) {
+            BatchFlowRequestData batch = (BatchFlowRequestData)data;
+            for (int i = 0; i < batch.size(); i++) {
+                if (!ClusterServerConfigManager.isFlowIdOwned(batch.getFlowId(i), serverPort)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void writeNotOwnedResponse(ChannelHandlerContext ctx, ClusterRequest request) {
+        if (request.getData() instanceof BatchFlowRequestData) {
+            // Each entry of the rejected batch fails on the client side.
+            writeBadResponse(ctx, request);
+            return;
+        }
+        ClusterResponse<FlowTokenResponseData> response = new ClusterResponse<>(request.getId(), request.getType(),
+            TokenResultStatus.NOT_AVAILABLE, new FlowTokenResponseData().setRemainingCount(0).setWaitInMs(0));
+        writeResponse(ctx, response);
+    }
+
     private void writeResponse(ChannelHandlerContext ctx, ClusterResponse response) {
         ctx.writeAndFlush(response);
     }
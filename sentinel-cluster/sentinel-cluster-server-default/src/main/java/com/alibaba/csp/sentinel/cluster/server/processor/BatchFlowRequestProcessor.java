@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.processor;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenService;
+import com.alibaba.csp.sentinel.cluster.annotation.RequestType;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+import com.alibaba.csp.sentinel.cluster.server.TokenServiceProvider;
+
+/**
+ * Processor for a batch of flow token requests, which evaluates all the requests in one pass
+ * and responds with the results in the same order.
+ *
+ * @since 1.8.6
+ */
+@RequestType(ClusterConstants.MSG_TYPE_FLOW_BATCH)
+public class BatchFlowRequestProcessor
+    implements RequestProcessor<BatchFlowRequestData, BatchFlowTokenResponseData> {
+
+    @Override
+    public ClusterResponse<BatchFlowTokenResponseData> processRequest(ClusterRequest<BatchFlowRequestData> request) {
+        BatchFlowRequestData data = request.getData();
+        if (data == null || data.size() == 0) {
+            return new ClusterResponse<>(request.getId(), request.getType(), ClusterConstants.RESPONSE_STATUS_BAD,
+                null);
+        }
+        TokenService tokenService = TokenServiceProvider.getService();
+
+        int size = data.size();
+        BatchFlowTokenResponseData responseData = new BatchFlowTokenResponseData(size);
+        for (int i = 0; i < size; i++) {
+            TokenResult result = tokenService.requestToken(data.getFlowId(i), data.getCount(i), data.isPriority(i));
+            responseData.add(result.getStatus(), result.getRemaining(), result.getWaitInMs());
+        }
+        return new ClusterResponse<>(request.getId(), request.getType(), ClusterConstants.RESPONSE_STATUS_OK,
+            responseData);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow;
+
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for token lease of {@link ClusterFlowChecker}.
+ */
+public class ClusterFlowLeaseTest extends AbstractTimeBasedTest {
+
+    private static final String NAMESPACE = "lease-test";
+    private static final long FLOW_ID = 112L;
+
+    @Before
+    public void setUp() {
+        setCurrentMillis(System.currentTimeMillis() / 1000 * 1000);
+        FlowRule rule = new FlowRule("lease-resource")
+            .setCount(100)
+            .setClusterMode(true)
+            .setClusterConfig(new ClusterFlowConfig()
+                .setFlowId(FLOW_ID)
+                .setSampleCount(10)
+                .setWindowIntervalMs(1000)
+                .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL));
+        ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.singletonList(rule));
+    }
+
+    @After
+    public void tearDown() {
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.<FlowRule>emptyList());
+    }
+
+    @Test
+    public void testLeaseBoundedByThreshold() {
+        FlowRule rule = ClusterFlowRuleManager.getFlowRuleById(FLOW_ID);
+        // The size of a lease is bounded by max lease ratio (0.1 by default) of the threshold.
+        TokenResult result = ClusterFlowChecker.acquireClusterLease(rule, 50);
+        assertEquals(TokenResultStatus.OK, (int) result.getStatus());
+        assertEquals(10, result.getRemaining());
+        // The lease expires before the reservation leaves the sliding window.
+        assertEquals(900, result.getWaitInMs());
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals(10, ClusterFlowChecker.acquireClusterLease(rule, 10).getRemaining());
+        }
+        // Only part of the lease is granted as the threshold is nearly reached.
+        assertEquals(5, ClusterFlowChecker.acquireClusterToken(rule, 5, false).getRemaining());
+        result = ClusterFlowChecker.acquireClusterLease(rule, 10);
+        assertEquals(TokenResultStatus.OK, (int) result.getStatus());
+        assertEquals(5, result.getRemaining());
+
+        // Leased tokens are reserved from the global threshold.
+        assertEquals(TokenResultStatus.BLOCKED, (int) ClusterFlowChecker.acquireClusterLease(rule, 1).getStatus());
+        assertEquals(TokenResultStatus.BLOCKED,
+            (int) ClusterFlowChecker.acquireClusterToken(rule, 1, false).getStatus());
+
+        sleep(1000);
+        result = ClusterFlowChecker.acquireClusterLease(rule, 1);
+        assertEquals(TokenResultStatus.OK, (int) result.getStatus());
+        assertEquals(1, result.getRemaining());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link HierarchicalTimingWheel}.
+ */
+public class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 10;
+    private static final long START_MS = 100000;
+
+    private final Map<Long, Long> expireTimes = new HashMap<>();
+    private final List<Long> lags = new ArrayList<>();
+    private long now;
+    private HierarchicalTimingWheel<Long> wheel;
+
+    @Before
+    public void setUp() {
+        now = START_MS;
+        // 4 buckets per level and 3 levels, which covers 64 ticks.
+        wheel = new HierarchicalTimingWheel<>(TICK_MS, 2, 3, START_MS,
+            new HierarchicalTimingWheel.ExpireHandler<Long>() {
+                @Override
+                public void onExpire(HierarchicalTimingWheel.Timeout<Long> timeout, long lagMs) {
+                    assertNull(expireTimes.put(timeout.getValue(), now));
+                    lags.add(lagMs);
+                }
+            });
+    }
+
+    private void advanceTo(long time) {
+        while (now < time) {
+            now = Math.min(time, now + TICK_MS / 2);
+            wheel.advance(now);
+        }
+    }
+
+    @Test
+    public void testExpireAtDeadlineOfEachLevel() {
+        long[] delays = {0, 1, 15, 39, 40, 41, 155, 160, 630, 639, 640, 2000, 9999};
+        for (long delay : delays) {
+            wheel.schedule(delay, START_MS + delay);
+        }
+        assertEquals(delays.length, wheel.pendingCount());
+
+        advanceTo(START_MS + 12000);
+        assertEquals(0, wheel.pendingCount());
+        for (long delay : delays) {
+            Long expireTime = expireTimes.get(delay);
+            assertNotNull("not expired: " + delay, expireTime);
+            // Never expire early, and expire within one tick after the deadline.
+            assertTrue("expired early: " + delay, expireTime >= START_MS + delay);
+            assertTrue("expired late: " + delay, expireTime < START_MS + delay + TICK_MS);
+        }
+        for (long lag : lags) {
+            assertTrue(lag >= 0 && lag < TICK_MS);
+        }
+    }
+
+    @Test
+    public void testCancel() {
+        HierarchicalTimingWheel.Timeout<Long> t1 = wheel.schedule(1L, START_MS + 25);
+        HierarchicalTimingWheel.Timeout<Long> t2 = wheel.schedule(2L, START_MS + 500);
+        HierarchicalTimingWheel.Timeout<Long> t3 = wheel.schedule(3L, START_MS + 500);
+        advanceTo(START_MS + 10);
+
+        assertTrue(t1.cancel());
+        assertFalse(t1.cancel());
+        assertTrue(t2.cancel());
+        assertEquals(1, wheel.pendingCount());
+
+        advanceTo(START_MS + 1000);
+        assertTrue(t1.isCancelled());
+        assertTrue(t3.isExpired());
+        assertFalse(expireTimes.containsKey(1L));
+        assertFalse(expireTimes.containsKey(2L));
+        assertTrue(expireTimes.containsKey(3L));
+        // Expired timeouts cannot be cancelled.
+        assertFalse(t3.cancel());
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    public void testLagWhenAdvancedLate() {
+        wheel.schedule(1L, START_MS + 100);
+        wheel.schedule(2L, START_MS + 300);
+        // The wheel is not advanced for a while (e.g. long GC pause).
+        now = START_MS + 1000;
+        assertEquals(2, wheel.advance(now));
+        assertEquals(2, lags.size());
+        assertTrue(lags.contains(900L));
+        assertTrue(lags.contains(700L));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.expire;
+
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.CurrentConcurrencyManager;
+import com.alibaba.csp.sentinel.cluster.flow.statistic.concurrent.TokenCacheNode;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link TimingWheelExpireStrategy}.
+ */
+public class TimingWheelExpireStrategyTest {
+
+    private static final long FLOW_ID = 2101L;
+    private static final String NAMESPACE = "timing-wheel-expire-test";
+
+    private ConcurrentLinkedHashMap<Long, TokenCacheNode> cache;
+    private TimingWheelExpireStrategy strategy;
+    private FlowRule rule;
+
+    @Before
+    public void setUp() {
+        rule = new FlowRule();
+        ClusterFlowConfig config = new ClusterFlowConfig();
+        config.setResourceTimeout(500);
+        config.setClientOfflineTime(2000);
+        config.setFlowId(FLOW_ID);
+        config.setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL);
+        rule.setClusterConfig(config);
+        rule.setClusterMode(true);
+        rule.setCount(10);
+        rule.setResource("testTimingWheelExpire");
+        rule.setGrade(RuleConstant.FLOW_GRADE_THREAD);
+        ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.singletonList(rule));
+        CurrentConcurrencyManager.put(FLOW_ID, 0);
+
+        cache = new ConcurrentLinkedHashMap.Builder<Long, TokenCacheNode>()
+            .maximumWeightedCapacity(1000)
+            .build();
+        strategy = new TimingWheelExpireStrategy(cache, 10);
+    }
+
+    @After
+    public void tearDown() {
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.<FlowRule>emptyList());
+        CurrentConcurrencyManager.remove(FLOW_ID);
+    }
+
+    private TokenCacheNode issueToken() {
+        TokenCacheNode node = TokenCacheNode.generateTokenCacheNode(rule, 2, "127.0.0.1:12345");
+        cache.put(node.getTokenId(), node);
+        CurrentConcurrencyManager.addConcurrency(FLOW_ID, node.getAcquireCount());
+        strategy.onTokenAdded(node);
+        return node;
+    }
+
+    private void advanceTo(long time, long from) {
+        for (long t = from; t <= time; t += 10) {
+            strategy.advance(t);
+        }
+    }
+
+    @Test
+    public void testRunningTokenIsNotExpiredEarly() {
+        TokenCacheNode node = issueToken();
+        long saveTime = node.getSaveTime();
+        assertTrue(saveTime > 0);
+
+        // Twice of the resource timeout is not reached yet.
+        advanceTo(saveTime + 900, saveTime);
+        assertSame(node, cache.get(node.getTokenId()));
+        assertEquals(2, CurrentConcurrencyManager.get(FLOW_ID).get());
+        assertEquals(0, strategy.getExpiredCount());
+
+        advanceTo(saveTime + 1100, saveTime + 910);
+        assertNull(cache.get(node.getTokenId()));
+        assertEquals(0, CurrentConcurrencyManager.get(FLOW_ID).get());
+        assertEquals(1, strategy.getExpiredCount());
+        assertEquals(0, strategy.getScheduledCount());
+    }
+
+    @Test
+    public void testReleasedTokenIsNotExpired() {
+        TokenCacheNode node = issueToken();
+        long saveTime = node.getSaveTime();
+
+        cache.remove(node.getTokenId());
+        strategy.onTokenRemoved(node);
+        CurrentConcurrencyManager.addConcurrency(FLOW_ID, -node.getAcquireCount());
+
+        advanceTo(saveTime + 2100, saveTime);
+        assertEquals(0, CurrentConcurrencyManager.get(FLOW_ID).get());
+        assertEquals(0, strategy.getExpiredCount());
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.cluster.ClusterConstants;
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.client.ClientConstants;
+import com.alibaba.csp.sentinel.cluster.client.DefaultClusterTokenClient;
+import com.alibaba.csp.sentinel.cluster.client.NettyTransportClient;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.client.init.DefaultClusterClientInitFunc;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.request.ClusterRequest;
+import com.alibaba.csp.sentinel.cluster.request.data.FlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.ClusterResponse;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerShardConfig;
+import com.alibaba.csp.sentinel.cluster.server.init.DefaultClusterServerInitFunc;
+import com.alibaba.csp.sentinel.cluster.shard.TokenServerShardRing;
+import com.alibaba.csp.sentinel.slots.block.ClusterRuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.ClusterFlowConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for sharded token servers, which run on loopback in the same JVM.
+ */
+public class ShardedTokenServerTest {
+
+    private static final String NAMESPACE = "shard-test";
+    private static final int SERVER_COUNT = 3;
+    private static final long FIRST_FLOW_ID = 3000L;
+    private static final int FLOW_COUNT = 30;
+
+    private final List<NettyTransportServer> servers = new ArrayList<>();
+    private final List<String> addresses = new ArrayList<>();
+    private final List<NettyTransportClient> directClients = new ArrayList<>();
+    private DefaultClusterTokenClient tokenClient;
+
+    @Before
+    public void setUp() throws Exception {
+        new DefaultClusterServerInitFunc().init();
+        new DefaultClusterClientInitFunc().init();
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            int port = findFreePort();
+            NettyTransportServer server = new NettyTransportServer(port);
+            server.start();
+            servers.add(server);
+            addresses.add("127.0.0.1:" + port);
+        }
+        for (NettyTransportServer server : servers) {
+            awaitServerStarted(server);
+        }
+        ClusterServerConfigManager.loadShardConfig(new ServerShardConfig().setServers(addresses));
+
+        List<FlowRule> rules = new ArrayList<>();
+        for (int i = 0; i < FLOW_COUNT; i++) {
+            rules.add(new FlowRule("shard-resource-" + i)
+                .setCount(1000)
+                .setClusterMode(true)
+                .setClusterConfig(new ClusterFlowConfig()
+                    .setFlowId(FIRST_FLOW_ID + i)
+                    .setThresholdType(ClusterRuleConstant.FLOW_THRESHOLD_GLOBAL)));
+        }
+        ClusterFlowRuleManager.registerPropertyIfAbsent(NAMESPACE);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, rules);
+
+        ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig().setRequestTimeout(1000));
+        ClusterClientConfigManager.applyNewAssignConfig(new ClusterClientAssignConfig().setShardServers(addresses));
+        tokenClient = new DefaultClusterTokenClient();
+        tokenClient.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (NettyTransportClient client : directClients) {
+            client.stop();
+        }
+        if (tokenClient != null) {
+            tokenClient.stop();
+        }
+        for (NettyTransportServer server : servers) {
+            server.stop();
+        }
+        ClusterServerConfigManager.loadShardConfig(null);
+        ClusterFlowRuleManager.loadRules(NAMESPACE, Collections.<FlowRule>emptyList());
+        ClusterClientConfigManager.applyNewConfig(
+            new ClusterClientConfig().setRequestTimeout(ClusterConstants.DEFAULT_REQUEST_TIMEOUT));
+        ClusterClientConfigManager.applyNewAssignConfig(
+            new ClusterClientAssignConfig("127.0.0.1", ClusterConstants.DEFAULT_CLUSTER_SERVER_PORT));
+    }
+
+    @Test
+    public void testRequestsRoutedToOwnerShard() throws Exception {
+        awaitTokenClientStarted();
+        TokenServerShardRing ring = TokenServerShardRing.of(addresses, 0);
+        Set<Integer> owners = new HashSet<>();
+        for (int i = 0; i < FLOW_COUNT; i++) {
+            long flowId = FIRST_FLOW_ID + i;
+            owners.add(ring.indexOf(flowId));
+            // Misrouted requests would be rejected with NOT_AVAILABLE by the token server.
+            TokenResult result = tokenClient.requestToken(flowId, 1, false);
+            assertEquals(TokenResultStatus.OK, (int)result.getStatus());
+            result = tokenClient.requestTokenAsync(flowId, 1, false).get();
+            assertEquals(TokenResultStatus.OK, (int)result.getStatus());
+        }
+        // Flow IDs are spread over all shards.
+        assertEquals(SERVER_COUNT, owners.size());
+    }
+
+    @Test
+    public void testRejectRequestOfOtherShard() throws Exception {
+        TokenServerShardRing ring = TokenServerShardRing.of(addresses, 0);
+        long flowId = FIRST_FLOW_ID;
+        int owner = ring.indexOf(flowId);
+        int other = (owner + 1) % SERVER_COUNT;
+        NettyTransportClient ownerClient = startDirectClient(owner);
+        NettyTransportClient otherClient = startDirectClient(other);
+
+        assertEquals(TokenResultStatus.OK, sendFlowRequest(ownerClient, flowId).getStatus());
+        assertEquals(TokenResultStatus.NOT_AVAILABLE, sendFlowRequest(otherClient, flowId).getStatus());
+
+        // Any token server serves all flow IDs when sharded mode is disabled.
+        ClusterServerConfigManager.loadShardConfig(new ServerShardConfig());
+        assertEquals(TokenResultStatus.OK, sendFlowRequest(otherClient, flowId).getStatus());
+    }
+
+    @Test
+    public void testExplicitLocalServer() throws Exception {
+        TokenServerShardRing ring = TokenServerShardRing.of(addresses, 0);
+        long flowId = FIRST_FLOW_ID;
+        int owner = ring.indexOf(flowId);
+        int other = (owner + 1) % SERVER_COUNT;
+        NettyTransportClient ownerClient = startDirectClient(owner);
+        NettyTransportClient otherClient = startDirectClient(other);
+
+        // The local server address names the owner, so the servers in this process serve the flow ID.
+        ClusterServerConfigManager.loadShardConfig(new ServerShardConfig().setServers(addresses)
+            .setLocalServer(addresses.get(owner)));
+        assertEquals(TokenResultStatus.OK, sendFlowRequest(ownerClient, flowId).getStatus());
+        assertEquals(TokenResultStatus.OK, sendFlowRequest(otherClient, flowId).getStatus());
+
+        // The local server address names another shard, so the flow ID is not served here.
+        ClusterServerConfigManager.loadShardConfig(new ServerShardConfig().setServers(addresses)
+            .setLocalServer(addresses.get(other)));
+        assertEquals(TokenResultStatus.NOT_AVAILABLE, sendFlowRequest(ownerClient, flowId).getStatus());
+        assertEquals(TokenResultStatus.NOT_AVAILABLE, sendFlowRequest(otherClient, flowId).getStatus());
+    }
+
+    private ClusterResponse sendFlowRequest(NettyTransportClient client, long flowId) throws Exception {
+        FlowRequestData data = new FlowRequestData().setFlowId(flowId).setCount(1).setPriority(false);
+        return client.sendRequest(new ClusterRequest<>(ClusterConstants.MSG_TYPE_FLOW, data));
+    }
+
+    private NettyTransportClient startDirectClient(int serverIdx) throws Exception {
+        String address = addresses.get(serverIdx);
+        NettyTransportClient client = new NettyTransportClient("127.0.0.1",
+            Integer.parseInt(address.substring(address.indexOf(':') + 1)));
+        directClients.add(client);
+        client.start();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!client.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(client.isReady());
+        return client;
+    }
+
+    private void awaitTokenClientStarted() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (tokenClient.getState() != ClientConstants.CLIENT_STATUS_STARTED
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(ClientConstants.CLIENT_STATUS_STARTED, tokenClient.getState());
+    }
+
+    private static void awaitServerStarted(NettyTransportServer server) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (server.getCurrentState() != ServerConstants.SERVER_STATUS_STARTED
+            && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(ServerConstants.SERVER_STATUS_STARTED, server.getCurrentState());
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
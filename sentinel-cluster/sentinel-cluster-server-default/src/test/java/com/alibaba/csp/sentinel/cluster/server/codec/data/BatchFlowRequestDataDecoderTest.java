@@ -0,0 +1,78 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.cluster.server.codec.data;
+
+import com.alibaba.csp.sentinel.cluster.request.data.BatchFlowRequestData;
+import com.alibaba.csp.sentinel.cluster.response.data.BatchFlowTokenResponseData;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for {@link BatchFlowRequestDataDecoder} and {@link BatchFlowResponseDataWriter}.
+ */
+public class BatchFlowRequestDataDecoderTest {
+
+    @Test
+    public void testDecodeBatchRequest() {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeShort(2);
+        buf.writeLong(11L).writeInt(1).writeBoolean(false);
+        buf.writeLong(22L).writeInt(3).writeBoolean(true);
+
+        BatchFlowRequestData data = new BatchFlowRequestDataDecoder().decode(buf);
+        assertThat(data).isNotNull();
+        assertThat(data.size()).isEqualTo(2);
+        assertThat(data.getFlowId(0)).isEqualTo(11L);
+        assertThat(data.getCount(0)).isEqualTo(1);
+        assertThat(data.isPriority(0)).isFalse();
+        assertThat(data.getFlowId(1)).isEqualTo(22L);
+        assertThat(data.getCount(1)).isEqualTo(3);
+        assertThat(data.isPriority(1)).isTrue();
+        assertThat(buf.readableBytes()).isZero();
+
+        // Truncated or oversized batches are rejected.
+        buf.clear().writeShort(2).writeLong(11L).writeInt(1).writeBoolean(false);
+        assertThat(new BatchFlowRequestDataDecoder().decode(buf)).isNull();
+        buf.clear().writeShort(BatchFlowRequestData.MAX_BATCH_SIZE + 1);
+        assertThat(new BatchFlowRequestDataDecoder().decode(buf)).isNull();
+
+        buf.release();
+    }
+
+    @Test
+    public void testWriteBatchResponse() {
+        BatchFlowTokenResponseData data = new BatchFlowTokenResponseData(2);
+        data.add(0, 5, 0);
+        data.add(2, 0, 100);
+        ByteBuf buf = Unpooled.buffer();
+        new BatchFlowResponseDataWriter().writeTo(data, buf);
+
+        assertThat(buf.readUnsignedShort()).isEqualTo(2);
+        assertThat((int)buf.readByte()).isEqualTo(0);
+        assertThat(buf.readInt()).isEqualTo(5);
+        assertThat(buf.readInt()).isEqualTo(0);
+        assertThat((int)buf.readByte()).isEqualTo(2);
+        assertThat(buf.readInt()).isEqualTo(0);
+        assertThat(buf.readInt()).isEqualTo(100);
+        assertThat(buf.readableBytes()).isZero();
+
+        buf.release();
+    }
+}
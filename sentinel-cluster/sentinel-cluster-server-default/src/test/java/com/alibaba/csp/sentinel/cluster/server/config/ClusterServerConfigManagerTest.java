@@ -19,6 +19,25 @@ public class ClusterServerConfigManagerTest {
         assertTrue(ClusterServerConfigManager.isValidTransportConfig(goodConfig1));
     }
 
+    @Test
+    public void testIsValidTransportConfigWithServerOptions() {
+        ServerTransportConfig badConfig1 = new ServerTransportConfig().setAcceptThreads(0);
+        ServerTransportConfig badConfig2 = new ServerTransportConfig().setWorkerThreads(-1);
+        ServerTransportConfig badConfig3 = new ServerTransportConfig().setSendBufferSize(0);
+        ServerTransportConfig badConfig4 = new ServerTransportConfig()
+            .setWriteBufferLowWaterMark(64 * 1024).setWriteBufferHighWaterMark(32 * 1024);
+        ServerTransportConfig goodConfig1 = new ServerTransportConfig().setNativeTransport(true)
+            .setAcceptThreads(4).setWorkerThreads(16).setReceiveBufferSize(256 * 1024);
+        assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig1));
+        assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig2));
+        assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig3));
+        assertFalse(ClusterServerConfigManager.isValidTransportConfig(badConfig4));
+        assertTrue(ClusterServerConfigManager.isValidTransportConfig(goodConfig1));
+
+        assertFalse(goodConfig1.hasSameServerOptions(new ServerTransportConfig()));
+        assertTrue(goodConfig1.hasSameServerOptions(new ServerTransportConfig().setServerOptions(goodConfig1)));
+    }
+
     @Test
     public void testIsValidFlowConfig() {
         ServerFlowConfig badConfig1 = new ServerFlowConfig().setMaxAllowedQps(-2);
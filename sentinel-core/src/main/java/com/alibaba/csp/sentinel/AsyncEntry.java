@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel;
 
 import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.context.NullContext;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
@@ -32,8 +33,24 @@ public class AsyncEntry extends CtEntry {
 
     private Context asyncContext;
 
+    /**
+     * Whether the entry is created by a caller that delays the request itself (see {@link #getPacingWaitMs()}).
+     */
+    private final boolean nonBlockingPacing;
+
     AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
+        this(resourceWrapper, chain, context, false);
+    }
+
+    AsyncEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context,
+               boolean nonBlockingPacing) {
         super(resourceWrapper, chain, context);
+        this.nonBlockingPacing = nonBlockingPacing;
+    }
+
+    @Override
+    public boolean isNonBlockingPacing() {
+        return nonBlockingPacing;
     }
 
     /**
@@ -84,6 +101,20 @@ public class AsyncEntry extends CtEntry {
         }
     }
 
+    /**
+     * Use the context of the entry as the async context rather than creating a new one. The context should be
+     * a detached context exclusively owned by this entry (see {@link ContextUtil#newDetachedContext(String, String)}),
+     * so its current entry is already this entry.
+     */
+    void initAsyncContextInPlace() {
+        if (asyncContext == null) {
+            this.asyncContext = context;
+        } else {
+            RecordLog.warn(
+                    "[AsyncEntry] Duplicate initialize of async context for entry: " + resourceWrapper.getName());
+        }
+    }
+
     @Override
     protected void clearEntryContext() {
         super.clearEntryContext();
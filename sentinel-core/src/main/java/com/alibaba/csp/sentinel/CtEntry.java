@@ -23,7 +23,9 @@ import com.alibaba.csp.sentinel.context.NullContext;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
 import com.alibaba.csp.sentinel.util.function.BiConsumer;
 
 /**
@@ -40,11 +42,15 @@ class CtEntry extends Entry {
     protected ProcessorSlot<Object> chain;
     protected Context context;
     protected LinkedList<BiConsumer<Context, Entry>> exitHandlers;
+    protected final ResourceRulePlan rulePlan;
 
     CtEntry(ResourceWrapper resourceWrapper, ProcessorSlot<Object> chain, Context context) {
         super(resourceWrapper);
         this.chain = chain;
         this.context = context;
+        // Captured once, so that slots of this invocation check rules without further lookups.
+        this.rulePlan = chain instanceof ProcessorSlotChain
+            ? ResourceRulePlan.getOrCompile((ProcessorSlotChain)chain, resourceWrapper) : null;
 
         setUpEntryFor(context);
     }
@@ -61,6 +67,11 @@ class CtEntry extends Entry {
         context.setCurEntry(this);
     }
 
+    @Override
+    public ResourceRulePlan getRulePlan() {
+        return rulePlan;
+    }
+
     @Override
     public void exit(int count, Object... args) throws ErrorEntryFreeException {
         trueExit(count, args);
@@ -16,10 +16,10 @@
 package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.context.NullContext;
@@ -31,6 +31,9 @@ import com.alibaba.csp.sentinel.slotchain.SlotChainProvider;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.Rule;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * {@inheritDoc}
@@ -48,10 +51,16 @@ public class CtSph implements Sph {
      * Same resource({@link ResourceWrapper#equals(Object)}) will share the same
      * {@link ProcessorSlotChain}, no matter in which {@link Context}.
      */
-    private static volatile Map<ResourceWrapper, ProcessorSlotChain> chainMap
-            = new HashMap<ResourceWrapper, ProcessorSlotChain>();
-
-    private static final Object LOCK = new Object();
+    private static final ConcurrentRegistry<ResourceWrapper, ProcessorSlotChain> chainRegistry
+            = new ConcurrentRegistry<>(Constants.MAX_SLOT_CHAIN_SIZE);
+
+    private static final Function<ResourceWrapper, ProcessorSlotChain> CHAIN_CREATOR
+            = new Function<ResourceWrapper, ProcessorSlotChain>() {
+        @Override
+        public ProcessorSlotChain apply(ResourceWrapper resourceWrapper) {
+            return SlotChainProvider.newSlotChain();
+        }
+    };
 
     private AsyncEntry asyncEntryWithNoChain(ResourceWrapper resourceWrapper, Context context) {
         AsyncEntry entry = new AsyncEntry(resourceWrapper, null, context);
@@ -109,6 +118,45 @@ public class CtSph implements Sph {
         return asyncEntry;
     }
 
+    private AsyncEntry asyncEntryWithContextInternal(Context context, ResourceWrapper resourceWrapper, int count,
+                                                     boolean prioritized, boolean nonBlockingPacing,
+                                                     Object... args) throws BlockException {
+        if (context == null) {
+            // Using a detached default context, so the context carrier is never touched.
+            context = InternalContextUtil.internalNewDetachedContext(Constants.CONTEXT_DEFAULT_NAME, "");
+        }
+        if (context instanceof NullContext || !Constants.ON) {
+            return asyncEntryWithNoChain(resourceWrapper, context);
+        }
+
+        ProcessorSlot<Object> chain = lookProcessChain(resourceWrapper);
+        if (chain == null) {
+            return asyncEntryWithNoChain(resourceWrapper, context);
+        }
+
+        // A fresh detached context is exclusively owned by the entry, so it can be used as the async context directly.
+        boolean detached = context.isAsync() && context.getCurEntry() == null;
+        AsyncEntry asyncEntry = new AsyncEntry(resourceWrapper, chain, context, nonBlockingPacing);
+        try {
+            chain.entry(context, resourceWrapper, null, count, prioritized, args);
+            if (detached) {
+                asyncEntry.initAsyncContextInPlace();
+            } else {
+                asyncEntry.initAsyncContext();
+                asyncEntry.cleanCurrentEntryInLocal();
+            }
+        } catch (BlockException e1) {
+            asyncEntry.exitForContext(context, count, args);
+            throw e1;
+        } catch (Throwable e1) {
+            // This should not happen, unless there are errors existing in Sentinel internal.
+            RecordLog.warn("Sentinel unexpected exception in asyncEntryWithContextInternal", e1);
+
+            asyncEntry.cleanCurrentEntryInLocal();
+        }
+        return asyncEntry;
+    }
+
     private AsyncEntry asyncEntryInternal(ResourceWrapper resourceWrapper, int count, Object... args)
             throws BlockException {
         return asyncEntryWithPriorityInternal(resourceWrapper, count, false, args);
@@ -211,27 +259,17 @@ public class CtSph implements Sph {
      * @return {@link ProcessorSlotChain} of the resource
      */
     ProcessorSlot<Object> lookProcessChain(ResourceWrapper resourceWrapper) {
-        // 从缓存map中获取 当前资源的slotchain
-        // 缓存map的key 为资源，value为slotChain
-        ProcessorSlotChain chain = chainMap.get(resourceWrapper);
-        if (chain == null) {
-            synchronized (LOCK) {
-                // 双重检测锁     所以肯定有创建的操作
-                chain = chainMap.get(resourceWrapper);
-                if (chain == null) {
-                    // Entry size limit. 条目大小限制
-                    if (chainMap.size() >= Constants.MAX_SLOT_CHAIN_SIZE) {
-                        return null;
-                    }
-                    // 创建新的slotChain
-                    chain = SlotChainProvider.newSlotChain();
-                    Map<ResourceWrapper, ProcessorSlotChain> newMap = new HashMap<ResourceWrapper, ProcessorSlotChain>(
-                            chainMap.size() + 1);
-                    newMap.putAll(chainMap);
-                    newMap.put(resourceWrapper, chain);
-                    chainMap = newMap;
-                }
-            }
+        // Lock-free lookup. The slot chain of a new resource is created only once, without blocking
+        // the creation of other resources. Null is returned if the amount of chains exceeds the limit.
+        ProcessorSlotChain chain = chainRegistry.computeIfAbsent(resourceWrapper, CHAIN_CREATOR);
+        // The chain may be evicted while it's being looked up, so don't keep writing to its detached nodes.
+        while (chain != null && chain.isEvicted()) {
+            chainRegistry.remove(resourceWrapper, chain);
+            chain = chainRegistry.computeIfAbsent(resourceWrapper, CHAIN_CREATOR);
+        }
+        if (chain != null) {
+            // Used for evicting idle resources (see IdleResourceEvictor).
+            chain.recordAccess(TimeUtil.currentTimeMillis());
         }
         return chain;
     }
@@ -243,7 +281,18 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     public static int entrySize() {
-        return chainMap.size();
+        return chainRegistry.size();
+    }
+
+    /**
+     * Get the registry of slot chains, which also records the statistics of chain creation
+     * (created, contended and rejected amount).
+     *
+     * @return the registry of slot chains
+     * @since 1.8.6
+     */
+    public static ConcurrentRegistry<ResourceWrapper, ProcessorSlotChain> getChainRegistry() {
+        return chainRegistry;
     }
 
     /**
@@ -252,7 +301,7 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     static void resetChainMap() {
-        chainMap.clear();
+        chainRegistry.clear();
     }
 
     /**
@@ -261,7 +310,7 @@ public class CtSph implements Sph {
      * @since 0.2.0
      */
     static Map<ResourceWrapper, ProcessorSlotChain> getChainMap() {
-        return chainMap;
+        return chainRegistry.asMap();
     }
 
     /**
@@ -275,6 +324,10 @@ public class CtSph implements Sph {
         static Context internalEnter(String name, String origin) {
             return trueEnter(name, origin);
         }
+
+        static Context internalNewDetachedContext(String name, String origin) {
+            return trueNewDetachedContext(name, origin);
+        }
     }
 
     @Override
@@ -380,4 +433,20 @@ public class CtSph implements Sph {
         StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
         return asyncEntryWithPriorityInternal(resource, count, prioritized, args);
     }
+
+    @Override
+    public AsyncEntry asyncEntryWithContext(Context context, String name, int resourceType, EntryType entryType,
+                                            int count, boolean prioritized, Object[] args) throws BlockException {
+        StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
+        return asyncEntryWithContextInternal(context, resource, count, prioritized, false, args);
+    }
+
+    @Override
+    public AsyncEntry asyncEntryWithNonBlockingPacing(Context context, String name, int resourceType,
+                                                      EntryType entryType, int count, Object[] args)
+        throws BlockException {
+        StringResourceWrapper resource = new StringResourceWrapper(name, entryType, resourceType);
+        return asyncEntryWithContextInternal(context, resource, count, false,
+            SentinelConfig.flowPacingNonBlockingEnabled(), args);
+    }
 }
@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel;
 
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.util.function.BiConsumer;
 import com.alibaba.csp.sentinel.context.ContextUtil;
@@ -66,6 +67,10 @@ public abstract class Entry implements AutoCloseable {
 
     private Throwable error;
     private BlockException blockError;
+    /**
+     * Time to wait reserved by non-blocking pacing.
+     */
+    private long pacingWaitMs;
 
     protected final ResourceWrapper resourceWrapper;
 
@@ -179,6 +184,51 @@ public abstract class Entry implements AutoCloseable {
         this.originNode = originNode;
     }
 
+    /**
+     * Get the precompiled rules of the resource, captured when this entry was created.
+     *
+     * @return the rule plan, or null if absent
+     * @since 1.8.6
+     */
+    public ResourceRulePlan getRulePlan() {
+        return null;
+    }
+
+    /**
+     * Whether pacing flow control could reserve a pass for this entry and record the time to wait
+     * (see {@link #getPacingWaitMs()}) instead of blocking current thread.
+     *
+     * @return true if the pacing of this entry is non-blocking
+     * @since 1.8.6
+     */
+    public boolean isNonBlockingPacing() {
+        return false;
+    }
+
+    /**
+     * Get the time that the caller should wait before actually performing the request, which is only
+     * recorded when pacing is non-blocking (see {@link #isNonBlockingPacing()}).
+     *
+     * @return time to wait in milliseconds, 0 if the request could be performed immediately
+     * @since 1.8.6
+     */
+    public long getPacingWaitMs() {
+        return pacingWaitMs;
+    }
+
+    /**
+     * Record the time to wait reserved by a pacing rule. The request should wait until all reservations
+     * are reached, so the max wait time is kept.
+     *
+     * @param waitMs time to wait in milliseconds
+     * @since 1.8.6
+     */
+    public void recordPacingWait(long waitMs) {
+        if (waitMs > pacingWaitMs) {
+            this.pacingWaitMs = waitMs;
+        }
+    }
+
     /**
      * Like {@code CompletableFuture} since JDK 8, it guarantees specified handler
      * is invoked when this entry terminated (exited), no matter it's blocked or permitted.
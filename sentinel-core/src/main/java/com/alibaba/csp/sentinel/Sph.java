@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
 
+import com.alibaba.csp.sentinel.context.Context;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.system.SystemRule;
 
@@ -193,4 +194,53 @@ public interface Sph extends SphResourceTypeSupport {
      */
     Entry entryWithPriority(String name, EntryType trafficType, int batchCount, boolean prioritized, Object... args)
         throws BlockException;
+
+    /**
+     * Create a protected asynchronous resource within the provided context, which is passed explicitly
+     * rather than looked up from the context carrier (ThreadLocal by default). The default implementation
+     * ignores the context and delegates to
+     * {@link #asyncEntryWithType(String, int, EntryType, int, boolean, Object[])}.
+     *
+     * @param context      the context of the invocation (e.g. a detached context or the async context of the
+     *                     parent entry); the default context will be used if null
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal). This is used
+     *                     to mark whether it can be blocked when the system is unstable,
+     *                     only inbound traffic could be blocked by {@link SystemRule}
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param prioritized  whether the entry is prioritized
+     * @param args         args for parameter flow control or customized slots
+     * @return created asynchronous entry
+     * @throws BlockException if the block criteria is met
+     * @since 1.8.6
+     */
+    default AsyncEntry asyncEntryWithContext(Context context, String name, int resourceType, EntryType trafficType,
+                                             int batchCount, boolean prioritized, Object[] args)
+        throws BlockException {
+        return asyncEntryWithType(name, resourceType, trafficType, batchCount, prioritized, args);
+    }
+
+    /**
+     * Like {@link #asyncEntryWithContext(Context, String, int, EntryType, int, boolean, Object[])}, but pacing flow
+     * control (rate limiter) reserves a pass and records the time to wait ({@link Entry#getPacingWaitMs()}) instead
+     * of blocking current thread, if non-blocking pacing is enabled
+     * (see {@link com.alibaba.csp.sentinel.config.SentinelConfig#flowPacingNonBlockingEnabled()}).
+     * The caller is responsible for delaying the request. The default implementation always blocks.
+     *
+     * @param context      the context of the invocation; the default context will be used if null
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal)
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param args         args for parameter flow control or customized slots
+     * @return created asynchronous entry
+     * @throws BlockException if the block criteria is met
+     * @since 1.8.6
+     */
+    default AsyncEntry asyncEntryWithNonBlockingPacing(Context context, String name, int resourceType,
+                                                       EntryType trafficType, int batchCount, Object[] args)
+        throws BlockException {
+        return asyncEntryWithContext(context, name, resourceType, trafficType, batchCount, false, args);
+    }
 }
@@ -17,6 +17,8 @@ package com.alibaba.csp.sentinel;
 
 import java.lang.reflect.Method;
 
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.context.ContextUtil;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.Rule;
 import com.alibaba.csp.sentinel.slots.system.SystemRule;
@@ -367,4 +369,50 @@ public class SphU {
                                         Object[] args) throws BlockException {
         return Env.sph.asyncEntryWithType(name, resourceType, trafficType, batchCount, false, args);
     }
+
+    /**
+     * Record statistics and perform rule checking for the given resource that indicates an async invocation,
+     * within the provided context which is passed explicitly rather than looked up from the current thread.
+     *
+     * @param context      the context of the invocation, e.g. a detached context created by
+     *                     {@link ContextUtil#newDetachedContext(String, String)} or the async context of the
+     *                     parent entry; the default context will be used if null
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal). This is used
+     *                     to mark whether it can be blocked when the system is unstable,
+     *                     only inbound traffic could be blocked by {@link SystemRule}
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param args         args for parameter flow control or customized slots
+     * @return the {@link Entry} of this invocation (used for mark the invocation complete and get context data)
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.6
+     */
+    public static AsyncEntry asyncEntry(Context context, String name, int resourceType, EntryType trafficType,
+                                        int batchCount, Object[] args) throws BlockException {
+        return Env.sph.asyncEntryWithContext(context, name, resourceType, trafficType, batchCount, false, args);
+    }
+
+    /**
+     * Like {@link #asyncEntry(Context, String, int, EntryType, int, Object[])}, but pacing flow control
+     * (rate limiter) doesn't block current thread if non-blocking pacing is enabled
+     * (see {@link com.alibaba.csp.sentinel.config.SentinelConfig#flowPacingNonBlockingEnabled()}).
+     * The time to wait is returned by {@link Entry#getPacingWaitMs()}, and the caller MUST delay the request
+     * accordingly, otherwise the rate limiting won't work.
+     *
+     * @param context      the context of the invocation; the default context will be used if null
+     * @param name         the unique name for the protected resource
+     * @param resourceType classification of the resource (e.g. Web or RPC)
+     * @param trafficType  the traffic type (inbound, outbound or internal)
+     * @param batchCount   the amount of calls within the invocation (e.g. batchCount=2 means request for 2 tokens)
+     * @param args         args for parameter flow control or customized slots
+     * @return the {@link Entry} of this invocation (used for mark the invocation complete and get context data)
+     * @throws BlockException if the block criteria is met (e.g. metric exceeded the threshold of any rules)
+     * @since 1.8.6
+     */
+    public static AsyncEntry asyncEntryWithNonBlockingPacing(Context context, String name, int resourceType,
+                                                             EntryType trafficType, int batchCount, Object[] args)
+        throws BlockException {
+        return Env.sph.asyncEntryWithNonBlockingPacing(context, name, resourceType, trafficType, batchCount, args);
+    }
 }
@@ -16,6 +16,7 @@
 package com.alibaba.csp.sentinel.cluster;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface of flow control.
@@ -35,6 +36,44 @@ public interface TokenService {
      */
     TokenResult requestToken(Long ruleId, int acquireCount, boolean prioritized);
 
+    /**
+     * Request tokens from remote token server asynchronously, so that the caller won't be blocked for
+     * a round trip. The default implementation completes the future with {@link #requestToken} synchronously.
+     *
+     * @param ruleId the unique rule ID
+     * @param acquireCount token count to acquire
+     * @param prioritized whether the request is prioritized
+     * @return future of the token request result, which won't complete exceptionally
+     * @since 1.8.6
+     */
+    default CompletableFuture<TokenResult> requestTokenAsync(Long ruleId, int acquireCount, boolean prioritized) {
+        try {
+            return CompletableFuture.completedFuture(requestToken(ruleId, acquireCount, prioritized));
+        } catch (Throwable ex) {
+            return CompletableFuture.completedFuture(new TokenResult(TokenResultStatus.FAIL));
+        }
+    }
+
+    /**
+     * Request a lease of tokens from remote token server, so that the client can serve the leased tokens
+     * locally (without a round trip for each request) until the lease expires. The server may grant fewer
+     * tokens than requested.
+     * <p>
+     * If the lease is granted, the status of the result will be {@link TokenResultStatus#OK},
+     * {@link TokenResult#getRemaining()} will be the amount of granted tokens and
+     * {@link TokenResult#getWaitInMs()} will be the lease time (in ms). The default implementation does not
+     * support lease, and the result will be {@link TokenResultStatus#NOT_AVAILABLE}.
+     * </p>
+     *
+     * @param ruleId the unique rule ID
+     * @param acquireCount token count to lease
+     * @return result of the lease request
+     * @since 1.8.6
+     */
+    default TokenResult requestTokenLease(Long ruleId, int acquireCount) {
+        return new TokenResult(TokenResultStatus.NOT_AVAILABLE);
+    }
+
     /**
      * Request tokens for a specific parameter from remote token server.
      *
@@ -47,6 +47,10 @@ public final class SentinelConfig {
     private static final String CLASSLOADER_CONTEXT = "context";
 
     private static final Map<String, String> props = new ConcurrentHashMap<>();
+    /**
+     * Cached value of {@link #FLOW_PACING_NON_BLOCKING}, which is checked by every async entry that opts in.
+     */
+    private static volatile boolean flowPacingNonBlocking;
 
     private static int appType = APP_TYPE_COMMON;
     private static String appName = "";
@@ -61,6 +65,22 @@ public final class SentinelConfig {
     public static final String STATISTIC_MAX_RT = "csp.sentinel.statistic.max.rt";
     public static final String SPI_CLASSLOADER = "csp.sentinel.spi.classloader";
     public static final String METRIC_FLUSH_INTERVAL = "csp.sentinel.metric.flush.interval";
+    public static final String STATISTIC_LOCK_FREE_WINDOW = "csp.sentinel.statistic.window.lockfree";
+    public static final String STATISTIC_PADDED_BUCKET = "csp.sentinel.statistic.bucket.padded";
+    public static final String RESOURCE_IDLE_TIMEOUT = "csp.sentinel.resource.idle.timeout";
+    public static final String FLOW_PACING_NON_BLOCKING = "csp.sentinel.flow.pacing.nonblocking";
+    public static final String STATISTIC_ASYNC_EXIT = "csp.sentinel.statistic.exit.async";
+    public static final String STATISTIC_ASYNC_EXIT_MAX_LAG = "csp.sentinel.statistic.exit.async.max.lag";
+    public static final String STATISTIC_ASYNC_EXIT_BUFFER_SIZE = "csp.sentinel.statistic.exit.async.buffer.size";
+    public static final String CONTEXT_CARRIER = "csp.sentinel.context.carrier";
+    public static final String TIME_CLOCK = "csp.sentinel.time.clock";
+    public static final String TIME_TICK_INTERVAL = "csp.sentinel.time.tick.interval";
+    public static final String METRIC_FILE_FORMAT = "csp.sentinel.metric.file.format";
+    public static final String SLOT_CHAIN_PROFILE = "csp.sentinel.slotchain.profile";
+    public static final String SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL = "csp.sentinel.slotchain.profile.sample.interval";
+
+    public static final String METRIC_FILE_FORMAT_TEXT = "text";
+    public static final String METRIC_FILE_FORMAT_BINARY = "binary";
 
     public static final String DEFAULT_CHARSET = "UTF-8";
     public static final long DEFAULT_SINGLE_METRIC_FILE_SIZE = 1024 * 1024 * 50;
@@ -68,6 +88,10 @@ public final class SentinelConfig {
     public static final int DEFAULT_COLD_FACTOR = 3;
     public static final int DEFAULT_STATISTIC_MAX_RT = 5000;
     public static final long DEFAULT_METRIC_FLUSH_INTERVAL = 1L;
+    public static final long DEFAULT_TIME_TICK_INTERVAL = 1L;
+    public static final long DEFAULT_STATISTIC_ASYNC_EXIT_MAX_LAG = 100L;
+    public static final int DEFAULT_STATISTIC_ASYNC_EXIT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL = 100;
 
     static {
         try {
@@ -148,11 +172,20 @@ public final class SentinelConfig {
         AssertUtil.notNull(key, "key cannot be null");
         AssertUtil.notNull(value, "value cannot be null");
         props.put(key, value);
+        refreshCachedConfig(key);
     }
 
     public static String removeConfig(String key) {
         AssertUtil.notNull(key, "key cannot be null");
-        return props.remove(key);
+        String value = props.remove(key);
+        refreshCachedConfig(key);
+        return value;
+    }
+
+    private static void refreshCachedConfig(String key) {
+        if (FLOW_PACING_NON_BLOCKING.equals(key)) {
+            flowPacingNonBlocking = Boolean.parseBoolean(props.get(FLOW_PACING_NON_BLOCKING));
+        }
     }
 
     public static void setConfigIfAbsent(String key, String value) {
@@ -161,6 +194,7 @@ public final class SentinelConfig {
         String v = props.get(key);
         if (v == null) {
             props.put(key, value);
+            refreshCachedConfig(key);
         }
     }
 
@@ -259,6 +293,230 @@ public final class SentinelConfig {
         }
     }
 
+    /**
+     * Whether to use the lock-free sliding window for the statistics of resources.
+     *
+     * @return true if the lock-free sliding window is enabled, false by default
+     * @since 1.8.6
+     */
+    public static boolean statisticLockFreeWindowEnabled() {
+        return Boolean.parseBoolean(props.get(STATISTIC_LOCK_FREE_WINDOW));
+    }
+
+    /**
+     * Whether to keep the counters of statistic buckets in one padded primitive array
+     * ({@link com.alibaba.csp.sentinel.slots.statistic.data.PaddedMetricBucket}).
+     *
+     * @return true if the padded bucket is enabled, false by default
+     * @since 1.8.6
+     */
+    public static boolean statisticPaddedBucketEnabled() {
+        return Boolean.parseBoolean(props.get(STATISTIC_PADDED_BUCKET));
+    }
+
+    /**
+     * Get the idle timeout (in milliseconds) of resources. The slot chain and statistic nodes of a resource
+     * that has not been accessed for the timeout will be evicted in background.
+     *
+     * @return the idle timeout in milliseconds; 0 (by default) or negative means never evicting resources
+     * @since 1.8.6
+     */
+    public static long resourceIdleTimeoutMs() {
+        String v = props.get(RESOURCE_IDLE_TIMEOUT);
+        if (StringUtil.isEmpty(v)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(v.trim());
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Invalid resource idle timeout: {}, idle resources won't be evicted",
+                v, throwable);
+            return 0;
+        }
+    }
+
+    /**
+     * Whether pacing flow control (rate limiter) should not block asynchronous entries that opt in via
+     * {@link com.alibaba.csp.sentinel.SphU#asyncEntryWithNonBlockingPacing}. If enabled, the time to wait is
+     * returned by {@link com.alibaba.csp.sentinel.Entry#getPacingWaitMs()} of the async entry, and the caller is
+     * responsible for delaying the request. Other entries always block.
+     *
+     * @return true if non-blocking pacing is enabled for opted-in async entries, false by default
+     * @since 1.8.6
+     */
+    public static boolean flowPacingNonBlockingEnabled() {
+        return flowPacingNonBlocking;
+    }
+
+    /**
+     * Whether to record the completion statistics of {@code StatisticSlot#exit} asynchronously
+     * (see {@link com.alibaba.csp.sentinel.slots.statistic.AsyncExitStatistics}).
+     *
+     * @return true if asynchronous exit statistics is enabled, false by default
+     * @since 1.8.6
+     */
+    public static boolean statisticAsyncExitEnabled() {
+        return Boolean.parseBoolean(props.get(STATISTIC_ASYNC_EXIT));
+    }
+
+    /**
+     * Get the max lag (in milliseconds) of asynchronous exit statistics.
+     *
+     * @return the max lag in milliseconds, 100 by default
+     * @since 1.8.6
+     */
+    public static long statisticAsyncExitMaxLagMs() {
+        String v = props.get(STATISTIC_ASYNC_EXIT_MAX_LAG);
+        if (StringUtil.isEmpty(v)) {
+            return DEFAULT_STATISTIC_ASYNC_EXIT_MAX_LAG;
+        }
+        try {
+            long lag = Long.parseLong(v.trim());
+            if (lag <= 0) {
+                RecordLog.warn("[SentinelConfig] Invalid async exit max lag: {}, using default value: {}",
+                    v, DEFAULT_STATISTIC_ASYNC_EXIT_MAX_LAG);
+                return DEFAULT_STATISTIC_ASYNC_EXIT_MAX_LAG;
+            }
+            return lag;
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse async exit max lag failed, using default value: {}",
+                DEFAULT_STATISTIC_ASYNC_EXIT_MAX_LAG, throwable);
+            return DEFAULT_STATISTIC_ASYNC_EXIT_MAX_LAG;
+        }
+    }
+
+    /**
+     * Get the size of the per-thread buffer of asynchronous exit statistics (rounded up to a power of 2).
+     *
+     * @return the buffer size, 1024 by default
+     * @since 1.8.6
+     */
+    public static int statisticAsyncExitBufferSize() {
+        String v = props.get(STATISTIC_ASYNC_EXIT_BUFFER_SIZE);
+        if (StringUtil.isEmpty(v)) {
+            return DEFAULT_STATISTIC_ASYNC_EXIT_BUFFER_SIZE;
+        }
+        try {
+            int size = Integer.parseInt(v.trim());
+            if (size <= 0 || size > (1 << 20)) {
+                RecordLog.warn("[SentinelConfig] Invalid async exit buffer size: {}, using default value: {}",
+                    v, DEFAULT_STATISTIC_ASYNC_EXIT_BUFFER_SIZE);
+                return DEFAULT_STATISTIC_ASYNC_EXIT_BUFFER_SIZE;
+            }
+            return size;
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse async exit buffer size failed, using default value: {}",
+                DEFAULT_STATISTIC_ASYNC_EXIT_BUFFER_SIZE, throwable);
+            return DEFAULT_STATISTIC_ASYNC_EXIT_BUFFER_SIZE;
+        }
+    }
+
+    /**
+     * Get the format of metric log files: {@code text} (pipe-delimited lines, by default) or {@code binary}
+     * (columnar blocks, see {@link com.alibaba.csp.sentinel.node.metric.BinaryMetricWriter}).
+     *
+     * @return the format of metric log files
+     * @since 1.8.6
+     */
+    public static String metricFileFormat() {
+        String format = props.get(METRIC_FILE_FORMAT);
+        if (format == null || METRIC_FILE_FORMAT_TEXT.equalsIgnoreCase(format.trim())) {
+            return METRIC_FILE_FORMAT_TEXT;
+        }
+        if (METRIC_FILE_FORMAT_BINARY.equalsIgnoreCase(format.trim())) {
+            return METRIC_FILE_FORMAT_BINARY;
+        }
+        RecordLog.warn("[SentinelConfig] Invalid metric file format: {}, use default value: {}", format,
+            METRIC_FILE_FORMAT_TEXT);
+        return METRIC_FILE_FORMAT_TEXT;
+    }
+
+    /**
+     * Get the alias name of the carrier of current context
+     * (see {@link com.alibaba.csp.sentinel.context.ContextCarrier}).
+     *
+     * @return the alias name of the context carrier, or null for the default ThreadLocal carrier
+     * @since 1.8.6
+     */
+    public static String contextCarrier() {
+        return props.get(CONTEXT_CARRIER);
+    }
+
+    /**
+     * Get the alias name of the clock used by {@link com.alibaba.csp.sentinel.util.TimeUtil}
+     * (e.g. {@code ticker}, {@code coarse}, {@code system} or {@code monotonic}).
+     *
+     * @return the alias name of the clock, or null for the default ticker clock
+     * @since 1.8.6
+     */
+    public static String timeClock() {
+        return props.get(TIME_CLOCK);
+    }
+
+    /**
+     * Get the tick interval (in milliseconds) of the ticker clock when it's busy.
+     *
+     * @return the tick interval in milliseconds, 1 by default
+     * @since 1.8.6
+     */
+    public static long timeTickIntervalMs() {
+        String v = props.get(TIME_TICK_INTERVAL);
+        if (StringUtil.isEmpty(v)) {
+            return DEFAULT_TIME_TICK_INTERVAL;
+        }
+        try {
+            long interval = Long.parseLong(v.trim());
+            if (interval <= 0) {
+                RecordLog.warn("[SentinelConfig] Invalid time tick interval: {}, using default value: {}",
+                    v, DEFAULT_TIME_TICK_INTERVAL);
+                return DEFAULT_TIME_TICK_INTERVAL;
+            }
+            return interval;
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse time tick interval failed, using default value: {}",
+                DEFAULT_TIME_TICK_INTERVAL, throwable);
+            return DEFAULT_TIME_TICK_INTERVAL;
+        }
+    }
+
+    /**
+     * Whether to profile the latency and allocation of each processor slot
+     * (see {@link com.alibaba.csp.sentinel.slotchain.SlotProfiler}).
+     *
+     * @return true if slot profiling is enabled at startup, false by default
+     * @since 1.8.6
+     */
+    public static boolean slotChainProfileEnabled() {
+        return Boolean.parseBoolean(props.get(SLOT_CHAIN_PROFILE));
+    }
+
+    /**
+     * Get the sample interval of slot profiling, i.e. one of every N invocations of a slot chain
+     * in each thread is profiled.
+     *
+     * @return the sample interval, 100 by default
+     * @since 1.8.6
+     */
+    public static int slotChainProfileSampleInterval() {
+        String v = props.get(SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL);
+        if (StringUtil.isEmpty(v)) {
+            return DEFAULT_SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL;
+        }
+        try {
+            int interval = Integer.parseInt(v.trim());
+            if (interval <= 0) {
+                RecordLog.warn("[SentinelConfig] Invalid slot profile sample interval: {}, using default value: {}",
+                    v, DEFAULT_SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL);
+                return DEFAULT_SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL;
+            }
+            return interval;
+        } catch (Throwable throwable) {
+            RecordLog.warn("[SentinelConfig] Parse slot profile sample interval failed, using default value: {}",
+                DEFAULT_SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL, throwable);
+            return DEFAULT_SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL;
+        }
+    }
+
     /**
      * Function for resolving project name. The order is elaborated below:
      *
@@ -0,0 +1,51 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.context;
+
+/**
+ * <p>
+ * Carrier of the current {@link Context} used by {@link ContextUtil}. The default carrier keeps the context
+ * in a {@link ThreadLocal}. Custom carriers (e.g. one based on {@code ScopedValue} for virtual threads)
+ * can be registered via SPI, and selected by alias name with the {@code csp.sentinel.context.carrier}
+ * config item.
+ * </p>
+ * <p>
+ * Code that can pass the context explicitly (e.g. reactive pipelines) may bypass the carrier entirely
+ * with {@link ContextUtil#newDetachedContext(String, String)} and
+ * {@link com.alibaba.csp.sentinel.SphU#asyncEntry(Context, String, int, com.alibaba.csp.sentinel.EntryType, int, Object[])}.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public interface ContextCarrier {
+
+    /**
+     * @return the current context, or null if absent
+     */
+    Context get();
+
+    /**
+     * Set the current context.
+     *
+     * @param context a non-null context
+     */
+    void set(Context context);
+
+    /**
+     * Remove the current context.
+     */
+    void remove();
+}
@@ -15,20 +15,22 @@
  */
 package com.alibaba.csp.sentinel.context;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
-
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.EntryType;
 import com.alibaba.csp.sentinel.SphO;
 import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
+import com.alibaba.csp.sentinel.spi.SpiLoader;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.csp.sentinel.util.StringUtil;
+import com.alibaba.csp.sentinel.util.function.Consumer;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * Utility class to get or create {@link Context} in current thread.
@@ -45,18 +47,33 @@ import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
 public class ContextUtil {
 
     /**
-     * Store the context in ThreadLocal for easy access.
+     * Store the context in the carrier (ThreadLocal by default) for easy access.
      * 将上下文存储在 ThreadLocal 中以便于访问。
      */
-    private static ThreadLocal<Context> contextHolder = new ThreadLocal<>();
+    private static final ContextCarrier contextHolder = resolveContextCarrier();
 
     /**
      * Holds all {@link EntranceNode}. Each {@link EntranceNode} is associated with a distinct context name.
      * 持有所有 {@link EntranceNode}。每个 {@link EntranceNode} 都与一个不同的上下文名称相关联。
      */
-    private static volatile Map<String, DefaultNode> contextNameNodeMap = new HashMap<>();
+    private static final ConcurrentRegistry<String, DefaultNode> contextNameNodeMap
+        = new ConcurrentRegistry<>(Constants.MAX_CONTEXT_NAME_SIZE + 1);
 
-    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final Function<String, DefaultNode> ENTRANCE_NODE_CREATOR = new Function<String, DefaultNode>() {
+        @Override
+        public DefaultNode apply(String name) {
+            return new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
+        }
+    };
+    /**
+     * Only the registered entrance node is added to the ROOT, as a racing creation may be discarded.
+     */
+    private static final Consumer<DefaultNode> ENTRANCE_NODE_LINKER = new Consumer<DefaultNode>() {
+        @Override
+        public void accept(DefaultNode node) {
+            Constants.ROOT.addChild(node);
+        }
+    };
     private static final Context NULL_CONTEXT = new NullContext();
 
     static {
@@ -66,10 +83,26 @@ public class ContextUtil {
     }
 
     private static void initDefaultContext() {
-        String defaultContextName = Constants.CONTEXT_DEFAULT_NAME;
-        EntranceNode node = new EntranceNode(new StringResourceWrapper(defaultContextName, EntryType.IN), null);
-        Constants.ROOT.addChild(node);
-        contextNameNodeMap.put(defaultContextName, node);
+        contextNameNodeMap.computeIfAbsent(Constants.CONTEXT_DEFAULT_NAME, ENTRANCE_NODE_CREATOR, ENTRANCE_NODE_LINKER);
+    }
+
+    /**
+     * Load the {@link ContextCarrier} named by {@link SentinelConfig#CONTEXT_CARRIER}, falling back to the
+     * {@link ThreadLocalContextCarrier} if it is absent or cannot be loaded.
+     */
+    private static ContextCarrier resolveContextCarrier() {
+        String name = SentinelConfig.contextCarrier();
+        if (StringUtil.isBlank(name)) {
+            return new ThreadLocalContextCarrier();
+        }
+        try {
+            ContextCarrier carrier = SpiLoader.of(ContextCarrier.class).loadInstance(name.trim());
+            RecordLog.info("[ContextUtil] Using context carrier: {}", carrier.getClass().getCanonicalName());
+            return carrier;
+        } catch (Throwable ex) {
+            RecordLog.warn("[ContextUtil] Failed to load context carrier <{}>, using ThreadLocal carrier", name, ex);
+            return new ThreadLocalContextCarrier();
+        }
     }
 
     /**
@@ -77,11 +110,9 @@ public class ContextUtil {
      * 不是线程安全的，仅用于测试。
      */
     static void resetContextMap() {
-        if (contextNameNodeMap != null) {
-            RecordLog.warn("Context map cleared and reset to initial state");
-            contextNameNodeMap.clear();
-            initDefaultContext();
-        }
+        RecordLog.warn("Context map cleared and reset to initial state");
+        contextNameNodeMap.clear();
+        initDefaultContext();
     }
 
     /**
@@ -132,43 +163,12 @@ public class ContextUtil {
         // 若Threadlocal中没有找到，则尝试从缓存map中获取
         if (context == null) {
             // 缓存map中的key 是context名称，value为EntranceNode
-            Map<String, DefaultNode> localCacheNameMap = contextNameNodeMap;
-            // 获取EntranceNode
-            DefaultNode node = localCacheNameMap.get(name);
+            // 获取EntranceNode，若不存在则创建（每个context名称只会注册一个节点，且不会阻塞其他context的创建）
+            DefaultNode node = contextNameNodeMap.computeIfAbsent(name, ENTRANCE_NODE_CREATOR, ENTRANCE_NODE_LINKER);
             if (node == null) {
                 // 检查数量是否超过域值，若缓存map的size大于了context数量的最大域值，则返回NULL_CONTEXT
-                if (localCacheNameMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                    setNullContext();
-                    return NULL_CONTEXT;
-                } else {
-                    LOCK.lock();
-                    try {
-                        // 在获取一次   双重检测锁DCL 为了防止并发创建
-                        node = contextNameNodeMap.get(name);
-                        if (node == null) {
-                            if (contextNameNodeMap.size() > Constants.MAX_CONTEXT_NAME_SIZE) {
-                                setNullContext();
-                                return NULL_CONTEXT;
-                            } else {
-                                // 创建EntranceNode
-                                node = new EntranceNode(new StringResourceWrapper(name, EntryType.IN), null);
-                                // Add entrance node.
-                                // 将新建的node添加到root树中
-                                Constants.ROOT.addChild(node);
-
-                                // 新建map，将新创建的node放入新的map，再让缓存map指向新map
-                                // 为什么不直接put 为了防止"迭代稳定性问题" —— iterate stable
-                                // 对于共享集合的写操作，我们一般都采用这种框架，因为对于共享集合的读操作有可能会读到脏数据
-                                Map<String, DefaultNode> newMap = new HashMap<>(contextNameNodeMap.size() + 1);
-                                newMap.putAll(contextNameNodeMap);
-                                newMap.put(name, node);
-                                contextNameNodeMap = newMap;
-                            }
-                        }
-                    } finally {
-                        LOCK.unlock();
-                    }
-                }
+                setNullContext();
+                return NULL_CONTEXT;
             }
             // 创建context，将context放入ThreadLocal
             context = new Context(node, name);
@@ -179,6 +179,38 @@ public class ContextUtil {
         return context;
     }
 
+    /**
+     * <p>
+     * Create a context that is not bound to the current thread (the context carrier), which can be passed
+     * explicitly to {@link com.alibaba.csp.sentinel.SphU#asyncEntry(Context, String, int, EntryType, int, Object[])}.
+     * This avoids the carrier lookups and the allocation of the async context for each entry,
+     * e.g. in reactive pipelines or with virtual threads.
+     * </p>
+     * <p>
+     * A detached context should be used by only one entry at a time, which becomes the async context of the entry.
+     * </p>
+     *
+     * @param name   the context name
+     * @param origin the origin of this invocation
+     * @return a new detached context, or a {@link NullContext} if the amount of context exceeds the threshold
+     * @since 1.8.6
+     */
+    public static Context newDetachedContext(String name, String origin) {
+        if (Constants.CONTEXT_DEFAULT_NAME.equals(name)) {
+            throw new ContextNameDefineException(
+                    "The " + Constants.CONTEXT_DEFAULT_NAME + " can't be permit to defined!");
+        }
+        return trueNewDetachedContext(name, origin);
+    }
+
+    protected static Context trueNewDetachedContext(String name, String origin) {
+        DefaultNode node = contextNameNodeMap.computeIfAbsent(name, ENTRANCE_NODE_CREATOR, ENTRANCE_NODE_LINKER);
+        if (node == null) {
+            return NULL_CONTEXT;
+        }
+        return Context.newAsyncContext(node, name).setOrigin(origin);
+    }
+
     private static boolean shouldWarn = true;
 
     private static void setNullContext() {
@@ -223,7 +255,7 @@ public class ContextUtil {
         Context context = contextHolder.get();
         if (context != null && context.getCurEntry() == null) {
             // 将当前线程对应对上下文置空
-            contextHolder.set(null);
+            contextHolder.remove();
         }
     }
 
@@ -237,6 +269,16 @@ public class ContextUtil {
         return contextNameNodeMap.size();
     }
 
+    /**
+     * Get the registry of context entrance nodes, which also records the statistics of node creation.
+     *
+     * @return the registry of context entrance nodes
+     * @since 1.8.6
+     */
+    public static ConcurrentRegistry<String, DefaultNode> getContextNameNodeRegistry() {
+        return contextNameNodeMap;
+    }
+
     /**
      * Check if provided context is a default auto-created context.
      *
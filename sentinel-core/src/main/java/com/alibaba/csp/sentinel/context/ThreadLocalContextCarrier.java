@@ -0,0 +1,44 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.context;
+
+import com.alibaba.csp.sentinel.spi.Spi;
+
+/**
+ * The default {@link ContextCarrier}, which keeps the context in a {@link ThreadLocal}.
+ *
+ * @since 1.8.6
+ */
+@Spi(value = "threadLocal", isDefault = true)
+public class ThreadLocalContextCarrier implements ContextCarrier {
+
+    private final ThreadLocal<Context> contextHolder = new ThreadLocal<>();
+
+    @Override
+    public Context get() {
+        return contextHolder.get();
+    }
+
+    @Override
+    public void set(Context context) {
+        contextHolder.set(context);
+    }
+
+    @Override
+    public void remove() {
+        contextHolder.remove();
+    }
+}
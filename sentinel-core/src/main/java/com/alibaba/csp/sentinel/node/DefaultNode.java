@@ -101,6 +101,28 @@ public class DefaultNode extends StatisticNode {
         }
     }
 
+    /**
+     * Remove the child node from current node.
+     *
+     * @param node child node to remove
+     * @return true if the node was a child of current node
+     * @since 1.8.6
+     */
+    public boolean removeChild(Node node) {
+        if (node == null || !childList.contains(node)) {
+            return false;
+        }
+        synchronized (this) {
+            if (!childList.contains(node)) {
+                return false;
+            }
+            Set<Node> newSet = new HashSet<>(childList);
+            newSet.remove(node);
+            childList = newSet;
+        }
+        return true;
+    }
+
     /**
      * Reset the child node list.
      */
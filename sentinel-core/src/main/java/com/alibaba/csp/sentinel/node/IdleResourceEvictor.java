@@ -0,0 +1,252 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.CtSph;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.slots.nodeselector.NodeSelectorSlot;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>
+ * Evicts resources that have not been accessed for a period of time (idle timeout) in background.
+ * The slot chain, the {@link ClusterNode} and the {@link DefaultNode}s (in the invocation tree) of an idle
+ * resource are removed, so that their statistics can be reclaimed and the slot chain quota
+ * ({@link Constants#MAX_SLOT_CHAIN_SIZE}) can be reused by other resources. Resources with in-flight
+ * invocations won't be evicted.
+ * </p>
+ * <p>
+ * Nodes of other resources invoked inside an evicted resource are created again under the new node of the
+ * evicted resource on next access. A slot chain is marked as evicted before it's removed, so that threads that
+ * look it up afterwards use a new slot chain rather than the detached nodes.
+ * </p>
+ * <p>
+ * Rules are managed by resource name, so they still take effect after the resource is evicted.
+ * The slot chain and nodes will be created again on next access, with statistics starting from zero.
+ * </p>
+ * <p>
+ * The eviction is disabled by default, see {@link com.alibaba.csp.sentinel.config.SentinelConfig#RESOURCE_IDLE_TIMEOUT}.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class IdleResourceEvictor {
+
+    private static final long MIN_CHECK_INTERVAL_MS = 1000;
+    private static final long MAX_CHECK_INTERVAL_MS = 60 * 1000;
+
+    private static final LongAdder evictedCount = new LongAdder();
+    private static volatile long lastEvictedCount = 0;
+    private static volatile long lastCheckTime = 0;
+    private static volatile long idleTimeoutMs = 0;
+
+    private static ScheduledExecutorService scheduler = null;
+
+    /**
+     * Start evicting resources that have been idle for the provided timeout. Calling this method again
+     * will restart the eviction with the new timeout.
+     *
+     * @param timeoutMs idle timeout in milliseconds, which should be positive
+     */
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    public static synchronized void start(long timeoutMs) {
+        if (timeoutMs <= 0) {
+            RecordLog.warn("[IdleResourceEvictor] Ignoring invalid idle timeout: {}", timeoutMs);
+            return;
+        }
+        stop();
+        idleTimeoutMs = timeoutMs;
+        long interval = Math.max(MIN_CHECK_INTERVAL_MS, Math.min(timeoutMs, MAX_CHECK_INTERVAL_MS));
+        scheduler = Executors.newScheduledThreadPool(1,
+            new NamedThreadFactory("sentinel-idle-resource-evict-task", true));
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    evictIdleResources(TimeUtil.currentTimeMillis(), idleTimeoutMs);
+                } catch (Throwable e) {
+                    RecordLog.warn("[IdleResourceEvictor] Unexpected error when evicting idle resources", e);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        RecordLog.info("[IdleResourceEvictor] Idle resource eviction started, idleTimeout={}ms, interval={}ms",
+            timeoutMs, interval);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        idleTimeoutMs = 0;
+    }
+
+    public static synchronized boolean isStarted() {
+        return scheduler != null;
+    }
+
+    /**
+     * Evict all resources that have not been accessed since {@code currentTime - timeoutMs}.
+     *
+     * @param currentTime current time in milliseconds
+     * @param timeoutMs   idle timeout in milliseconds
+     * @return amount of evicted resources
+     */
+    static int evictIdleResources(long currentTime, long timeoutMs) {
+        ConcurrentRegistry<ResourceWrapper, ProcessorSlotChain> chainRegistry = CtSph.getChainRegistry();
+        ConcurrentRegistry<ResourceWrapper, ClusterNode> clusterNodeRegistry
+            = ClusterBuilderSlot.getClusterNodeRegistry();
+
+        Set<ResourceWrapper> evicted = new HashSet<>();
+        for (Map.Entry<ResourceWrapper, ProcessorSlotChain> e : chainRegistry.asMap().entrySet()) {
+            ResourceWrapper resource = e.getKey();
+            ProcessorSlotChain chain = e.getValue();
+            if (currentTime - chain.getLastAccessTime() < timeoutMs) {
+                continue;
+            }
+            ClusterNode clusterNode = clusterNodeRegistry.get(resource);
+            if (clusterNode != null && clusterNode.curThreadNum() > 0) {
+                continue;
+            }
+            // Threads that look up the chain from now on will replace it with a new one.
+            chain.markEvicted();
+            // Only remove the chain we checked, in case it has just been replaced.
+            chainRegistry.remove(resource, chain);
+            if (clusterNode != null) {
+                clusterNodeRegistry.remove(resource, clusterNode);
+            }
+            evicted.add(resource);
+        }
+        if (!evicted.isEmpty()) {
+            removeDefaultNodes(Constants.ROOT, evicted, chainRegistry);
+            RecordLog.info("[IdleResourceEvictor] Evicted {} idle resources: {}", evicted.size(), evicted);
+        }
+
+        evictedCount.add(evicted.size());
+        lastEvictedCount = evicted.size();
+        lastCheckTime = currentTime;
+        return evicted.size();
+    }
+
+    private static void removeDefaultNodes(DefaultNode root, Set<ResourceWrapper> resources,
+                                           ConcurrentRegistry<ResourceWrapper, ProcessorSlotChain> chainRegistry) {
+        Deque<DefaultNode> stack = new ArrayDeque<>();
+        // Name of the context that each node in the stack belongs to.
+        Deque<String> contextNames = new ArrayDeque<>();
+        stack.push(root);
+        contextNames.push(root.getId().getName());
+        while (!stack.isEmpty()) {
+            DefaultNode parent = stack.pop();
+            String contextName = contextNames.pop();
+            for (Node child : parent.getChildList()) {
+                if (!(child instanceof DefaultNode)) {
+                    continue;
+                }
+                DefaultNode node = (DefaultNode)child;
+                // Entrance nodes belong to contexts rather than resources.
+                if (node instanceof EntranceNode) {
+                    stack.push(node);
+                    contextNames.push(node.getId().getName());
+                } else if (resources.contains(node.getId())) {
+                    parent.removeChild(node);
+                    detachDescendants(node, contextName, resources, chainRegistry);
+                } else {
+                    stack.push(node);
+                    contextNames.push(contextName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Nodes of live resources under a removed node are only added to the invocation tree when they are created,
+     * so drop them from their {@link NodeSelectorSlot}, and they will be created under the new parent on next entry.
+     */
+    private static void detachDescendants(DefaultNode removed, String contextName, Set<ResourceWrapper> resources,
+                                          ConcurrentRegistry<ResourceWrapper, ProcessorSlotChain> chainRegistry) {
+        Deque<DefaultNode> stack = new ArrayDeque<>();
+        stack.push(removed);
+        while (!stack.isEmpty()) {
+            for (Node child : stack.pop().getChildList()) {
+                if (!(child instanceof DefaultNode) || child instanceof EntranceNode) {
+                    continue;
+                }
+                DefaultNode node = (DefaultNode)child;
+                stack.push(node);
+                if (resources.contains(node.getId())) {
+                    continue;
+                }
+                NodeSelectorSlot slot = findNodeSelectorSlot(chainRegistry.get(node.getId()));
+                if (slot != null) {
+                    slot.removeNode(contextName, node);
+                }
+            }
+        }
+    }
+
+    private static NodeSelectorSlot findNodeSelectorSlot(ProcessorSlotChain chain) {
+        if (chain == null) {
+            return null;
+        }
+        for (AbstractLinkedProcessorSlot<?> slot = chain.getNext(); slot != null; slot = slot.getNext()) {
+            if (slot instanceof NodeSelectorSlot) {
+                return (NodeSelectorSlot)slot;
+            }
+        }
+        return null;
+    }
+
+    public static long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    /**
+     * @return total amount of evicted resources
+     */
+    public static long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    /**
+     * @return amount of resources evicted in the last check
+     */
+    public static long getLastEvictedCount() {
+        return lastEvictedCount;
+    }
+
+    public static long getLastCheckTime() {
+        return lastCheckTime;
+    }
+
+    private IdleResourceEvictor() {}
+}
@@ -20,6 +20,8 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.LongAdder;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.node.metric.MetricBatch;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.slots.statistic.metric.ArrayMetric;
 import com.alibaba.csp.sentinel.slots.statistic.metric.Metric;
@@ -95,14 +97,15 @@ public class StatisticNode implements Node {
      * 保存最近 {@code INTERVAL} 毫秒的统计信息。 {@code INTERVAL} 按给定的 {@code sampleCount} 划分为时间跨度。
      */
     private transient volatile Metric rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT,
-            IntervalProperty.INTERVAL);
+            IntervalProperty.INTERVAL, true, SentinelConfig.statisticLockFreeWindowEnabled());
 
     /**
      * Holds statistics of the recent 60 seconds. The windowLengthInMs is deliberately set to 1000 milliseconds,
      * meaning each bucket per second, in this way we can get accurate statistics of each second.
      * 保存最近 60 秒的统计信息。 windowLengthInMs 特意设置为 1000 毫秒，意思是每桶每秒，这样我们就可以得到每一秒的准确统计。
      */
-    private transient Metric rollingCounterInMinute = new ArrayMetric(60, 60 * 1000, false);
+    private transient Metric rollingCounterInMinute = new ArrayMetric(60, 60 * 1000, false,
+            SentinelConfig.statisticLockFreeWindowEnabled());
 
     /**
      * The counter for thread count.
@@ -137,6 +140,22 @@ public class StatisticNode implements Node {
         return metrics;
     }
 
+    /**
+     * Fetch metrics like {@link #metrics()}, but fill them into the batch rather than creating a map and a list
+     * of new metric nodes for each call. Both methods share the last fetch time, so a metric is fetched only once
+     * by either of them.
+     *
+     * @param batch the batch to fill metrics into, whose resource has been set
+     * @since 1.8.6
+     */
+    public void fetchMetrics(MetricBatch batch) {
+        // The fetch operation is thread-safe under a single-thread scheduler pool.
+        long currentTime = TimeUtil.currentTimeMillis();
+        currentTime = currentTime - currentTime % 1000;
+        long maxTimestamp = rollingCounterInMinute.fillDetails(batch, lastFetchTime, currentTime);
+        lastFetchTime = Math.max(lastFetchTime, maxTimestamp);
+    }
+
     @Override
     public List<MetricNode> rawMetricsInMin(Predicate<Long> timePredicate) {
         return rollingCounterInMinute.detailsOnCondition(timePredicate);
@@ -153,7 +172,8 @@ public class StatisticNode implements Node {
 
     @Override
     public void reset() {
-        rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL);
+        rollingCounterInSecond = new ArrayMetric(SampleCountProperty.SAMPLE_COUNT, IntervalProperty.INTERVAL, true,
+            SentinelConfig.statisticLockFreeWindowEnabled());
     }
 
     @Override
@@ -0,0 +1,259 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.alibaba.csp.sentinel.node.metric.BinaryMetricWriter.BLOCK_MAGIC;
+import static com.alibaba.csp.sentinel.node.metric.BinaryMetricWriter.HEADER_SIZE;
+
+/**
+ * A binary metric file written by {@link BinaryMetricWriter}. Block headers and dictionary entries are scanned
+ * incrementally: each {@link #refresh()} only reads the bytes appended since last refresh, and
+ * {@link #readBlock(int, List, int[])} reads only the wanted block through the channel, so no mapping of the whole
+ * file is created or retained. The file should be {@link #close() closed} once it is no longer searched.
+ * Not thread-safe.
+ *
+ * @since 1.8.6
+ */
+final class BinaryMetricFile implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private FileChannel channel;
+    /**
+     * Reused buffer for reading a block, which grows to the size of the largest block.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+    /**
+     * Offset of the first block that has not been scanned.
+     */
+    private int scanned = 0;
+
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryIds = new HashMap<>();
+
+    private long[] blockSeconds = new long[64];
+    private int[] blockOffsets = new int[64];
+    private int[] blockLengths = new int[64];
+    /**
+     * Offsets of the id column relative to the block.
+     */
+    private int[] columnOffsets = new int[64];
+    private int blockCount = 0;
+
+    BinaryMetricFile(File file) {
+        this.file = file;
+    }
+
+    int blockCount() {
+        return blockCount;
+    }
+
+    /**
+     * @return offset after the last complete block
+     */
+    int scannedOffset() {
+        return scanned;
+    }
+
+    void refresh() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        }
+        long size = Math.min(channel.size(), Integer.MAX_VALUE);
+        if (size <= scanned) {
+            return;
+        }
+        // Only the blocks appended since last refresh are read, one at a time.
+        while (scanned + HEADER_SIZE <= size) {
+            ByteBuffer header = read(scanned, HEADER_SIZE);
+            if (header.getInt(0) != BLOCK_MAGIC) {
+                break;
+            }
+            int length = header.getInt(4);
+            if (length < HEADER_SIZE || scanned + length > size) {
+                // The block is being written.
+                break;
+            }
+            ByteBuffer data = read(scanned, length);
+            long timestamp = data.getLong(8);
+            int dictCount = data.getInt(16);
+            int p = HEADER_SIZE;
+            for (int i = 0; i < dictCount; i++) {
+                int len = data.getShort(p) & 0xFFFF;
+                byte[] bytes = new byte[len];
+                for (int j = 0; j < len; j++) {
+                    bytes[j] = data.get(p + 2 + j);
+                }
+                String name = new String(bytes, UTF_8);
+                dictionaryIds.put(name, dictionary.size());
+                dictionary.add(name);
+                p += 2 + len;
+            }
+            addBlock(timestamp / 1000, scanned, length, p);
+            scanned += length;
+        }
+    }
+
+    /**
+     * Read {@code length} bytes from {@code position} into the reused buffer.
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        if (buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+        }
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new EOFException("Unexpected end of metric file: " + file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void addBlock(long second, int offset, int length, int columnOffset) {
+        if (blockCount == blockSeconds.length) {
+            int newLength = blockCount * 2;
+            blockSeconds = Arrays.copyOf(blockSeconds, newLength);
+            blockOffsets = Arrays.copyOf(blockOffsets, newLength);
+            blockLengths = Arrays.copyOf(blockLengths, newLength);
+            columnOffsets = Arrays.copyOf(columnOffsets, newLength);
+        }
+        blockSeconds[blockCount] = second;
+        blockOffsets[blockCount] = offset;
+        blockLengths[blockCount] = length;
+        columnOffsets[blockCount] = columnOffset;
+        blockCount++;
+    }
+
+    long blockSecond(int block) {
+        return blockSeconds[block];
+    }
+
+    int blockOffset(int block) {
+        return blockOffsets[block];
+    }
+
+    /**
+     * @param offset a byte offset in the file
+     * @return index of the first block that starts at or after given offset, or {@link #blockCount()}
+     */
+    int firstBlockAtOffset(long offset) {
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blockOffsets[mid] < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param second a timestamp in seconds
+     * @return index of the first block whose second is not less than given second, or {@link #blockCount()}
+     */
+    int firstBlockFrom(long second) {
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blockSeconds[mid] < second) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param resource resource name
+     * @return id of the resource in the dictionary, or -1 if absent
+     */
+    int resourceId(String resource) {
+        Integer id = dictionaryIds.get(resource);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Read nodes of the block.
+     *
+     * @param block       index of the block
+     * @param list        list to add nodes to
+     * @param resourceIds ids of wanted resources (sorted), or null for all resources
+     */
+    void readBlock(int block, List<MetricNode> list, int[] resourceIds) throws IOException {
+        ByteBuffer data = read(blockOffsets[block], blockLengths[block]);
+        long timestamp = data.getLong(8);
+        int n = data.getInt(20);
+        int idCol = columnOffsets[block];
+        int classificationCol = idCol + 4 * n;
+        int passCol = classificationCol + 4 * n;
+        int blockCol = passCol + 8 * n;
+        int successCol = blockCol + 8 * n;
+        int exceptionCol = successCol + 8 * n;
+        int rtCol = exceptionCol + 8 * n;
+        int occupiedCol = rtCol + 8 * n;
+        int concurrencyCol = occupiedCol + 8 * n;
+        for (int i = 0; i < n; i++) {
+            int id = data.getInt(idCol + 4 * i);
+            if (resourceIds != null && Arrays.binarySearch(resourceIds, id) < 0) {
+                continue;
+            }
+            MetricNode node = new MetricNode();
+            node.setTimestamp(timestamp);
+            node.setResource(id >= 0 && id < dictionary.size() ? dictionary.get(id) : null);
+            node.setClassification(data.getInt(classificationCol + 4 * i));
+            node.setPassQps(data.getLong(passCol + 8 * i));
+            node.setBlockQps(data.getLong(blockCol + 8 * i));
+            node.setSuccessQps(data.getLong(successCol + 8 * i));
+            node.setExceptionQps(data.getLong(exceptionCol + 8 * i));
+            node.setRt(data.getLong(rtCol + 8 * i));
+            node.setOccupiedPassQps(data.getLong(occupiedCol + 8 * i));
+            node.setConcurrency(data.getInt(concurrencyCol + 4 * i));
+            list.add(node);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>
+ * Searches metrics in binary metric files written by {@link BinaryMetricWriter}, with the same semantics as
+ * {@link MetricSearcher}. Block headers of the files are scanned incrementally and cached, so a search locates
+ * the first block by binary search, then reads each wanted block as a whole through the {@code FileChannel}
+ * (no file is memory-mapped) and decodes its columns without parsing any text.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class BinaryMetricSearcher {
+
+    /**
+     * Avoid OOM in any cases.
+     */
+    private static final int MAX_LINES_RETURN = 100000;
+
+    private final String baseDir;
+    private final String baseFileName;
+
+    /**
+     * Cached files: (absolutePath, file)
+     */
+    private final Map<String, BinaryMetricFile> files = new HashMap<>();
+
+    /**
+     * @param baseDir      directory of the metric files
+     * @param baseFileName base name of the metric files, e.g. {@code app-metrics.bin}
+     */
+    public BinaryMetricSearcher(String baseDir, String baseFileName) {
+        AssertUtil.notNull(baseDir, "baseDir can't be null");
+        AssertUtil.notNull(baseFileName, "baseFileName can't be null");
+        this.baseDir = baseDir.endsWith(File.separator) ? baseDir : baseDir + File.separator;
+        this.baseFileName = baseFileName;
+    }
+
+    /**
+     * Find about {@code recommendLines} metrics from {@code beginTimeMs}. Metrics of one second are never split.
+     *
+     * @param beginTimeMs    the min timestamp
+     * @param recommendLines max amount of metrics wanted, which may be exceeded to keep the metrics of a second
+     * @return metrics found, or null if no metrics after {@code beginTimeMs}
+     */
+    public synchronized List<MetricNode> find(long beginTimeMs, int recommendLines) throws Exception {
+        List<BinaryMetricFile> fileList = refreshFiles();
+        long beginSecond = beginTimeMs / 1000;
+        List<MetricNode> list = null;
+        long lastSecond = -1;
+        for (BinaryMetricFile file : fileList) {
+            for (int b = file.firstBlockFrom(beginSecond); b < file.blockCount(); b++) {
+                long second = file.blockSecond(b);
+                if (list == null) {
+                    list = new ArrayList<>(recommendLines);
+                } else if (list.size() >= recommendLines && second != lastSecond) {
+                    return list;
+                }
+                file.readBlock(b, list, null);
+                lastSecond = second;
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Find metrics between [beginTimeMs, endTimeMs], both side inclusive.
+     *
+     * @param beginTimeMs the min timestamp
+     * @param endTimeMs   the max timestamp
+     * @param identity    the resource, or null for all resources
+     * @return metrics found, or null if no metrics after {@code beginTimeMs}
+     */
+    public synchronized List<MetricNode> findByTimeAndResource(long beginTimeMs, long endTimeMs, String identity)
+        throws Exception {
+        List<BinaryMetricFile> fileList = refreshFiles();
+        long beginSecond = beginTimeMs / 1000;
+        long endSecond = endTimeMs / 1000;
+        List<MetricNode> list = null;
+        for (BinaryMetricFile file : fileList) {
+            int b = file.firstBlockFrom(beginSecond);
+            if (b >= file.blockCount()) {
+                continue;
+            }
+            if (list == null) {
+                list = new ArrayList<>(1024);
+            }
+            int[] resourceIds = null;
+            if (identity != null) {
+                int id = file.resourceId(identity);
+                if (id < 0) {
+                    continue;
+                }
+                resourceIds = new int[] {id};
+            }
+            for (; b < file.blockCount(); b++) {
+                if (file.blockSecond(b) > endSecond || list.size() >= MAX_LINES_RETURN) {
+                    return list;
+                }
+                file.readBlock(b, list, resourceIds);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Find metrics appended since the cursor, with the same semantics as
+     * {@link MetricSearcher#findSince(MetricCursor, long, int, Set)}. The offset of the cursor is the offset of
+     * the next block, and blocks are never split.
+     *
+     * @param cursor      cursor returned by last query, or null for the first query
+     * @param beginTimeMs the min timestamp for the first query, or a negative value to read only new metrics
+     * @param maxLines    max amount of metrics wanted, which may be exceeded to keep the metrics of a second
+     * @param resources   wanted resources, or null for all resources
+     * @return metrics found and the cursor for the next query
+     */
+    public synchronized MetricCursorResult findSince(MetricCursor cursor, long beginTimeMs, int maxLines,
+                                                     Set<String> resources) throws Exception {
+        List<String> paths = MetricWriter.listMetricFiles(baseDir, baseFileName);
+        List<BinaryMetricFile> fileList = refreshFiles(paths);
+        List<MetricNode> list = new ArrayList<>();
+        if (fileList.isEmpty()) {
+            return new MetricCursorResult(list, cursor);
+        }
+        int i;
+        int b = 0;
+        if (cursor != null) {
+            i = cursor.locate(paths);
+            if (i >= 0) {
+                b = fileList.get(i).firstBlockAtOffset(cursor.getOffset());
+            } else {
+                // The file has been removed, so continue with the next file.
+                i = -i - 1;
+                if (i == fileList.size()) {
+                    return new MetricCursorResult(list, cursor);
+                }
+            }
+        } else {
+            i = fileList.size() - 1;
+            b = fileList.get(i).blockCount();
+            if (beginTimeMs >= 0) {
+                long beginSecond = beginTimeMs / 1000;
+                for (int k = 0; k < fileList.size(); k++) {
+                    int found = fileList.get(k).firstBlockFrom(beginSecond);
+                    if (found < fileList.get(k).blockCount()) {
+                        i = k;
+                        b = found;
+                        break;
+                    }
+                }
+            }
+        }
+        int limit = Math.min(maxLines, MAX_LINES_RETURN);
+        while (true) {
+            BinaryMetricFile file = fileList.get(i);
+            int[] resourceIds = resourceIds(file, resources);
+            for (; b < file.blockCount(); b++) {
+                if (list.size() >= limit) {
+                    return new MetricCursorResult(list, new MetricCursor(new File(paths.get(i)).getName(),
+                        file.blockOffset(b)));
+                }
+                if (resourceIds == null || resourceIds.length > 0) {
+                    file.readBlock(b, list, resourceIds);
+                }
+            }
+            if (i == fileList.size() - 1) {
+                return new MetricCursorResult(list, new MetricCursor(new File(paths.get(i)).getName(),
+                    file.scannedOffset()));
+            }
+            i++;
+            b = 0;
+        }
+    }
+
+    private static int[] resourceIds(BinaryMetricFile file, Set<String> resources) {
+        if (resources == null) {
+            return null;
+        }
+        int[] ids = new int[resources.size()];
+        int n = 0;
+        for (String resource : resources) {
+            int id = file.resourceId(resource);
+            if (id >= 0) {
+                ids[n++] = id;
+            }
+        }
+        ids = Arrays.copyOf(ids, n);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * List the metric files in order and refresh them, dropping the files that have been removed.
+     */
+    List<BinaryMetricFile> refreshFiles() throws Exception {
+        return refreshFiles(MetricWriter.listMetricFiles(baseDir, baseFileName));
+    }
+
+    private List<BinaryMetricFile> refreshFiles(List<String> paths) throws Exception {
+        Map<String, BinaryMetricFile> current = new HashMap<>(paths.size() * 2);
+        List<BinaryMetricFile> fileList = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            BinaryMetricFile file = files.get(path);
+            if (file == null) {
+                file = new BinaryMetricFile(new File(path));
+            }
+            file.refresh();
+            current.put(path, file);
+            fileList.add(file);
+        }
+        for (Map.Entry<String, BinaryMetricFile> e : files.entrySet()) {
+            if (!current.containsKey(e.getKey())) {
+                // The file has been rolled away, so release its channel.
+                e.getValue().close();
+            }
+        }
+        files.clear();
+        files.putAll(current);
+        return fileList;
+    }
+}
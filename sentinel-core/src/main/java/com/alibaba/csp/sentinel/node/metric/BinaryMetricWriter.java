@@ -0,0 +1,294 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.LogBase;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+import com.alibaba.csp.sentinel.util.PidUtil;
+
+/**
+ * <p>
+ * Writes {@link MetricNode}s to disk in a binary columnar format, which is much cheaper to write and to read
+ * than the text format of {@link MetricWriter} (no formatting, parsing or splitting of lines).
+ * File names are like {@code ${appName}-metrics.bin.pid${pid}.yyyy-MM-dd.[number]}, and are rotated by day,
+ * by size and by amount in the same way as the text format.
+ * </p>
+ * <p>
+ * A file is a sequence of blocks, each of which holds the metrics of one second. All numbers are big-endian:
+ * </p>
+ * <pre>
+ * block header (24 bytes):
+ *   int  magic ({@link #BLOCK_MAGIC})
+ *   int  block length in bytes (including the header)
+ *   long timestamp in milliseconds
+ *   int  amount of new dictionary entries (D)
+ *   int  amount of nodes (N)
+ * D dictionary entries: unsigned short length + UTF-8 bytes of a resource name, whose id is its order in the file
+ * N-row columns: int resourceId[N], int classification[N], long passQps[N], long blockQps[N],
+ *   long successQps[N], long exceptionQps[N], long rt[N], long occupiedPassQps[N], int concurrency[N]
+ * </pre>
+ * <p>
+ * The resource names are interned in a per-file dictionary, so a name is written only once in each file.
+ * Block headers form the index of the file: a reader scans the headers (skipping the columns by the block length)
+ * once, and then locates any second by binary search (see {@link BinaryMetricSearcher}).
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class BinaryMetricWriter {
+
+    public static final String METRIC_FILE = "metrics.bin";
+
+    static final int BLOCK_MAGIC = 0x534D4231;
+    static final int HEADER_SIZE = 24;
+    /**
+     * Bytes of all columns of one row.
+     */
+    static final int ROW_SIZE = 4 + 4 + 8 * 6 + 4;
+
+    static final int MAX_NAME_BYTES = 0xFFFF;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String baseDir;
+    private final long singleFileSize;
+    private final int totalFileCount;
+    private final DateFormat fileNameDf = new SimpleDateFormat("yyyy-MM-dd");
+
+    private String baseFileName;
+    private File curFile;
+    private FileChannel channel;
+    private String curDate;
+    /**
+     * Dictionary of the current file: (resourceName, id)
+     */
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    private long lastSecond = -1;
+
+    public BinaryMetricWriter(long singleFileSize, int totalFileCount) {
+        this(MetricWriter.METRIC_BASE_DIR, singleFileSize, totalFileCount);
+    }
+
+    BinaryMetricWriter(String baseDir, long singleFileSize, int totalFileCount) {
+        AssertUtil.isTrue(singleFileSize > 0 && totalFileCount > 0,
+            "singleFileSize and totalFileCount should be positive");
+        RecordLog.info("[BinaryMetricWriter] Creating new BinaryMetricWriter, singleFileSize={}, totalFileCount={}",
+            singleFileSize, totalFileCount);
+        this.baseDir = baseDir.endsWith(File.separator) ? baseDir : baseDir + File.separator;
+        this.singleFileSize = singleFileSize;
+        this.totalFileCount = totalFileCount;
+        File dir = new File(this.baseDir);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+    }
+
+    /**
+     * Form binary metric file name use the specific appName and pid. Note that only
+     * form the file name, not include path.
+     *
+     * @param appName application name
+     * @param pid     process id
+     * @return binary metric file name
+     */
+    public static String formMetricFileName(String appName, int pid) {
+        if (appName == null) {
+            appName = "";
+        }
+        // Dot is special char that should be replaced, see MetricWriter.
+        String name = appName.replace(".", "-") + "-" + METRIC_FILE;
+        if (LogBase.isLogNameUsePid()) {
+            name += ".pid" + pid;
+        }
+        return name;
+    }
+
+    /**
+     * Write the nodes as one block, all of which are considered to be at {@code time}.
+     *
+     * @param time  timestamp of the nodes in milliseconds
+     * @param nodes metric nodes
+     */
+    public synchronized void write(long time, List<MetricNode> nodes) throws Exception {
+        if (nodes == null || nodes.isEmpty()) {
+            return;
+        }
+        long second = time / 1000;
+        if (second < lastSecond) {
+            // Should not happen.
+            return;
+        }
+        lastSecond = second;
+
+        String date = fileNameDf.format(new Date(time));
+        if (channel == null || !curFile.exists() || !date.equals(curDate)) {
+            closeAndNewFile(time, date);
+        }
+        for (MetricNode node : nodes) {
+            node.setTimestamp(time);
+        }
+        ByteBuffer block = encode(time, nodes);
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        if (channel.size() >= singleFileSize) {
+            closeFile();
+        }
+    }
+
+    public synchronized void close() throws Exception {
+        closeFile();
+    }
+
+    private ByteBuffer encode(long time, List<MetricNode> nodes) {
+        int n = nodes.size();
+        int dictStart = dictionary.size();
+        int dictBytes = 0;
+        byte[][] names = null;
+        for (int i = 0; i < n; i++) {
+            String resource = nodes.get(i).getResource();
+            if (resource != null && !dictionary.containsKey(resource)) {
+                dictionary.put(resource, dictionary.size());
+                if (names == null) {
+                    names = new byte[n][];
+                }
+                byte[] bytes = resource.getBytes(UTF_8);
+                if (bytes.length > MAX_NAME_BYTES) {
+                    bytes = Arrays.copyOf(bytes, MAX_NAME_BYTES);
+                }
+                names[dictionary.size() - 1 - dictStart] = bytes;
+                dictBytes += 2 + bytes.length;
+            }
+        }
+        int dictCount = dictionary.size() - dictStart;
+        int length = HEADER_SIZE + dictBytes + n * ROW_SIZE;
+        ByteBuffer buf = ensureBuffer(length);
+        buf.putInt(BLOCK_MAGIC).putInt(length).putLong(time).putInt(dictCount).putInt(n);
+        for (int i = 0; i < dictCount; i++) {
+            buf.putShort((short)names[i].length).put(names[i]);
+        }
+        for (MetricNode node : nodes) {
+            Integer id = node.getResource() == null ? null : dictionary.get(node.getResource());
+            buf.putInt(id == null ? -1 : id);
+        }
+        for (MetricNode node : nodes) {
+            buf.putInt(node.getClassification());
+        }
+        for (MetricNode node : nodes) {
+            buf.putLong(node.getPassQps());
+        }
+        for (MetricNode node : nodes) {
+            buf.putLong(node.getBlockQps());
+        }
+        for (MetricNode node : nodes) {
+            buf.putLong(node.getSuccessQps());
+        }
+        for (MetricNode node : nodes) {
+            buf.putLong(node.getExceptionQps());
+        }
+        for (MetricNode node : nodes) {
+            buf.putLong(node.getRt());
+        }
+        for (MetricNode node : nodes) {
+            buf.putLong(node.getOccupiedPassQps());
+        }
+        for (MetricNode node : nodes) {
+            buf.putInt(node.getConcurrency());
+        }
+        buf.flip();
+        return buf;
+    }
+
+    private ByteBuffer ensureBuffer(int length) {
+        if (buffer.capacity() < length) {
+            int capacity = buffer.capacity();
+            while (capacity < length) {
+                capacity <<= 1;
+            }
+            buffer = ByteBuffer.allocate(capacity);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private void closeFile() throws Exception {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void closeAndNewFile(long time, String date) throws Exception {
+        closeFile();
+        if (baseFileName == null) {
+            baseFileName = formMetricFileName(SentinelConfig.getAppName(), PidUtil.getPid());
+        }
+        removeMoreFiles();
+        String fileName = nextFileNameOfDay(date);
+        curFile = new File(fileName);
+        curDate = date;
+        channel = FileChannel.open(curFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        dictionary.clear();
+        RecordLog.info("[BinaryMetricWriter] New binary metric file created: {}", fileName);
+    }
+
+    private String nextFileNameOfDay(String date) throws Exception {
+        String fileNameModel = baseFileName + "." + date;
+        int n = -1;
+        for (String path : MetricWriter.listMetricFiles(baseDir, baseFileName)) {
+            String name = new File(path).getName();
+            if (name.equals(fileNameModel)) {
+                n = Math.max(n, 0);
+            } else if (name.startsWith(fileNameModel + ".")) {
+                n = Math.max(n, Integer.parseInt(name.substring(fileNameModel.length() + 1)));
+            }
+        }
+        return n < 0 ? baseDir + fileNameModel : baseDir + fileNameModel + "." + (n + 1);
+    }
+
+    private void removeMoreFiles() throws Exception {
+        List<String> list = MetricWriter.listMetricFiles(baseDir, baseFileName);
+        for (int i = 0; i < list.size() - totalFileCount + 1; i++) {
+            new File(list.get(i)).delete();
+            RecordLog.info("[BinaryMetricWriter] Removing binary metric file: {}", list.get(i));
+        }
+    }
+
+    /**
+     * Set the base file name, for test only.
+     */
+    void setBaseFileName(String baseFileName) {
+        this.baseFileName = baseFileName;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Reusable container of the metrics aggregated in one run of {@link MetricTimerListener}, grouped by second in
+ * ascending order. {@link MetricNode} instances and the list of each second are pooled and reused after
+ * {@link #clear()}, so aggregating the metrics of all resources allocates nothing once the batch has grown to
+ * the peak amount of metrics.
+ * </p>
+ * <p>
+ * Metrics in the batch are valid until next {@link #clear()}, so they must not be retained. Not thread-safe.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class MetricBatch {
+
+    private final List<MetricNode> pool = new ArrayList<>();
+    private int used = 0;
+
+    private long[] timestamps = new long[4];
+    @SuppressWarnings("unchecked")
+    private List<MetricNode>[] groups = new List[4];
+    private int groupCount = 0;
+
+    private String resource;
+    private int classification;
+
+    /**
+     * Set the resource of the metrics acquired next.
+     *
+     * @param resource       resource name
+     * @param classification resource classification
+     */
+    public void setResource(String resource, int classification) {
+        this.resource = resource;
+        this.classification = classification;
+    }
+
+    /**
+     * Acquire a clean metric node of the current resource and add it to the group of given timestamp.
+     *
+     * @param timestamp start time of the second
+     * @return a clean metric node with the timestamp and resource set
+     */
+    public MetricNode acquire(long timestamp) {
+        MetricNode node;
+        if (used < pool.size()) {
+            node = pool.get(used);
+            node.setPassQps(0);
+            node.setBlockQps(0);
+            node.setSuccessQps(0);
+            node.setExceptionQps(0);
+            node.setRt(0);
+            node.setOccupiedPassQps(0);
+            node.setConcurrency(0);
+        } else {
+            node = new MetricNode();
+            pool.add(node);
+        }
+        used++;
+        node.setTimestamp(timestamp);
+        node.setResource(resource);
+        node.setClassification(classification);
+        groupOf(timestamp).add(node);
+        return node;
+    }
+
+    private List<MetricNode> groupOf(long timestamp) {
+        // There are only a few seconds in a batch, so a linear search is enough.
+        int i = groupCount;
+        while (i > 0 && timestamps[i - 1] >= timestamp) {
+            if (timestamps[i - 1] == timestamp) {
+                return groups[i - 1];
+            }
+            i--;
+        }
+        if (groupCount == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, groupCount * 2);
+            groups = Arrays.copyOf(groups, groupCount * 2);
+        }
+        // Keep the groups sorted. The list beyond the used groups is reused.
+        List<MetricNode> group = groups[groupCount];
+        if (group == null) {
+            group = new ArrayList<>();
+        }
+        System.arraycopy(timestamps, i, timestamps, i + 1, groupCount - i);
+        System.arraycopy(groups, i, groups, i + 1, groupCount - i);
+        timestamps[i] = timestamp;
+        groups[i] = group;
+        groupCount++;
+        return group;
+    }
+
+    /**
+     * @return amount of seconds in the batch
+     */
+    public int size() {
+        return groupCount;
+    }
+
+    /**
+     * @param index index of the second, in ascending order
+     * @return timestamp of the second
+     */
+    public long timestampAt(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * @param index index of the second, in ascending order
+     * @return metrics of the second
+     */
+    public List<MetricNode> metricsAt(int index) {
+        return groups[index];
+    }
+
+    /**
+     * Release all metrics to the pool.
+     */
+    public void clear() {
+        for (int i = 0; i < groupCount; i++) {
+            groups[i].clear();
+        }
+        groupCount = 0;
+        used = 0;
+        resource = null;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * <p>
+ * Position in metric files after the last record read, which is formatted as {@code fileName@offset}
+ * ({@code offset} is the byte offset in the file). A client can keep the cursor returned by the last query
+ * and read only the records appended since then, rather than locating and reading a time range again.
+ * </p>
+ * <p>
+ * If the file of a cursor has been removed (rotated), reading continues from the next existing file.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class MetricCursor {
+
+    private static final char SEPARATOR = '@';
+
+    private final String fileName;
+    private final long offset;
+
+    public MetricCursor(String fileName, long offset) {
+        this.fileName = fileName;
+        this.offset = offset;
+    }
+
+    /**
+     * @param cursor formatted cursor
+     * @return the parsed cursor, or null if the cursor is invalid
+     */
+    public static MetricCursor parse(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        int idx = cursor.lastIndexOf(SEPARATOR);
+        if (idx <= 0 || idx == cursor.length() - 1) {
+            return null;
+        }
+        try {
+            long offset = Long.parseLong(cursor.substring(idx + 1));
+            return offset < 0 ? null : new MetricCursor(cursor.substring(0, idx), offset);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Find the file to read from in the sorted metric files.
+     *
+     * @param paths sorted absolute paths of metric files
+     * @return index of the file of this cursor, or the negative (-(insertion point) - 1) if the file has been
+     * removed, where the insertion point is the index of the first file after the file of this cursor
+     * (or 0 if the file name is not a metric file name)
+     */
+    int locate(List<String> paths) {
+        for (int i = 0; i < paths.size(); i++) {
+            String name = new File(paths.get(i)).getName();
+            if (name.equals(fileName)) {
+                return i;
+            }
+            try {
+                if (MetricWriter.METRIC_FILE_NAME_CMP.compare(name, fileName) > 0) {
+                    return -i - 1;
+                }
+            } catch (RuntimeException ex) {
+                return -1;
+            }
+        }
+        return -paths.size() - 1;
+    }
+
+    @Override
+    public String toString() {
+        return fileName + SEPARATOR + offset;
+    }
+}
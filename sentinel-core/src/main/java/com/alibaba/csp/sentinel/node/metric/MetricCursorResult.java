@@ -0,0 +1,45 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.util.List;
+
+/**
+ * Metrics read since a {@link MetricCursor}, and the cursor to continue with.
+ *
+ * @since 1.8.6
+ */
+public class MetricCursorResult {
+
+    private final List<MetricNode> nodes;
+    private final MetricCursor nextCursor;
+
+    public MetricCursorResult(List<MetricNode> nodes, MetricCursor nextCursor) {
+        this.nodes = nodes;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<MetricNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the cursor for the next query, or null if there are no metric files yet
+     */
+    public MetricCursor getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -213,10 +213,25 @@ public class MetricNode {
     public String toFatString() {
         DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         StringBuilder sb = new StringBuilder(32);
-        sb.delete(0, sb.length());
+        appendFatString(sb, df.format(new Date(getTimestamp())));
+        return sb.toString();
+    }
+
+    /**
+     * Append the fat string (see {@link #toFatString()}) to the builder, with the formatted timestamp provided
+     * so that the writer can reuse the builder and format the timestamp only once for the nodes of a second.
+     *
+     * @param sb            the builder to append to
+     * @param formattedTime timestamp formatted as {@code yyyy-MM-dd HH:mm:ss}
+     * @since 1.8.6
+     */
+    void appendFatString(StringBuilder sb, String formattedTime) {
         sb.append(getTimestamp()).append("|");
-        sb.append(df.format(new Date(getTimestamp()))).append("|");
-        String legalName = getResource().replaceAll("\\|", "_");
+        sb.append(formattedTime).append("|");
+        String legalName = getResource();
+        if (legalName.indexOf('|') >= 0) {
+            legalName = legalName.replace('|', '_');
+        }
         sb.append(legalName).append("|");
         sb.append(getPassQps()).append("|");
         sb.append(getBlockQps()).append("|");
@@ -227,7 +242,6 @@ public class MetricNode {
         sb.append(concurrency).append("|");
         sb.append(classification);
         sb.append('\n');
-        return sb.toString();
     }
 
     /**
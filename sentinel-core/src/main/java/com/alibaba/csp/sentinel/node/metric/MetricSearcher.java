@@ -20,7 +20,9 @@ import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 
@@ -140,6 +142,74 @@ public class MetricSearcher {
         return null;
     }
 
+    /**
+     * <p>
+     * Find metrics appended since the cursor, so that a client polling metrics can read only the new lines
+     * rather than locating and reading a time range again.
+     * </p>
+     * <p>
+     * If the cursor is null, metrics will be read from {@code beginTimeMs} (located by the index files), or
+     * from the end of the latest file if {@code beginTimeMs} is negative.
+     * </p>
+     *
+     * @param cursor      cursor returned by last query, or null for the first query
+     * @param beginTimeMs the min timestamp for the first query, or a negative value to read only new metrics
+     * @param maxLines    max amount of metrics wanted, which may be exceeded to keep the metrics of a second
+     * @param resources   wanted resources, or null for all resources
+     * @return metrics found and the cursor for the next query
+     * @since 1.8.6
+     */
+    public synchronized MetricCursorResult findSince(MetricCursor cursor, long beginTimeMs, int maxLines,
+                                                     Set<String> resources) throws Exception {
+        List<String> fileNames = MetricWriter.listMetricFiles(baseDir, baseFileName);
+        List<MetricNode> list = new ArrayList<MetricNode>();
+        if (fileNames.isEmpty()) {
+            return new MetricCursorResult(list, cursor);
+        }
+        int i;
+        long offset = 0;
+        if (cursor != null) {
+            i = cursor.locate(fileNames);
+            if (i >= 0) {
+                offset = cursor.getOffset();
+                if (offset > new File(fileNames.get(i)).length()) {
+                    // The file has been re-created.
+                    offset = 0;
+                }
+            } else {
+                // The file has been removed, so continue with the next file.
+                i = -i - 1;
+                if (i == fileNames.size()) {
+                    return new MetricCursorResult(list, cursor);
+                }
+            }
+        } else {
+            i = fileNames.size() - 1;
+            offset = new File(fileNames.get(i)).length();
+            if (beginTimeMs >= 0) {
+                for (int k = 0; k < fileNames.size(); k++) {
+                    String fileName = fileNames.get(k);
+                    long found = findOffset(beginTimeMs, fileName, MetricWriter.formIndexFileName(fileName), 0);
+                    if (found != -1) {
+                        i = k;
+                        offset = found;
+                        break;
+                    }
+                }
+            }
+        }
+        while (true) {
+            String fileName = fileNames.get(i);
+            long fileLength = new File(fileName).length();
+            offset = metricsReader.readMetricsSince(list, fileName, offset, maxLines, resources);
+            if (offset < fileLength || i == fileNames.size() - 1) {
+                return new MetricCursorResult(list, new MetricCursor(new File(fileName).getName(), offset));
+            }
+            i++;
+            offset = 0;
+        }
+    }
+
     /**
      * 记录上一次读取的index文件位置和数值
      */
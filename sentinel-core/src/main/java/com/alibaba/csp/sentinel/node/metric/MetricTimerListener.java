@@ -15,17 +15,10 @@
  */
 package com.alibaba.csp.sentinel.node.metric;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.TreeMap;
-
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.node.ClusterNode;
-import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
 
 /**
@@ -33,39 +26,41 @@ import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
  */
 public class MetricTimerListener implements Runnable {
 
-    private static final MetricWriter metricWriter = new MetricWriter(SentinelConfig.singleMetricFileSize(),
-        SentinelConfig.totalMetricFileCount());
+    private static final boolean BINARY_FORMAT = SentinelConfig.METRIC_FILE_FORMAT_BINARY.equals(
+        SentinelConfig.metricFileFormat());
+
+    private static final MetricWriter metricWriter = BINARY_FORMAT ? null
+        : new MetricWriter(SentinelConfig.singleMetricFileSize(), SentinelConfig.totalMetricFileCount());
+    private static final BinaryMetricWriter binaryMetricWriter = BINARY_FORMAT
+        ? new BinaryMetricWriter(SentinelConfig.singleMetricFileSize(), SentinelConfig.totalMetricFileCount())
+        : null;
+
+    /**
+     * Metrics are aggregated into the reused batch. The listener is scheduled on a single thread.
+     */
+    private final MetricBatch batch = new MetricBatch();
 
     @Override
     public void run() {
-        Map<Long, List<MetricNode>> maps = new TreeMap<>();
-        for (Entry<ResourceWrapper, ClusterNode> e : ClusterBuilderSlot.getClusterNodeMap().entrySet()) {
-            ClusterNode node = e.getValue();
-            Map<Long, MetricNode> metrics = node.metrics();
-            aggregate(maps, metrics, node);
+        batch.clear();
+        for (ClusterNode node : ClusterBuilderSlot.getClusterNodeMap().values()) {
+            batch.setResource(node.getName(), node.getResourceType());
+            node.fetchMetrics(batch);
         }
-        aggregate(maps, Constants.ENTRY_NODE.metrics(), Constants.ENTRY_NODE);
-        if (!maps.isEmpty()) {
-            for (Entry<Long, List<MetricNode>> entry : maps.entrySet()) {
-                try {
-                    metricWriter.write(entry.getKey(), entry.getValue());
-                } catch (Exception e) {
-                    RecordLog.warn("[MetricTimerListener] Write metric error", e);
+        batch.setResource(Constants.ENTRY_NODE.getName(), Constants.ENTRY_NODE.getResourceType());
+        Constants.ENTRY_NODE.fetchMetrics(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                if (BINARY_FORMAT) {
+                    binaryMetricWriter.write(batch.timestampAt(i), batch.metricsAt(i));
+                } else {
+                    metricWriter.write(batch.timestampAt(i), batch.metricsAt(i));
                 }
+            } catch (Exception e) {
+                RecordLog.warn("[MetricTimerListener] Write metric error", e);
             }
         }
+        // Release the metrics as soon as they are written.
+        batch.clear();
     }
-
-    private void aggregate(Map<Long, List<MetricNode>> maps, Map<Long, MetricNode> metrics, ClusterNode node) {
-        for (Entry<Long, MetricNode> entry : metrics.entrySet()) {
-            long time = entry.getKey();
-            MetricNode metricNode = entry.getValue();
-            metricNode.setResource(node.getName());
-            metricNode.setClassification(node.getResourceType());
-            maps.computeIfAbsent(time, k -> new ArrayList<MetricNode>());
-            List<MetricNode> nodes = maps.get(time);
-            nodes.add(entry.getValue());
-        }
-    }
-
 }
@@ -19,6 +19,11 @@ import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -59,6 +64,14 @@ public class MetricWriter {
     public static final Comparator<String> METRIC_FILE_NAME_CMP = new MetricFileNameComparator();
 
     private final DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    private static final int INITIAL_BUILDER_CAPACITY = 64 * 1024;
+    private static final int MAX_RETAINED_BUILDER_CAPACITY = 16 * 1024 * 1024;
+    private final CharsetEncoder encoder = Charset.forName(CHARSET).newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private StringBuilder lineBuilder = new StringBuilder(INITIAL_BUILDER_CAPACITY);
+    private ByteBuffer lineBytes = ByteBuffer.allocate(INITIAL_BUILDER_CAPACITY);
     /**
      * 排除时差干扰
      */
@@ -142,10 +155,7 @@ public class MetricWriter {
         if (second < lastSecond) {
             // 时间靠前的直接忽略，不应该发生。
         } else if (second == lastSecond) {
-            for (MetricNode node : nodes) {
-                outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-            }
-            outMetricBuf.flush();
+            writeNodes(time, nodes);
             if (!validSize()) {
                 closeAndNewFile(nextFileNameOfDay(time));
             }
@@ -153,18 +163,12 @@ public class MetricWriter {
             writeIndex(second, outMetric.getChannel().position());
             if (isNewDay(lastSecond, second)) {
                 closeAndNewFile(nextFileNameOfDay(time));
-                for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-                }
-                outMetricBuf.flush();
+                writeNodes(time, nodes);
                 if (!validSize()) {
                     closeAndNewFile(nextFileNameOfDay(time));
                 }
             } else {
-                for (MetricNode node : nodes) {
-                    outMetricBuf.write(node.toFatString().getBytes(CHARSET));
-                }
-                outMetricBuf.flush();
+                writeNodes(time, nodes);
                 if (!validSize()) {
                     closeAndNewFile(nextFileNameOfDay(time));
                 }
@@ -173,6 +177,33 @@ public class MetricWriter {
         }
     }
 
+    /**
+     * Stream the nodes of a second into the buffer via a reused builder and byte buffer, rather than creating
+     * a date format, a string and a byte array for each node.
+     */
+    private void writeNodes(long time, List<MetricNode> nodes) throws Exception {
+        lineBuilder.setLength(0);
+        String formattedTime = df.format(new Date(time));
+        for (MetricNode node : nodes) {
+            node.appendFatString(lineBuilder, formattedTime);
+        }
+        int maxBytes = (int)Math.ceil(lineBuilder.length() * (double)encoder.maxBytesPerChar());
+        if (lineBytes.capacity() < maxBytes) {
+            lineBytes = ByteBuffer.allocate(maxBytes);
+        }
+        lineBytes.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(lineBuilder), lineBytes, true);
+        encoder.flush(lineBytes);
+        outMetricBuf.write(lineBytes.array(), 0, lineBytes.position());
+        outMetricBuf.flush();
+        if (lineBuilder.capacity() > MAX_RETAINED_BUILDER_CAPACITY) {
+            // Don't retain the memory for a peak forever.
+            lineBuilder = new StringBuilder(INITIAL_BUILDER_CAPACITY);
+            lineBytes = ByteBuffer.allocate(INITIAL_BUILDER_CAPACITY);
+        }
+    }
+
     public synchronized void close() throws Exception {
         if (outMetricBuf != null) {
             outMetricBuf.close();
@@ -15,12 +15,16 @@
  */
 package com.alibaba.csp.sentinel.node.metric;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Reads metrics data from log file.
@@ -139,4 +143,55 @@ class MetricsReader {
         }
         return list;
     }
-}
\ No newline at end of file
+
+    /**
+     * Read complete lines from the byte offset of the file, until the end of the file or {@code maxLines}
+     * metrics are read. Metrics of one second are not split unless the second is being written.
+     *
+     * @param list      list to add metrics to
+     * @param fileName  metric file
+     * @param offset    byte offset to read from
+     * @param maxLines  max amount of metrics wanted
+     * @param resources wanted resources, or null for all resources
+     * @return byte offset after the last line read
+     * @since 1.8.6
+     */
+    long readMetricsSince(List<MetricNode> list, String fileName, long offset, int maxLines,
+                          Set<String> resources) throws Exception {
+        long lastSecond = list.isEmpty() ? -1 : list.get(list.size() - 1).getTimestamp() / 1000;
+        int limit = Math.min(maxLines, MAX_LINES_RETURN);
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(fileName);
+            in.getChannel().position(offset);
+            InputStream bufferedIn = new BufferedInputStream(in);
+            long position = offset;
+            int b;
+            while ((b = bufferedIn.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                MetricNode node = MetricNode.fromFatString(new String(line.toByteArray(), charset));
+                line.reset();
+                long currentSecond = node.getTimestamp() / 1000;
+                if (list.size() >= limit && currentSecond != lastSecond) {
+                    break;
+                }
+                // The line has been consumed, whether the resource is wanted or not.
+                offset = position;
+                if (resources == null || resources.contains(node.getResource())) {
+                    list.add(node);
+                    lastSecond = currentSecond;
+                }
+            }
+        } finally {
+            if (in != null) {
+                in.close();
+            }
+        }
+        return offset;
+    }
+}
@@ -30,6 +30,13 @@ public abstract class AbstractLinkedProcessorSlot<T> implements ProcessorSlot<T>
     public void fireEntry(Context context, ResourceWrapper resourceWrapper, Object obj, int count, boolean prioritized, Object... args)
             throws Throwable {
         if (next != null) {
+            if (SlotProfiler.enabled) {
+                SlotProfiler.Frame frame = SlotProfiler.sampledFrame();
+                if (frame != null) {
+                    SlotProfiler.entry(frame, next, context, resourceWrapper, obj, count, prioritized, args);
+                    return;
+                }
+            }
             // 切换到下一个节点
             next.transformEntry(context, resourceWrapper, obj, count, prioritized, args);
         }
@@ -45,6 +52,13 @@ public abstract class AbstractLinkedProcessorSlot<T> implements ProcessorSlot<T>
     @Override
     public void fireExit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
         if (next != null) {
+            if (SlotProfiler.enabled) {
+                SlotProfiler.Frame frame = SlotProfiler.sampledFrame();
+                if (frame != null) {
+                    SlotProfiler.exit(frame, next, context, resourceWrapper, count, args);
+                    return;
+                }
+            }
             next.exit(context, resourceWrapper, count, args);
         }
     }
@@ -79,12 +79,20 @@ public class DefaultProcessorSlotChain extends ProcessorSlotChain {
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, Object t, int count, boolean prioritized, Object... args)
             throws Throwable {
+        if (SlotProfiler.enabled) {
+            SlotProfiler.chainEntry(first, context, resourceWrapper, t, count, prioritized, args);
+            return;
+        }
         // 转向下一个操作对象
         first.transformEntry(context, resourceWrapper, t, count, prioritized, args);
     }
 
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+        if (SlotProfiler.enabled) {
+            SlotProfiler.chainExit(first, context, resourceWrapper, count, args);
+            return;
+        }
         first.exit(context, resourceWrapper, count, args);
     }
 
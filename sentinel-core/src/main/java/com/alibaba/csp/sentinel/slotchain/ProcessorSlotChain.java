@@ -15,6 +15,11 @@
  */
 package com.alibaba.csp.sentinel.slotchain;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
 /**
  * Link all processor slots as a chain.
  *
@@ -22,6 +27,90 @@ package com.alibaba.csp.sentinel.slotchain;
  */
 public abstract class ProcessorSlotChain extends AbstractLinkedProcessorSlot<Object> {
 
+    /**
+     * The last access time is only refreshed when it's older than this precision,
+     * so that hot resources won't write the shared field on every invocation.
+     */
+    private static final long ACCESS_TIME_PRECISION_MS = 1000;
+
+    private static final AtomicReferenceFieldUpdater<ProcessorSlotChain, ResourceRulePlan> RULE_PLAN_UPDATER
+        = AtomicReferenceFieldUpdater.newUpdater(ProcessorSlotChain.class, ResourceRulePlan.class, "rulePlan");
+
+    private volatile long lastAccessTime = TimeUtil.currentTimeMillis();
+
+    /**
+     * Precompiled rules of the resource, null if not compiled yet.
+     */
+    private volatile ResourceRulePlan rulePlan;
+
+    /**
+     * Whether the resource is evicted (see {@code IdleResourceEvictor}), after which the slot chain should not be used.
+     */
+    private volatile boolean evicted = false;
+
+    /**
+     * Record an access of the resource that this slot chain belongs to.
+     *
+     * @param currentTime current time in milliseconds
+     * @since 1.8.6
+     */
+    public void recordAccess(long currentTime) {
+        if (currentTime - lastAccessTime >= ACCESS_TIME_PRECISION_MS) {
+            lastAccessTime = currentTime;
+        }
+    }
+
+    /**
+     * Get the last access time of the resource (accurate to {@code ACCESS_TIME_PRECISION_MS}),
+     * which is used to find idle resources.
+     *
+     * @return the last access time in milliseconds
+     * @since 1.8.6
+     */
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    /**
+     * Mark the slot chain as evicted, so that it will be replaced by a new slot chain on next lookup.
+     *
+     * @since 1.8.6
+     */
+    public void markEvicted() {
+        evicted = true;
+    }
+
+    /**
+     * @return whether the slot chain is evicted
+     * @since 1.8.6
+     */
+    public boolean isEvicted() {
+        return evicted;
+    }
+
+    /**
+     * Get the precompiled rules of the resource.
+     *
+     * @return the rule plan, or null if not compiled yet
+     * @see ResourceRulePlan#getOrCompile(ProcessorSlotChain, ResourceWrapper)
+     * @since 1.8.6
+     */
+    public ResourceRulePlan getRulePlan() {
+        return rulePlan;
+    }
+
+    /**
+     * Atomically set the rule plan if current plan is the expected one.
+     *
+     * @param expect expected current plan
+     * @param update new plan
+     * @return true if successful
+     * @since 1.8.6
+     */
+    public boolean compareAndSetRulePlan(ResourceRulePlan expect, ResourceRulePlan update) {
+        return RULE_PLAN_UPDATER.compareAndSet(this, expect, update);
+    }
+
     /**
      * Add a processor to the head of this slot chain.
      * 将处理器添加到此插槽链的头部。
@@ -0,0 +1,89 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import com.alibaba.csp.sentinel.slots.statistic.metric.LogLinearHistogram;
+
+/**
+ * Latency (in nanoseconds) and allocation (in bytes) histograms of the entry and exit of a kind
+ * of processor slot, recorded by {@link SlotProfiler}. Values are the self cost of the slot,
+ * i.e. the cost of the slots after it in the chain is excluded.
+ *
+ * @since 1.8.6
+ */
+public class SlotProfile {
+
+    private final String slotName;
+
+    private final LogLinearHistogram entryNanos = new LogLinearHistogram();
+    private final LogLinearHistogram entryBytes = new LogLinearHistogram();
+    private final LogLinearHistogram exitNanos = new LogLinearHistogram();
+    private final LogLinearHistogram exitBytes = new LogLinearHistogram();
+
+    SlotProfile(String slotName) {
+        this.slotName = slotName;
+    }
+
+    void recordEntry(long nanos, long bytes) {
+        entryNanos.record(nanos);
+        if (bytes >= 0) {
+            entryBytes.record(bytes);
+        }
+    }
+
+    void recordExit(long nanos, long bytes) {
+        exitNanos.record(nanos);
+        if (bytes >= 0) {
+            exitBytes.record(bytes);
+        }
+    }
+
+    void reset() {
+        entryNanos.reset();
+        entryBytes.reset();
+        exitNanos.reset();
+        exitBytes.reset();
+    }
+
+    /**
+     * @return class name of the slot
+     */
+    public String getSlotName() {
+        return slotName;
+    }
+
+    public LogLinearHistogram getEntryNanos() {
+        return entryNanos;
+    }
+
+    /**
+     * @return allocation histogram of entry, which is empty if allocation measurement isn't supported
+     */
+    public LogLinearHistogram getEntryBytes() {
+        return entryBytes;
+    }
+
+    public LogLinearHistogram getExitNanos() {
+        return exitNanos;
+    }
+
+    /**
+     * @return allocation histogram of exit, which is empty if allocation measurement isn't supported
+     */
+    public LogLinearHistogram getExitBytes() {
+        return exitBytes;
+    }
+}
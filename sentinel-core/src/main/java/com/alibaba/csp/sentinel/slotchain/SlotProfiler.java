@@ -0,0 +1,297 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.util.AssertUtil;
+
+/**
+ * <p>
+ * Sampled profiling of the latency and allocation of each processor slot in {@link DefaultProcessorSlotChain}.
+ * One of every N invocations ({@link SentinelConfig#SLOT_CHAIN_PROFILE_SAMPLE_INTERVAL}) of the slot chain
+ * in each thread is profiled: the entry and exit of each slot are timed with {@link System#nanoTime()},
+ * and the allocated bytes of current thread are read from the {@code com.sun.management.ThreadMXBean}
+ * if the JVM supports it. Measurements are inclusive of the following slots, which are subtracted, so
+ * the {@link SlotProfile} of each slot records its self cost. The cost of the measurement itself is
+ * calibrated when profiling is enabled and also subtracted, so small values are approximate.
+ * </p>
+ * <p>
+ * It's disabled by default (see {@link SentinelConfig#SLOT_CHAIN_PROFILE}) and can be switched at runtime
+ * via {@link #setEnabled(boolean)}. When disabled, the slot chain only pays for a volatile read per slot.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class SlotProfiler {
+
+    private static final int CALIBRATION_ROUNDS = 1000;
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = resolveThreadBean();
+
+    private static final ConcurrentMap<String, SlotProfile> profiles = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Frame> LOCAL_FRAME = new ThreadLocal<Frame>() {
+        @Override
+        protected Frame initialValue() {
+            return new Frame();
+        }
+    };
+
+    private static volatile int sampleInterval = SentinelConfig.slotChainProfileSampleInterval();
+    private static volatile long nanosOverhead = 0;
+    private static volatile long bytesOverhead = 0;
+
+    /**
+     * Read by the slot chain directly, so that the disabled path is a single volatile read.
+     */
+    static volatile boolean enabled = false;
+
+    static {
+        if (SentinelConfig.slotChainProfileEnabled()) {
+            setEnabled(true);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean resolveThreadBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)bean;
+                if (threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled()) {
+                    return threadBean;
+                }
+            }
+        } catch (Throwable ex) {
+            RecordLog.info("[SlotProfiler] Thread allocated memory is unavailable, only latency will be profiled", ex);
+        }
+        return null;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable slot profiling. The measurement overhead is calibrated when enabled.
+     *
+     * @param enable whether to enable slot profiling
+     */
+    public static synchronized void setEnabled(boolean enable) {
+        if (enable == enabled) {
+            return;
+        }
+        if (enable) {
+            calibrate();
+        }
+        enabled = enable;
+        RecordLog.info("[SlotProfiler] Slot profiling {}, sampleInterval={}, nanosOverhead={}, bytesOverhead={}",
+            enable ? "enabled" : "disabled", sampleInterval, nanosOverhead, bytesOverhead);
+    }
+
+    public static int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * @param interval one of every {@code interval} invocations of the slot chain in each thread is profiled
+     */
+    public static void setSampleInterval(int interval) {
+        AssertUtil.isTrue(interval > 0, "sample interval should be positive");
+        sampleInterval = interval;
+    }
+
+    /**
+     * @return whether the allocated bytes of slots are profiled
+     */
+    public static boolean isAllocationSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * @return the calibrated time of a measurement, which is subtracted from each recorded latency
+     */
+    public static long getNanosOverhead() {
+        return nanosOverhead;
+    }
+
+    /**
+     * @return the calibrated allocated bytes of a measurement, which is subtracted from each recorded allocation
+     */
+    public static long getBytesOverhead() {
+        return bytesOverhead;
+    }
+
+    /**
+     * @return profiles of slots that have been profiled, keyed by class name of the slot
+     */
+    public static Map<String, SlotProfile> getProfiles() {
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * Clear the recorded values of all profiles.
+     */
+    public static void reset() {
+        for (SlotProfile profile : profiles.values()) {
+            profile.reset();
+        }
+    }
+
+    static void chainEntry(AbstractLinkedProcessorSlot<?> first, Context context, ResourceWrapper resourceWrapper,
+                           Object t, int count, boolean prioritized, Object... args) throws Throwable {
+        Frame frame = LOCAL_FRAME.get();
+        boolean sampling = frame.sampling;
+        frame.sampling = ++frame.entryInvocations % sampleInterval == 0;
+        try {
+            first.transformEntry(context, resourceWrapper, t, count, prioritized, args);
+        } finally {
+            frame.sampling = sampling;
+        }
+    }
+
+    static void chainExit(AbstractLinkedProcessorSlot<?> first, Context context, ResourceWrapper resourceWrapper,
+                          int count, Object... args) {
+        Frame frame = LOCAL_FRAME.get();
+        boolean sampling = frame.sampling;
+        frame.sampling = ++frame.exitInvocations % sampleInterval == 0;
+        try {
+            first.exit(context, resourceWrapper, count, args);
+        } finally {
+            frame.sampling = sampling;
+        }
+    }
+
+    /**
+     * @return frame of current thread if current invocation of the slot chain is sampled, otherwise null
+     */
+    static Frame sampledFrame() {
+        Frame frame = LOCAL_FRAME.get();
+        return frame.sampling ? frame : null;
+    }
+
+    static void entry(Frame frame, AbstractLinkedProcessorSlot<?> slot, Context context,
+                      ResourceWrapper resourceWrapper, Object t, int count, boolean prioritized, Object... args)
+        throws Throwable {
+        long start = System.nanoTime();
+        long startBytes = allocatedBytes();
+        long parentNanos = frame.childNanos;
+        long parentBytes = frame.childBytes;
+        frame.childNanos = 0;
+        frame.childBytes = 0;
+        try {
+            slot.transformEntry(context, resourceWrapper, t, count, prioritized, args);
+        } finally {
+            record(frame, slot, true, start, startBytes, parentNanos, parentBytes);
+        }
+    }
+
+    static void exit(Frame frame, AbstractLinkedProcessorSlot<?> slot, Context context,
+                     ResourceWrapper resourceWrapper, int count, Object... args) {
+        long start = System.nanoTime();
+        long startBytes = allocatedBytes();
+        long parentNanos = frame.childNanos;
+        long parentBytes = frame.childBytes;
+        frame.childNanos = 0;
+        frame.childBytes = 0;
+        try {
+            slot.exit(context, resourceWrapper, count, args);
+        } finally {
+            record(frame, slot, false, start, startBytes, parentNanos, parentBytes);
+        }
+    }
+
+    private static void record(Frame frame, AbstractLinkedProcessorSlot<?> slot, boolean entry, long start,
+                               long startBytes, long parentNanos, long parentBytes) {
+        long nanos = System.nanoTime() - start;
+        long bytes = startBytes < 0 ? -1 : allocatedBytes() - startBytes;
+        long selfNanos = Math.max(0, nanos - frame.childNanos - nanosOverhead);
+        long selfBytes = bytes < 0 ? -1 : Math.max(0, bytes - frame.childBytes - bytesOverhead);
+        SlotProfile profile = profileOf(slot);
+        if (entry) {
+            profile.recordEntry(selfNanos, selfBytes);
+        } else {
+            profile.recordExit(selfNanos, selfBytes);
+        }
+        // The whole measurement (including recording) is excluded from the self cost of the previous slot.
+        frame.childNanos = parentNanos + System.nanoTime() - start;
+        frame.childBytes = bytes < 0 ? parentBytes : parentBytes + bytes + bytesOverhead;
+    }
+
+    private static SlotProfile profileOf(AbstractLinkedProcessorSlot<?> slot) {
+        String name = slot.getClass().getName();
+        SlotProfile profile = profiles.get(name);
+        if (profile == null) {
+            SlotProfile newProfile = new SlotProfile(name);
+            profile = profiles.putIfAbsent(name, newProfile);
+            if (profile == null) {
+                profile = newProfile;
+            }
+        }
+        return profile;
+    }
+
+    private static long allocatedBytes() {
+        if (THREAD_BEAN == null) {
+            return -1;
+        }
+        return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void calibrate() {
+        long[] nanos = new long[CALIBRATION_ROUNDS];
+        long[] bytes = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            // Same reads as the part of a measurement which is not subtracted as the cost of following slots.
+            long start = System.nanoTime();
+            long startBytes = allocatedBytes();
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = startBytes < 0 ? 0 : allocatedBytes() - startBytes;
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(bytes);
+        nanosOverhead = nanos[CALIBRATION_ROUNDS / 2];
+        bytesOverhead = bytes[CALIBRATION_ROUNDS / 2];
+    }
+
+    /**
+     * Profiling state of a thread.
+     */
+    static final class Frame {
+
+        /**
+         * Entries and exits are sampled separately, so that they are sampled evenly with any sample interval.
+         */
+        private long entryInvocations;
+        private long exitInvocations;
+        private boolean sampling;
+        /**
+         * Accumulated cost of the slots (and their measurement) after the slot that is being measured.
+         */
+        private long childNanos;
+        private long childBytes;
+    }
+
+    private SlotProfiler() {}
+}
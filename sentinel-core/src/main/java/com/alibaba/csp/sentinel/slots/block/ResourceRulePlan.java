@@ -0,0 +1,164 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRule;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+/**
+ * <p>
+ * The precompiled rules of a resource, which is attached to the {@link ProcessorSlotChain} of the resource
+ * and captured by each {@link Entry}, so that rule checking slots don't need to look up rules
+ * from rule managers on every invocation, and can be skipped with a null check if the resource has no rules.
+ * </p>
+ * <p>
+ * The plan is immutable. Once rules are updated in any rule manager, the generation of plans is increased,
+ * and the plan of each resource is recompiled lazily when the resource is entered for the first time
+ * afterwards. A plan can only be replaced by a plan of newer generation, so the plan of latest rules always wins
+ * without locking between concurrent compilations. As rule managers only bump the generation, they don't touch
+ * each other (which may deadlock between their class initialization) when rules are loaded.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class ResourceRulePlan {
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final long generation;
+    private final List<FlowRule> flowRules;
+    private final List<CircuitBreaker> circuitBreakers;
+    private final Set<AuthorityRule> authorityRules;
+
+    private ResourceRulePlan(long generation, List<FlowRule> flowRules, List<CircuitBreaker> circuitBreakers,
+                             Set<AuthorityRule> authorityRules) {
+        this.generation = generation;
+        this.flowRules = flowRules;
+        this.circuitBreakers = circuitBreakers;
+        this.authorityRules = authorityRules;
+    }
+
+    /**
+     * @return flow rules of the resource, or null if absent
+     */
+    public List<FlowRule> getFlowRules() {
+        return flowRules;
+    }
+
+    /**
+     * @return circuit breakers of the resource, or null if absent
+     */
+    public List<CircuitBreaker> getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * @return authority rules of the resource, or null if absent
+     */
+    public Set<AuthorityRule> getAuthorityRules() {
+        return authorityRules;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the rule plan of current invocation.
+     *
+     * @param context current context
+     * @return the rule plan captured by current entry, or null if absent (rules should be looked up from
+     * rule managers in this case)
+     */
+    public static ResourceRulePlan current(Context context) {
+        if (context == null) {
+            return null;
+        }
+        Entry entry = context.getCurEntry();
+        return entry == null ? null : entry.getRulePlan();
+    }
+
+    /**
+     * Get the rule plan of the slot chain, which will be compiled if absent or outdated.
+     *
+     * @param chain    slot chain of the resource
+     * @param resource the resource
+     * @return the rule plan of the resource
+     */
+    public static ResourceRulePlan getOrCompile(ProcessorSlotChain chain, ResourceWrapper resource) {
+        // Read the generation before rules, so that a plan compiled from outdated rules is always outdated.
+        long generation = GENERATION.get();
+        ResourceRulePlan plan = chain.getRulePlan();
+        if (plan != null && plan.generation >= generation) {
+            return plan;
+        }
+        plan = compile(resource.getName(), generation);
+        update(chain, plan);
+        // Another thread may have set a newer plan.
+        ResourceRulePlan current = chain.getRulePlan();
+        return current == null ? plan : current;
+    }
+
+    /**
+     * Mark the rule plans of all resources outdated, which will be recompiled when resources are entered.
+     * This should be called after rules of any rule manager are updated.
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    private static void update(ProcessorSlotChain chain, ResourceRulePlan plan) {
+        ResourceRulePlan current;
+        do {
+            current = chain.getRulePlan();
+            if (current != null && current.generation >= plan.generation) {
+                return;
+            }
+        } while (!chain.compareAndSetRulePlan(current, plan));
+    }
+
+    private static ResourceRulePlan compile(String resourceName, long generation) {
+        List<FlowRule> flowRules = FlowRuleManager.getFlowRules(resourceName);
+        List<CircuitBreaker> circuitBreakers = DegradeRuleManager.getCircuitBreakers(resourceName);
+        Set<AuthorityRule> authorityRules = AuthorityRuleManager.getAuthorityRules(resourceName);
+        return new ResourceRulePlan(generation,
+            flowRules == null || flowRules.isEmpty() ? null : flowRules,
+            circuitBreakers == null || circuitBreakers.isEmpty() ? null : circuitBreakers,
+            authorityRules == null || authorityRules.isEmpty() ? null : authorityRules);
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceRulePlan{" +
+            "generation=" + generation +
+            ", flowRules=" + flowRules +
+            ", circuitBreakers=" + circuitBreakers +
+            ", authorityRules=" + authorityRules +
+            '}';
+    }
+}
@@ -23,6 +23,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
@@ -94,6 +95,7 @@ public final class AuthorityRuleManager {
         @Override
         public synchronized void configLoad(List<AuthorityRule> value) {
             authorityRules = loadAuthorityConf(value);
+            ResourceRulePlan.invalidateAll();
 
             RecordLog.info("[AuthorityRuleManager] Authority rules loaded: {}", authorityRules);
         }
@@ -101,6 +103,7 @@ public final class AuthorityRuleManager {
         @Override
         public synchronized void configUpdate(List<AuthorityRule> conf) {
             authorityRules = loadAuthorityConf(conf);
+            ResourceRulePlan.invalidateAll();
             
             RecordLog.info("[AuthorityRuleManager] Authority rules received: {}", authorityRules);
         }
@@ -144,6 +147,17 @@ public final class AuthorityRuleManager {
         return authorityRules;
     }
 
+    /**
+     * Get the authority rules of provided resource. The returned set is shared and MUST NOT be modified.
+     *
+     * @param resource resource name
+     * @return authority rules of the resource, or null if absent
+     * @since 1.8.6
+     */
+    public static Set<AuthorityRule> getAuthorityRules(String resource) {
+        return authorityRules.get(resource);
+    }
+
     public static boolean isValidRule(AuthorityRule rule) {
         return rule != null && !StringUtil.isBlank(rule.getResource())
             && rule.getStrategy() >= 0 && StringUtil.isNotBlank(rule.getLimitApp());
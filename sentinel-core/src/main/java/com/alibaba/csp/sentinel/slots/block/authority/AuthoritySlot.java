@@ -24,6 +24,7 @@ import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
 import com.alibaba.csp.sentinel.spi.Spi;
 
 /**
@@ -50,6 +51,12 @@ public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
     }
 
     void checkBlackWhiteAuthority(ResourceWrapper resource, Context context) throws AuthorityException {
+        ResourceRulePlan plan = ResourceRulePlan.current(context);
+        if (plan != null) {
+            // Use the precompiled rules, and skip checking if the resource has no authority rules.
+            checkRules(plan.getAuthorityRules(), context);
+            return;
+        }
         // 获取本地缓存的来源访问控制规则
         Map<String, Set<AuthorityRule>> authorityRules = AuthorityRuleManager.getAuthorityRules();
         // 如果为空直接返回
@@ -57,7 +64,10 @@ public class AuthoritySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
             return;
         }
 
-        Set<AuthorityRule> rules = authorityRules.get(resource.getName());
+        checkRules(authorityRules.get(resource.getName()), context);
+    }
+
+    private void checkRules(Set<AuthorityRule> rules, Context context) throws AuthorityException {
         if (rules == null) {
             return;
         }
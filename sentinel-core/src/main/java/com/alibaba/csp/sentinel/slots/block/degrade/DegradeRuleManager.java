@@ -26,6 +26,7 @@ import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.ExceptionCircuitBreaker;
@@ -69,7 +70,13 @@ public final class DegradeRuleManager {
         }
     }
 
-    static List<CircuitBreaker> getCircuitBreakers(String resourceName) {
+    /**
+     * Get the circuit breakers of provided resource. The returned list is shared and MUST NOT be modified.
+     *
+     * @param resourceName resource name
+     * @return circuit breakers of the resource, or null if absent
+     */
+    public static List<CircuitBreaker> getCircuitBreakers(String resourceName) {
         return circuitBreakers.get(resourceName);
     }
 
@@ -219,6 +226,7 @@ public final class DegradeRuleManager {
 
             DegradeRuleManager.circuitBreakers = cbs;
             DegradeRuleManager.ruleMap = rm;
+            ResourceRulePlan.invalidateAll();
         }
 
         @Override
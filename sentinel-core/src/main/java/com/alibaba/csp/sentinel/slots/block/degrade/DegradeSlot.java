@@ -25,6 +25,7 @@ import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
 import com.alibaba.csp.sentinel.slots.block.degrade.circuitbreaker.CircuitBreaker;
 import com.alibaba.csp.sentinel.spi.Spi;
 
@@ -48,7 +49,7 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
     void performChecking(Context context, ResourceWrapper r) throws BlockException {
         // 获取当前资源的所有熔断降级规则
-        List<CircuitBreaker> circuitBreakers = DegradeRuleManager.getCircuitBreakers(r.getName());
+        List<CircuitBreaker> circuitBreakers = getCircuitBreakers(context, r);
         // 若熔断器列表为空，则直接通过结束，否则逐个检测
         if (circuitBreakers == null || circuitBreakers.isEmpty()) {
             return;
@@ -68,7 +69,7 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
             fireExit(context, r, count, args);
             return;
         }
-        List<CircuitBreaker> circuitBreakers = DegradeRuleManager.getCircuitBreakers(r.getName());
+        List<CircuitBreaker> circuitBreakers = getCircuitBreakers(context, r);
         if (circuitBreakers == null || circuitBreakers.isEmpty()) {
             fireExit(context, r, count, args);
             return;
@@ -83,4 +84,12 @@ public class DegradeSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
         fireExit(context, r, count, args);
     }
+
+    private static List<CircuitBreaker> getCircuitBreakers(Context context, ResourceWrapper r) {
+        ResourceRulePlan plan = ResourceRulePlan.current(context);
+        if (plan != null) {
+            return plan.getCircuitBreakers();
+        }
+        return DegradeRuleManager.getCircuitBreakers(r.getName());
+    }
 }
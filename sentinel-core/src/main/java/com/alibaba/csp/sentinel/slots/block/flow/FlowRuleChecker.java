@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.slots.block.flow;
 
 import java.util.Collection;
 
+import com.alibaba.csp.sentinel.Entry;
 import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
 import com.alibaba.csp.sentinel.cluster.server.EmbeddedClusterTokenServerProvider;
 import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
@@ -30,6 +31,8 @@ import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.PacingController;
+import com.alibaba.csp.sentinel.slots.block.flow.controller.PacingUtil;
 import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
 import com.alibaba.csp.sentinel.util.StringUtil;
 import com.alibaba.csp.sentinel.util.function.Function;
@@ -48,6 +51,21 @@ public class FlowRuleChecker {
         }
         // 获取到指定资源的所有流控规则
         Collection<FlowRule> rules = ruleProvider.apply(resource.getName());
+        checkRules(rules, context, node, count, prioritized);
+    }
+
+    /**
+     * Check the provided flow rules (e.g. precompiled rules of the resource) directly.
+     *
+     * @since 1.8.6
+     */
+    public void checkFlow(Collection<FlowRule> rules, Context context, DefaultNode node, int count,
+                          boolean prioritized) throws BlockException {
+        checkRules(rules, context, node, count, prioritized);
+    }
+
+    private void checkRules(Collection<FlowRule> rules, Context context, DefaultNode node, int count,
+                            boolean prioritized) throws BlockException {
         if (rules != null) {
             for (FlowRule rule : rules) {
                 // 逐个应用流控规则，若无法通过规则验证，则抛出流控异常，后续规则不在应用
@@ -90,7 +108,18 @@ public class FlowRuleChecker {
         }
 
         // 使用规则进行逐项检测
-        return rule.getRater().canPass(selectedNode, acquireCount, prioritized);
+        TrafficShapingController rater = rule.getRater();
+        Entry curEntry = context.getCurEntry();
+        if (rater instanceof PacingController && curEntry != null && curEntry.isNonBlockingPacing()) {
+            // Reserve a pass and let the caller delay the request, rather than blocking current thread.
+            long waitMs = ((PacingController)rater).tryReserve(selectedNode, acquireCount, prioritized);
+            if (waitMs < 0) {
+                return false;
+            }
+            curEntry.recordPacingWait(waitMs);
+            return true;
+        }
+        return rater.canPass(selectedNode, acquireCount, prioritized);
     }
 
     static Node selectReferenceNode(FlowRule rule, Context context, DefaultNode node) {
@@ -199,10 +228,11 @@ public class FlowRuleChecker {
                 return true;
             case TokenResultStatus.SHOULD_WAIT:
                 // Wait for next tick.
-                try {
-                    Thread.sleep(result.getWaitInMs());
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+                Entry curEntry = context.getCurEntry();
+                if (curEntry != null && curEntry.isNonBlockingPacing()) {
+                    curEntry.recordPacingWait(result.getWaitInMs());
+                } else {
+                    PacingUtil.await(result.getWaitInMs());
                 }
                 return true;
             case TokenResultStatus.NO_RULE_EXISTS:
@@ -22,6 +22,7 @@ import com.alibaba.csp.sentinel.node.metric.MetricTimerListener;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
 import com.alibaba.csp.sentinel.property.PropertyListener;
 import com.alibaba.csp.sentinel.property.SentinelProperty;
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.StringUtil;
 
@@ -125,6 +126,17 @@ public class FlowRuleManager {
         return flowRules;
     }
 
+    /**
+     * Get the flow rules of provided resource. The returned list is shared and MUST NOT be modified.
+     *
+     * @param resource resource name
+     * @return flow rules of the resource, or null if absent
+     * @since 1.8.6
+     */
+    public static List<FlowRule> getFlowRules(String resource) {
+        return flowRules.get(resource);
+    }
+
     public static boolean hasConfig(String resource) {
         return flowRules.containsKey(resource);
     }
@@ -155,6 +167,7 @@ public class FlowRuleManager {
             if (rules != null) {
                 flowRules = rules;
             }
+            ResourceRulePlan.invalidateAll();
             RecordLog.info("[FlowRuleManager] Flow rules received: {}", rules);
         }
 
@@ -164,6 +177,7 @@ public class FlowRuleManager {
             if (rules != null) {
                 flowRules = rules;
             }
+            ResourceRulePlan.invalidateAll();
             RecordLog.info("[FlowRuleManager] Flow rules loaded: {}", rules);
         }
     }
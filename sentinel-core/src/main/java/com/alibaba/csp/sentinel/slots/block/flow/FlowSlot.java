@@ -21,6 +21,7 @@ import com.alibaba.csp.sentinel.node.DefaultNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.ResourceRulePlan;
 import com.alibaba.csp.sentinel.spi.Spi;
 import com.alibaba.csp.sentinel.util.AssertUtil;
 import com.alibaba.csp.sentinel.util.function.Function;
@@ -162,7 +163,13 @@ public class FlowSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
                       boolean prioritized, Object... args) throws Throwable {
         // 检测并应用流控规则
-        checkFlow(resourceWrapper, context, node, count, prioritized);
+        ResourceRulePlan plan = ResourceRulePlan.current(context);
+        if (plan == null) {
+            checkFlow(resourceWrapper, context, node, count, prioritized);
+        } else if (plan.getFlowRules() != null) {
+            // Use the precompiled rules, and skip checking if the resource has no flow rules.
+            checker.checkFlow(plan.getFlowRules(), context, node, count, prioritized);
+        }
         // 触发下一个降级规则slot
         fireEntry(context, resourceWrapper, node, count, prioritized, args);
     }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * The leaky bucket (timeline of passed requests) for pacing controllers, in microseconds.
+ * A pass is reserved by moving the global timeline forward by the cost of the request with a single CAS,
+ * and rejected requests never write the timeline.
+ * </p>
+ * <p>
+ * Once contention on the timeline is detected, single-permit reservations are batched per stripe (threads are
+ * hashed to padded stripes): a stripe reserves several consecutive slots from the global timeline at a time
+ * and hands them out locally. All slots are still taken from the global timeline one cost apart, so the
+ * uniform rate holds. Slots of a batch that have expired (not used in time) are dropped rather than
+ * reused, so no burst can be formed by stale slots, at the cost of slightly fewer passes under contention.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+final class LeakyBucket {
+
+    private static final long NONE = Long.MIN_VALUE / 2;
+
+    static final int BATCH_SIZE = 8;
+
+    /**
+     * A stripe is packed in one long: the time of next slot (high bits) and the amount of remaining slots.
+     */
+    private static final int REMAINING_BITS = 10;
+    private static final long REMAINING_MASK = (1L << REMAINING_BITS) - 1;
+    private static final long MAX_SLOT_TIME = Long.MAX_VALUE >>> REMAINING_BITS;
+
+    /**
+     * Amount of longs in a 64-byte cache line.
+     */
+    private static final int PAD = 8;
+    private static final int MAX_STRIPES = 64;
+    private static final int STRIPE_COUNT = stripeCount(Runtime.getRuntime().availableProcessors());
+
+    private final boolean batchEnabled;
+
+    /**
+     * Time of the latest reserved slot.
+     */
+    private final AtomicLong latestPassedTime = new AtomicLong(NONE);
+
+    private volatile AtomicLongArray stripes;
+
+    LeakyBucket(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    static int stripeCount(int processors) {
+        int n = 1;
+        while (n < processors && n < MAX_STRIPES) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    /**
+     * Reserve a slot of provided cost on the global timeline.
+     *
+     * @param cost    cost of the request in microseconds
+     * @param now     current time in microseconds
+     * @param maxWait max time to wait in microseconds
+     * @return the time to wait in microseconds, or -1 if the request should be rejected
+     */
+    long reserve(long cost, long now, long maxWait) {
+        while (true) {
+            long latest = latestPassedTime.get();
+            long expectedTime = latest + cost;
+            if (expectedTime <= now) {
+                if (latest == now || latestPassedTime.compareAndSet(latest, now)) {
+                    return 0;
+                }
+            } else {
+                long waitTime = expectedTime - now;
+                if (waitTime > maxWait) {
+                    return -1;
+                }
+                if (latestPassedTime.compareAndSet(latest, expectedTime)) {
+                    return waitTime;
+                }
+            }
+            onContention();
+        }
+    }
+
+    /**
+     * Reserve a slot of provided cost for a single-permit request, which may be served from the batch
+     * of current stripe.
+     *
+     * @param cost    cost of one permit in microseconds
+     * @param now     current time in microseconds
+     * @param maxWait max time to wait in microseconds
+     * @return the time to wait in microseconds, or -1 if the request should be rejected
+     */
+    long reserveSingle(long cost, long now, long maxWait) {
+        AtomicLongArray s = stripes;
+        if (s == null || cost <= 0 || now < 0 || now + maxWait >= MAX_SLOT_TIME) {
+            return reserve(cost, now, maxWait);
+        }
+        int idx = stripeIndex();
+        while (true) {
+            long v = s.get(idx);
+            if ((v & REMAINING_MASK) > 0) {
+                long slot = v >>> REMAINING_BITS;
+                if (slot >= now) {
+                    long waitTime = slot - now;
+                    if (waitTime > maxWait) {
+                        // The global timeline is always ahead of the batch.
+                        return -1;
+                    }
+                    if (s.compareAndSet(idx, v, pack(slot + cost, (v & REMAINING_MASK) - 1))) {
+                        return waitTime;
+                    }
+                    continue;
+                }
+                // Drop the expired batch.
+                if (!s.compareAndSet(idx, v, 0)) {
+                    continue;
+                }
+                v = 0;
+            }
+            return refill(s, idx, v, cost, now, maxWait);
+        }
+    }
+
+    private long refill(AtomicLongArray s, int idx, long emptyStripe, long cost, long now, long maxWait) {
+        while (true) {
+            long latest = latestPassedTime.get();
+            long start = latest + cost <= now ? now : latest + cost;
+            long waitTime = start - now;
+            if (waitTime > maxWait) {
+                return -1;
+            }
+            long n = Math.min(BATCH_SIZE, (maxWait - waitTime) / cost + 1);
+            long end = start + (n - 1) * cost;
+            if (latestPassedTime.compareAndSet(latest, end)) {
+                // The rest slots are dropped if the stripe has been refilled by another thread.
+                if (n > 1) {
+                    s.compareAndSet(idx, emptyStripe, pack(start + cost, n - 1));
+                }
+                return waitTime;
+            }
+        }
+    }
+
+    private static long pack(long slotTime, long remaining) {
+        return (slotTime << REMAINING_BITS) | remaining;
+    }
+
+    /**
+     * Package-private for test.
+     */
+    void onContention() {
+        if (batchEnabled && stripes == null) {
+            synchronized (this) {
+                if (stripes == null) {
+                    stripes = new AtomicLongArray(PAD + STRIPE_COUNT * PAD);
+                }
+            }
+        }
+    }
+
+    private static int stripeIndex() {
+        long id = Thread.currentThread().getId();
+        int h = (int)(id ^ (id >>> 32)) * 0x9E3779B9;
+        return PAD + ((h >>> 16) & (STRIPE_COUNT - 1)) * PAD;
+    }
+
+    /**
+     * Whether the batching stripes have been created due to contention. Package-private for test.
+     */
+    boolean isStriped() {
+        return stripes != null;
+    }
+}
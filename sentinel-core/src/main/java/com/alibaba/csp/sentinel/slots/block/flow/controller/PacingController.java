@@ -0,0 +1,47 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
+
+/**
+ * <p>
+ * A {@link TrafficShapingController} that paces requests (leaky bucket). Rather than blocking the caller,
+ * a pass can be reserved in advance via {@link #tryReserve(Node, int, boolean)}, which returns how long
+ * the request should wait before it actually passes. Asynchronous callers can then delay the request
+ * with a scheduler instead of sleeping.
+ * </p>
+ * <p>
+ * {@link #canPass(Node, int, boolean)} of a pacing controller reserves a pass and waits for the returned time
+ * on the caller thread (see {@link PacingUtil#await(long)}).
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public interface PacingController extends TrafficShapingController {
+
+    /**
+     * Try to reserve a pass for the request.
+     *
+     * @param node         resource node
+     * @param acquireCount count to acquire
+     * @param prioritized  whether the request is prioritized
+     * @return the time (in milliseconds) to wait before the request passes, 0 if it can pass immediately,
+     * or negative if the request should be rejected
+     */
+    long tryReserve(Node node, int acquireCount, boolean prioritized);
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Util class for pacing requests.
+ *
+ * @since 1.8.6
+ */
+public final class PacingUtil {
+
+    /**
+     * Wait for provided time on current thread by parking. Unlike {@code Thread.sleep}, parking doesn't throw
+     * {@link InterruptedException} (which used to be swallowed), and it's compatible with virtual threads.
+     *
+     * @param waitMs time to wait in milliseconds
+     * @return false if current thread was interrupted during waiting (the interrupted status is kept)
+     */
+    public static boolean await(long waitMs) {
+        if (waitMs <= 0) {
+            return true;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.parkNanos(remaining);
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Convert the time to wait in microseconds to milliseconds (rounded up, so that the request won't pass
+     * before its reserved time).
+     *
+     * @param waitMicros time to wait in microseconds, negative means rejected
+     * @return time to wait in milliseconds, or -1 if rejected
+     */
+    static long toMillis(long waitMicros) {
+        if (waitMicros < 0) {
+            return -1;
+        }
+        return (waitMicros + 999) / 1000;
+    }
+
+    private PacingUtil() {}
+}
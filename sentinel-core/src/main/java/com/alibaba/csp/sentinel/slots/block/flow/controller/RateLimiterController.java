@@ -15,22 +15,21 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
-import java.util.concurrent.atomic.AtomicLong;
-
-import com.alibaba.csp.sentinel.slots.block.flow.TrafficShapingController;
-
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.Node;
 
 /**
  * @author jialiang.linjl
  */
-public class RateLimiterController implements TrafficShapingController {
+public class RateLimiterController implements PacingController {
 
     private final int maxQueueingTimeMs;
     private final double count;
 
-    private final AtomicLong latestPassedTime = new AtomicLong(-1);
+    /**
+     * The leaky bucket, which batches single-permit reservations once contention is detected.
+     */
+    private final LeakyBucket bucket = new LeakyBucket(true);
 
     public RateLimiterController(int timeOut, double count) {
         this.maxQueueingTimeMs = timeOut;
@@ -44,50 +43,34 @@ public class RateLimiterController implements TrafficShapingController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        long waitTime = tryReserve(node, acquireCount, prioritized);
+        if (waitTime < 0) {
+            return false;
+        }
+        return PacingUtil.await(waitTime);
+    }
+
+    @Override
+    public long tryReserve(Node node, int acquireCount, boolean prioritized) {
         // Pass when acquire count is less or equal than 0.
         if (acquireCount <= 0) {
-            return true;
+            return 0;
         }
         // Reject when count is less or equal than 0.
         // Otherwise,the costTime will be max of long and waitTime will overflow in some cases.
         if (count <= 0) {
-            return false;
+            return -1;
         }
 
-        long currentTime = TimeUtil.currentTimeMillis();
-        // Calculate the interval between every two requests.
-        long costTime = Math.round(1.0 * (acquireCount) / count * 1000);
+        // Calculate the interval between every two requests (in microseconds, so that
+        // the rate is still accurate when the interval is less than 1 ms).
+        long costTime = Math.round(1.0 * (acquireCount) / count * 1000 * 1000);
+        long currentTime = TimeUtil.currentTimeMillis() * 1000;
+        long maxWaitTime = maxQueueingTimeMs * 1000L;
 
-        // Expected pass time of this request.
-        long expectedTime = costTime + latestPassedTime.get();
-
-        if (expectedTime <= currentTime) {
-            // Contention may exist here, but it's okay.
-            latestPassedTime.set(currentTime);
-            return true;
-        } else {
-            // Calculate the time to wait.
-            long waitTime = costTime + latestPassedTime.get() - TimeUtil.currentTimeMillis();
-            if (waitTime > maxQueueingTimeMs) {
-                return false;
-            } else {
-                long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    if (waitTime > maxQueueingTimeMs) {
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    // in race condition waitTime may <= 0
-                    if (waitTime > 0) {
-                        Thread.sleep(waitTime);
-                    }
-                    return true;
-                } catch (InterruptedException e) {
-                }
-            }
-        }
-        return false;
+        long waitTime = acquireCount == 1 ? bucket.reserveSingle(costTime, currentTime, maxWaitTime)
+            : bucket.reserve(costTime, currentTime, maxWaitTime);
+        return PacingUtil.toMillis(waitTime);
     }
 
 }
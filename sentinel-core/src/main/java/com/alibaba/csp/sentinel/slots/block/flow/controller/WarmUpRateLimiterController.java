@@ -15,8 +15,6 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 import com.alibaba.csp.sentinel.node.Node;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 
@@ -24,10 +22,13 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
  * @author jialiang.linjl
  * @since 1.4.0
  */
-public class WarmUpRateLimiterController extends WarmUpController {
+public class WarmUpRateLimiterController extends WarmUpController implements PacingController {
 
     private final int timeoutInMs;
-    private final AtomicLong latestPassedTime = new AtomicLong(-1);
+    /**
+     * The cost varies during warming up, so reservations are not batched.
+     */
+    private final LeakyBucket bucket = new LeakyBucket(false);
 
     public WarmUpRateLimiterController(double count, int warmUpPeriodSec, int timeOutMs, int coldFactor) {
         super(count, warmUpPeriodSec, coldFactor);
@@ -41,48 +42,31 @@ public class WarmUpRateLimiterController extends WarmUpController {
 
     @Override
     public boolean canPass(Node node, int acquireCount, boolean prioritized) {
+        long waitTime = tryReserve(node, acquireCount, prioritized);
+        if (waitTime < 0) {
+            return false;
+        }
+        return PacingUtil.await(waitTime);
+    }
+
+    @Override
+    public long tryReserve(Node node, int acquireCount, boolean prioritized) {
         long previousQps = (long) node.previousPassQps();
         syncToken(previousQps);
 
-        long currentTime = TimeUtil.currentTimeMillis();
+        long currentTime = TimeUtil.currentTimeMillis() * 1000;
 
         long restToken = storedTokens.get();
         long costTime = 0;
-        long expectedTime = 0;
         if (restToken >= warningToken) {
             long aboveToken = restToken - warningToken;
 
             // current interval = restToken*slope+1/count
             double warmingQps = Math.nextUp(1.0 / (aboveToken * slope + 1.0 / count));
-            costTime = Math.round(1.0 * (acquireCount) / warmingQps * 1000);
-        } else {
-            costTime = Math.round(1.0 * (acquireCount) / count * 1000);
-        }
-        expectedTime = costTime + latestPassedTime.get();
-
-        if (expectedTime <= currentTime) {
-            latestPassedTime.set(currentTime);
-            return true;
+            costTime = Math.round(1.0 * (acquireCount) / warmingQps * 1000 * 1000);
         } else {
-            long waitTime = costTime + latestPassedTime.get() - currentTime;
-            if (waitTime > timeoutInMs) {
-                return false;
-            } else {
-                long oldTime = latestPassedTime.addAndGet(costTime);
-                try {
-                    waitTime = oldTime - TimeUtil.currentTimeMillis();
-                    if (waitTime > timeoutInMs) {
-                        latestPassedTime.addAndGet(-costTime);
-                        return false;
-                    }
-                    if (waitTime > 0) {
-                        Thread.sleep(waitTime);
-                    }
-                    return true;
-                } catch (InterruptedException e) {
-                }
-            }
+            costTime = Math.round(1.0 * (acquireCount) / count * 1000 * 1000);
         }
-        return false;
+        return PacingUtil.toMillis(bucket.reserve(costTime, currentTime, timeoutInMs * 1000L));
     }
 }
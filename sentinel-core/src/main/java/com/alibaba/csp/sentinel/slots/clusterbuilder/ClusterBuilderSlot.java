@@ -15,7 +15,6 @@
  */
 package com.alibaba.csp.sentinel.slots.clusterbuilder;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import com.alibaba.csp.sentinel.Constants;
@@ -32,6 +31,8 @@ import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
 import com.alibaba.csp.sentinel.spi.Spi;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * <p>
@@ -62,14 +63,20 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * in this map.
      * </p>
      * <p>
-     * The longer the application runs, the more stable this mapping will
-     * become. so we don't concurrent map but a lock. as this lock only happens
-     * at the very beginning while concurrent map will hold the lock all the time.
+     * The registry provides lock-free lookups, and the {@link ClusterNode} of a new resource is created
+     * without blocking the creation of other resources.
      * </p>
      */
-    private static volatile Map<ResourceWrapper, ClusterNode> clusterNodeMap = new HashMap<>();
-
-    private static final Object lock = new Object();
+    private static final ConcurrentRegistry<ResourceWrapper, ClusterNode> clusterNodeRegistry
+        = new ConcurrentRegistry<>();
+
+    private static final Function<ResourceWrapper, ClusterNode> CLUSTER_NODE_CREATOR
+        = new Function<ResourceWrapper, ClusterNode>() {
+        @Override
+        public ClusterNode apply(ResourceWrapper resourceWrapper) {
+            return new ClusterNode(resourceWrapper.getName(), resourceWrapper.getResourceType());
+        }
+    };
 
     private volatile ClusterNode clusterNode = null;
 
@@ -78,17 +85,8 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
                       boolean prioritized, Object... args)
         throws Throwable {
         if (clusterNode == null) {
-            synchronized (lock) {
-                if (clusterNode == null) {
-                    // Create the cluster node.
-                    clusterNode = new ClusterNode(resourceWrapper.getName(), resourceWrapper.getResourceType());
-                    HashMap<ResourceWrapper, ClusterNode> newMap = new HashMap<>(Math.max(clusterNodeMap.size(), 16));
-                    newMap.putAll(clusterNodeMap);
-                    newMap.put(node.getId(), clusterNode);
-
-                    clusterNodeMap = newMap;
-                }
-            }
+            // Get or create the cluster node.
+            clusterNode = clusterNodeRegistry.computeIfAbsent(node.getId(), CLUSTER_NODE_CREATOR);
         }
         node.setClusterNode(clusterNode);
 
@@ -117,7 +115,7 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * @return the {@link ClusterNode}
      */
     public static ClusterNode getClusterNode(String id, EntryType type) {
-        return clusterNodeMap.get(new StringResourceWrapper(id, type));
+        return clusterNodeRegistry.get(new StringResourceWrapper(id, type));
     }
 
     /**
@@ -133,7 +131,7 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
         ClusterNode clusterNode = null;
 
         for (EntryType nodeType : EntryType.values()) {
-            clusterNode = clusterNodeMap.get(new StringResourceWrapper(id, nodeType));
+            clusterNode = clusterNodeRegistry.get(new StringResourceWrapper(id, nodeType));
             if (clusterNode != null) {
                 break;
             }
@@ -150,7 +148,17 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * @return all {@link ClusterNode}s
      */
     public static Map<ResourceWrapper, ClusterNode> getClusterNodeMap() {
-        return clusterNodeMap;
+        return clusterNodeRegistry.asMap();
+    }
+
+    /**
+     * Get the registry of {@link ClusterNode}s, which also records the statistics of node creation.
+     *
+     * @return the registry of {@link ClusterNode}s
+     * @since 1.8.6
+     */
+    public static ConcurrentRegistry<ResourceWrapper, ClusterNode> getClusterNodeRegistry() {
+        return clusterNodeRegistry;
     }
 
     /**
@@ -158,7 +166,7 @@ public class ClusterBuilderSlot extends AbstractLinkedProcessorSlot<DefaultNode>
      * {@link SampleCountProperty#SAMPLE_COUNT} is changed.
      */
     public static void resetClusterNodes() {
-        for (ClusterNode node : clusterNodeMap.values()) {
+        for (ClusterNode node : clusterNodeRegistry.asMap().values()) {
             node.reset();
         }
     }
@@ -24,9 +24,9 @@ import com.alibaba.csp.sentinel.node.EntranceNode;
 import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
 import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
 import com.alibaba.csp.sentinel.spi.Spi;
-
-import java.util.HashMap;
-import java.util.Map;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.csp.sentinel.util.function.Consumer;
+import com.alibaba.csp.sentinel.util.function.Function;
 
 /**
  * </p>
@@ -130,10 +130,10 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
     /**
      * {@link DefaultNode}s of the same resource in different context.
      */
-    private volatile Map<String, DefaultNode> map = new HashMap<String, DefaultNode>(10);
+    private final ConcurrentRegistry<String, DefaultNode> map = new ConcurrentRegistry<>();
 
     @Override
-    public void entry(Context context, ResourceWrapper resourceWrapper, Object obj, int count, boolean prioritized, Object... args)
+    public void entry(final Context context, final ResourceWrapper resourceWrapper, Object obj, int count, boolean prioritized, Object... args)
             throws Throwable {
         /*
          * It's interesting that we use context name rather resource name as the map key.
@@ -165,21 +165,19 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
         // 从缓存中获取DefaultNode
         DefaultNode node = map.get(context.getName());
         if (node == null) {
-            synchronized (this) {
-                // 双重检测锁
-                node = map.get(context.getName());
-                if (node == null) {
-                    node = new DefaultNode(resourceWrapper, null);
-                    // 放入缓存map
-                    HashMap<String, DefaultNode> cacheMap = new HashMap<String, DefaultNode>(map.size());
-                    cacheMap.putAll(map);
-                    cacheMap.put(context.getName(), node);
-                    map = cacheMap;
+            // Only one node is registered for each context, and the creation doesn't block other contexts.
+            node = map.computeIfAbsent(context.getName(), new Function<String, DefaultNode>() {
+                @Override
+                public DefaultNode apply(String contextName) {
+                    return new DefaultNode(resourceWrapper, null);
+                }
+            }, new Consumer<DefaultNode>() {
+                @Override
+                public void accept(DefaultNode newNode) {
                     // Build invocation tree 构建调用树
-                    ((DefaultNode) context.getLastNode()).addChild(node);
+                    ((DefaultNode) context.getLastNode()).addChild(newNode);
                 }
-
-            }
+            });
         }
 
         // 再触发下一个节点
@@ -187,6 +185,19 @@ public class NodeSelectorSlot extends AbstractLinkedProcessorSlot<Object> {
         fireEntry(context, resourceWrapper, node, count, prioritized, args);
     }
 
+    /**
+     * Remove the node of the context, so that a new node will be created and added to the invocation tree
+     * on next entry in the context. This is used when the parent of the node is removed from the invocation tree.
+     *
+     * @param contextName name of the context
+     * @param node        the node to remove
+     * @return true if the node is removed
+     * @since 1.8.6
+     */
+    public boolean removeNode(String contextName, DefaultNode node) {
+        return map.remove(contextName, node);
+    }
+
     @Override
     public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
         fireExit(context, resourceWrapper, count, args);
@@ -0,0 +1,236 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.node.Node;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>
+ * Asynchronous recording of the completion statistics (response time, success and exception count)
+ * of {@link StatisticSlot#exit}. The exit events are appended to a ring buffer owned by the request thread,
+ * and folded into the node metrics by a background drainer, so that the request thread no longer updates
+ * the contended counters of the default node, the origin node, the cluster node and the global inbound node.
+ * </p>
+ * <p>
+ * Staleness is bounded by the max lag ({@link SentinelConfig#STATISTIC_ASYNC_EXIT_MAX_LAG}): the drainer runs
+ * every half of the max lag, and the request thread drains its own buffer if the drainer has not run for
+ * the max lag. An event that can't be buffered (the buffer is full) is recorded synchronously and counted as
+ * overflowed. Thread count, pass and block statistics (which flow checks depend on) are always recorded
+ * synchronously. Events are put into the bucket of the time when they are drained, so the completion
+ * statistics of a sliding window may be shifted by at most the max lag.
+ * </p>
+ * <p>
+ * It's disabled by default, see {@link SentinelConfig#STATISTIC_ASYNC_EXIT}.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public final class AsyncExitStatistics {
+
+    private static final boolean ENABLED = SentinelConfig.statisticAsyncExitEnabled();
+    private static final long MAX_LAG_MS = SentinelConfig.statisticAsyncExitMaxLagMs();
+    private static final int BUFFER_SIZE = SentinelConfig.statisticAsyncExitBufferSize();
+
+    private static final List<ExitEventBuffer> buffers = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<ExitEventBuffer> LOCAL_BUFFER = new ThreadLocal<ExitEventBuffer>() {
+        @Override
+        protected ExitEventBuffer initialValue() {
+            ExitEventBuffer buffer = new ExitEventBuffer(Thread.currentThread(), BUFFER_SIZE);
+            buffers.add(buffer);
+            startDrainer();
+            return buffer;
+        }
+    };
+
+    private static final LongAdder recordedCount = new LongAdder();
+    private static final LongAdder overflowCount = new LongAdder();
+    private static final LongAdder inlineDrainCount = new LongAdder();
+    private static volatile long lastDrainTime = TimeUtil.currentTimeMillis();
+    private static volatile long lastLagMs = 0;
+    private static volatile long maxLagMs = 0;
+
+    private static ScheduledExecutorService drainer = null;
+
+    /**
+     * @return whether the completion statistics are recorded asynchronously
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Record the completion of an invocation for the node, the origin node and (if inbound)
+     * the global inbound node, asynchronously.
+     *
+     * @param node       the default node of the invocation
+     * @param originNode the origin node of the invocation, nullable
+     * @param inbound    whether the invocation is inbound
+     * @param count      acquire count of the invocation
+     * @param rt         response time
+     * @param error      whether the invocation has a business exception
+     */
+    public static void record(Node node, Node originNode, boolean inbound, int count, long rt, boolean error) {
+        long now = TimeUtil.currentTimeMillis();
+        ExitEventBuffer buffer = LOCAL_BUFFER.get();
+        if (now - lastDrainTime > MAX_LAG_MS && buffer.size() > 0) {
+            // The drainer lags behind, so the owner thread takes over its own buffer to bound staleness.
+            inlineDrainCount.increment();
+            updateLag(buffer.drain(now));
+        }
+        if (buffer.offer(node, originNode, inbound, count, rt, error, now)) {
+            recordedCount.increment();
+            return;
+        }
+        overflowCount.increment();
+        ExitEventBuffer.recordComplete(node, count, rt, error);
+        ExitEventBuffer.recordComplete(originNode, count, rt, error);
+        if (inbound) {
+            ExitEventBuffer.recordComplete(Constants.ENTRY_NODE, count, rt, error);
+        }
+    }
+
+    /**
+     * Fold all buffered events into the node metrics. Buffers of terminated threads are removed once drained.
+     */
+    static void drainAll() {
+        long now = TimeUtil.currentTimeMillis();
+        long lag = -1;
+        for (ExitEventBuffer buffer : buffers) {
+            lag = Math.max(lag, buffer.drain(now));
+            if (!buffer.getOwner().isAlive() && buffer.size() == 0) {
+                buffers.remove(buffer);
+            }
+        }
+        lastDrainTime = now;
+        updateLag(lag);
+    }
+
+    private static void updateLag(long lag) {
+        if (lag < 0) {
+            return;
+        }
+        lastLagMs = lag;
+        if (lag > maxLagMs) {
+            maxLagMs = lag;
+        }
+    }
+
+    @SuppressWarnings("PMD.ThreadPoolCreationRule")
+    private static synchronized void startDrainer() {
+        if (drainer != null) {
+            return;
+        }
+        long interval = Math.max(1, MAX_LAG_MS / 2);
+        drainer = Executors.newScheduledThreadPool(1,
+            new NamedThreadFactory("sentinel-statistic-exit-drain-task", true));
+        drainer.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    drainAll();
+                } catch (Throwable ex) {
+                    RecordLog.warn("[AsyncExitStatistics] Failed to drain exit events", ex);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        RecordLog.info("[AsyncExitStatistics] Exit statistics drainer started, maxLag={}ms, bufferSize={}",
+            MAX_LAG_MS, BUFFER_SIZE);
+    }
+
+    public static long getMaxLagConfig() {
+        return MAX_LAG_MS;
+    }
+
+    /**
+     * @return amount of events that have been buffered
+     */
+    public static long getRecordedCount() {
+        return recordedCount.sum();
+    }
+
+    /**
+     * @return amount of events that overflowed the buffer and were recorded synchronously
+     */
+    public static long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    /**
+     * @return amount of times the request thread drained its own buffer as the drainer lagged behind
+     */
+    public static long getInlineDrainCount() {
+        return inlineDrainCount.sum();
+    }
+
+    /**
+     * @return amount of events waiting to be drained
+     */
+    public static long getPendingCount() {
+        long pending = 0;
+        for (ExitEventBuffer buffer : buffers) {
+            pending += buffer.size();
+        }
+        return pending;
+    }
+
+    /**
+     * @return age (in milliseconds) of the oldest event in the latest drain
+     */
+    public static long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    /**
+     * @return max age (in milliseconds) of drained events so far
+     */
+    public static long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    public static long getLastDrainTime() {
+        return lastDrainTime;
+    }
+
+    /**
+     * Whether the thread has a registered buffer. Package-private for test.
+     */
+    static boolean hasBufferOf(Thread thread) {
+        for (ExitEventBuffer buffer : buffers) {
+            if (buffer.getOwner() == thread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static int getBufferCount() {
+        return buffers.size();
+    }
+
+    private AsyncExitStatistics() {}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.node.Node;
+
+/**
+ * A bounded single-producer ring buffer of exit events, owned by one thread. Events are consumed by
+ * {@link #drain(long)}, which is synchronized so that the drainer and the owner thread (when the drainer lags)
+ * can both consume the buffer.
+ *
+ * @since 1.8.6
+ */
+final class ExitEventBuffer {
+
+    private static final byte FLAG_INBOUND = 1;
+    private static final byte FLAG_ERROR = 2;
+
+    private final Thread owner;
+    private final int capacity;
+    private final int mask;
+
+    private final Node[] nodes;
+    private final Node[] originNodes;
+    private final long[] rts;
+    private final long[] times;
+    private final int[] counts;
+    private final byte[] flags;
+
+    /**
+     * Index of the next event to consume.
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * Index of the next event to produce.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    ExitEventBuffer(Thread owner, int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.owner = owner;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.nodes = new Node[size];
+        this.originNodes = new Node[size];
+        this.rts = new long[size];
+        this.times = new long[size];
+        this.counts = new int[size];
+        this.flags = new byte[size];
+    }
+
+    /**
+     * Append an exit event. Only the owner thread can call this method.
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer(Node node, Node originNode, boolean inbound, int count, long rt, boolean error, long time) {
+        long t = tail.get();
+        if (t - head.get() >= capacity) {
+            return false;
+        }
+        int i = (int)(t & mask);
+        nodes[i] = node;
+        originNodes[i] = originNode;
+        rts[i] = rt;
+        times[i] = time;
+        counts[i] = count;
+        flags[i] = (byte)((inbound ? FLAG_INBOUND : 0) | (error ? FLAG_ERROR : 0));
+        // Publish the event to consumers.
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Fold all published events into the node metrics.
+     *
+     * @param now current time in milliseconds
+     * @return the age (in milliseconds) of the oldest drained event, or -1 if the buffer was empty
+     */
+    synchronized long drain(long now) {
+        long h = head.get();
+        long t = tail.get();
+        if (h == t) {
+            return -1;
+        }
+        long lag = now - times[(int)(h & mask)];
+        for (; h < t; h++) {
+            int i = (int)(h & mask);
+            int count = counts[i];
+            long rt = rts[i];
+            boolean error = (flags[i] & FLAG_ERROR) != 0;
+            recordComplete(nodes[i], count, rt, error);
+            recordComplete(originNodes[i], count, rt, error);
+            if ((flags[i] & FLAG_INBOUND) != 0) {
+                recordComplete(Constants.ENTRY_NODE, count, rt, error);
+            }
+            nodes[i] = null;
+            originNodes[i] = null;
+        }
+        head.lazySet(t);
+        return Math.max(lag, 0);
+    }
+
+    static void recordComplete(Node node, int count, long rt, boolean error) {
+        if (node == null) {
+            return;
+        }
+        node.addRtAndSuccess(rt, count);
+        if (error) {
+            node.increaseExceptionQps(count);
+        }
+    }
+
+    int size() {
+        return (int)(tail.get() - head.get());
+    }
+
+    Thread getOwner() {
+        return owner;
+    }
+}
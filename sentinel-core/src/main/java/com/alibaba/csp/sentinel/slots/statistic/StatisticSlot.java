@@ -44,6 +44,10 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
  * <li>Finally, the sum statistics of all entrances.</li>
  * </ul>
  * </p>
+ * <p>
+ * The completion statistics (response time, success and exception count) can be recorded asynchronously
+ * since 1.8.6, see {@link AsyncExitStatistics}.
+ * </p>
  *
  * @author jialiang.linjl
  * @author Eric Zhao
@@ -51,6 +55,8 @@ import com.alibaba.csp.sentinel.slots.block.BlockException;
 @Spi(order = Constants.ORDER_STATISTIC_SLOT)
 public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
+    private final boolean asyncExit = AsyncExitStatistics.isEnabled();
+
     @Override
     public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count,
                       boolean prioritized, Object... args) throws Throwable {
@@ -138,11 +144,24 @@ public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
 
             Throwable error = context.getCurEntry().getError();
 
-            // Record response time and success count.
-            recordCompleteFor(node, count, rt, error);
-            recordCompleteFor(context.getCurEntry().getOriginNode(), count, rt, error);
-            if (resourceWrapper.getEntryType() == EntryType.IN) {
-                recordCompleteFor(Constants.ENTRY_NODE, count, rt, error);
+            if (asyncExit) {
+                // Thread count is always decreased in place, as flow checks depend on it.
+                Node originNode = context.getCurEntry().getOriginNode();
+                boolean inbound = resourceWrapper.getEntryType() == EntryType.IN;
+                decreaseThreadNum(node);
+                decreaseThreadNum(originNode);
+                if (inbound) {
+                    decreaseThreadNum(Constants.ENTRY_NODE);
+                }
+                AsyncExitStatistics.record(node, originNode, inbound, count, rt,
+                    error != null && !(error instanceof BlockException));
+            } else {
+                // Record response time and success count.
+                recordCompleteFor(node, count, rt, error);
+                recordCompleteFor(context.getCurEntry().getOriginNode(), count, rt, error);
+                if (resourceWrapper.getEntryType() == EntryType.IN) {
+                    recordCompleteFor(Constants.ENTRY_NODE, count, rt, error);
+                }
             }
         }
 
@@ -156,6 +175,12 @@ public class StatisticSlot extends AbstractLinkedProcessorSlot<DefaultNode> {
         fireExit(context, resourceWrapper, count, args);
     }
 
+    private void decreaseThreadNum(Node node) {
+        if (node != null) {
+            node.decreaseThreadNum();
+        }
+    }
+
     private void recordCompleteFor(Node node, int batchCount, long rt, Throwable error) {
         if (node == null) {
             return;
@@ -296,6 +296,18 @@ public abstract class LeapArray<T> {
         return result;
     }
 
+    /**
+     * Get the bucket at given index of the array, so that callers can iterate buckets without creating a list.
+     * The bucket may be null or deprecated.
+     *
+     * @param idx index of the bucket, in [0, {@link #getSampleCount()})
+     * @return the bucket at given index
+     * @since 1.8.6
+     */
+    public WindowWrap<T> getWindowAt(int idx) {
+        return array.get(idx);
+    }
+
     /**
      * Get all buckets for entire sliding window including deprecated buckets.
      *
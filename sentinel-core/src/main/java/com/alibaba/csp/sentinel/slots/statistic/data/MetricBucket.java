@@ -32,12 +32,39 @@ public class MetricBucket {
     private volatile long minRt;
 
     public MetricBucket() {
+        this(newCounters());
+    }
+
+    /**
+     * For subclasses that keep the counters in their own layout (with null counters),
+     * in which case all methods that access the counters must be overridden.
+     */
+    MetricBucket(LongAdder[] counters) {
+        this.counters = counters;
+        initMinRt();
+    }
+
+    private static LongAdder[] newCounters() {
         MetricEvent[] events = MetricEvent.values();
-        this.counters = new LongAdder[events.length];
+        LongAdder[] counters = new LongAdder[events.length];
         for (MetricEvent event : events) {
             counters[event.ordinal()] = new LongAdder();
         }
-        initMinRt();
+        return counters;
+    }
+
+    /**
+     * Create a new empty bucket. The {@link PaddedMetricBucket} will be used if
+     * {@link SentinelConfig#statisticPaddedBucketEnabled()} is true.
+     *
+     * @return a new empty bucket
+     * @since 1.8.6
+     */
+    public static MetricBucket newBucket() {
+        if (SentinelConfig.statisticPaddedBucketEnabled()) {
+            return new PaddedMetricBucket();
+        }
+        return new MetricBucket();
     }
 
     public MetricBucket reset(MetricBucket bucket) {
@@ -0,0 +1,169 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+/**
+ * <p>
+ * A {@link MetricBucket} that keeps all event counters (and the min RT) in one primitive
+ * {@link AtomicLongArray} rather than one {@link java.util.concurrent.atomic.LongAdder} per event.
+ * The counters are padded to a cache line on both sides to avoid false sharing with neighbouring objects.
+ * </p>
+ * <p>
+ * Counters are updated via CAS on the base row at first. Once a CAS failure is detected,
+ * a striped array (one padded row for each stripe, sized by available processors) is created,
+ * and the following updates are spread across the stripes by thread. The striped array is kept
+ * for the whole life of the bucket, as a bucket that is contended once is likely to be contended again.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class PaddedMetricBucket extends MetricBucket {
+
+    private static final int EVENT_COUNT = MetricEvent.values().length;
+
+    /**
+     * Amount of longs in a 64-byte cache line.
+     */
+    private static final int PAD = 8;
+    /**
+     * Length of a row that holds all event counters and the min RT, rounded up to whole cache lines, plus one
+     * extra cache line. As the array is not aligned to cache lines, the extra line keeps the counters of
+     * adjacent stripes from sharing a line.
+     */
+    private static final int STRIDE = (EVENT_COUNT + 1 + PAD - 1) / PAD * PAD + PAD;
+    private static final int MIN_RT_IDX = PAD + EVENT_COUNT;
+
+    private static final int MAX_STRIPES = 64;
+    private static final int STRIPE_COUNT = stripeCount(Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicReferenceFieldUpdater<PaddedMetricBucket, AtomicLongArray> STRIPES_UPDATER
+        = AtomicReferenceFieldUpdater.newUpdater(PaddedMetricBucket.class, AtomicLongArray.class, "stripes");
+
+    private final AtomicLongArray base = new AtomicLongArray(PAD + STRIDE + PAD);
+
+    private volatile AtomicLongArray stripes;
+
+    public PaddedMetricBucket() {
+        super(null);
+        base.set(MIN_RT_IDX, SentinelConfig.statisticMaxRt());
+    }
+
+    static int stripeCount(int processors) {
+        int n = 1;
+        while (n < processors && n < MAX_STRIPES) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    private static int stripeOffset() {
+        long id = Thread.currentThread().getId();
+        int h = (int)(id ^ (id >>> 32)) * 0x9E3779B9;
+        return PAD + ((h >>> 16) & (STRIPE_COUNT - 1)) * STRIDE;
+    }
+
+    private AtomicLongArray initStripes() {
+        AtomicLongArray s = stripes;
+        if (s == null) {
+            STRIPES_UPDATER.compareAndSet(this, null, new AtomicLongArray(PAD + STRIPE_COUNT * STRIDE + PAD));
+            s = stripes;
+        }
+        return s;
+    }
+
+    /**
+     * Whether the striped counters have been created due to contention. Package-private for test.
+     */
+    boolean isStriped() {
+        return stripes != null;
+    }
+
+    @Override
+    public MetricBucket reset(MetricBucket bucket) {
+        reset();
+        for (MetricEvent event : MetricEvent.values()) {
+            base.set(PAD + event.ordinal(), bucket.get(event));
+        }
+        return this;
+    }
+
+    @Override
+    public MetricBucket reset() {
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            base.set(PAD + i, 0);
+        }
+        base.set(MIN_RT_IDX, SentinelConfig.statisticMaxRt());
+        AtomicLongArray s = stripes;
+        if (s != null) {
+            for (int i = PAD; i < s.length() - PAD; i++) {
+                s.set(i, 0);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public long get(MetricEvent event) {
+        int idx = PAD + event.ordinal();
+        long sum = base.get(idx);
+        AtomicLongArray s = stripes;
+        if (s != null) {
+            for (int i = 0; i < STRIPE_COUNT; i++) {
+                sum += s.get(idx + i * STRIDE);
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public MetricBucket add(MetricEvent event, long n) {
+        int idx = PAD + event.ordinal();
+        AtomicLongArray s = stripes;
+        if (s == null) {
+            long v = base.get(idx);
+            if (base.compareAndSet(idx, v, v + n)) {
+                return this;
+            }
+            // Contention detected, so spread the following updates across the stripes.
+            s = initStripes();
+        }
+        s.getAndAdd(stripeOffset() + event.ordinal(), n);
+        return this;
+    }
+
+    @Override
+    public long minRt() {
+        return base.get(MIN_RT_IDX);
+    }
+
+    @Override
+    public void addRT(long rt) {
+        add(MetricEvent.RT, rt);
+
+        long min;
+        while (rt < (min = base.get(MIN_RT_IDX))) {
+            if (base.compareAndSet(MIN_RT_IDX, min, rt)) {
+                break;
+            }
+        }
+    }
+}
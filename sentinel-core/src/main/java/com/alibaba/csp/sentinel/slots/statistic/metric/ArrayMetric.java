@@ -19,11 +19,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.node.metric.MetricBatch;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
 import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
 import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.LockFreeOccupiableBucketLeapArray;
 import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.OccupiableBucketLeapArray;
 import com.alibaba.csp.sentinel.util.function.Predicate;
 
@@ -49,6 +52,24 @@ public class ArrayMetric implements Metric {
         }
     }
 
+    /**
+     * @param sampleCount  bucket count of the sliding window
+     * @param intervalInMs the total time interval of the sliding window in milliseconds
+     * @param enableOccupy whether to support occupying (borrowing) future windows
+     * @param lockFree     whether to use the lock-free sliding window ({@link LockFreeBucketLeapArray})
+     * @since 1.8.6
+     */
+    public ArrayMetric(int sampleCount, int intervalInMs, boolean enableOccupy, boolean lockFree) {
+        if (!lockFree) {
+            this.data = enableOccupy ? new OccupiableBucketLeapArray(sampleCount, intervalInMs)
+                : new BucketLeapArray(sampleCount, intervalInMs);
+        } else if (enableOccupy) {
+            this.data = new LockFreeOccupiableBucketLeapArray(sampleCount, intervalInMs);
+        } else {
+            this.data = new LockFreeBucketLeapArray(sampleCount, intervalInMs);
+        }
+    }
+
     /**
      * For unit test.
      */
@@ -187,6 +208,42 @@ public class ArrayMetric implements Metric {
         return details;
     }
 
+    @Override
+    public long fillDetails(MetricBatch batch, long afterTime, long beforeTime) {
+        data.currentWindow();
+        long now = TimeUtil.currentTimeMillis();
+        long maxWindowStart = -1;
+        for (int i = 0; i < data.getSampleCount(); i++) {
+            WindowWrap<MetricBucket> window = data.getWindowAt(i);
+            if (window == null || data.isWindowDeprecated(now, window)) {
+                continue;
+            }
+            long windowStart = window.windowStart();
+            if (windowStart <= afterTime || windowStart >= beforeTime) {
+                continue;
+            }
+            MetricBucket bucket = window.value();
+            long pass = bucket.pass();
+            long block = bucket.block();
+            long success = bucket.success();
+            long exception = bucket.exception();
+            long rt = bucket.rt();
+            long occupiedPass = bucket.occupiedPass();
+            if (pass <= 0 && block <= 0 && success <= 0 && exception <= 0 && rt <= 0 && occupiedPass <= 0) {
+                continue;
+            }
+            MetricNode node = batch.acquire(windowStart);
+            node.setPassQps(pass);
+            node.setBlockQps(block);
+            node.setSuccessQps(success);
+            node.setExceptionQps(exception);
+            node.setRt(success != 0 ? rt / success : rt);
+            node.setOccupiedPassQps(occupiedPass);
+            maxWindowStart = Math.max(maxWindowStart, windowStart);
+        }
+        return maxWindowStart;
+    }
+
     private MetricNode fromBucket(WindowWrap<MetricBucket> wrap) {
         MetricNode node = new MetricNode();
         node.setBlockQps(wrap.value().block());
@@ -0,0 +1,188 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+
+/**
+ * <p>
+ * A {@link BucketLeapArray} variant that rotates buckets without yielding or locking.
+ * </p>
+ * <p>
+ * Every slot of the circular array owns three preallocated buckets, which are used in turn: the published one,
+ * a clean spare and the retired one. The start time of each slot (the "epoch") is kept in an
+ * {@link AtomicLongArray}. When a bucket becomes deprecated, the single thread that wins the CAS on the slot
+ * epoch prepares the spare bucket and publishes it. Threads that lose the CAS for the same epoch write directly
+ * into the spare bucket that is being published, so they never wait. As the spare bucket is always cleaned in
+ * advance, preparing it only involves additive updates, which means no concurrent write of the new epoch could
+ * be wiped out by the rotation.
+ * </p>
+ * <p>
+ * The bucket deprecated by a rotation is not cleaned until the next rotation of the slot (one interval later),
+ * when it's cleaned to become the next spare. So a late write to the deprecated bucket (by a thread that got it
+ * before the rotation) is simply dropped with the deprecated window, rather than leaking into a later window.
+ * The error is bounded to threads stalled across two rotations of the slot (which are at least an interval
+ * apart) while holding a bucket: their updates may be applied to the bucket in a later window, as what happens
+ * to a bucket reset in place by {@link LeapArray}.
+ * </p>
+ * <p>
+ * No bucket is allocated after construction, so the statistics can be kept in the same memory regardless of
+ * how the time goes.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class LockFreeBucketLeapArray extends LeapArray<MetricBucket> {
+
+    private static final int BUCKETS_PER_SLOT = 3;
+
+    /**
+     * Start time of the preallocated buckets that have never been used.
+     */
+    private final long initialWindowStart;
+
+    /**
+     * Start time of each slot. The value is updated (via CAS) before the new bucket is published.
+     */
+    private final AtomicLongArray epochs;
+
+    /**
+     * Buckets of each slot, which are published in turn.
+     */
+    private final WindowWrap<MetricBucket>[][] buckets;
+
+    @SuppressWarnings("unchecked")
+    public LockFreeBucketLeapArray(int sampleCount, int intervalInMs) {
+        super(sampleCount, intervalInMs);
+        // Make sure that the initial buckets are always deprecated.
+        this.initialWindowStart = -(long)intervalInMs - windowLengthInMs;
+        this.epochs = new AtomicLongArray(sampleCount);
+        this.buckets = new WindowWrap[sampleCount][BUCKETS_PER_SLOT];
+        for (int i = 0; i < sampleCount; i++) {
+            for (int j = 0; j < BUCKETS_PER_SLOT; j++) {
+                buckets[i][j] = new WindowWrap<>(windowLengthInMs, initialWindowStart, newEmptyBucket(0));
+            }
+            epochs.set(i, initialWindowStart);
+            array.set(i, buckets[i][0]);
+        }
+    }
+
+    @Override
+    public MetricBucket newEmptyBucket(long time) {
+        return MetricBucket.newBucket();
+    }
+
+    @Override
+    protected WindowWrap<MetricBucket> resetWindowTo(WindowWrap<MetricBucket> w, long startTime) {
+        // Update the start time and reset value.
+        w.resetTo(startTime);
+        w.value().reset();
+        prepareBucket(w.value(), startTime);
+        return w;
+    }
+
+    /**
+     * Prepare the (clean) bucket before it's published for provided window start time.
+     * Only additive operations are allowed here, as writers of the new window may have already
+     * recorded data into the bucket.
+     *
+     * @param bucket      a clean bucket
+     * @param windowStart start time of the new window
+     */
+    protected void prepareBucket(MetricBucket bucket, long windowStart) {
+        // Nothing to prepare by default.
+    }
+
+    private int calculateIdx(long timeMillis) {
+        return (int)((timeMillis / windowLengthInMs) % array.length());
+    }
+
+    /**
+     * Get the bucket that is used {@code n} rotations after the published one.
+     */
+    private WindowWrap<MetricBucket> nextOf(int idx, WindowWrap<MetricBucket> published, int n) {
+        WindowWrap<MetricBucket>[] slotBuckets = buckets[idx];
+        for (int i = 0; i < BUCKETS_PER_SLOT; i++) {
+            if (slotBuckets[i] == published) {
+                return slotBuckets[(i + n) % BUCKETS_PER_SLOT];
+            }
+        }
+        throw new IllegalStateException("Unknown bucket of slot " + idx);
+    }
+
+    @Override
+    public WindowWrap<MetricBucket> currentWindow(long timeMillis) {
+        if (timeMillis < 0) {
+            return null;
+        }
+
+        int idx = calculateIdx(timeMillis);
+        long windowStart = calculateWindowStart(timeMillis);
+
+        while (true) {
+            WindowWrap<MetricBucket> old = array.get(idx);
+            long oldStart = old.windowStart();
+            if (windowStart <= oldStart) {
+                // The bucket is up-to-date. If provided time is behind (which should not happen generally),
+                // we still return the latest bucket rather than creating a new one.
+                return old;
+            }
+            long epoch = epochs.get(idx);
+            if (epoch != oldStart) {
+                if (array.get(idx) == old && old.windowStart() == oldStart) {
+                    // Another thread is publishing the spare bucket, so write to it directly rather than waiting.
+                    return nextOf(idx, old, 1);
+                }
+                // The rotation has completed (maybe more than once) since we read the bucket, so retry.
+                continue;
+            }
+            if (epochs.compareAndSet(idx, epoch, windowStart)) {
+                WindowWrap<MetricBucket> spare = nextOf(idx, old, 1);
+                spare.resetTo(windowStart);
+                prepareBucket(spare.value(), windowStart);
+                // Publish the new bucket, then clean the one deprecated by the previous rotation, which becomes
+                // the next spare. The bucket deprecated just now is left as is for late writers.
+                array.set(idx, spare);
+                nextOf(idx, old, 2).value().reset();
+                return spare;
+            }
+            // Another thread has just claimed the rotation, so retry with the latest state.
+            // The loop is lock-free as a failed CAS always means that another thread has made progress.
+        }
+    }
+
+    @Override
+    public List<WindowWrap<MetricBucket>> listAll() {
+        int size = array.length();
+        List<WindowWrap<MetricBucket>> result = new ArrayList<WindowWrap<MetricBucket>>(size);
+
+        for (int i = 0; i < size; i++) {
+            WindowWrap<MetricBucket> windowWrap = array.get(i);
+            if (windowWrap.windowStart() == initialWindowStart) {
+                continue;
+            }
+            result.add(windowWrap);
+        }
+
+        return result;
+    }
+}
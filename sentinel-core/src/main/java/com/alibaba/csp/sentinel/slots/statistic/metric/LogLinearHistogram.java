@@ -0,0 +1,166 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * A concurrent histogram of non-negative long values with log-linear buckets (in the same way as HdrHistogram):
+ * values are grouped by their highest bit, and each group is split into {@link #SUB_BUCKET_COUNT} linear
+ * sub-buckets, so the relative error of a recorded value is bounded by {@code 1 / SUB_BUCKET_COUNT} (about 3%)
+ * whatever its magnitude. Values less than {@code 2 * SUB_BUCKET_COUNT} are recorded exactly, and values
+ * larger than {@link #MAX_TRACKABLE_VALUE} are recorded as the max trackable value.
+ * </p>
+ * <p>
+ * Recording is lock-free. Reading is not atomic with recording, so a {@link Snapshot} may miss values
+ * which are being recorded concurrently.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class LogLinearHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 36;
+    /**
+     * About 68.7 seconds in nanoseconds, or 64 GiB in bytes.
+     */
+    public static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    private static final int BUCKET_COUNT = indexOf(MAX_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+
+    /**
+     * Record a value. Negative values are recorded as zero.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > MAX_TRACKABLE_VALUE) {
+            value = MAX_TRACKABLE_VALUE;
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.increment();
+        totalValue.add(value);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalValue.reset();
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, totalValue.sum());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT << 1) {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        // (value >>> shift) is in [SUB_BUCKET_COUNT, 2 * SUB_BUCKET_COUNT).
+        return (shift << SUB_BUCKET_BITS) + (int)(value >>> shift);
+    }
+
+    /**
+     * @return the largest value that is recorded into the same bucket as the value of the index
+     */
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKET_COUNT << 1) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long sub = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * An immutable copy of the histogram.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long total;
+
+        private Snapshot(long[] counts, long count, long total) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double)total / count;
+        }
+
+        /**
+         * Get the value at the given percentile, i.e. the largest value equivalent to the smallest recorded value
+         * that is not less than the given percentage of all recorded values.
+         *
+         * @param percentile percentile in [0, 100]
+         * @return the value at the percentile, or 0 if nothing is recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            double p = Math.min(Math.max(percentile, 0), 100);
+            long target = Math.max(1, (long)Math.ceil(p / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return highestValueOf(i);
+                }
+            }
+            return getMax();
+        }
+
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValueOf(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.alibaba.csp.sentinel.slots.statistic.metric;
 
 import java.util.List;
 
+import com.alibaba.csp.sentinel.node.metric.MetricBatch;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
 import com.alibaba.csp.sentinel.util.function.Predicate;
@@ -94,6 +95,41 @@ public interface Metric extends DebugSupport {
      */
     List<MetricNode> detailsOnCondition(Predicate<Long> timePredicate);
 
+    /**
+     * Fill aggregated metric items of the windows that start in (afterTime, beforeTime) and are not empty
+     * into metric nodes acquired from the batch, without creating intermediate lists.
+     * The default implementation copies the items of {@link #details()}, which should be overridden
+     * to avoid creating them.
+     *
+     * @param batch      the batch to acquire metric nodes from
+     * @param afterTime  windows that start at or before this time are excluded
+     * @param beforeTime windows that start at or after this time are excluded
+     * @return max start time of the filled windows, or -1 if no window is filled
+     * @since 1.8.6
+     */
+    default long fillDetails(MetricBatch batch, long afterTime, long beforeTime) {
+        long maxWindowStart = -1;
+        for (MetricNode item : details()) {
+            long windowStart = item.getTimestamp();
+            if (windowStart <= afterTime || windowStart >= beforeTime) {
+                continue;
+            }
+            if (item.getPassQps() <= 0 && item.getBlockQps() <= 0 && item.getSuccessQps() <= 0
+                && item.getExceptionQps() <= 0 && item.getRt() <= 0 && item.getOccupiedPassQps() <= 0) {
+                continue;
+            }
+            MetricNode node = batch.acquire(windowStart);
+            node.setPassQps(item.getPassQps());
+            node.setBlockQps(item.getBlockQps());
+            node.setSuccessQps(item.getSuccessQps());
+            node.setExceptionQps(item.getExceptionQps());
+            node.setRt(item.getRt());
+            node.setOccupiedPassQps(item.getOccupiedPassQps());
+            maxWindowStart = Math.max(maxWindowStart, windowStart);
+        }
+        return maxWindowStart;
+    }
+
     /**
      * Get the raw window array.
      *
@@ -38,7 +38,7 @@ public class OccupiableBucketLeapArray extends LeapArray<MetricBucket> {
 
     @Override
     public MetricBucket newEmptyBucket(long time) {
-        MetricBucket newBucket = new MetricBucket();
+        MetricBucket newBucket = MetricBucket.newBucket();
 
         MetricBucket borrowBucket = borrowArray.getWindowValue(time);
         if (borrowBucket != null) {
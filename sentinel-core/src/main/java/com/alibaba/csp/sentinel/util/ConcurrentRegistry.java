@@ -0,0 +1,227 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.csp.sentinel.util.function.Consumer;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+/**
+ * <p>
+ * A registry with lock-free reads and per-key creation, which replaces the "copy-on-write map under a global lock"
+ * pattern for the holders of slot chains, cluster nodes, default nodes and context entrance nodes.
+ * Registering N keys used to cost O(N^2) as the whole map was copied for each new key, and all threads creating
+ * different keys contended on one monitor.
+ * </p>
+ * <p>
+ * Values are created outside of the map and registered via {@code putIfAbsent}, so a creator never runs under
+ * a lock of the map. Threads racing on the same key may create more than one value, but only the first
+ * registered one is kept and returned to all of them. The registry can be bounded, in which case no value will
+ * be registered if the amount of registered values reaches the max size (and {@code null} will be returned).
+ * </p>
+ * <p>
+ * The registry also records the amount of registered values, the amount of creations discarded as another
+ * thread registered the same key first (contention), and the amount of rejected creations.
+ * </p>
+ *
+ * @param <K> type of the key
+ * @param <V> type of the value
+ * @since 1.8.6
+ */
+public class ConcurrentRegistry<K, V> {
+
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final ConcurrentHashMap<K, V> map;
+    private final int maxSize;
+
+    /**
+     * Amount of values registered (including those being registered), used to enforce the max size.
+     */
+    private final AtomicInteger reservedCount = new AtomicInteger();
+
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder contendedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public ConcurrentRegistry() {
+        this(UNBOUNDED);
+    }
+
+    public ConcurrentRegistry(int maxSize) {
+        AssertUtil.isTrue(maxSize > 0, "maxSize should be positive");
+        this.maxSize = maxSize;
+        this.map = new ConcurrentHashMap<>(Math.min(maxSize, 16));
+    }
+
+    /**
+     * Get the registered value of provided key.
+     *
+     * @param key a valid key
+     * @return the registered value, or null if absent
+     */
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    /**
+     * Get the registered value of provided key, or create and register a new value if absent.
+     * Threads creating different keys won't block each other.
+     *
+     * @param key     a valid key
+     * @param creator function to create the value, which must not modify this registry
+     * @return the registered value; null if the amount of values exceeds the max size
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> creator) {
+        return computeIfAbsent(key, creator, null);
+    }
+
+    /**
+     * Get the registered value of provided key, or create and register a new value if absent.
+     * As a created value may be discarded when another thread registers the key first, side effects of
+     * the creation (e.g. linking the value to the invocation tree) should be done in {@code onRegistered},
+     * which is only called with the value registered by this call.
+     *
+     * @param key          a valid key
+     * @param creator      function to create the value, which should have no side effects
+     * @param onRegistered action on the value once it's registered, or null
+     * @return the registered value; null if the amount of values exceeds the max size
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> creator, Consumer<? super V> onRegistered) {
+        V value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (map.size() >= maxSize) {
+            rejectedCount.increment();
+            return null;
+        }
+        V created = creator.apply(key);
+        if (created == null) {
+            rejectedCount.increment();
+            return null;
+        }
+        if (!tryReserve()) {
+            // The registry may be full of the key registered by another thread.
+            value = map.get(key);
+            if (value == null) {
+                rejectedCount.increment();
+            } else {
+                contendedCount.increment();
+            }
+            return value;
+        }
+        value = map.putIfAbsent(key, created);
+        if (value != null) {
+            reservedCount.decrementAndGet();
+            contendedCount.increment();
+            return value;
+        }
+        createdCount.increment();
+        if (onRegistered != null) {
+            onRegistered.accept(created);
+        }
+        return created;
+    }
+
+    private boolean tryReserve() {
+        if (map.size() >= maxSize) {
+            return false;
+        }
+        while (true) {
+            int current = reservedCount.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (reservedCount.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Remove the value of provided key from the registry.
+     *
+     * @param key a valid key
+     * @return the removed value, or null if absent
+     */
+    public V remove(K key) {
+        V value = map.remove(key);
+        if (value != null) {
+            reservedCount.decrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Remove the value of provided key only if it's currently mapped to the given value.
+     *
+     * @param key   a valid key
+     * @param value expected value
+     * @return true if the value was removed
+     */
+    public boolean remove(K key, V value) {
+        if (map.remove(key, value)) {
+            reservedCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public void clear() {
+        map.clear();
+        reservedCount.set(0);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the live map view of the registry. DO NOT MODIFY the map returned (except for test).
+     *
+     * @return the live map view of the registry
+     */
+    public Map<K, V> asMap() {
+        return map;
+    }
+
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    /**
+     * @return amount of created values discarded as the key was registered by another thread first
+     */
+    public long getContendedCount() {
+        return contendedCount.sum();
+    }
+
+    /**
+     * @return amount of creations rejected as the max size was reached
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
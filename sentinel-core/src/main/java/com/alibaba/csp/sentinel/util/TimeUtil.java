@@ -15,20 +15,18 @@
  */
 package com.alibaba.csp.sentinel.util;
 
-import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.LongAdder;
-
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.log.RecordLog;
-import com.alibaba.csp.sentinel.slots.statistic.base.LeapArray;
-import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.spi.SpiLoader;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.TickerClock;
 import com.alibaba.csp.sentinel.util.function.Tuple2;
 
 /**
  * <p>Provides millisecond-level time of OS.</p>
  * <p>
- * Here we should see that not all the time TimeUtil should
- * keep looping 1_000 times every second (Actually about 800/s due to some losses).
+ * The time is provided by a pluggable {@link Clock}, which can be selected via the
+ * {@code csp.sentinel.time.clock} config item (since 1.8.6). By default the adaptive {@link TickerClock} is used:
  * <pre>
  * * In idle conditions it just acts as System.currentTimeMillis();
  * * In busy conditions (significantly more than 1_000/s) it keeps loop to reduce costs.
@@ -39,10 +37,7 @@ import com.alibaba.csp.sentinel.util.function.Tuple2;
  * @author qinan.qn
  * @author jason
  */
-public final class TimeUtil implements Runnable {
-    private static final long CHECK_INTERVAL = 3000;
-    private static final long HITS_LOWER_BOUNDARY = 800;
-    private static final long HITS_UPPER_BOUNDARY = 1200;
+public final class TimeUtil {
 
     public static enum STATE {
         IDLE,
@@ -50,169 +45,75 @@ public final class TimeUtil implements Runnable {
         RUNNING;
     }
 
-    private static class Statistic {
-        private final LongAdder writes = new LongAdder();
-        private final LongAdder reads = new LongAdder();
-
-        public LongAdder getWrites() {
-            return writes;
-        }
-
-        public LongAdder getReads() {
-            return reads;
-        }
-    }
-
     private static TimeUtil INSTANCE;
 
-    private volatile long currentTimeMillis;
-    private volatile STATE state = STATE.IDLE;
-
-    private LeapArray<Statistic> statistics;
-
-    /**
-     * thread private variables
-     */
-    private long lastCheck = 0;
+    private final Clock clock;
 
     static {
-        INSTANCE = new TimeUtil();
+        INSTANCE = new TimeUtil(resolveClock());
     }
 
     public TimeUtil() {
-        this.statistics = new LeapArray<TimeUtil.Statistic>(3, 3000) {
-
-            @Override
-            public Statistic newEmptyBucket(long timeMillis) {
-                return new Statistic();
-            }
+        this(new TickerClock());
+    }
 
-            @Override
-            protected WindowWrap<Statistic> resetWindowTo(WindowWrap<Statistic> windowWrap, long startTime) {
-                Statistic val = windowWrap.value();
-                val.getReads().reset();
-                val.getWrites().reset();
-                windowWrap.resetTo(startTime);
-                return windowWrap;
-            }
-        };
-        this.currentTimeMillis = System.currentTimeMillis();
-        this.lastCheck = this.currentTimeMillis;
-        Thread daemon = new Thread(this);
-        daemon.setDaemon(true);
-        daemon.setName("sentinel-time-tick-thread");
-        daemon.start();
+    public TimeUtil(Clock clock) {
+        AssertUtil.notNull(clock, "clock cannot be null");
+        this.clock = clock;
     }
 
-    @Override
-    public void run() {
-        while (true) {
-            // Mechanism optimized since 1.8.2
-            this.check();
-            if (this.state == STATE.RUNNING) {
-                this.currentTimeMillis = System.currentTimeMillis();
-                this.statistics.currentWindow(this.currentTimeMillis).value().getWrites().increment();
-                try {
-                    TimeUnit.MILLISECONDS.sleep(1);
-                } catch (Throwable e) {
-                }
-                continue;
-            }
-            if (this.state == STATE.IDLE) {
-                try {
-                    TimeUnit.MILLISECONDS.sleep(300);
-                } catch (Throwable e) {
-                }
-                continue;
-            }
-            if (this.state == STATE.PREPARE) {
-                RecordLog.debug("TimeUtil switches to RUNNING");
-                this.currentTimeMillis = System.currentTimeMillis();
-                this.state = STATE.RUNNING;
-                continue;
-            }
+    private static Clock resolveClock() {
+        String name = SentinelConfig.timeClock();
+        if (StringUtil.isBlank(name)) {
+            return new TickerClock();
+        }
+        try {
+            Clock clock = SpiLoader.of(Clock.class).loadInstance(name.trim());
+            RecordLog.info("[TimeUtil] Using clock: {}", clock.getClass().getCanonicalName());
+            return clock;
+        } catch (Throwable ex) {
+            RecordLog.warn("[TimeUtil] Failed to load clock <{}>, using the default ticker clock", name, ex);
+            return new TickerClock();
         }
     }
 
     /**
-     * Current running state
+     * Current running state. Clocks other than {@link TickerClock} never tick, so they're always IDLE.
      *
-     * @return
+     * @return current running state
      */
     public STATE getState() {
-        return state;
+        if (clock instanceof TickerClock) {
+            return ((TickerClock) clock).getState();
+        }
+        return STATE.IDLE;
     }
 
     /**
-     * Current qps statistics (including reads and writes request)
-     * excluding current working time window for accurate result.
+     * Current qps statistics (including reads and writes request).
      *
-     * @param now
-     * @return
+     * @param now current timestamp in milliseconds
+     * @return reads per second ({@code r1}) and writes per second ({@code r2})
      */
     public Tuple2<Long, Long> currentQps(long now) {
-        List<WindowWrap<Statistic>> list = this.statistics.listAll();
-        long reads = 0;
-        long writes = 0;
-        int cnt = 0;
-        for (WindowWrap<Statistic> windowWrap : list) {
-            if (windowWrap.isTimeInWindow(now)) {
-                continue;
-            }
-            cnt++;
-            reads += windowWrap.value().getReads().longValue();
-            writes += windowWrap.value().getWrites().longValue();
-        }
-        if (cnt < 1) {
-            return new Tuple2<Long, Long>(0L, 0L);
-        }
-        return new Tuple2<Long, Long>(reads / cnt, writes / cnt);
+        return clock.currentQps(now);
     }
 
     /**
-     * Check and operate the state if necessary.
-     * ATTENTION: It's called in daemon thread.
+     * Current timestamp in milliseconds.
+     *
+     * @return current timestamp in milliseconds
      */
-    private void check() {
-        long now = currentTime(true);
-        // every period
-        if (now - this.lastCheck < CHECK_INTERVAL) {
-            return;
-        }
-        this.lastCheck = now;
-        Tuple2<Long, Long> qps = currentQps(now);
-        if (this.state == STATE.IDLE && qps.r1 > HITS_UPPER_BOUNDARY) {
-            RecordLog.info("TimeUtil switches to PREPARE for better performance, reads={}/s, writes={}/s", qps.r1, qps.r2);
-            this.state = STATE.PREPARE;
-        } else if (this.state == STATE.RUNNING && qps.r1 < HITS_LOWER_BOUNDARY) {
-            RecordLog.info("TimeUtil switches to IDLE due to not enough load, reads={}/s, writes={}/s", qps.r1, qps.r2);
-            this.state = STATE.IDLE;
-        }
-    }
-
-    private long currentTime(boolean innerCall) {
-        long now = this.currentTimeMillis;
-        Statistic val = this.statistics.currentWindow(now).value();
-        if (!innerCall) {
-            val.getReads().increment();
-        }
-        if (this.state == STATE.IDLE || this.state == STATE.PREPARE) {
-            now = System.currentTimeMillis();
-            this.currentTimeMillis = now;
-            if (!innerCall) {
-                val.getWrites().increment();
-            }
-        }
-        return now;
+    public long getTime() {
+        return clock.currentTimeMillis();
     }
 
     /**
-     * Current timestamp in milliseconds.
-     *
-     * @return
+     * @return the clock in use
+     * @since 1.8.6
      */
-    public long getTime() {
-        return this.currentTime(false);
+    public Clock getClock() {
+        return clock;
     }
 
     public static TimeUtil instance() {
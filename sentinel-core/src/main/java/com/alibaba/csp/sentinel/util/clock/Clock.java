@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.function.Tuple2;
+
+/**
+ * <p>The source of millisecond-level time used by {@link TimeUtil}.</p>
+ * <p>
+ * Built-in clocks can be selected via the {@code csp.sentinel.time.clock} config item:
+ * {@code ticker} (default, see {@link TickerClock}), {@code coarse} (see {@link CoarseClock}),
+ * {@code system} (see {@link SystemClock}) and {@code monotonic} (see {@link MonotonicClock}).
+ * Custom clocks can be registered via SPI with an alias name.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public interface Clock {
+
+    /**
+     * Current timestamp in milliseconds.
+     *
+     * @return current timestamp in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * Recent reads (of the clock) and writes (actual fetches of OS time) per second.
+     *
+     * @param now current timestamp in milliseconds
+     * @return reads per second ({@code r1}) and writes per second ({@code r2})
+     */
+    Tuple2<Long, Long> currentQps(long now);
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.alibaba.csp.sentinel.util.function.Tuple2;
+
+/**
+ * Read and write counters of a {@link Clock}. The rates are sampled on query (at most once per sample interval),
+ * so no time window is maintained on the read path.
+ *
+ * @since 1.8.6
+ */
+public final class ClockStatistic {
+
+    public static final long DEFAULT_SAMPLE_INTERVAL = 1000;
+
+    private final long sampleIntervalMs;
+
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    private long lastSampleTime;
+    private long lastReads;
+    private long lastWrites;
+    private volatile Tuple2<Long, Long> qps = Tuple2.of(0L, 0L);
+
+    public ClockStatistic() {
+        this(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    public ClockStatistic(long sampleIntervalMs) {
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.lastSampleTime = System.currentTimeMillis();
+    }
+
+    public void recordRead() {
+        reads.increment();
+    }
+
+    public void recordWrite() {
+        writes.increment();
+    }
+
+    public long getReads() {
+        return reads.sum();
+    }
+
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    /**
+     * Get the rates of reads and writes between the latest two samples, sampling again if the sample interval
+     * has passed since the latest sample.
+     *
+     * @param now current timestamp in milliseconds
+     * @return reads per second ({@code r1}) and writes per second ({@code r2})
+     */
+    public Tuple2<Long, Long> currentQps(long now) {
+        if (now - lastSampleTime < sampleIntervalMs) {
+            return qps;
+        }
+        synchronized (this) {
+            long interval = now - lastSampleTime;
+            if (interval >= sampleIntervalMs) {
+                long r = reads.sum();
+                long w = writes.sum();
+                qps = Tuple2.of((r - lastReads) * 1000 / interval, (w - lastWrites) * 1000 / interval);
+                lastReads = r;
+                lastWrites = w;
+                lastSampleTime = now;
+            }
+            return qps;
+        }
+    }
+}
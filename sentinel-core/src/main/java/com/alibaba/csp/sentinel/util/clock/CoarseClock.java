@@ -0,0 +1,37 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import com.alibaba.csp.sentinel.spi.Spi;
+
+/**
+ * A {@link TickerClock} that always ticks every 10 milliseconds, so the time always has a 10 ms resolution regardless
+ * of the load, and reads return the cached time once the tick thread has started. Unlike the adaptive ticker, the tick
+ * thread is started on creation and never stops, costing about 100 wakeups per second, which is far fewer than the 1 ms
+ * ticker of a busy service. It suits services that can tolerate coarse time (e.g. services on containers with
+ * fractional CPU quota).
+ *
+ * @since 1.8.6
+ */
+@Spi("coarse")
+public class CoarseClock extends TickerClock {
+
+    public static final long TICK_INTERVAL_MS = 10;
+
+    public CoarseClock() {
+        super(TICK_INTERVAL_MS, false);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.csp.sentinel.spi.Spi;
+import com.alibaba.csp.sentinel.util.function.Tuple2;
+
+/**
+ * A clock derived from {@link System#nanoTime()}, which is anchored to the wall time when the clock
+ * is created. The time never goes backwards even if the wall time of OS is adjusted (e.g. by NTP),
+ * but may slowly drift away from the wall time.
+ *
+ * @since 1.8.6
+ */
+@Spi("monotonic")
+public class MonotonicClock implements Clock {
+
+    private final long baseMillis;
+    private final long baseNanos;
+
+    private final ClockStatistic statistic = new ClockStatistic();
+
+    public MonotonicClock() {
+        this.baseMillis = System.currentTimeMillis();
+        this.baseNanos = System.nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        statistic.recordRead();
+        return baseMillis + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - baseNanos);
+    }
+
+    @Override
+    public Tuple2<Long, Long> currentQps(long now) {
+        Tuple2<Long, Long> qps = statistic.currentQps(now);
+        return Tuple2.of(qps.r1, qps.r1);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import com.alibaba.csp.sentinel.spi.Spi;
+import com.alibaba.csp.sentinel.util.function.Tuple2;
+
+/**
+ * A clock that simply delegates to {@link System#currentTimeMillis()}, so every read is a write.
+ * It's suitable for platforms where reading the OS time is cheap (e.g. vDSO on Linux).
+ *
+ * @since 1.8.6
+ */
+@Spi("system")
+public class SystemClock implements Clock {
+
+    private final ClockStatistic statistic = new ClockStatistic();
+
+    @Override
+    public long currentTimeMillis() {
+        statistic.recordRead();
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public Tuple2<Long, Long> currentQps(long now) {
+        Tuple2<Long, Long> qps = statistic.currentQps(now);
+        return Tuple2.of(qps.r1, qps.r1);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.spi.Spi;
+import com.alibaba.csp.sentinel.util.TimeUtil.STATE;
+import com.alibaba.csp.sentinel.util.function.Tuple2;
+
+/**
+ * <p>The adaptive ticking clock (the default clock of {@link com.alibaba.csp.sentinel.util.TimeUtil}).</p>
+ * <p>
+ * In idle conditions it just acts as {@link System#currentTimeMillis()}. In busy conditions
+ * (significantly more than 1_000 reads per second) a daemon thread refreshes the time every tick
+ * (1 ms by default, see {@code csp.sentinel.time.tick.interval}) and reads return the cached time.
+ * The state is checked by the readers (and by the tick thread) every few seconds, and the tick thread
+ * only lives while the clock is busy, so no thread is kept waking up in idle conditions.
+ * </p>
+ * <p>
+ * A non-adaptive clock (see {@link CoarseClock}) skips the state checks and keeps ticking from its creation.
+ * </p>
+ * For detail design and proposals please goto
+ * <a href="https://github.com/alibaba/Sentinel/issues/1702#issuecomment-692151160">https://github.com/alibaba/Sentinel/issues/1702</a>
+ *
+ * @since 1.8.6
+ */
+@Spi(value = "ticker", isDefault = true)
+public class TickerClock implements Clock {
+
+    private static final long CHECK_INTERVAL = 3000;
+    private static final long HITS_LOWER_BOUNDARY = 800;
+    private static final long HITS_UPPER_BOUNDARY = 1200;
+
+    private static final AtomicLongFieldUpdater<TickerClock> LAST_CHECK_UPDATER
+        = AtomicLongFieldUpdater.newUpdater(TickerClock.class, "lastCheck");
+
+    private final long tickIntervalMs;
+    private final long checkIntervalMs;
+    /**
+     * Whether the clock switches between idle and busy by the read rate, otherwise it always ticks.
+     */
+    private final boolean adaptive;
+    private final ClockStatistic statistic;
+
+    private volatile long currentTimeMillis;
+    private volatile STATE state = STATE.IDLE;
+    private volatile long lastCheck;
+
+    /**
+     * The tick thread, which is only alive in PREPARE and RUNNING state. Guarded by this.
+     */
+    private Thread tickThread;
+
+    public TickerClock() {
+        this(SentinelConfig.timeTickIntervalMs());
+    }
+
+    public TickerClock(long tickIntervalMs) {
+        this(tickIntervalMs, CHECK_INTERVAL);
+    }
+
+    /**
+     * @param tickIntervalMs interval of ticking in milliseconds
+     * @param adaptive       whether to tick only when busy, otherwise the clock ticks from its creation
+     */
+    protected TickerClock(long tickIntervalMs, boolean adaptive) {
+        this(tickIntervalMs, CHECK_INTERVAL, adaptive);
+    }
+
+    TickerClock(long tickIntervalMs, long checkIntervalMs) {
+        this(tickIntervalMs, checkIntervalMs, true);
+    }
+
+    TickerClock(long tickIntervalMs, long checkIntervalMs, boolean adaptive) {
+        this.tickIntervalMs = tickIntervalMs;
+        this.checkIntervalMs = checkIntervalMs;
+        this.adaptive = adaptive;
+        this.statistic = new ClockStatistic(Math.min(ClockStatistic.DEFAULT_SAMPLE_INTERVAL, checkIntervalMs));
+        this.currentTimeMillis = System.currentTimeMillis();
+        this.lastCheck = this.currentTimeMillis;
+        if (!adaptive) {
+            synchronized (this) {
+                state = STATE.PREPARE;
+                startTicking();
+            }
+        }
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        statistic.recordRead();
+        long now;
+        if (state == STATE.RUNNING) {
+            now = currentTimeMillis;
+        } else {
+            now = System.currentTimeMillis();
+            statistic.recordWrite();
+        }
+        if (now - lastCheck >= checkIntervalMs) {
+            check(now);
+        }
+        return now;
+    }
+
+    /**
+     * Check and operate the state if necessary. Only one caller will do the check in every period.
+     */
+    private void check(long now) {
+        if (!adaptive) {
+            return;
+        }
+        long last = lastCheck;
+        if (now - last < checkIntervalMs || !LAST_CHECK_UPDATER.compareAndSet(this, last, now)) {
+            return;
+        }
+        Tuple2<Long, Long> qps = statistic.currentQps(now);
+        synchronized (this) {
+            if (state == STATE.IDLE && qps.r1 > HITS_UPPER_BOUNDARY) {
+                RecordLog.info("TimeUtil switches to PREPARE for better performance, reads={}/s, writes={}/s",
+                    qps.r1, qps.r2);
+                state = STATE.PREPARE;
+                startTicking();
+            } else if (state == STATE.RUNNING && qps.r1 < HITS_LOWER_BOUNDARY) {
+                RecordLog.info("TimeUtil switches to IDLE due to not enough load, reads={}/s, writes={}/s",
+                    qps.r1, qps.r2);
+                state = STATE.IDLE;
+            }
+        }
+    }
+
+    private void startTicking() {
+        if (tickThread != null) {
+            // The previous tick thread has not exited yet, so it will keep ticking.
+            return;
+        }
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        });
+        thread.setDaemon(true);
+        thread.setName("sentinel-time-tick-thread");
+        tickThread = thread;
+        thread.start();
+    }
+
+    private void tick() {
+        while (true) {
+            if (state != STATE.RUNNING) {
+                synchronized (this) {
+                    if (state == STATE.IDLE) {
+                        tickThread = null;
+                        return;
+                    }
+                    if (state == STATE.PREPARE) {
+                        RecordLog.debug("TimeUtil switches to RUNNING");
+                        currentTimeMillis = System.currentTimeMillis();
+                        state = STATE.RUNNING;
+                    }
+                }
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            currentTimeMillis = now;
+            statistic.recordWrite();
+            // Readers may have gone, so the tick thread should check the state as well.
+            check(now);
+            try {
+                TimeUnit.MILLISECONDS.sleep(tickIntervalMs);
+            } catch (Throwable e) {
+            }
+        }
+    }
+
+    @Override
+    public Tuple2<Long, Long> currentQps(long now) {
+        return statistic.currentQps(now);
+    }
+
+    /**
+     * Current running state
+     *
+     * @return current running state
+     */
+    public STATE getState() {
+        return state;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public long getTickIntervalMs() {
+        return tickIntervalMs;
+    }
+
+    /**
+     * Whether the tick thread is alive. Package-private for test.
+     */
+    synchronized boolean isTicking() {
+        return tickThread != null;
+    }
+}
@@ -94,6 +94,43 @@ public class AsyncEntryTest {
         assertSame(asyncContext, entry.getAsyncContext());
     }
 
+    @Test
+    public void testAsyncEntryWithDetachedContext() throws Exception {
+        Context detached = ContextUtil.newDetachedContext("testDetachedContext", "origin");
+        assertTrue(detached.isAsync());
+        assertNull(ContextUtil.getContext());
+
+        AsyncEntry entry = SphU.asyncEntry(detached, "testAsyncEntryWithDetachedContext", 0, EntryType.OUT, 1,
+            new Object[0]);
+        // The detached context is used as the async context directly, and never bound to current thread.
+        assertSame(detached, entry.getAsyncContext());
+        assertSame(entry, detached.getCurEntry());
+        assertEquals("origin", detached.getOrigin());
+        assertNull(ContextUtil.getContext());
+
+        entry.exit();
+        assertNull(detached.getCurEntry());
+        assertNull(ContextUtil.getContext());
+    }
+
+    @Test
+    public void testAsyncEntryWithParentAsyncContext() throws Exception {
+        AsyncEntry parent = SphU.asyncEntry(null, "testParentAsyncEntry", 0, EntryType.OUT, 1, new Object[0]);
+        Context parentContext = parent.getAsyncContext();
+        assertEquals(Constants.CONTEXT_DEFAULT_NAME, parentContext.getName());
+
+        AsyncEntry child = SphU.asyncEntry(parentContext, "testChildAsyncEntry", 0, EntryType.OUT, 1,
+            new Object[0]);
+        // The context of parent is shared, so a new async context should be created for the child.
+        assertNotSame(parentContext, child.getAsyncContext());
+        assertSame(parent, parentContext.getCurEntry());
+        assertSame(parent, child.parent);
+
+        child.exit();
+        parent.exit();
+        assertNull(ContextUtil.getContext());
+    }
+
     @After
     public void tearDown() {
         ContextTestUtil.cleanUpContext();
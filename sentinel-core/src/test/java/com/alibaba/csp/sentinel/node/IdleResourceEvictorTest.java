@@ -0,0 +1,166 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.CtSph;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link IdleResourceEvictor}.
+ */
+public class IdleResourceEvictorTest {
+
+    private static final String CONTEXT_NAME = "idle-resource-evictor-test-context";
+
+    @Test
+    public void testEvictIdleResource() throws Exception {
+        String resourceName = "testEvictIdleResource";
+        ResourceWrapper resource = new StringResourceWrapper(resourceName, EntryType.OUT);
+        invoke(resourceName);
+
+        ProcessorSlotChain chain = CtSph.getChainRegistry().get(resource);
+        assertNotNull(chain);
+        ClusterNode clusterNode = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotNull(clusterNode);
+        assertEquals(1, clusterNode.totalPass());
+        assertNotNull(findDefaultNode(resource));
+
+        // Not idle yet.
+        long timeout = 10 * 1000;
+        IdleResourceEvictor.evictIdleResources(chain.getLastAccessTime() + timeout - 1, timeout);
+        assertSame(chain, CtSph.getChainRegistry().get(resource));
+
+        long evictedBefore = IdleResourceEvictor.getEvictedCount();
+        assertTrue(IdleResourceEvictor.evictIdleResources(chain.getLastAccessTime() + timeout, timeout) > 0);
+        assertNull(CtSph.getChainRegistry().get(resource));
+        assertTrue(chain.isEvicted());
+        assertNull(ClusterBuilderSlot.getClusterNode(resourceName));
+        assertNull(findDefaultNode(resource));
+        assertTrue(IdleResourceEvictor.getEvictedCount() > evictedBefore);
+
+        // The resource is recreated on next access, with fresh statistics.
+        invoke(resourceName);
+        assertNotSame(chain, CtSph.getChainRegistry().get(resource));
+        ClusterNode newClusterNode = ClusterBuilderSlot.getClusterNode(resourceName);
+        assertNotSame(clusterNode, newClusterNode);
+        assertEquals(1, newClusterNode.totalPass());
+        assertNotNull(findDefaultNode(resource));
+    }
+
+    @Test
+    public void testResourceInUseNotEvicted() throws Exception {
+        String resourceName = "testResourceInUseNotEvicted";
+        ResourceWrapper resource = new StringResourceWrapper(resourceName, EntryType.OUT);
+        ContextUtil.enter(CONTEXT_NAME);
+        Entry entry = SphU.entry(resourceName);
+        try {
+            ProcessorSlotChain chain = CtSph.getChainRegistry().get(resource);
+            IdleResourceEvictor.evictIdleResources(chain.getLastAccessTime() + 1000, 1000);
+            assertSame(chain, CtSph.getChainRegistry().get(resource));
+            assertNotNull(ClusterBuilderSlot.getClusterNode(resourceName));
+        } finally {
+            entry.exit();
+            ContextUtil.exit();
+        }
+    }
+
+    @Test
+    public void testNestedResourceRelinkedAfterParentEvicted() throws Exception {
+        String outerName = "testNestedResourceRelinkedOuter";
+        String innerName = "testNestedResourceRelinkedInner";
+        ResourceWrapper outer = new StringResourceWrapper(outerName, EntryType.OUT);
+        ResourceWrapper inner = new StringResourceWrapper(innerName, EntryType.OUT);
+        invokeNested(outerName, innerName);
+        DefaultNode innerNode = findChild(findDefaultNode(outer), inner);
+        assertNotNull(innerNode);
+
+        ProcessorSlotChain outerChain = CtSph.getChainRegistry().get(outer);
+        ProcessorSlotChain innerChain = CtSph.getChainRegistry().get(inner);
+        long timeout = 10 * 1000;
+        long now = outerChain.getLastAccessTime() + timeout;
+        // Only the outer resource is idle.
+        innerChain.recordAccess(now);
+        IdleResourceEvictor.evictIdleResources(now, timeout);
+        assertTrue(outerChain.isEvicted());
+        assertFalse(innerChain.isEvicted());
+        assertNull(findDefaultNode(outer));
+        assertSame(innerChain, CtSph.getChainRegistry().get(inner));
+
+        // The inner resource is linked to the new node of the outer resource.
+        invokeNested(outerName, innerName);
+        DefaultNode newInnerNode = findChild(findDefaultNode(outer), inner);
+        assertNotNull(newInnerNode);
+        assertNotSame(innerNode, newInnerNode);
+        assertEquals(1, newInnerNode.totalPass());
+    }
+
+    private void invokeNested(String outerName, String innerName) throws Exception {
+        ContextUtil.enter(CONTEXT_NAME);
+        try {
+            Entry entry = SphU.entry(outerName);
+            SphU.entry(innerName).exit();
+            entry.exit();
+        } finally {
+            ContextUtil.exit();
+        }
+    }
+
+    private DefaultNode findChild(DefaultNode parent, ResourceWrapper resource) {
+        if (parent == null) {
+            return null;
+        }
+        for (Node node : parent.getChildList()) {
+            if (((DefaultNode)node).getId().equals(resource)) {
+                return (DefaultNode)node;
+            }
+        }
+        return null;
+    }
+
+    private void invoke(String resourceName) throws Exception {
+        ContextUtil.enter(CONTEXT_NAME);
+        try {
+            SphU.entry(resourceName).exit();
+        } finally {
+            ContextUtil.exit();
+        }
+    }
+
+    private DefaultNode findDefaultNode(ResourceWrapper resource) {
+        for (Node entranceNode : Constants.ROOT.getChildList()) {
+            if (((DefaultNode)entranceNode).getId().getName().equals(CONTEXT_NAME)) {
+                for (Node node : ((DefaultNode)entranceNode).getChildList()) {
+                    if (((DefaultNode)node).getId().equals(resource)) {
+                        return (DefaultNode)node;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
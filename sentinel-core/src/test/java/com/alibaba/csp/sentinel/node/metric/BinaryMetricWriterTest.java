@@ -0,0 +1,198 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link BinaryMetricWriter} and {@link BinaryMetricSearcher}.
+ */
+public class BinaryMetricWriterTest {
+
+    private static final String BASE_FILE_NAME = "test-metrics.bin";
+    private static final long BASE_TIME = 1600000000000L;
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("sentinel-binary-metric").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private static MetricNode node(String resource, long pass) {
+        MetricNode node = new MetricNode();
+        node.setResource(resource);
+        node.setClassification(1);
+        node.setPassQps(pass);
+        node.setBlockQps(pass + 1);
+        node.setSuccessQps(pass + 2);
+        node.setExceptionQps(pass + 3);
+        node.setRt(pass + 4);
+        node.setOccupiedPassQps(pass + 5);
+        node.setConcurrency((int)pass + 6);
+        return node;
+    }
+
+    private static List<MetricNode> nodes(String... resources) {
+        List<MetricNode> list = new ArrayList<>();
+        for (int i = 0; i < resources.length; i++) {
+            list.add(node(resources[i], i * 10));
+        }
+        return list;
+    }
+
+    private BinaryMetricWriter newWriter(long singleFileSize, int totalFileCount) {
+        BinaryMetricWriter writer = new BinaryMetricWriter(dir.getAbsolutePath(), singleFileSize, totalFileCount);
+        writer.setBaseFileName(BASE_FILE_NAME);
+        return writer;
+    }
+
+    @Test
+    public void testWriteAndFind() throws Exception {
+        BinaryMetricWriter writer = newWriter(1024 * 1024, 6);
+        for (int i = 0; i < 10; i++) {
+            writer.write(BASE_TIME + i * 1000, nodes("a", "b", "中文"));
+        }
+        writer.close();
+
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(dir.getAbsolutePath(), BASE_FILE_NAME);
+        List<MetricNode> list = searcher.find(BASE_TIME + 2000, 4);
+        // Metrics of one second are not split.
+        assertEquals(6, list.size());
+        assertEquals(BASE_TIME + 2000, list.get(0).getTimestamp());
+        assertEquals(BASE_TIME + 3000, list.get(5).getTimestamp());
+
+        MetricNode expected = node("中文", 20);
+        expected.setTimestamp(BASE_TIME + 3000);
+        assertEquals(expected.toFatString(), list.get(5).toFatString());
+
+        assertNull(searcher.find(BASE_TIME + 10000, 4));
+    }
+
+    @Test
+    public void testFindByTimeAndResource() throws Exception {
+        BinaryMetricWriter writer = newWriter(1024 * 1024, 6);
+        for (int i = 0; i < 10; i++) {
+            writer.write(BASE_TIME + i * 1000, i % 2 == 0 ? nodes("a", "b") : nodes("b", "c"));
+        }
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(dir.getAbsolutePath(), BASE_FILE_NAME);
+
+        assertEquals(12, searcher.findByTimeAndResource(BASE_TIME + 1000, BASE_TIME + 6999, null).size());
+        List<MetricNode> list = searcher.findByTimeAndResource(BASE_TIME + 1000, BASE_TIME + 6999, "c");
+        assertEquals(3, list.size());
+        for (MetricNode node : list) {
+            assertEquals("c", node.getResource());
+        }
+        assertTrue(searcher.findByTimeAndResource(BASE_TIME, BASE_TIME + 9000, "d").isEmpty());
+
+        // New blocks appended to a searched file are visible to the searcher.
+        writer.write(BASE_TIME + 10000, nodes("d"));
+        assertEquals(1, searcher.findByTimeAndResource(BASE_TIME, BASE_TIME + 10000, "d").size());
+        writer.close();
+    }
+
+    @Test
+    public void testRotateBySizeAndCount() throws Exception {
+        // Each block (with or without dictionary entries) fills a file.
+        BinaryMetricWriter writer = newWriter(BinaryMetricWriter.HEADER_SIZE + BinaryMetricWriter.ROW_SIZE * 2, 3);
+        for (int i = 0; i < 10; i++) {
+            writer.write(BASE_TIME + i * 1000, nodes("a", "b"));
+        }
+        writer.close();
+
+        List<String> files = MetricWriter.listMetricFiles(dir.getAbsolutePath(), BASE_FILE_NAME);
+        assertEquals(3, files.size());
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(dir.getAbsolutePath(), BASE_FILE_NAME);
+        // Dictionary is written again in each file.
+        List<MetricNode> list = searcher.findByTimeAndResource(BASE_TIME, BASE_TIME + 9000, "b");
+        assertEquals(3, list.size());
+        assertEquals(BASE_TIME + 7000, list.get(0).getTimestamp());
+    }
+
+    @Test
+    public void testFindSinceCursor() throws Exception {
+        BinaryMetricWriter writer = newWriter(1024 * 1024, 6);
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(dir.getAbsolutePath(), BASE_FILE_NAME);
+        assertNull(searcher.findSince(null, -1, 100, null).getNextCursor());
+
+        for (int i = 0; i < 5; i++) {
+            writer.write(BASE_TIME + i * 1000, nodes("a", "b"));
+        }
+        MetricCursorResult result = searcher.findSince(null, BASE_TIME + 1000, 3, null);
+        // Blocks are not split.
+        assertEquals(4, result.getNodes().size());
+        assertEquals(BASE_TIME + 1000, result.getNodes().get(0).getTimestamp());
+
+        result = searcher.findSince(result.getNextCursor(), -1, 100, Collections.singleton("a"));
+        assertEquals(2, result.getNodes().size());
+        assertEquals("a", result.getNodes().get(1).getResource());
+        assertEquals(BASE_TIME + 4000, result.getNodes().get(1).getTimestamp());
+
+        MetricCursor cursor = result.getNextCursor();
+        assertTrue(searcher.findSince(cursor, -1, 100, null).getNodes().isEmpty());
+        writer.write(BASE_TIME + 5000, nodes("c"));
+        result = searcher.findSince(cursor, -1, 100, null);
+        assertEquals(1, result.getNodes().size());
+        assertEquals("c", result.getNodes().get(0).getResource());
+        writer.close();
+    }
+
+    @Test
+    public void testFindSinceAcrossRotatedFiles() throws Exception {
+        BinaryMetricWriter writer = newWriter(BinaryMetricWriter.HEADER_SIZE + BinaryMetricWriter.ROW_SIZE * 2, 3);
+        writer.write(BASE_TIME, nodes("a", "b"));
+        BinaryMetricSearcher searcher = new BinaryMetricSearcher(dir.getAbsolutePath(), BASE_FILE_NAME);
+        MetricCursor cursor = searcher.findSince(null, -1, 100, null).getNextCursor();
+        for (int i = 1; i < 10; i++) {
+            writer.write(BASE_TIME + i * 1000, nodes("a", "b"));
+        }
+        writer.close();
+
+        // The file of the cursor has been removed, so metrics are read from the oldest file left.
+        MetricCursorResult result = searcher.findSince(cursor, -1, 100, null);
+        assertEquals(6, result.getNodes().size());
+        assertEquals(BASE_TIME + 7000, result.getNodes().get(0).getTimestamp());
+        assertEquals(BASE_TIME + 9000, result.getNodes().get(5).getTimestamp());
+    }
+
+    @Test
+    public void testFormMetricFileName() {
+        assertEquals("app-name-metrics.bin", BinaryMetricWriter.formMetricFileName("app.name", 1).replace(
+            ".pid1", ""));
+        assertTrue(MetricWriter.fileNameMatches("app-metrics.bin.2020-01-01.3", "app-metrics.bin"));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.node.StatisticNode;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link MetricBatch} and {@link StatisticNode#fetchMetrics(MetricBatch)}.
+ */
+public class MetricBatchTest extends AbstractTimeBasedTest {
+
+    @Test
+    public void testGroupBySecondAndReuse() {
+        MetricBatch batch = new MetricBatch();
+        batch.setResource("a", 1);
+        MetricNode first = batch.acquire(2000);
+        first.setPassQps(10);
+        batch.acquire(1000);
+        batch.setResource("b", 2);
+        batch.acquire(2000);
+        batch.acquire(3000);
+
+        assertEquals(3, batch.size());
+        assertEquals(1000, batch.timestampAt(0));
+        assertEquals(2000, batch.timestampAt(1));
+        assertEquals(3000, batch.timestampAt(2));
+        assertEquals(2, batch.metricsAt(1).size());
+        assertEquals("a", batch.metricsAt(1).get(0).getResource());
+        assertEquals("b", batch.metricsAt(1).get(1).getResource());
+        assertEquals(2, batch.metricsAt(1).get(1).getClassification());
+
+        batch.clear();
+        assertEquals(0, batch.size());
+        batch.setResource("c", 0);
+        MetricNode reused = batch.acquire(5000);
+        // Nodes are reused and cleaned.
+        assertSame(first, reused);
+        assertEquals(0, reused.getPassQps());
+        assertEquals("c", reused.getResource());
+        assertEquals(1, batch.size());
+        assertEquals(1, batch.metricsAt(0).size());
+    }
+
+    @Test
+    public void testFetchMetricsSameAsMetrics() {
+        setCurrentMillis(1000 * 1000);
+        StatisticNode expectedNode = new StatisticNode();
+        StatisticNode node = new StatisticNode();
+        for (int i = 0; i < 3; i++) {
+            for (StatisticNode n : new StatisticNode[] {expectedNode, node}) {
+                n.addPassRequest(i + 1);
+                n.increaseBlockQps(i);
+                n.addRtAndSuccess(20, i + 1);
+            }
+            sleep(1000);
+        }
+        sleep(500);
+
+        Map<Long, MetricNode> expected = expectedNode.metrics();
+        MetricBatch batch = new MetricBatch();
+        batch.setResource("res", 0);
+        node.fetchMetrics(batch);
+        assertEquals(3, expected.size());
+        assertEquals(expected.size(), batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            MetricNode expectedMetric = expected.get(batch.timestampAt(i));
+            expectedMetric.setResource("res");
+            assertEquals(1, batch.metricsAt(i).size());
+            assertEquals(expectedMetric.toFatString(), batch.metricsAt(i).get(0).toFatString());
+        }
+
+        // Metrics are fetched only once.
+        batch.clear();
+        node.fetchMetrics(batch);
+        assertEquals(0, batch.size());
+        sleep(1000);
+        node.addPassRequest(1);
+        sleep(1000);
+        node.fetchMetrics(batch);
+        assertEquals(1, batch.size());
+        assertEquals(1, batch.metricsAt(0).get(0).getPassQps());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.node.metric;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for cursor-based queries of {@link MetricSearcher}.
+ */
+public class MetricSearcherTest {
+
+    private static final String BASE_FILE_NAME = "test-metrics.log";
+    private static final String FIRST_FILE = BASE_FILE_NAME + ".2020-09-13";
+    private static final String SECOND_FILE = BASE_FILE_NAME + ".2020-09-13.1";
+    private static final long BASE_TIME = 1600000000000L;
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("sentinel-metric").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    /**
+     * Append metrics of seconds [from, to) with resources "a" and "b" to the file, with index.
+     */
+    private void append(String fileName, int from, int to) throws Exception {
+        File file = new File(dir, fileName);
+        try (FileOutputStream out = new FileOutputStream(file, true);
+             DataOutputStream indexOut = new DataOutputStream(
+                 new FileOutputStream(new File(dir, fileName + MetricWriter.METRIC_FILE_INDEX_SUFFIX), true))) {
+            for (int i = from; i < to; i++) {
+                long time = BASE_TIME + i * 1000;
+                indexOut.writeLong(time / 1000);
+                indexOut.writeLong(out.getChannel().position());
+                for (String resource : new String[] {"a", "b"}) {
+                    MetricNode node = new MetricNode();
+                    node.setTimestamp(time);
+                    node.setResource(resource);
+                    node.setPassQps(i);
+                    out.write(node.toFatString().getBytes("UTF-8"));
+                }
+            }
+        }
+    }
+
+    private MetricSearcher newSearcher() {
+        return new MetricSearcher(dir.getAbsolutePath(), BASE_FILE_NAME);
+    }
+
+    @Test
+    public void testParseCursor() {
+        MetricCursor cursor = MetricCursor.parse("app-metrics.log.2020-09-13.1@1024");
+        assertNotNull(cursor);
+        assertEquals("app-metrics.log.2020-09-13.1", cursor.getFileName());
+        assertEquals(1024, cursor.getOffset());
+        assertEquals("app-metrics.log.2020-09-13.1@1024", cursor.toString());
+
+        assertNull(MetricCursor.parse(null));
+        assertNull(MetricCursor.parse("app-metrics.log"));
+        assertNull(MetricCursor.parse("@1"));
+        assertNull(MetricCursor.parse("app@"));
+        assertNull(MetricCursor.parse("app@-1"));
+        assertNull(MetricCursor.parse("app@x"));
+    }
+
+    @Test
+    public void testFindSinceCursor() throws Exception {
+        MetricSearcher searcher = newSearcher();
+        MetricCursorResult result = searcher.findSince(null, -1, 100, null);
+        assertTrue(result.getNodes().isEmpty());
+        assertNull(result.getNextCursor());
+
+        append(FIRST_FILE, 0, 5);
+        result = searcher.findSince(null, BASE_TIME + 2000, 3, null);
+        // Metrics of one second are not split.
+        assertEquals(4, result.getNodes().size());
+        assertEquals(BASE_TIME + 2000, result.getNodes().get(0).getTimestamp());
+        assertEquals(BASE_TIME + 3000, result.getNodes().get(3).getTimestamp());
+
+        MetricCursor cursor = result.getNextCursor();
+        assertEquals(FIRST_FILE, cursor.getFileName());
+        result = searcher.findSince(cursor, -1, 100, null);
+        assertEquals(2, result.getNodes().size());
+        assertEquals(BASE_TIME + 4000, result.getNodes().get(0).getTimestamp());
+
+        // Nothing new.
+        cursor = result.getNextCursor();
+        result = searcher.findSince(cursor, -1, 100, null);
+        assertTrue(result.getNodes().isEmpty());
+        assertEquals(cursor.toString(), result.getNextCursor().toString());
+
+        // Continue with the new file after rotation, and filter by resources.
+        append(SECOND_FILE, 5, 8);
+        result = searcher.findSince(cursor, -1, 100, Collections.singleton("b"));
+        assertEquals(3, result.getNodes().size());
+        for (MetricNode node : result.getNodes()) {
+            assertEquals("b", node.getResource());
+        }
+        assertEquals(BASE_TIME + 5000, result.getNodes().get(0).getTimestamp());
+        assertEquals(SECOND_FILE, result.getNextCursor().getFileName());
+        assertEquals(new File(dir, SECOND_FILE).length(), result.getNextCursor().getOffset());
+    }
+
+    @Test
+    public void testFindSinceRemovedFileOrLatest() throws Exception {
+        append(FIRST_FILE, 0, 2);
+        append(SECOND_FILE, 2, 4);
+        MetricSearcher searcher = newSearcher();
+
+        // Only new metrics are read without cursor and begin time.
+        MetricCursorResult result = searcher.findSince(null, -1, 100, null);
+        assertTrue(result.getNodes().isEmpty());
+        assertEquals(new File(dir, SECOND_FILE).length(), result.getNextCursor().getOffset());
+
+        // The file of the cursor has been removed.
+        MetricCursor cursor = new MetricCursor(BASE_FILE_NAME + ".2020-09-12", 100);
+        result = searcher.findSince(cursor, -1, 100, null);
+        assertEquals(8, result.getNodes().size());
+        assertEquals(BASE_TIME, result.getNodes().get(0).getTimestamp());
+
+        assertTrue(new File(dir, FIRST_FILE).delete());
+        result = searcher.findSince(new MetricCursor(FIRST_FILE, 10), -1, 100, null);
+        assertEquals(4, result.getNodes().size());
+        assertEquals(BASE_TIME + 2000, result.getNodes().get(0).getTimestamp());
+    }
+}
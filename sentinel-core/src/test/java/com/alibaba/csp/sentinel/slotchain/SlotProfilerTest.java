@@ -0,0 +1,111 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slotchain;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.context.Context;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link SlotProfiler}.
+ */
+public class SlotProfilerTest {
+
+    @After
+    public void tearDown() {
+        SlotProfiler.setEnabled(false);
+        SlotProfiler.setSampleInterval(SentinelConfig.slotChainProfileSampleInterval());
+        SlotProfiler.reset();
+    }
+
+    @Test
+    public void testProfileEachSlot() throws Throwable {
+        ProcessorSlotChain chain = new DefaultProcessorSlotChain();
+        chain.addLast(new AllocatingSlot());
+        chain.addLast(new PassSlot());
+        ResourceWrapper resource = new StringResourceWrapper("testProfileEachSlot", EntryType.IN);
+
+        SlotProfiler.setSampleInterval(2);
+        SlotProfiler.setEnabled(true);
+        assertTrue(SlotProfiler.isEnabled());
+        for (int i = 0; i < 10; i++) {
+            chain.entry(null, resource, null, 1, false);
+            chain.exit(null, resource, 1);
+        }
+
+        SlotProfile allocating = SlotProfiler.getProfiles().get(AllocatingSlot.class.getName());
+        SlotProfile pass = SlotProfiler.getProfiles().get(PassSlot.class.getName());
+        assertNotNull(allocating);
+        assertNotNull(pass);
+        assertEquals(5, allocating.getEntryNanos().getCount());
+        assertEquals(5, allocating.getExitNanos().getCount());
+        assertEquals(5, pass.getEntryNanos().getCount());
+        assertEquals(5, pass.getExitNanos().getCount());
+        if (SlotProfiler.isAllocationSupported()) {
+            // The allocation of the following slot is not counted in the previous slot.
+            assertTrue(allocating.getEntryBytes().snapshot().getValueAtPercentile(50) >= 1024);
+            assertTrue(pass.getEntryBytes().snapshot().getValueAtPercentile(50) < 1024);
+        }
+
+        SlotProfiler.setEnabled(false);
+        chain.entry(null, resource, null, 1, false);
+        assertEquals(5, pass.getEntryNanos().getCount());
+
+        SlotProfiler.reset();
+        assertEquals(0, pass.getEntryNanos().getCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSampleInterval() {
+        SlotProfiler.setSampleInterval(0);
+    }
+
+    static byte[] sink;
+
+    private static class AllocatingSlot extends AbstractLinkedProcessorSlot<Object> {
+
+        @Override
+        public void entry(Context context, ResourceWrapper resourceWrapper, Object param, int count,
+                          boolean prioritized, Object... args) throws Throwable {
+            sink = new byte[4096];
+            fireEntry(context, resourceWrapper, param, count, prioritized, args);
+        }
+
+        @Override
+        public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+            fireExit(context, resourceWrapper, count, args);
+        }
+    }
+
+    private static class PassSlot extends AbstractLinkedProcessorSlot<Object> {
+
+        @Override
+        public void entry(Context context, ResourceWrapper resourceWrapper, Object param, int count,
+                          boolean prioritized, Object... args) throws Throwable {
+            fireEntry(context, resourceWrapper, param, count, prioritized, args);
+        }
+
+        @Override
+        public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+            fireExit(context, resourceWrapper, count, args);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block;
+
+import java.util.Collections;
+
+import com.alibaba.csp.sentinel.CtSph;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slotchain.ProcessorSlotChain;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRule;
+import com.alibaba.csp.sentinel.slots.block.authority.AuthorityRuleManager;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowException;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link ResourceRulePlan}.
+ */
+public class ResourceRulePlanTest {
+
+    @Before
+    public void setUp() {
+        clearRules();
+    }
+
+    @After
+    public void tearDown() {
+        clearRules();
+    }
+
+    private void clearRules() {
+        FlowRuleManager.loadRules(null);
+        DegradeRuleManager.loadRules(null);
+        AuthorityRuleManager.loadRules(null);
+    }
+
+    @Test
+    public void testPlanOfResourceWithoutRules() throws Exception {
+        String resource = "testPlanOfResourceWithoutRules";
+        Entry entry = SphU.entry(resource);
+        try {
+            ResourceRulePlan plan = entry.getRulePlan();
+            assertNotNull(plan);
+            assertNull(plan.getFlowRules());
+            assertNull(plan.getCircuitBreakers());
+            assertNull(plan.getAuthorityRules());
+            assertSame(plan, getChain(resource).getRulePlan());
+        } finally {
+            entry.exit();
+        }
+    }
+
+    @Test
+    public void testPlanRebuiltOnRuleUpdate() throws Exception {
+        String resource = "testPlanRebuiltOnRuleUpdate";
+        SphU.entry(resource).exit();
+        ProcessorSlotChain chain = getChain(resource);
+        ResourceRulePlan oldPlan = chain.getRulePlan();
+        assertNull(oldPlan.getFlowRules());
+
+        FlowRuleManager.loadRules(Collections.singletonList(new FlowRule(resource).setCount(0)));
+        // The plan is recompiled lazily.
+        assertSame(oldPlan, chain.getRulePlan());
+        ResourceRulePlan flowPlan = compile(chain, resource);
+        assertTrue(flowPlan.getGeneration() > oldPlan.getGeneration());
+        assertEquals(1, flowPlan.getFlowRules().size());
+        try {
+            SphU.entry(resource);
+            fail("should be blocked by the new flow rule");
+        } catch (FlowException ex) {
+            assertEquals(resource, ex.getRule().getResource());
+        }
+
+        DegradeRuleManager.loadRules(Collections.singletonList(new DegradeRule(resource)
+            .setCount(100).setTimeWindow(10)));
+        AuthorityRuleManager.loadRules(Collections.singletonList(new AuthorityRule()
+            .setResource(resource).setLimitApp("appA").as(AuthorityRule.class)));
+        ResourceRulePlan plan = compile(chain, resource);
+        assertEquals(1, plan.getFlowRules().size());
+        assertEquals(1, plan.getCircuitBreakers().size());
+        assertEquals(1, plan.getAuthorityRules().size());
+
+        clearRules();
+        plan = compile(chain, resource);
+        assertNull(plan.getFlowRules());
+        assertNull(plan.getCircuitBreakers());
+        assertNull(plan.getAuthorityRules());
+        SphU.entry(resource).exit();
+    }
+
+    private ResourceRulePlan compile(ProcessorSlotChain chain, String resource) {
+        ResourceRulePlan plan = ResourceRulePlan.getOrCompile(chain, new StringResourceWrapper(resource, EntryType.OUT));
+        assertSame(plan, chain.getRulePlan());
+        return plan;
+    }
+
+    private ProcessorSlotChain getChain(String resource) {
+        return CtSph.getChainRegistry().get(new StringResourceWrapper(resource, EntryType.OUT));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.controller;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LeakyBucket}.
+ */
+public class LeakyBucketTest {
+
+    @Test
+    public void testReserve() {
+        LeakyBucket bucket = new LeakyBucket(false);
+        assertEquals(0, bucket.reserve(100, 1000, 300));
+        assertEquals(100, bucket.reserve(100, 1000, 300));
+        assertEquals(200, bucket.reserve(100, 1000, 300));
+        assertEquals(300, bucket.reserve(100, 1000, 300));
+        // Rejected requests don't move the timeline.
+        assertEquals(-1, bucket.reserve(100, 1000, 300));
+        assertEquals(-1, bucket.reserve(100, 1000, 300));
+        assertEquals(300, bucket.reserve(100, 1100, 300));
+        // The bucket is drained.
+        assertEquals(0, bucket.reserve(100, 5000, 300));
+    }
+
+    @Test
+    public void testReserveSingleInBatch() {
+        LeakyBucket bucket = new LeakyBucket(true);
+        bucket.onContention();
+        assertTrue(bucket.isStriped());
+
+        // The first batch takes 8 slots from the global timeline.
+        for (int i = 0; i < LeakyBucket.BATCH_SIZE; i++) {
+            assertEquals(i * 100, bucket.reserveSingle(100, 1000, 1000));
+        }
+        // The second batch is limited by the max waiting time.
+        assertEquals(800, bucket.reserveSingle(100, 1000, 1000));
+        assertEquals(900, bucket.reserveSingle(100, 1000, 1000));
+        assertEquals(1000, bucket.reserveSingle(100, 1000, 1000));
+        assertEquals(-1, bucket.reserveSingle(100, 1000, 1000));
+        // Multi-permit reservations are queued after the batches.
+        assertEquals(-1, bucket.reserve(200, 1000, 1000));
+
+        // Expired slots are dropped.
+        assertEquals(0, bucket.reserveSingle(100, 5000, 1000));
+        assertEquals(100, bucket.reserveSingle(100, 5000, 1000));
+        assertEquals(0, bucket.reserveSingle(100, 9000, 1000));
+    }
+
+    @Test
+    public void testUniformRateUnderContention() throws Exception {
+        final LeakyBucket bucket = new LeakyBucket(true);
+        final long cost = 10;
+        final long maxWait = 10000;
+        final int threadCount = 16;
+        final Set<Long> waits = ConcurrentHashMap.newKeySet();
+        final AtomicInteger passed = new AtomicInteger();
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        barrier.await();
+                        for (int j = 0; j < 1000; j++) {
+                            long wait = bucket.reserveSingle(cost, 0, maxWait);
+                            if (wait >= 0) {
+                                passed.incrementAndGet();
+                                waits.add(wait);
+                            }
+                        }
+                    } catch (Throwable ex) {
+                        error.compareAndSet(null, ex);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }).start();
+        }
+        latch.await();
+        if (error.get() != null) {
+            throw new AssertionError("Worker thread failed", error.get());
+        }
+
+        // Each slot is handed out at most once, so the rate is never exceeded.
+        assertTrue(passed.get() <= maxWait / cost + 1);
+        assertEquals(passed.get(), waits.size());
+        for (long wait : waits) {
+            assertEquals(0, wait % cost);
+        }
+    }
+}
@@ -15,15 +15,25 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.controller;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
+import java.util.Collections;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
 import com.alibaba.csp.sentinel.util.TimeUtil;
 import com.alibaba.csp.sentinel.node.Node;
 
@@ -95,4 +105,58 @@ public class RateLimiterControllerTest {
             assertTrue(paceController.canPass(node, 0));
         }
     }
+
+    @Test
+    public void testTryReserveWithoutBlocking() {
+        RateLimiterController paceController = new RateLimiterController(500, 10d);
+        Node node = mock(Node.class);
+
+        long start = TimeUtil.currentTimeMillis();
+        assertEquals(0, paceController.tryReserve(node, 1, false));
+        long lastWait = 0;
+        int reserved = 1;
+        long wait;
+        while ((wait = paceController.tryReserve(node, 1, false)) >= 0) {
+            // Each reservation queues after the former one.
+            assertTrue(wait > lastWait);
+            lastWait = wait;
+            reserved++;
+        }
+        assertTrue(reserved >= 5 && reserved <= 7);
+        assertTrue(lastWait <= 500);
+        // Nothing should be blocked.
+        assertTrue(TimeUtil.currentTimeMillis() - start < 100);
+    }
+
+    @Test
+    public void testNonBlockingPacingForAsyncEntry() throws Exception {
+        String resource = "testNonBlockingPacingForAsyncEntry";
+        FlowRule rule = new FlowRule(resource).setCount(10)
+            .setControlBehavior(RuleConstant.CONTROL_BEHAVIOR_RATE_LIMITER)
+            .setMaxQueueingTimeMs(1000);
+        FlowRuleManager.loadRules(Collections.singletonList(rule));
+        SentinelConfig.setConfig(SentinelConfig.FLOW_PACING_NON_BLOCKING, "true");
+        try {
+            long start = TimeUtil.currentTimeMillis();
+            AsyncEntry first = SphU.asyncEntryWithNonBlockingPacing(null, resource, ResourceTypeConstants.COMMON,
+                EntryType.OUT, 1, new Object[0]);
+            AsyncEntry second = SphU.asyncEntryWithNonBlockingPacing(null, resource, ResourceTypeConstants.COMMON,
+                EntryType.OUT, 1, new Object[0]);
+            assertTrue(first.isNonBlockingPacing());
+            assertEquals(0, first.getPacingWaitMs());
+            assertTrue(second.getPacingWaitMs() > 0);
+            assertTrue(TimeUtil.currentTimeMillis() - start < 100);
+            second.exit();
+            first.exit();
+
+            // Callers that don't opt in are still paced by blocking.
+            AsyncEntry plain = SphU.asyncEntry(resource);
+            assertFalse(plain.isNonBlockingPacing());
+            assertEquals(0, plain.getPacingWaitMs());
+            plain.exit();
+        } finally {
+            SentinelConfig.removeConfig(SentinelConfig.FLOW_PACING_NON_BLOCKING);
+            FlowRuleManager.loadRules(null);
+        }
+    }
 }
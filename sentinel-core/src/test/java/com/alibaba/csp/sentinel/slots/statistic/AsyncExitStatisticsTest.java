@@ -0,0 +1,81 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic;
+
+import com.alibaba.csp.sentinel.node.StatisticNode;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link AsyncExitStatistics}.
+ */
+public class AsyncExitStatisticsTest {
+
+    @Test
+    public void testRecordAndDrain() {
+        StatisticNode node = new StatisticNode();
+        StatisticNode originNode = new StatisticNode();
+        long recorded = AsyncExitStatistics.getRecordedCount();
+
+        AsyncExitStatistics.record(node, originNode, false, 2, 10, false);
+        AsyncExitStatistics.record(node, null, false, 1, 20, true);
+        AsyncExitStatistics.drainAll();
+
+        assertEquals(3, node.totalSuccess());
+        assertEquals(1, node.totalException());
+        assertEquals(2, originNode.totalSuccess());
+        assertEquals(0, originNode.totalException());
+        assertEquals(recorded + 2, AsyncExitStatistics.getRecordedCount());
+        assertEquals(0, AsyncExitStatistics.getPendingCount());
+        assertTrue(AsyncExitStatistics.getMaxLagMs() >= AsyncExitStatistics.getLastLagMs());
+    }
+
+    @Test
+    public void testBufferOfTerminatedThreadRemoved() throws Exception {
+        final StatisticNode node = new StatisticNode();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                AsyncExitStatistics.record(node, null, false, 1, 5, false);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        AsyncExitStatistics.drainAll();
+        assertEquals(1, node.totalSuccess());
+        assertFalse(AsyncExitStatistics.hasBufferOf(thread));
+    }
+
+    @Test
+    public void testBufferCapacity() {
+        StatisticNode node = new StatisticNode();
+        ExitEventBuffer buffer = new ExitEventBuffer(Thread.currentThread(), 3);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(node, null, false, 1, 1, false, 0));
+        }
+        assertFalse(buffer.offer(node, null, false, 1, 1, false, 0));
+        assertEquals(4, buffer.size());
+
+        assertEquals(100, buffer.drain(100));
+        assertEquals(0, buffer.size());
+        assertEquals(-1, buffer.drain(200));
+        assertEquals(4, node.totalSuccess());
+        assertTrue(buffer.offer(node, null, false, 1, 1, false, 0));
+    }
+}
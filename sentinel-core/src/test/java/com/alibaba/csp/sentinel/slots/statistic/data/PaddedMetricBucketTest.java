@@ -0,0 +1,110 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.data;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.slots.statistic.MetricEvent;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link PaddedMetricBucket}.
+ */
+public class PaddedMetricBucketTest {
+
+    @Test
+    public void testAddAndGet() {
+        PaddedMetricBucket bucket = new PaddedMetricBucket();
+        assertEquals(SentinelConfig.statisticMaxRt(), bucket.minRt());
+
+        bucket.addPass(3);
+        bucket.addBlock(2);
+        bucket.addException(1);
+        bucket.addSuccess(4);
+        bucket.addOccupiedPass(5);
+        bucket.addRT(20);
+        bucket.addRT(10);
+
+        assertEquals(3, bucket.pass());
+        assertEquals(2, bucket.block());
+        assertEquals(1, bucket.exception());
+        assertEquals(4, bucket.success());
+        assertEquals(5, bucket.occupiedPass());
+        assertEquals(30, bucket.rt());
+        assertEquals(10, bucket.minRt());
+    }
+
+    @Test
+    public void testReset() {
+        PaddedMetricBucket bucket = new PaddedMetricBucket();
+        bucket.addPass(3);
+        bucket.addRT(10);
+        bucket.reset();
+        for (MetricEvent event : MetricEvent.values()) {
+            assertEquals(0, bucket.get(event));
+        }
+        assertEquals(SentinelConfig.statisticMaxRt(), bucket.minRt());
+
+        MetricBucket other = new MetricBucket();
+        other.addPass(7);
+        other.addBlock(1);
+        bucket.reset(other);
+        assertEquals(7, bucket.pass());
+        assertEquals(1, bucket.block());
+    }
+
+    @Test
+    public void testStripeCount() {
+        assertEquals(1, PaddedMetricBucket.stripeCount(1));
+        assertEquals(4, PaddedMetricBucket.stripeCount(3));
+        assertEquals(8, PaddedMetricBucket.stripeCount(8));
+        assertEquals(64, PaddedMetricBucket.stripeCount(1000));
+    }
+
+    @Test
+    public void testConcurrentAdd() throws Exception {
+        final PaddedMetricBucket bucket = new PaddedMetricBucket();
+        final int threadCount = 8;
+        final int times = 100000;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final long rt = i + 1;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < times; j++) {
+                        bucket.addPass(1);
+                        bucket.addRT(rt);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+
+        assertEquals((long)threadCount * times, bucket.pass());
+        assertEquals(1, bucket.minRt());
+
+        // Counters should be cleared no matter whether they are striped.
+        bucket.reset();
+        assertEquals(0, bucket.pass());
+        assertEquals(0, bucket.rt());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.slots.statistic.base.WindowWrap;
+import com.alibaba.csp.sentinel.slots.statistic.data.MetricBucket;
+import com.alibaba.csp.sentinel.slots.statistic.metric.occupy.LockFreeOccupiableBucketLeapArray;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LockFreeBucketLeapArray}.
+ */
+public class LockFreeBucketLeapArrayTest {
+
+    private final int windowLengthInMs = 500;
+    private final int intervalInMs = 1000;
+    private final int sampleCount = intervalInMs / windowLengthInMs;
+
+    @Test
+    public void testNoValidBucketInitially() {
+        LockFreeBucketLeapArray leapArray = new LockFreeBucketLeapArray(sampleCount, intervalInMs);
+        long time = System.currentTimeMillis();
+
+        assertTrue(leapArray.list(time).isEmpty());
+        assertTrue(leapArray.listAll().isEmpty());
+        assertTrue(leapArray.values(time).isEmpty());
+        assertNull(leapArray.getWindowValue(time));
+        assertNull(leapArray.getPreviousWindow(time));
+    }
+
+    @Test
+    public void testNewWindow() {
+        LockFreeBucketLeapArray leapArray = new LockFreeBucketLeapArray(sampleCount, intervalInMs);
+        long time = 1200;
+        WindowWrap<MetricBucket> window = leapArray.currentWindow(time);
+
+        assertEquals(windowLengthInMs, window.windowLength());
+        assertEquals(1000, window.windowStart());
+        assertEquals(0L, window.value().pass());
+        assertSame(window, leapArray.currentWindow(1499));
+        assertEquals(1, leapArray.list(time).size());
+    }
+
+    @Test
+    public void testRotationReusesPreallocatedBuckets() {
+        LockFreeBucketLeapArray leapArray = new LockFreeBucketLeapArray(sampleCount, intervalInMs);
+        WindowWrap<MetricBucket> first = leapArray.currentWindow(1000);
+        first.value().addPass(5);
+        WindowWrap<MetricBucket> second = leapArray.currentWindow(2000);
+        assertNotSame(first, second);
+        assertEquals(2000, second.windowStart());
+        assertEquals(0L, second.value().pass());
+
+        WindowWrap<MetricBucket> third = leapArray.currentWindow(3000);
+        assertNotSame(first, third);
+        assertNotSame(second, third);
+        // The bucket retired by the previous rotation has been cleaned for the next one.
+        assertEquals(0L, first.value().pass());
+
+        WindowWrap<MetricBucket> fourth = leapArray.currentWindow(4000);
+        assertSame(first, fourth);
+        assertEquals(4000, fourth.windowStart());
+        assertSame(second, leapArray.currentWindow(5000));
+    }
+
+    @Test
+    public void testLateWriteToRetiredBucketDropped() {
+        LockFreeBucketLeapArray leapArray = new LockFreeBucketLeapArray(sampleCount, intervalInMs);
+        WindowWrap<MetricBucket> stale = leapArray.currentWindow(1000);
+        stale.value().addPass(1);
+        WindowWrap<MetricBucket> current = leapArray.currentWindow(2000);
+
+        // A writer that got the bucket before the rotation writes to it afterwards.
+        stale.value().addPass(5);
+        assertEquals(0L, current.value().pass());
+        assertEquals(0L, leapArray.values(2000).get(0).pass());
+
+        // The late write never shows up in the following windows of the slot.
+        for (long time = 3000; time <= 6000; time += intervalInMs) {
+            WindowWrap<MetricBucket> window = leapArray.currentWindow(time);
+            assertEquals(time, window.windowStart());
+            assertEquals(0L, window.value().pass());
+        }
+    }
+
+    @Test
+    public void testValuesInSlidingWindow() {
+        LockFreeBucketLeapArray leapArray = new LockFreeBucketLeapArray(sampleCount, intervalInMs);
+        leapArray.currentWindow(1000).value().addPass(1);
+        leapArray.currentWindow(1500).value().addPass(2);
+
+        List<MetricBucket> values = leapArray.values(1600);
+        assertEquals(2, values.size());
+        assertEquals(2, leapArray.listAll().size());
+
+        leapArray.currentWindow(2000).value().addPass(3);
+        long pass = 0;
+        for (MetricBucket bucket : leapArray.values(2100)) {
+            pass += bucket.pass();
+        }
+        assertEquals(5, pass);
+    }
+
+    @Test
+    public void testStaleTimeReturnsLatestBucket() {
+        LockFreeBucketLeapArray leapArray = new LockFreeBucketLeapArray(sampleCount, intervalInMs);
+        WindowWrap<MetricBucket> latest = leapArray.currentWindow(3000);
+        assertSame(latest, leapArray.currentWindow(2000));
+        assertEquals(3000, latest.windowStart());
+    }
+
+    @Test
+    public void testConcurrentRotationWithoutLosingCounts() throws Exception {
+        final LockFreeBucketLeapArray leapArray = new LockFreeBucketLeapArray(sampleCount, intervalInMs);
+        final int threadCount = 16;
+        final int timeSteps = 100;
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int step = 0; step < timeSteps; step++) {
+                            // All threads enter a new bucket at the same time.
+                            barrier.await();
+                            leapArray.currentWindow(1000L + step * windowLengthInMs).value().addPass(1);
+                        }
+                    } catch (Throwable ex) {
+                        error.compareAndSet(null, ex);
+                        // Release the other threads waiting at the barrier.
+                        barrier.reset();
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }).start();
+        }
+        latch.await();
+        if (error.get() != null) {
+            throw new AssertionError("Worker thread failed", error.get());
+        }
+
+        long lastTime = 1000L + (timeSteps - 1) * windowLengthInMs;
+        List<MetricBucket> values = leapArray.values(lastTime);
+        assertEquals(sampleCount, values.size());
+        for (MetricBucket bucket : values) {
+            assertEquals(threadCount, bucket.pass());
+        }
+    }
+
+    @Test
+    public void testOccupiableCarriesBorrowedPass() {
+        LockFreeOccupiableBucketLeapArray leapArray = new LockFreeOccupiableBucketLeapArray(sampleCount,
+            intervalInMs);
+        leapArray.currentWindow(1000).value().addPass(1);
+        leapArray.addWaiting(1500, 3);
+
+        WindowWrap<MetricBucket> next = leapArray.currentWindow(1500);
+        assertEquals(1500, next.windowStart());
+        assertEquals(3, next.value().pass());
+    }
+}
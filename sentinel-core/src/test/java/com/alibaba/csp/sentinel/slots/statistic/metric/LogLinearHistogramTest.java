@@ -0,0 +1,72 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.metric;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link LogLinearHistogram}.
+ */
+public class LogLinearHistogramTest {
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = LogLinearHistogram.indexOf(value);
+            long highest = LogLinearHistogram.highestValueOf(index);
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / LogLinearHistogram.SUB_BUCKET_COUNT);
+            if (index > 0) {
+                assertTrue(LogLinearHistogram.highestValueOf(index - 1) < value);
+            }
+        }
+        assertEquals(LogLinearHistogram.MAX_TRACKABLE_VALUE, LogLinearHistogram.highestValueOf(
+            LogLinearHistogram.indexOf(LogLinearHistogram.MAX_TRACKABLE_VALUE)));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LogLinearHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500500.0, snapshot.getMean(), 0.01);
+        assertEquals(500000, snapshot.getValueAtPercentile(50), 500000 / LogLinearHistogram.SUB_BUCKET_COUNT);
+        assertEquals(990000, snapshot.getValueAtPercentile(99), 990000 / LogLinearHistogram.SUB_BUCKET_COUNT);
+        assertEquals(1000000, snapshot.getMax(), 1000000 / LogLinearHistogram.SUB_BUCKET_COUNT);
+        assertEquals(1000, snapshot.getValueAtPercentile(0), 1000 / LogLinearHistogram.SUB_BUCKET_COUNT);
+    }
+
+    @Test
+    public void testOutOfRangeAndReset() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        LogLinearHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+        assertEquals(LogLinearHistogram.MAX_TRACKABLE_VALUE, snapshot.getMax());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.snapshot().getMax());
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.alibaba.csp.sentinel.util.function.Consumer;
+import com.alibaba.csp.sentinel.util.function.Function;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link ConcurrentRegistry}.
+ */
+public class ConcurrentRegistryTest {
+
+    private final AtomicInteger creations = new AtomicInteger();
+
+    private final Function<String, Object> creator = new Function<String, Object>() {
+        @Override
+        public Object apply(String key) {
+            creations.incrementAndGet();
+            return new Object();
+        }
+    };
+
+    @Test
+    public void testComputeIfAbsent() {
+        ConcurrentRegistry<String, Object> registry = new ConcurrentRegistry<>();
+        Object value = registry.computeIfAbsent("a", creator);
+        assertNotNull(value);
+        assertSame(value, registry.computeIfAbsent("a", creator));
+        assertSame(value, registry.get("a"));
+        assertEquals(1, creations.get());
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.getCreatedCount());
+    }
+
+    @Test
+    public void testOnRegisteredCalledOnlyForRegisteredValue() {
+        ConcurrentRegistry<String, Object> registry = new ConcurrentRegistry<>();
+        final AtomicInteger registered = new AtomicInteger();
+        Consumer<Object> onRegistered = new Consumer<Object>() {
+            @Override
+            public void accept(Object value) {
+                registered.incrementAndGet();
+            }
+        };
+        Object value = registry.computeIfAbsent("a", creator, onRegistered);
+        assertSame(value, registry.computeIfAbsent("a", creator, onRegistered));
+        assertEquals(1, registered.get());
+
+        // The value created by a thread that lost the race is discarded.
+        final Object existing = new Object();
+        final ConcurrentRegistry<String, Object> racing = new ConcurrentRegistry<>();
+        Object result = racing.computeIfAbsent("b", new Function<String, Object>() {
+            @Override
+            public Object apply(String key) {
+                racing.asMap().put(key, existing);
+                return new Object();
+            }
+        }, onRegistered);
+        assertSame(existing, result);
+        assertEquals(1, registered.get());
+        assertEquals(1, racing.getContendedCount());
+    }
+
+    @Test
+    public void testMaxSize() {
+        ConcurrentRegistry<String, Object> registry = new ConcurrentRegistry<>(2);
+        assertNotNull(registry.computeIfAbsent("a", creator));
+        assertNotNull(registry.computeIfAbsent("b", creator));
+        assertNull(registry.computeIfAbsent("c", creator));
+        assertEquals(2, registry.size());
+        assertEquals(1, registry.getRejectedCount());
+
+        // Existing values can still be retrieved.
+        assertNotNull(registry.computeIfAbsent("a", creator));
+
+        registry.remove("b");
+        assertNotNull(registry.computeIfAbsent("c", creator));
+        assertNull(registry.computeIfAbsent("d", creator));
+
+        registry.clear();
+        assertEquals(0, registry.size());
+        assertNotNull(registry.computeIfAbsent("d", creator));
+    }
+
+    @Test
+    public void testNullValueNotRegistered() {
+        ConcurrentRegistry<String, Object> registry = new ConcurrentRegistry<>(1);
+        assertNull(registry.computeIfAbsent("a", new Function<String, Object>() {
+            @Override
+            public Object apply(String key) {
+                return null;
+            }
+        }));
+        assertEquals(0, registry.size());
+        // The reservation should be released.
+        assertNotNull(registry.computeIfAbsent("b", creator));
+    }
+
+    @Test
+    public void testConcurrentCreationWithinMaxSize() throws Exception {
+        final int maxSize = 100;
+        final int threadCount = 16;
+        final ConcurrentRegistry<String, Object> registry = new ConcurrentRegistry<>(maxSize);
+        final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        barrier.await();
+                        for (int k = 0; k < maxSize * 2; k++) {
+                            registry.computeIfAbsent("key-" + k, creator);
+                        }
+                    } catch (Throwable ex) {
+                        error.compareAndSet(null, ex);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }).start();
+        }
+        latch.await();
+        if (error.get() != null) {
+            throw new AssertionError("Worker thread failed", error.get());
+        }
+
+        assertEquals(maxSize, registry.size());
+        assertEquals(maxSize, registry.getCreatedCount());
+        // Racing creations of the same key may be discarded, but never registered.
+        assertTrue(creations.get() >= registry.getCreatedCount() + registry.getContendedCount());
+        // Keys beyond the max size are rejected by each thread.
+        assertTrue(registry.getRejectedCount() >= maxSize);
+    }
+}
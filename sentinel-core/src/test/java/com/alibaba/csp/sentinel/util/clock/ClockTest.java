@@ -0,0 +1,103 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.util.clock;
+
+import com.alibaba.csp.sentinel.spi.SpiLoader;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.function.Tuple2;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for built-in {@link Clock}s.
+ */
+public class ClockTest {
+
+    @Test
+    public void testLoadClockByAlias() {
+        assertTrue(SpiLoader.of(Clock.class).loadInstance("ticker") instanceof TickerClock);
+        assertTrue(SpiLoader.of(Clock.class).loadInstance("coarse") instanceof CoarseClock);
+        assertTrue(SpiLoader.of(Clock.class).loadInstance("system") instanceof SystemClock);
+        assertTrue(SpiLoader.of(Clock.class).loadInstance("monotonic") instanceof MonotonicClock);
+        assertTrue(SpiLoader.of(Clock.class).loadDefaultInstance() instanceof TickerClock);
+    }
+
+    @Test
+    public void testSystemAndMonotonicClock() throws Exception {
+        Clock[] clocks = new Clock[] {new SystemClock(), new MonotonicClock()};
+        for (Clock clock : clocks) {
+            long before = System.currentTimeMillis();
+            long last = 0;
+            for (int i = 0; i < 1000; i++) {
+                long now = clock.currentTimeMillis();
+                assertTrue(now >= last);
+                last = now;
+            }
+            assertTrue(Math.abs(last - before) < 100);
+
+            Thread.sleep(1100);
+            Tuple2<Long, Long> qps = clock.currentQps(System.currentTimeMillis());
+            assertTrue(qps.r1 > 0);
+            // Every read fetches the time of OS.
+            assertEquals(qps.r1, qps.r2);
+        }
+    }
+
+    @Test
+    public void testTickerClockTicksOnlyWhenBusy() throws Exception {
+        TickerClock clock = new TickerClock(1, 100);
+        assertEquals(TimeUtil.STATE.IDLE, clock.getState());
+        assertFalse(clock.isTicking());
+
+        long deadline = System.currentTimeMillis() + 3000;
+        while (clock.getState() != TimeUtil.STATE.RUNNING && System.currentTimeMillis() < deadline) {
+            clock.currentTimeMillis();
+        }
+        assertEquals(TimeUtil.STATE.RUNNING, clock.getState());
+        assertTrue(clock.isTicking());
+        long cached = clock.currentTimeMillis();
+        assertTrue(Math.abs(cached - System.currentTimeMillis()) < 100);
+
+        // No more reads, so the tick thread should find the clock idle and exit.
+        deadline = System.currentTimeMillis() + 3000;
+        while (clock.isTicking() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(TimeUtil.STATE.IDLE, clock.getState());
+        assertFalse(clock.isTicking());
+    }
+
+    @Test
+    public void testCoarseClockAlwaysTicks() throws Exception {
+        CoarseClock clock = new CoarseClock();
+        assertFalse(clock.isAdaptive());
+        assertEquals(CoarseClock.TICK_INTERVAL_MS, clock.getTickIntervalMs());
+        assertTrue(clock.isTicking());
+
+        // Without any load, the clock still switches to RUNNING and keeps ticking.
+        long deadline = System.currentTimeMillis() + 3000;
+        while (clock.getState() != TimeUtil.STATE.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(TimeUtil.STATE.RUNNING, clock.getState());
+        assertTrue(Math.abs(clock.currentTimeMillis() - System.currentTimeMillis()) < 100);
+        Thread.sleep(300);
+        assertEquals(TimeUtil.STATE.RUNNING, clock.getState());
+        assertTrue(clock.isTicking());
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.exporter.jmx;
+
+import java.beans.ConstructorProperties;
+
+import com.alibaba.csp.sentinel.slots.statistic.metric.LogLinearHistogram;
+
+/**
+ * Summary of a {@link LogLinearHistogram}, which is exposed as composite data by {@link SlotProfileMXBean}.
+ *
+ * @since 1.8.6
+ */
+public class HistogramSummary {
+
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    @ConstructorProperties({"count", "mean", "p50", "p90", "p99", "p999", "max"})
+    public HistogramSummary(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public static HistogramSummary of(LogLinearHistogram histogram) {
+        LogLinearHistogram.Snapshot snapshot = histogram.snapshot();
+        return new HistogramSummary(snapshot.getCount(), snapshot.getMean(), snapshot.getValueAtPercentile(50),
+            snapshot.getValueAtPercentile(90), snapshot.getValueAtPercentile(99),
+            snapshot.getValueAtPercentile(99.9), snapshot.getMax());
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
@@ -21,6 +21,7 @@ import com.alibaba.csp.sentinel.concurrent.NamedThreadFactory;
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.metric.collector.MetricCollector;
 import com.alibaba.csp.sentinel.metric.exporter.MetricExporter;
+import com.alibaba.csp.sentinel.slotchain.SlotProfiler;
 
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -52,6 +53,11 @@ public class JMXMetricExporter implements MetricExporter {
      */
     private final MetricCollector metricCollector = new MetricCollector();
     
+    /**
+     * JMX slot profile writer, register {@link SlotProfileBean} of the slots profiled by {@link SlotProfiler}.
+     */
+    private final SlotProfileBeanWriter slotProfileBeanWriter = new SlotProfileBeanWriter();
+    
     public JMXMetricExporter() {
         jmxExporterSchedule = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("sentinel-metrics-jmx-exporter-task", true));
     }
@@ -64,6 +70,7 @@ public class JMXMetricExporter implements MetricExporter {
     @Override
     public void export() throws Exception {
         metricBeanWriter.write(metricCollector.collectMetric());
+        slotProfileBeanWriter.write(SlotProfiler.getProfiles());
     }
     
     @Override
@@ -111,6 +111,16 @@ public class MBeanRegistry {
         return mapName2Bean.get(mBeanName);
     }
     
+    /**
+     * get the MBeanServer which the MBeans are registered with.
+     *
+     * @return MBeanServer
+     * @since 1.8.6
+     */
+    public MBeanServer getMBeanServer() {
+        return mBeanServer;
+    }
+    
     /**
      * list all MBeans which is registered into MBeanRegistry
      * @return MetricBeans
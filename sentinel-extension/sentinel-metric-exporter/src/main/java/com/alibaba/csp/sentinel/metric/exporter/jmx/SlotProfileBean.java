@@ -0,0 +1,57 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.exporter.jmx;
+
+import com.alibaba.csp.sentinel.slotchain.SlotProfile;
+
+/**
+ * the SlotProfileBean for JMX expose, which reads the histograms of {@link SlotProfile} when accessed.
+ *
+ * @since 1.8.6
+ */
+public class SlotProfileBean implements SlotProfileMXBean {
+
+    private final SlotProfile profile;
+
+    public SlotProfileBean(SlotProfile profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public String getSlotName() {
+        return profile.getSlotName();
+    }
+
+    @Override
+    public HistogramSummary getEntryNanos() {
+        return HistogramSummary.of(profile.getEntryNanos());
+    }
+
+    @Override
+    public HistogramSummary getEntryBytes() {
+        return HistogramSummary.of(profile.getEntryBytes());
+    }
+
+    @Override
+    public HistogramSummary getExitNanos() {
+        return HistogramSummary.of(profile.getExitNanos());
+    }
+
+    @Override
+    public HistogramSummary getExitBytes() {
+        return HistogramSummary.of(profile.getExitBytes());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.metric.exporter.jmx;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slotchain.SlotProfile;
+import com.alibaba.csp.sentinel.slotchain.SlotProfiler;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the slot profile bean writer, it registers a {@link SlotProfileBean} for each slot profiled by {@link SlotProfiler}.
+ * As the beans read the profiles when accessed, each of them is only registered once.
+ *
+ * @since 1.8.6
+ */
+public class SlotProfileBeanWriter {
+    
+    private final MBeanRegistry mBeanRegistry = MBeanRegistry.getInstance();
+    
+    private static final String DEFAULT_APP_NAME = "sentinel-application";
+    
+    private final Set<String> registeredSlots = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * register the SlotProfileBean of the slots which are not registered yet.
+     *
+     * @param profiles slot profiles keyed by class name of the slot
+     * @throws Exception write failed exception
+     */
+    public synchronized void write(Map<String, SlotProfile> profiles) throws Exception {
+        if (profiles == null || profiles.isEmpty()) {
+            return;
+        }
+        String appName = SentinelConfig.getAppName();
+        if (appName == null) {
+            appName = DEFAULT_APP_NAME;
+        }
+        for (SlotProfile profile : profiles.values()) {
+            if (registeredSlots.contains(profile.getSlotName())) {
+                continue;
+            }
+            final String mBeanName = "Sentinel:type=" + appName + ",category=slotProfile,name="
+                    + ObjectName.quote(profile.getSlotName());
+            try {
+                mBeanRegistry.getMBeanServer().registerMBean(new SlotProfileBean(profile), new ObjectName(mBeanName));
+                registeredSlots.add(profile.getSlotName());
+                RecordLog.info("[SlotProfileBeanWriter] Registering with JMX as SlotProfile MBean [{}]", mBeanName);
+            } catch (InstanceAlreadyExistsException e) {
+                // registered by another exporter of the same application.
+                registeredSlots.add(profile.getSlotName());
+            } catch (JMException e) {
+                RecordLog.warn("[SlotProfileBeanWriter] Failed to register MBean " + mBeanName, e);
+                throw e;
+            }
+        }
+    }
+}
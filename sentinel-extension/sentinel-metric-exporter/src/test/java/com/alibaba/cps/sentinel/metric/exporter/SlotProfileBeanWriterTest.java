@@ -0,0 +1,65 @@
+package com.alibaba.cps.sentinel.metric.exporter;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.metric.exporter.jmx.MBeanRegistry;
+import com.alibaba.csp.sentinel.metric.exporter.jmx.SlotProfileBeanWriter;
+import com.alibaba.csp.sentinel.slotchain.SlotProfiler;
+import com.alibaba.csp.sentinel.slots.statistic.StatisticSlot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.util.Set;
+
+/**
+ * {@link SlotProfileBeanWriter} unit test.
+ */
+public class SlotProfileBeanWriterTest {
+    
+    @After
+    public void tearDown() {
+        SlotProfiler.setEnabled(false);
+        SlotProfiler.setSampleInterval(SentinelConfig.slotChainProfileSampleInterval());
+        SlotProfiler.reset();
+    }
+    
+    @Test
+    public void testWriteSlotProfile() throws Exception {
+        SlotProfiler.setSampleInterval(1);
+        SlotProfiler.setEnabled(true);
+        for (int i = 0; i < 10; i++) {
+            Entry entry = SphU.entry("testWriteSlotProfile");
+            entry.exit();
+        }
+        
+        SlotProfileBeanWriter writer = new SlotProfileBeanWriter();
+        writer.write(SlotProfiler.getProfiles());
+        // writing again should not register the beans twice.
+        writer.write(SlotProfiler.getProfiles());
+        
+        MBeanServer mBeanServer = MBeanRegistry.getInstance().getMBeanServer();
+        Set<ObjectName> names = mBeanServer.queryNames(new ObjectName("Sentinel:category=slotProfile,*"), null);
+        Assert.assertEquals(SlotProfiler.getProfiles().size(), names.size());
+        
+        ObjectName statisticSlot = null;
+        for (ObjectName name : names) {
+            if (StatisticSlot.class.getName().equals(ObjectName.unquote(name.getKeyProperty("name")))) {
+                statisticSlot = name;
+            }
+        }
+        Assert.assertNotNull(statisticSlot);
+        CompositeData entryNanos = (CompositeData) mBeanServer.getAttribute(statisticSlot, "EntryNanos");
+        Assert.assertEquals(10L, entryNanos.get("count"));
+        CompositeData exitNanos = (CompositeData) mBeanServer.getAttribute(statisticSlot, "ExitNanos");
+        Assert.assertEquals(10L, exitNanos.get("count"));
+        
+        for (ObjectName name : names) {
+            mBeanServer.unregisterMBean(name);
+        }
+    }
+}
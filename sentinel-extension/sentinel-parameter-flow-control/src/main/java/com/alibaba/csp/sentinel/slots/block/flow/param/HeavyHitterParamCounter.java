@@ -0,0 +1,285 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.statistic.sketch.CountMinSketch;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * <p>
+ * Token counter of a QPS parameter rule (with default control behavior) for unbounded parameter cardinality.
+ * Frequencies of all values in the current statistic window ({@code durationInSec}) are estimated by a
+ * {@link CountMinSketch}, and only the heavy hitters (values whose estimated frequency reaches half of
+ * the threshold) hold exact token buckets, in a table with fixed capacity (top-K).
+ * </p>
+ * <p>
+ * A cold value is checked against its estimated frequency in the current window, which never underestimates,
+ * so cold values never exceed the threshold and do not allocate. Hits of hot values are also added to the sketch,
+ * so a hot value that is evicted and checked as a cold value again within the window doesn't exceed the threshold
+ * either. When the table is full, a new heavy hitter replaces the coldest of a few sampled entries only if it's
+ * hotter, so hot values are not evicted by the long tail (unlike an LRU cache). Promotion is tried only when the
+ * estimate of a value crosses the threshold or a power of two, and never blocks: if another thread is promoting,
+ * the value is just checked against its estimate. Memory is fixed for each rule: {@code 4 * width} counters plus
+ * {@code capacity} buckets.
+ * </p>
+ * <p>
+ * It's disabled by default, see {@link #SKETCH_ENABLED}.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class HeavyHitterParamCounter {
+
+    public static final String SKETCH_ENABLED = "csp.sentinel.param.flow.sketch.enabled";
+    public static final String SKETCH_WIDTH = "csp.sentinel.param.flow.sketch.width";
+    public static final String SKETCH_CAPACITY = "csp.sentinel.param.flow.sketch.capacity";
+
+    public static final int DEFAULT_SKETCH_WIDTH = 4096;
+    public static final int DEFAULT_SKETCH_CAPACITY = 1024;
+
+    /**
+     * Amount of hot entries sampled to find the entry to evict when the table is full.
+     */
+    private static final int EVICTION_SAMPLES = 8;
+
+    private final long windowMs;
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final Map<Object, HotBucket> hotBuckets;
+    /**
+     * Keys of the table by slot, for sampling the entries to evict. Guarded by {@link #promoteLock}.
+     */
+    private final Object[] hotKeys;
+    private final ReentrantLock promoteLock = new ReentrantLock();
+
+    private final AtomicLong windowStart;
+
+    private final LongAdder promotedCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+
+    public HeavyHitterParamCounter(long windowMs, int width, int capacity, long now) {
+        if (windowMs <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("windowMs and capacity should be positive");
+        }
+        this.windowMs = windowMs;
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(width);
+        this.hotBuckets = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+        this.hotKeys = new Object[capacity];
+        this.windowStart = new AtomicLong(now);
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(SentinelConfig.getConfig(SKETCH_ENABLED));
+    }
+
+    public static boolean isApplicable(ParamFlowRule rule) {
+        return rule.getGrade() == RuleConstant.FLOW_GRADE_QPS
+            && rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_DEFAULT
+            && !rule.isClusterMode();
+    }
+
+    public static HeavyHitterParamCounter forRule(ParamFlowRule rule, long now) {
+        return new HeavyHitterParamCounter(rule.getDurationInSec() * 1000, intConfig(SKETCH_WIDTH,
+            DEFAULT_SKETCH_WIDTH), intConfig(SKETCH_CAPACITY, DEFAULT_SKETCH_CAPACITY), now);
+    }
+
+    private static int intConfig(String key, int defaultValue) {
+        String v = SentinelConfig.getConfig(key);
+        if (StringUtil.isBlank(v)) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(v.trim());
+            return value > 0 ? value : defaultValue;
+        } catch (Throwable ex) {
+            RecordLog.warn("[HeavyHitterParamCounter] Invalid config <{}>: {}, using default value: {}",
+                key, v, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Try to acquire tokens for the value.
+     *
+     * @param value        a non-null parameter value
+     * @param acquireCount tokens to acquire
+     * @param tokenCount   threshold of the value in each window
+     * @param maxCount     max tokens of the value (threshold plus burst)
+     * @param now          current time in milliseconds
+     * @return true if the tokens are acquired
+     */
+    public boolean tryAcquire(Object value, int acquireCount, long tokenCount, long maxCount, long now) {
+        rollWindowIfNeeded(now);
+        // Hits of hot values are counted by the sketch as well, so that a hot value evicted in the middle of
+        // a window is checked against its frequency in the whole window rather than starting from zero.
+        long estimate = sketch.add(value, acquireCount);
+        HotBucket bucket = hotBuckets.get(value);
+        if (bucket != null) {
+            bucket.hits.add(acquireCount);
+            return bucket.tryAcquire(acquireCount, tokenCount, maxCount, windowMs, now);
+        }
+
+        long hotThreshold = tokenCount / 2;
+        if (estimate <= hotThreshold) {
+            // Cold value, which is far from the threshold.
+            return true;
+        }
+        // Only try to promote the value when its estimate first crosses the threshold or a power of two, so that
+        // each value tries O(log n) times in a window rather than on every check. The value may not be hot enough
+        // to enter the table. Either way, tokens consumed in current window (including current acquire) are
+        // taken from the estimation.
+        long previous = estimate - acquireCount;
+        if (previous <= hotThreshold || Long.highestOneBit(previous) != Long.highestOneBit(estimate)) {
+            tryPromote(value, estimate, maxCount, now);
+        }
+        return estimate <= maxCount;
+    }
+
+    private void rollWindowIfNeeded(long now) {
+        long start = windowStart.get();
+        if (now - start < windowMs) {
+            return;
+        }
+        if (windowStart.compareAndSet(start, now - (now - start) % windowMs)) {
+            sketch.clear();
+            // Decay the hits of hot values, so that values that are no longer hot can be replaced.
+            for (HotBucket bucket : hotBuckets.values()) {
+                long hits = bucket.hits.sumThenReset();
+                bucket.hits.add(hits / 2);
+            }
+        }
+    }
+
+    /**
+     * Put the value into the table if the table is not full, or if the value is hotter than the coldest of
+     * {@link #EVICTION_SAMPLES} sampled entries. Gives up (leaving the value to the sketch) if another thread
+     * is promoting, so that checks never block.
+     */
+    private void tryPromote(Object value, long estimate, long maxCount, long now) {
+        if (!promoteLock.tryLock()) {
+            return;
+        }
+        try {
+            if (hotBuckets.containsKey(value)) {
+                return;
+            }
+            int slot = hotBuckets.size();
+            if (slot >= capacity) {
+                slot = -1;
+                long coldestHits = Long.MAX_VALUE;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < EVICTION_SAMPLES; i++) {
+                    int k = random.nextInt(capacity);
+                    long hits = hotBuckets.get(hotKeys[k]).hits.sum();
+                    if (hits < coldestHits) {
+                        coldestHits = hits;
+                        slot = k;
+                    }
+                }
+                if (coldestHits >= estimate) {
+                    return;
+                }
+                hotBuckets.remove(hotKeys[slot]);
+                evictedCount.increment();
+            }
+            hotKeys[slot] = value;
+            hotBuckets.put(value, new HotBucket(Math.max(maxCount - estimate, 0), estimate, now));
+            promotedCount.increment();
+        } finally {
+            promoteLock.unlock();
+        }
+    }
+
+    public int getHotCount() {
+        return hotBuckets.size();
+    }
+
+    public boolean isHot(Object value) {
+        return hotBuckets.containsKey(value);
+    }
+
+    public long estimate(Object value) {
+        return sketch.estimate(value);
+    }
+
+    public long getPromotedCount() {
+        return promotedCount.sum();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.sum();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Exact token bucket of a hot value, replenished when the statistic window has passed
+     * (the same algorithm as the default local check).
+     */
+    private static final class HotBucket {
+
+        private final AtomicLong tokens;
+        private final AtomicLong lastAddTokenTime;
+        private final LongAdder hits = new LongAdder();
+
+        HotBucket(long tokens, long hits, long now) {
+            this.tokens = new AtomicLong(tokens);
+            this.lastAddTokenTime = new AtomicLong(now);
+            this.hits.add(hits);
+        }
+
+        boolean tryAcquire(int acquireCount, long tokenCount, long maxCount, long windowMs, long now) {
+            while (true) {
+                long passTime = now - lastAddTokenTime.get();
+                if (passTime > windowMs) {
+                    long restQps = tokens.get();
+                    long toAddCount = (passTime * tokenCount) / windowMs;
+                    long newQps = toAddCount + restQps > maxCount ? (maxCount - acquireCount)
+                        : (restQps + toAddCount - acquireCount);
+                    if (newQps < 0) {
+                        return false;
+                    }
+                    if (tokens.compareAndSet(restQps, newQps)) {
+                        lastAddTokenTime.set(now);
+                        return true;
+                    }
+                } else {
+                    long rest = tokens.get();
+                    if (rest - acquireCount < 0) {
+                        return false;
+                    }
+                    if (tokens.compareAndSet(rest, rest - acquireCount)) {
+                        return true;
+                    }
+                }
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>
+ * An open-addressing table of parameter counters, specialized for {@code long} (including {@code int})
+ * and {@link String} keys. Counters of each slot are kept inline in one primitive {@link AtomicLongArray}
+ * ({@code stride} longs per slot), so looking up or updating a counter allocates nothing, unlike a map
+ * of {@code AtomicLong} counters.
+ * </p>
+ * <p>
+ * A key is probed in at most {@link #MAX_PROBE} slots from its home slot. Once a slot is taken by a key,
+ * it may be recycled for another key when the probe window is full: either the slot with the smallest
+ * eviction stamp (see {@link #insert(Object, long, long, int)}), or a slot whose count has dropped to zero
+ * (see {@link #insertOrReclaim(Object, long)}). Updates racing with the eviction of a slot may be applied to
+ * the new key, which is as inaccurate as the reset of an evicted key in an LRU cache.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+abstract class ParamCounterTable {
+
+    static final int MAX_PROBE = 8;
+
+    /**
+     * Result of {@link #insert(Object, long, long, int)} when there's no room for the key.
+     */
+    static final int NO_ROOM = -1;
+    /**
+     * Result of {@link #insert(Object, long, long, int)} when the key (or another key) has just been inserted
+     * to the slot by other threads, and the caller should look up the key again.
+     */
+    static final int RETRY = -2;
+
+    /**
+     * Count of a slot that is being reclaimed by {@link #insertOrReclaim(Object, long)}.
+     */
+    private static final long CLAIMED = Long.MIN_VALUE;
+
+    private static final int EMPTY = 0;
+    private static final int BUSY = 1;
+    private static final int READY = 2;
+
+    private static final int MIN_SLOTS = 16;
+
+    private final int mask;
+    private final int stride;
+    private final AtomicIntegerArray states;
+    private final AtomicLongArray values;
+
+    ParamCounterTable(int capacity, int stride) {
+        if (capacity <= 0 || stride <= 0 || stride > 2) {
+            throw new IllegalArgumentException("capacity should be positive and stride should be 1 or 2");
+        }
+        int slots = MIN_SLOTS;
+        while (slots < capacity && slots < (1 << 30)) {
+            slots <<= 1;
+        }
+        this.mask = slots - 1;
+        this.stride = stride;
+        this.states = new AtomicIntegerArray(slots);
+        this.values = new AtomicLongArray(slots * stride);
+    }
+
+    /**
+     * @param value a parameter value
+     * @return true if the value can be counted by a table of long keys
+     */
+    static boolean isLongKey(Object value) {
+        return value instanceof Long || value instanceof Integer;
+    }
+
+    /**
+     * Create a table of long keys. Note that {@code Integer} and {@code Long} values with the same
+     * numeric value share one counter, as values of a parameter should be of the same type.
+     */
+    static ParamCounterTable forLongKeys(int capacity, int stride) {
+        return new LongKeyTable(capacity, stride);
+    }
+
+    static ParamCounterTable forStringKeys(int capacity, int stride) {
+        return new StringKeyTable(capacity, stride);
+    }
+
+    abstract int hash(Object key);
+
+    abstract boolean keyEquals(int slot, Object key);
+
+    abstract void setKey(int slot, Object key);
+
+    static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    int slotCount() {
+        return mask + 1;
+    }
+
+    AtomicLongArray values() {
+        return values;
+    }
+
+    /**
+     * @return index of the first counter of the slot in {@link #values()}
+     */
+    int offset(int slot) {
+        return slot * stride;
+    }
+
+    /**
+     * Find the slot of the key.
+     *
+     * @param key a valid key
+     * @return the slot, or {@link #NO_ROOM} if absent
+     */
+    int find(Object key) {
+        int h = hash(key);
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int slot = (h + i) & mask;
+            if (awaitState(slot) == EMPTY) {
+                return NO_ROOM;
+            }
+            if (keyEquals(slot, key)) {
+                return slot;
+            }
+        }
+        return NO_ROOM;
+    }
+
+    /**
+     * Insert the key (which was absent) with initial counters.
+     *
+     * @param key        a valid key
+     * @param v0         initial value of the first counter
+     * @param v1         initial value of the second counter (ignored if stride is 1)
+     * @param stampField counter of the eviction stamp: when the probe window is full, the slot with the smallest
+     *                   stamp is recycled for the key; -1 if slots should never be recycled
+     * @return the inserted slot, {@link #NO_ROOM} or {@link #RETRY}
+     */
+    int insert(Object key, long v0, long v1, int stampField) {
+        int h = hash(key);
+        int victim = -1;
+        long victimStamp = Long.MAX_VALUE;
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int slot = (h + i) & mask;
+            if (awaitState(slot) == EMPTY) {
+                if (states.compareAndSet(slot, EMPTY, BUSY)) {
+                    publish(slot, key, v0, v1);
+                    return slot;
+                }
+                return RETRY;
+            }
+            if (keyEquals(slot, key)) {
+                return RETRY;
+            }
+            if (stampField >= 0) {
+                long stamp = values.get(offset(slot) + stampField);
+                if (stamp < victimStamp) {
+                    victim = slot;
+                    victimStamp = stamp;
+                }
+            }
+        }
+        if (victim < 0) {
+            return NO_ROOM;
+        }
+        if (states.compareAndSet(victim, READY, BUSY)) {
+            publish(victim, key, v0, v1);
+            return victim;
+        }
+        return RETRY;
+    }
+
+    /**
+     * Insert the key (which was absent) with the initial count, for tables of one counter per slot. When the
+     * probe window is full, a slot whose count has dropped to zero is reclaimed for the key, by swapping the
+     * zero count with a negative mark, so that late increments of the previous key can't be applied to the
+     * new key (see {@link #incrementIfOwned(int, Object)}).
+     *
+     * @param key   a valid key
+     * @param count initial count, which should be positive
+     * @return the inserted slot, {@link #NO_ROOM} or {@link #RETRY}
+     */
+    int insertOrReclaim(Object key, long count) {
+        int h = hash(key);
+        int victim = -1;
+        for (int i = 0; i < MAX_PROBE; i++) {
+            int slot = (h + i) & mask;
+            if (awaitState(slot) == EMPTY) {
+                if (states.compareAndSet(slot, EMPTY, BUSY)) {
+                    publish(slot, key, count, 0);
+                    return slot;
+                }
+                return RETRY;
+            }
+            if (keyEquals(slot, key)) {
+                return RETRY;
+            }
+            if (victim < 0 && values.get(offset(slot)) == 0) {
+                victim = slot;
+            }
+        }
+        if (victim < 0) {
+            return NO_ROOM;
+        }
+        if (values.compareAndSet(offset(victim), 0, CLAIMED)) {
+            // Only the claimer may publish a READY slot, so no one else touches the state meanwhile.
+            states.set(victim, BUSY);
+            publish(victim, key, count, 0);
+            return victim;
+        }
+        return RETRY;
+    }
+
+    /**
+     * Increase the count of the slot, which was found for the key, for tables of one counter per slot.
+     *
+     * @param slot slot found by {@link #find(Object)}
+     * @param key  a valid key
+     * @return false if the slot has been reclaimed for another key, and the caller should look up the key again
+     */
+    boolean incrementIfOwned(int slot, Object key) {
+        int idx = offset(slot);
+        long current;
+        do {
+            current = values.get(idx);
+            if (current < 0) {
+                return false;
+            }
+        } while (!values.compareAndSet(idx, current, current + 1));
+        // The key is set before the count when a slot is published, so a recycled slot can't be missed here.
+        if (keyEquals(slot, key)) {
+            return true;
+        }
+        decrementIfPositive(slot);
+        return false;
+    }
+
+    /**
+     * Decrease the count of the slot if positive, for tables of one counter per slot.
+     */
+    void decrementIfPositive(int slot) {
+        int idx = offset(slot);
+        while (true) {
+            long current = values.get(idx);
+            if (current <= 0 || values.compareAndSet(idx, current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return amount of slots taken, for test and debugging only
+     */
+    int size() {
+        int size = 0;
+        for (int i = 0; i <= mask; i++) {
+            if (states.get(i) != EMPTY) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private void publish(int slot, Object key, long v0, long v1) {
+        setKey(slot, key);
+        int offset = offset(slot);
+        values.set(offset, v0);
+        if (stride > 1) {
+            values.set(offset + 1, v1);
+        }
+        states.set(slot, READY);
+    }
+
+    private int awaitState(int slot) {
+        int state;
+        while ((state = states.get(slot)) == BUSY) {
+            // The slot is being published by another thread, which takes a few writes only.
+            Thread.yield();
+        }
+        return state;
+    }
+
+    private static final class LongKeyTable extends ParamCounterTable {
+
+        private final AtomicLongArray keys;
+
+        LongKeyTable(int capacity, int stride) {
+            super(capacity, stride);
+            this.keys = new AtomicLongArray(slotCount());
+        }
+
+        @Override
+        int hash(Object key) {
+            long v = ((Number)key).longValue();
+            return spread((int)(v ^ (v >>> 32)));
+        }
+
+        @Override
+        boolean keyEquals(int slot, Object key) {
+            return keys.get(slot) == ((Number)key).longValue();
+        }
+
+        @Override
+        void setKey(int slot, Object key) {
+            keys.set(slot, ((Number)key).longValue());
+        }
+    }
+
+    private static final class StringKeyTable extends ParamCounterTable {
+
+        private final AtomicReferenceArray<String> keys;
+
+        StringKeyTable(int capacity, int stride) {
+            super(capacity, stride);
+            this.keys = new AtomicReferenceArray<>(slotCount());
+        }
+
+        @Override
+        int hash(Object key) {
+            return spread(key.hashCode());
+        }
+
+        @Override
+        boolean keyEquals(int slot, Object key) {
+            return key.equals(keys.get(slot));
+        }
+
+        @Override
+        void setKey(int slot, Object key) {
+            keys.set(slot, (String)key);
+        }
+    }
+}
@@ -134,10 +134,13 @@ public final class ParamFlowChecker {
     static boolean passDefaultLocalCheck(ResourceWrapper resourceWrapper, ParamFlowRule rule, int acquireCount,
                                          Object value) {
         ParameterMetric metric = getParameterMetric(resourceWrapper);
+        HeavyHitterParamCounter heavyHitterCounter = metric == null ? null : metric.getRuleHeavyHitterCounter(rule);
+        PrimitiveParamCounter primitiveCounter = metric == null ? null : metric.getRulePrimitiveCounter(rule);
         CacheMap<Object, AtomicLong> tokenCounters = metric == null ? null : metric.getRuleTokenCounter(rule);
         CacheMap<Object, AtomicLong> timeCounters = metric == null ? null : metric.getRuleTimeCounter(rule);
 
-        if (tokenCounters == null || timeCounters == null) {
+        if (heavyHitterCounter == null && primitiveCounter == null
+            && (tokenCounters == null || timeCounters == null)) {
             return true;
         }
 
@@ -157,6 +160,21 @@ public final class ParamFlowChecker {
             return false;
         }
 
+        if (heavyHitterCounter != null) {
+            return heavyHitterCounter.tryAcquire(value, acquireCount, tokenCount, maxCount,
+                TimeUtil.currentTimeMillis());
+        }
+        if (primitiveCounter != null) {
+            int result = primitiveCounter.tryAcquire(value, acquireCount, tokenCount, maxCount,
+                rule.getDurationInSec() * 1000);
+            if (result != PrimitiveParamCounter.NOT_HANDLED) {
+                return result == PrimitiveParamCounter.PASSED;
+            }
+        }
+        if (tokenCounters == null || timeCounters == null) {
+            return true;
+        }
+
         while (true) {
             long currentTime = TimeUtil.currentTimeMillis();
 
@@ -16,9 +16,9 @@
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
 import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
@@ -35,7 +35,10 @@ import com.alibaba.csp.sentinel.util.AssertUtil;
  */
 public final class ParamFlowRuleManager {
 
-    private static final Map<String, List<ParamFlowRule>> PARAM_FLOW_RULES = new ConcurrentHashMap<>();
+    /**
+     * Rules are replaced as a whole on reload, so readers never see partially loaded rules.
+     */
+    private static volatile Map<String, List<ParamFlowRule>> paramFlowRules = new HashMap<>();
 
     private final static RulePropertyListener PROPERTY_LISTENER = new RulePropertyListener();
     private static SentinelProperty<List<ParamFlowRule>> currentProperty = new DynamicSentinelProperty<>();
@@ -75,12 +78,13 @@ public final class ParamFlowRuleManager {
     }
 
     public static List<ParamFlowRule> getRulesOfResource(String resourceName) {
-        return new ArrayList<>(PARAM_FLOW_RULES.get(resourceName));
+        List<ParamFlowRule> rules = paramFlowRules.get(resourceName);
+        return rules == null ? new ArrayList<ParamFlowRule>() : new ArrayList<>(rules);
     }
 
     public static boolean hasRules(String resourceName) {
         // 从缓存中获取该资源对应的热点参数流控规则
-        List<ParamFlowRule> rules = PARAM_FLOW_RULES.get(resourceName);
+        List<ParamFlowRule> rules = paramFlowRules.get(resourceName);
         return rules != null && !rules.isEmpty();
     }
 
@@ -91,7 +95,7 @@ public final class ParamFlowRuleManager {
      */
     public static List<ParamFlowRule> getRules() {
         List<ParamFlowRule> rules = new ArrayList<>();
-        for (Map.Entry<String, List<ParamFlowRule>> entry : PARAM_FLOW_RULES.entrySet()) {
+        for (Map.Entry<String, List<ParamFlowRule>> entry : paramFlowRules.entrySet()) {
             rules.addAll(entry.getValue());
         }
         return rules;
@@ -101,52 +105,29 @@ public final class ParamFlowRuleManager {
 
         @Override
         public void configUpdate(List<ParamFlowRule> list) {
-            Map<String, List<ParamFlowRule>> rules = aggregateAndPrepareParamRules(list);
-            if (rules != null) {
-                PARAM_FLOW_RULES.clear();
-                PARAM_FLOW_RULES.putAll(rules);
-            }
-            RecordLog.info("[ParamFlowRuleManager] Parameter flow rules received: {}", PARAM_FLOW_RULES);
+            applyRules(list);
         }
 
         @Override
         public void configLoad(List<ParamFlowRule> list) {
-            Map<String, List<ParamFlowRule>> rules = aggregateAndPrepareParamRules(list);
-            if (rules != null) {
-                PARAM_FLOW_RULES.clear();
-                PARAM_FLOW_RULES.putAll(rules);
-            }
-            RecordLog.info("[ParamFlowRuleManager] Parameter flow rules received: {}", PARAM_FLOW_RULES);
+            applyRules(list);
         }
 
-        private Map<String, List<ParamFlowRule>> aggregateAndPrepareParamRules(List<ParamFlowRule> list) {
-            Map<String, List<ParamFlowRule>> newRuleMap = ParamFlowRuleUtil.buildParamRuleMap(list);
-            if (newRuleMap == null || newRuleMap.isEmpty()) {
+        private void applyRules(List<ParamFlowRule> list) {
+            Map<String, List<ParamFlowRule>> rules = ParamFlowRuleUtil.buildParamRuleMap(list);
+            // Metrics are reloaded before the rules are published, so a rule is never checked
+            // against the counters of the previous rule set (which may be cleared or migrated meanwhile).
+            if (rules == null || rules.isEmpty()) {
                 // No parameter flow rules, so clear all the metrics.
                 ParameterMetricStorage.getMetricsMap().clear();
+                paramFlowRules = new HashMap<>();
                 RecordLog.info("[ParamFlowRuleManager] No parameter flow rules, clearing all parameter metrics");
-                return newRuleMap;
+            } else {
+                // Drop metrics of unused rules, while keeping (or migrating) counters of the others.
+                ParameterMetricStorage.reloadParamMetrics(rules);
+                paramFlowRules = rules;
             }
-
-            // Clear unused parameter metrics.
-            for (Map.Entry<String, List<ParamFlowRule>> entry : PARAM_FLOW_RULES.entrySet()) {
-                String resource = entry.getKey();
-                if (!newRuleMap.containsKey(resource)) {
-                    ParameterMetricStorage.clearParamMetricForResource(resource);
-                    continue;
-                }
-                List<ParamFlowRule> newRuleList = newRuleMap.get(resource);
-                List<ParamFlowRule> oldRuleList = new ArrayList<>(entry.getValue());
-                oldRuleList.removeAll(newRuleList);
-                for (ParamFlowRule rule : oldRuleList) {
-                    ParameterMetric parameterMetric = ParameterMetricStorage.getParamMetricForResource(resource);
-                    if (parameterMetric != null) {
-                        parameterMetric.clearForRule(rule);
-                    }
-                }
-            }
-
-            return newRuleMap;
+            RecordLog.info("[ParamFlowRuleManager] Parameter flow rules received: {}", paramFlowRules);
         }
     }
 
@@ -18,16 +18,28 @@ package com.alibaba.csp.sentinel.slots.block.flow.param;
 import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
 import com.alibaba.csp.sentinel.slots.statistic.cache.ConcurrentLinkedHashMapWrapper;
+import com.alibaba.csp.sentinel.util.TimeUtil;
 
 /**
- * Metrics for frequent ("hot spot") parameters.
+ * <p>Metrics for frequent ("hot spot") parameters.</p>
+ * <p>
+ * Since 1.8.6, all counters of the resource are held by an immutable {@link Snapshot}, which is replaced
+ * (copy-on-write) when a rule is initialized or removed, or when rules are reloaded. Readers in the request path
+ * only read the volatile snapshot and never take a monitor. When rules are reloaded, counters of unchanged rules
+ * are kept, and counters of a modified rule are migrated from the old rule if they count the same way
+ * (see {@link #isMigratable(ParamFlowRule, ParamFlowRule)}), so that hot values keep their state across reloads.
+ * </p>
  *
  * @author Eric Zhao
  * @since 0.2.0
@@ -37,22 +49,18 @@ public class ParameterMetric {
     private static final int THREAD_COUNT_MAX_CAPACITY = 4000;
     private static final int BASE_PARAM_MAX_CAPACITY = 4000;
     private static final int TOTAL_MAX_CAPACITY = 20_0000;
-
-    private final Object lock = new Object();
-
     /**
-     * Format: (rule, (value, timeRecorder))
-     *
-     * @since 1.6.0
+     * Capacity of the primitive token tables, which (unlike the cache maps) are allocated up front, so they
+     * don't scale with the statistic window. The least recently replenished values are evicted when full.
      */
-    private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTimeCounters = new HashMap<>();
+    private static final int PRIMITIVE_TOKEN_MAX_CAPACITY = 4096;
+
     /**
-     * Format: (rule, (value, tokenCounter))
-     *
-     * @since 1.6.0
+     * Lock for writers only.
      */
-    private final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenCounter = new HashMap<>();
-    private final Map<Integer, CacheMap<Object, AtomicInteger>> threadCountMap = new HashMap<>();
+    private final Object lock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot();
 
     /**
      * Get the token counter for given parameter rule.
@@ -62,7 +70,7 @@ public class ParameterMetric {
      * @since 1.6.0
      */
     public CacheMap<Object, AtomicLong> getRuleTokenCounter(ParamFlowRule rule) {
-        return ruleTokenCounter.get(rule);
+        return snapshot.ruleTokenCounter.get(rule);
     }
 
     /**
@@ -73,63 +81,176 @@ public class ParameterMetric {
      * @since 1.6.0
      */
     public CacheMap<Object, AtomicLong> getRuleTimeCounter(ParamFlowRule rule) {
-        return ruleTimeCounters.get(rule);
+        return snapshot.ruleTimeCounters.get(rule);
+    }
+
+    /**
+     * Get the heavy hitter counter for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return the associated heavy hitter counter, or null if the rule is not counted by the sketch engine
+     * @since 1.8.6
+     */
+    public HeavyHitterParamCounter getRuleHeavyHitterCounter(ParamFlowRule rule) {
+        return snapshot.ruleHeavyHitterCounters.get(rule);
+    }
+
+    /**
+     * Get the primitive token counter for given parameter rule.
+     *
+     * @param rule valid parameter rule
+     * @return the associated primitive token counter, or null if absent
+     * @since 1.8.6
+     */
+    public PrimitiveParamCounter getRulePrimitiveCounter(ParamFlowRule rule) {
+        return snapshot.rulePrimitiveCounters.get(rule);
     }
 
     public void clear() {
         synchronized (lock) {
-            threadCountMap.clear();
-            ruleTimeCounters.clear();
-            ruleTokenCounter.clear();
+            snapshot = new Snapshot();
         }
     }
 
     public void clearForRule(ParamFlowRule rule) {
         synchronized (lock) {
-            ruleTimeCounters.remove(rule);
-            ruleTokenCounter.remove(rule);
-            threadCountMap.remove(rule.getParamIdx());
+            Snapshot next = new Snapshot(snapshot);
+            next.ruleTimeCounters.remove(rule);
+            next.ruleTokenCounter.remove(rule);
+            next.ruleHeavyHitterCounters.remove(rule);
+            next.rulePrimitiveCounters.remove(rule);
+            next.threadCountMap.remove(rule.getParamIdx());
+            next.primitiveThreadCounters.remove(rule.getParamIdx());
+            next.initializedRules.remove(rule);
+            snapshot = next;
         }
     }
 
-    public void initialize(ParamFlowRule rule) {
-        if (!ruleTimeCounters.containsKey(rule)) {
-            synchronized (lock) {
-                if (ruleTimeCounters.get(rule) == null) {
-                    long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
-                    ruleTimeCounters.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
+    /**
+     * <p>Reload the rules of the resource. Counters of rules that are absent in given rules are dropped,
+     * counters of unchanged rules are kept, and counters of a removed rule are migrated to a new rule
+     * if they count the same way. Counters of other new rules will be initialized on their first check.</p>
+     * <p>Thread counters are kept for the parameter indexes of given rules.</p>
+     *
+     * @param rules new rules of the resource
+     * @since 1.8.6
+     */
+    public void reload(Collection<ParamFlowRule> rules) {
+        synchronized (lock) {
+            Snapshot current = snapshot;
+            Snapshot next = new Snapshot();
+            Set<ParamFlowRule> newRules = new HashSet<>(rules);
+            Set<ParamFlowRule> oldRules = current.ruleKeys();
+
+            // Counters of removed rules, which may be migrated to new rules.
+            Set<ParamFlowRule> removedRules = new LinkedHashSet<>(oldRules);
+            removedRules.removeAll(newRules);
+
+            for (ParamFlowRule rule : newRules) {
+                ParamFlowRule source = oldRules.contains(rule) ? rule : null;
+                if (source == null) {
+                    for (ParamFlowRule removed : removedRules) {
+                        if (isMigratable(removed, rule)) {
+                            source = removed;
+                            break;
+                        }
+                    }
+                    if (source == null) {
+                        continue;
+                    }
+                    removedRules.remove(source);
+                    RecordLog.info("[ParameterMetric] Migrating parameter counters from rule <{}> to <{}>",
+                        source, rule);
                 }
+                next.copyRuleCounters(current, source, rule);
             }
+            for (ParamFlowRule rule : newRules) {
+                Integer paramIdx = rule.getParamIdx();
+                putIfNotNull(next.threadCountMap, paramIdx, current.threadCountMap.get(paramIdx));
+                putIfNotNull(next.primitiveThreadCounters, paramIdx, current.primitiveThreadCounters.get(paramIdx));
+            }
+            snapshot = next;
         }
+    }
 
-        if (!ruleTokenCounter.containsKey(rule)) {
-            synchronized (lock) {
-                if (ruleTokenCounter.get(rule) == null) {
-                    long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
-                    ruleTokenCounter.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
-                }
-            }
+    /**
+     * Whether counters of the old rule can be taken by the new rule, i.e. they count the same parameter
+     * in the same statistic window with the same algorithm. Thresholds may differ, as the token buckets
+     * will be replenished with the new threshold.
+     */
+    static boolean isMigratable(ParamFlowRule oldRule, ParamFlowRule newRule) {
+        return oldRule.getParamIdx() != null && oldRule.getParamIdx().equals(newRule.getParamIdx())
+            && oldRule.getGrade() == newRule.getGrade()
+            && oldRule.getControlBehavior() == newRule.getControlBehavior()
+            && oldRule.getDurationInSec() == newRule.getDurationInSec()
+            && oldRule.isClusterMode() == newRule.isClusterMode();
+    }
+
+    public void initialize(ParamFlowRule rule) {
+        if (snapshot.initializedRules.contains(rule)) {
+            return;
         }
+        synchronized (lock) {
+            Snapshot current = snapshot;
+            if (current.initializedRules.contains(rule)) {
+                return;
+            }
+            Snapshot next = new Snapshot(current);
+            next.initializedRules.add(rule);
 
-        if (!threadCountMap.containsKey(rule.getParamIdx())) {
-            synchronized (lock) {
-                if (threadCountMap.get(rule.getParamIdx()) == null) {
-                    threadCountMap.put(rule.getParamIdx(),
-                        new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
-                }
+            if (HeavyHitterParamCounter.isEnabled() && HeavyHitterParamCounter.isApplicable(rule)
+                && !next.ruleHeavyHitterCounters.containsKey(rule)) {
+                next.ruleHeavyHitterCounters.put(rule, HeavyHitterParamCounter.forRule(rule,
+                    TimeUtil.currentTimeMillis()));
+            }
+            long size = Math.min(BASE_PARAM_MAX_CAPACITY * rule.getDurationInSec(), TOTAL_MAX_CAPACITY);
+            if (PrimitiveParamCounter.isEnabled() && isPrimitiveApplicable(rule)
+                && !next.rulePrimitiveCounters.containsKey(rule) && !next.ruleHeavyHitterCounters.containsKey(rule)) {
+                next.rulePrimitiveCounters.put(rule, PrimitiveParamCounter.forTokens(
+                    (int)Math.min(size, PRIMITIVE_TOKEN_MAX_CAPACITY)));
+            }
+            // Rules counted by the heavy-hitter counter never use the cache maps.
+            boolean heavyHitter = next.ruleHeavyHitterCounters.containsKey(rule);
+            if (!heavyHitter && !next.ruleTimeCounters.containsKey(rule)) {
+                next.ruleTimeCounters.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
+            }
+            if (!heavyHitter && !next.ruleTokenCounter.containsKey(rule)) {
+                next.ruleTokenCounter.put(rule, new ConcurrentLinkedHashMapWrapper<Object, AtomicLong>(size));
             }
+            if (!next.threadCountMap.containsKey(rule.getParamIdx())) {
+                next.threadCountMap.put(rule.getParamIdx(),
+                    new ConcurrentLinkedHashMapWrapper<Object, AtomicInteger>(THREAD_COUNT_MAX_CAPACITY));
+            }
+            if (PrimitiveParamCounter.isEnabled() && !next.primitiveThreadCounters.containsKey(rule.getParamIdx())) {
+                next.primitiveThreadCounters.put(rule.getParamIdx(),
+                    PrimitiveParamCounter.forThreads(THREAD_COUNT_MAX_CAPACITY));
+            }
+            snapshot = next;
         }
     }
 
+    private static boolean isPrimitiveApplicable(ParamFlowRule rule) {
+        return rule.getGrade() == RuleConstant.FLOW_GRADE_QPS
+            && rule.getControlBehavior() == RuleConstant.CONTROL_BEHAVIOR_DEFAULT;
+    }
+
+    private static <K, V> void putIfNotNull(Map<K, V> map, K key, V value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+
     @SuppressWarnings("rawtypes")
     public void decreaseThreadCount(Object... args) {
         if (args == null) {
             return;
         }
 
+        Snapshot current = snapshot;
         try {
             for (int index = 0; index < args.length; index++) {
-                CacheMap<Object, AtomicInteger> threadCount = threadCountMap.get(index);
+                CacheMap<Object, AtomicInteger> threadCount = current.threadCountMap.get(index);
                 if (threadCount == null) {
                     continue;
                 }
@@ -138,57 +259,50 @@ public class ParameterMetric {
                 if (arg == null) {
                     continue;
                 }
+                PrimitiveParamCounter primitiveCounter = current.primitiveThreadCounters.get(index);
                 if (Collection.class.isAssignableFrom(arg.getClass())) {
-
                     for (Object value : ((Collection)arg)) {
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            int currentValue = oldValue.decrementAndGet();
-                            if (currentValue <= 0) {
-                                threadCount.remove(value);
-                            }
-                        }
-
+                        decreaseThreadCount(threadCount, primitiveCounter, value);
                     }
                 } else if (arg.getClass().isArray()) {
                     int length = Array.getLength(arg);
                     for (int i = 0; i < length; i++) {
-                        Object value = Array.get(arg, i);
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            int currentValue = oldValue.decrementAndGet();
-                            if (currentValue <= 0) {
-                                threadCount.remove(value);
-                            }
-                        }
-
+                        decreaseThreadCount(threadCount, primitiveCounter, Array.get(arg, i));
                     }
                 } else {
-                    AtomicInteger oldValue = threadCount.putIfAbsent(arg, new AtomicInteger());
-                    if (oldValue != null) {
-                        int currentValue = oldValue.decrementAndGet();
-                        if (currentValue <= 0) {
-                            threadCount.remove(arg);
-                        }
-                    }
-
+                    decreaseThreadCount(threadCount, primitiveCounter, arg);
                 }
-
             }
         } catch (Throwable e) {
             RecordLog.warn("[ParameterMetric] Param exception", e);
         }
     }
 
+    private static void decreaseThreadCount(CacheMap<Object, AtomicInteger> threadCount,
+                                            PrimitiveParamCounter primitiveCounter, Object value) {
+        if (primitiveCounter != null && value != null
+            && primitiveCounter.decreaseThreadCount(value) != PrimitiveParamCounter.NOT_HANDLED) {
+            return;
+        }
+        AtomicInteger oldValue = threadCount.get(value);
+        if (oldValue != null) {
+            int currentValue = oldValue.decrementAndGet();
+            if (currentValue <= 0) {
+                threadCount.remove(value);
+            }
+        }
+    }
+
     @SuppressWarnings("rawtypes")
     public void addThreadCount(Object... args) {
         if (args == null) {
             return;
         }
 
+        Snapshot current = snapshot;
         try {
             for (int index = 0; index < args.length; index++) {
-                CacheMap<Object, AtomicInteger> threadCount = threadCountMap.get(index);
+                CacheMap<Object, AtomicInteger> threadCount = current.threadCountMap.get(index);
                 if (threadCount == null) {
                     continue;
                 }
@@ -198,39 +312,19 @@ public class ParameterMetric {
                 if (arg == null) {
                     continue;
                 }
-
+                PrimitiveParamCounter primitiveCounter = current.primitiveThreadCounters.get(index);
                 if (Collection.class.isAssignableFrom(arg.getClass())) {
                     for (Object value : ((Collection)arg)) {
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            oldValue.incrementAndGet();
-                        } else {
-                            threadCount.put(value, new AtomicInteger(1));
-                        }
-
+                        increaseThreadCount(threadCount, primitiveCounter, value);
                     }
                 } else if (arg.getClass().isArray()) {
                     int length = Array.getLength(arg);
                     for (int i = 0; i < length; i++) {
-                        Object value = Array.get(arg, i);
-                        AtomicInteger oldValue = threadCount.putIfAbsent(value, new AtomicInteger());
-                        if (oldValue != null) {
-                            oldValue.incrementAndGet();
-                        } else {
-                            threadCount.put(value, new AtomicInteger(1));
-                        }
-
+                        increaseThreadCount(threadCount, primitiveCounter, Array.get(arg, i));
                     }
                 } else {
-                    AtomicInteger oldValue = threadCount.putIfAbsent(arg, new AtomicInteger());
-                    if (oldValue != null) {
-                        oldValue.incrementAndGet();
-                    } else {
-                        threadCount.put(arg, new AtomicInteger(1));
-                    }
-
+                    increaseThreadCount(threadCount, primitiveCounter, arg);
                 }
-
             }
 
         } catch (Throwable e) {
@@ -238,8 +332,32 @@ public class ParameterMetric {
         }
     }
 
+    private static void increaseThreadCount(CacheMap<Object, AtomicInteger> threadCount,
+                                            PrimitiveParamCounter primitiveCounter, Object value) {
+        if (primitiveCounter != null && value != null
+            && primitiveCounter.increaseThreadCount(value) != PrimitiveParamCounter.NOT_HANDLED) {
+            return;
+        }
+        AtomicInteger oldValue = threadCount.get(value);
+        if (oldValue == null) {
+            oldValue = threadCount.putIfAbsent(value, new AtomicInteger(1));
+            if (oldValue == null) {
+                return;
+            }
+        }
+        oldValue.incrementAndGet();
+    }
+
     public long getThreadCount(int index, Object value) {
-        CacheMap<Object, AtomicInteger> cacheMap = threadCountMap.get(index);
+        Snapshot current = snapshot;
+        PrimitiveParamCounter primitiveCounter = current.primitiveThreadCounters.get(index);
+        if (primitiveCounter != null && value != null) {
+            long count = primitiveCounter.getThreadCount(value);
+            if (count != PrimitiveParamCounter.NOT_HANDLED) {
+                return count;
+            }
+        }
+        CacheMap<Object, AtomicInteger> cacheMap = current.threadCountMap.get(index);
         if (cacheMap == null) {
             return 0;
         }
@@ -249,19 +367,102 @@ public class ParameterMetric {
     }
 
     /**
-     * Get the token counter map. Package-private for test.
+     * Get the token counter map of current snapshot. Package-private for test, DO NOT MODIFY the map
+     * except for test.
      *
      * @return the token counter map
      */
     Map<ParamFlowRule, CacheMap<Object, AtomicLong>> getRuleTokenCounterMap() {
-        return ruleTokenCounter;
+        return snapshot.ruleTokenCounter;
     }
 
     Map<Integer, CacheMap<Object, AtomicInteger>> getThreadCountMap() {
-        return threadCountMap;
+        return snapshot.threadCountMap;
     }
 
     Map<ParamFlowRule, CacheMap<Object, AtomicLong>> getRuleTimeCounterMap() {
-        return ruleTimeCounters;
+        return snapshot.ruleTimeCounters;
+    }
+
+    Map<ParamFlowRule, HeavyHitterParamCounter> getRuleHeavyHitterCounterMap() {
+        return snapshot.ruleHeavyHitterCounters;
+    }
+
+    Map<ParamFlowRule, PrimitiveParamCounter> getRulePrimitiveCounterMap() {
+        return snapshot.rulePrimitiveCounters;
+    }
+
+    Map<Integer, PrimitiveParamCounter> getPrimitiveThreadCounterMap() {
+        return snapshot.primitiveThreadCounters;
+    }
+
+    /**
+     * Immutable (once published) counters of a resource.
+     */
+    private static final class Snapshot {
+
+        /**
+         * Format: (rule, (value, timeRecorder))
+         */
+        final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTimeCounters;
+        /**
+         * Format: (rule, (value, tokenCounter))
+         */
+        final Map<ParamFlowRule, CacheMap<Object, AtomicLong>> ruleTokenCounter;
+        final Map<Integer, CacheMap<Object, AtomicInteger>> threadCountMap;
+        /**
+         * Format: (rule, heavyHitterCounter), only for applicable rules when the sketch engine is enabled.
+         */
+        final Map<ParamFlowRule, HeavyHitterParamCounter> ruleHeavyHitterCounters;
+        /**
+         * Format: (rule, primitiveTokenCounter), allocation-free token counters for long and String values.
+         */
+        final Map<ParamFlowRule, PrimitiveParamCounter> rulePrimitiveCounters;
+        /**
+         * Format: (paramIdx, primitiveThreadCounter), allocation-free thread counters for long and String values.
+         */
+        final Map<Integer, PrimitiveParamCounter> primitiveThreadCounters;
+        /**
+         * Rules whose counters have all been initialized.
+         */
+        final Set<ParamFlowRule> initializedRules;
+
+        Snapshot() {
+            this.ruleTimeCounters = new HashMap<>();
+            this.ruleTokenCounter = new HashMap<>();
+            this.threadCountMap = new HashMap<>();
+            this.ruleHeavyHitterCounters = new HashMap<>();
+            this.rulePrimitiveCounters = new HashMap<>();
+            this.primitiveThreadCounters = new HashMap<>();
+            this.initializedRules = new HashSet<>();
+        }
+
+        Snapshot(Snapshot s) {
+            this.ruleTimeCounters = new HashMap<>(s.ruleTimeCounters);
+            this.ruleTokenCounter = new HashMap<>(s.ruleTokenCounter);
+            this.threadCountMap = new HashMap<>(s.threadCountMap);
+            this.ruleHeavyHitterCounters = new HashMap<>(s.ruleHeavyHitterCounters);
+            this.rulePrimitiveCounters = new HashMap<>(s.rulePrimitiveCounters);
+            this.primitiveThreadCounters = new HashMap<>(s.primitiveThreadCounters);
+            this.initializedRules = new HashSet<>(s.initializedRules);
+        }
+
+        Set<ParamFlowRule> ruleKeys() {
+            Set<ParamFlowRule> rules = new HashSet<>(ruleTimeCounters.keySet());
+            rules.addAll(ruleTokenCounter.keySet());
+            rules.addAll(ruleHeavyHitterCounters.keySet());
+            rules.addAll(rulePrimitiveCounters.keySet());
+            return rules;
+        }
+
+        void copyRuleCounters(Snapshot from, ParamFlowRule source, ParamFlowRule target) {
+            putIfNotNull(ruleTimeCounters, target, from.ruleTimeCounters.get(source));
+            putIfNotNull(ruleTokenCounter, target, from.ruleTokenCounter.get(source));
+            putIfNotNull(ruleHeavyHitterCounters, target, from.ruleHeavyHitterCounters.get(source));
+            putIfNotNull(rulePrimitiveCounters, target, from.rulePrimitiveCounters.get(source));
+            if (from.initializedRules.contains(source)) {
+                initializedRules.add(target);
+            }
+        }
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.alibaba.csp.sentinel.slots.block.flow.param;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -85,6 +86,24 @@ public final class ParameterMetricStorage {
         RecordLog.info("[ParameterMetricStorage] Clearing parameter metric for: {}", resourceName);
     }
 
+    /**
+     * Reload parameter metrics with new rules: metrics of resources without rules are removed, and counters
+     * of other resources are kept or migrated, see {@link ParameterMetric#reload(java.util.Collection)}.
+     *
+     * @param ruleMap new parameter rules (resource, rules)
+     * @since 1.8.6
+     */
+    public static void reloadParamMetrics(Map<String, List<ParamFlowRule>> ruleMap) {
+        for (Map.Entry<String, ParameterMetric> entry : metricsMap.entrySet()) {
+            List<ParamFlowRule> rules = ruleMap == null ? null : ruleMap.get(entry.getKey());
+            if (rules == null || rules.isEmpty()) {
+                clearParamMetricForResource(entry.getKey());
+            } else {
+                entry.getValue().reload(rules);
+            }
+        }
+    }
+
     static Map<String, ParameterMetric> getMetricsMap() {
         return metricsMap;
     }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * <p>
+ * Allocation-free counters of parameter values of type {@code long}, {@code int} and {@link String}, which are
+ * the most common types of hot parameters. There are two usages:
+ * </p>
+ * <ul>
+ *     <li>token counters of a QPS rule with default control behavior (the token bucket of
+ *     {@link ParamFlowChecker}), where the least recently replenished value is evicted when there's no room;</li>
+ *     <li>thread counters of a parameter index, where the slot of a value is recycled for other values once its
+ *     count drops to zero.</li>
+ * </ul>
+ * <p>
+ * Each operation returns {@link #NOT_HANDLED} if the value is of other types or can't be placed in the table,
+ * in which case the caller should fall back to the generic {@code CacheMap} counters. The table of each key type
+ * is created on the first value of that type.
+ * </p>
+ * <p>
+ * It's enabled by default, see {@link #PRIMITIVE_ENABLED}.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class PrimitiveParamCounter {
+
+    public static final String PRIMITIVE_ENABLED = "csp.sentinel.param.flow.primitive.enabled";
+
+    public static final int NOT_HANDLED = -1;
+    public static final int BLOCKED = 0;
+    public static final int PASSED = 1;
+
+    /**
+     * Counters of a token slot: last time when tokens were added, and the rest tokens.
+     */
+    private static final int TIME = 0;
+    private static final int TOKENS = 1;
+
+    private static final AtomicReferenceFieldUpdater<PrimitiveParamCounter, ParamCounterTable> LONG_TABLE_UPDATER
+        = AtomicReferenceFieldUpdater.newUpdater(PrimitiveParamCounter.class, ParamCounterTable.class, "longTable");
+    private static final AtomicReferenceFieldUpdater<PrimitiveParamCounter, ParamCounterTable> STRING_TABLE_UPDATER
+        = AtomicReferenceFieldUpdater.newUpdater(PrimitiveParamCounter.class, ParamCounterTable.class, "stringTable");
+
+    private final int capacity;
+    private final int stride;
+
+    private volatile ParamCounterTable longTable;
+    private volatile ParamCounterTable stringTable;
+
+    private PrimitiveParamCounter(int capacity, int stride) {
+        this.capacity = capacity;
+        this.stride = stride;
+    }
+
+    public static boolean isEnabled() {
+        String v = SentinelConfig.getConfig(PRIMITIVE_ENABLED);
+        return v == null || Boolean.parseBoolean(v.trim());
+    }
+
+    public static PrimitiveParamCounter forTokens(int capacity) {
+        return new PrimitiveParamCounter(capacity, 2);
+    }
+
+    public static PrimitiveParamCounter forThreads(int capacity) {
+        return new PrimitiveParamCounter(capacity, 1);
+    }
+
+    private ParamCounterTable tableOf(Object value, boolean create) {
+        if (ParamCounterTable.isLongKey(value)) {
+            ParamCounterTable table = longTable;
+            if (table == null && create) {
+                LONG_TABLE_UPDATER.compareAndSet(this, null, ParamCounterTable.forLongKeys(capacity, stride));
+                table = longTable;
+            }
+            return table;
+        }
+        if (value instanceof String) {
+            ParamCounterTable table = stringTable;
+            if (table == null && create) {
+                STRING_TABLE_UPDATER.compareAndSet(this, null, ParamCounterTable.forStringKeys(capacity, stride));
+                table = stringTable;
+            }
+            return table;
+        }
+        return null;
+    }
+
+    /**
+     * Try to acquire tokens for the value, with the same simplified token bucket algorithm as
+     * {@link ParamFlowChecker}, which replenishes the tokens only when the statistic window has passed.
+     *
+     * @param value        a non-null parameter value
+     * @param acquireCount tokens to acquire
+     * @param tokenCount   threshold of the value in each window
+     * @param maxCount     max tokens of the value (threshold plus burst)
+     * @param durationInMs length of the statistic window
+     * @return {@link #PASSED}, {@link #BLOCKED} or {@link #NOT_HANDLED}
+     */
+    public int tryAcquire(Object value, int acquireCount, long tokenCount, long maxCount, long durationInMs) {
+        ParamCounterTable table = tableOf(value, true);
+        if (table == null) {
+            return NOT_HANDLED;
+        }
+        AtomicLongArray counters = table.values();
+        while (true) {
+            long currentTime = TimeUtil.currentTimeMillis();
+            int slot = table.find(value);
+            if (slot < 0) {
+                // Token never added, just replenish the tokens and consume {@code acquireCount} immediately.
+                slot = table.insert(value, currentTime, maxCount - acquireCount, TIME);
+                if (slot >= 0) {
+                    return PASSED;
+                }
+                if (slot == ParamCounterTable.NO_ROOM) {
+                    return NOT_HANDLED;
+                }
+                continue;
+            }
+
+            int timeIdx = table.offset(slot) + TIME;
+            int tokenIdx = table.offset(slot) + TOKENS;
+            long passTime = currentTime - counters.get(timeIdx);
+            long restQps = counters.get(tokenIdx);
+            if (passTime > durationInMs) {
+                long toAddCount = (passTime * tokenCount) / durationInMs;
+                long newQps = toAddCount + restQps > maxCount ? (maxCount - acquireCount)
+                    : (restQps + toAddCount - acquireCount);
+                if (newQps < 0) {
+                    return BLOCKED;
+                }
+                if (counters.compareAndSet(tokenIdx, restQps, newQps)) {
+                    counters.set(timeIdx, currentTime);
+                    return PASSED;
+                }
+            } else {
+                if (restQps - acquireCount < 0) {
+                    return BLOCKED;
+                }
+                if (counters.compareAndSet(tokenIdx, restQps, restQps - acquireCount)) {
+                    return PASSED;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Increase the thread count of the value.
+     *
+     * @param value a non-null parameter value
+     * @return {@link #PASSED} or {@link #NOT_HANDLED}
+     */
+    public int increaseThreadCount(Object value) {
+        ParamCounterTable table = tableOf(value, true);
+        if (table == null) {
+            return NOT_HANDLED;
+        }
+        while (true) {
+            int slot = table.find(value);
+            if (slot >= 0) {
+                if (table.incrementIfOwned(slot, value)) {
+                    return PASSED;
+                }
+                continue;
+            }
+            slot = table.insertOrReclaim(value, 1);
+            if (slot >= 0) {
+                return PASSED;
+            }
+            if (slot == ParamCounterTable.NO_ROOM) {
+                return NOT_HANDLED;
+            }
+        }
+    }
+
+    /**
+     * Decrease the thread count of the value. As a slot is recycled only when its count drops to zero,
+     * a value that is absent in the table must have been counted by the fallback counters.
+     *
+     * @param value a non-null parameter value
+     * @return {@link #PASSED} or {@link #NOT_HANDLED}
+     */
+    public int decreaseThreadCount(Object value) {
+        ParamCounterTable table = tableOf(value, false);
+        int slot = table == null ? ParamCounterTable.NO_ROOM : table.find(value);
+        if (slot < 0) {
+            return NOT_HANDLED;
+        }
+        table.decrementIfPositive(slot);
+        return PASSED;
+    }
+
+    /**
+     * @param value a non-null parameter value
+     * @return the thread count of the value, or {@link #NOT_HANDLED} if absent in the table
+     */
+    public long getThreadCount(Object value) {
+        ParamCounterTable table = tableOf(value, false);
+        int slot = table == null ? ParamCounterTable.NO_ROOM : table.find(value);
+        // A negative count means the slot is being reclaimed, as the count of the value has dropped to zero.
+        return slot < 0 ? NOT_HANDLED : Math.max(0, table.values().get(table.offset(slot)));
+    }
+
+    /**
+     * @return amount of values in the tables
+     */
+    public int size() {
+        ParamCounterTable l = longTable;
+        ParamCounterTable s = stringTable;
+        return (l == null ? 0 : l.size()) + (s == null ? 0 : s.size());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A concurrent count-min sketch, which estimates the frequency of keys in fixed memory.
+ * The estimation never underestimates the true frequency, and overestimates it by at most
+ * {@code e / width * totalCount} with the probability of {@code 1 - exp(-depth)}.
+ * </p>
+ * <p>
+ * Updating the sketch does not allocate. Counters are increased atomically rather than with
+ * "conservative update", so that concurrent updates can never lead to underestimation.
+ * </p>
+ *
+ * @since 1.8.6
+ */
+public class CountMinSketch {
+
+    private static final int DEPTH = 4;
+
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width amount of counters in each row, which will be rounded up to a power of 2
+     */
+    public CountMinSketch(int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Width of count-min sketch should be positive: " + width);
+        }
+        int w = 1;
+        while (w < width) {
+            w <<= 1;
+        }
+        this.width = w;
+        this.mask = w - 1;
+        this.counters = new AtomicLongArray(DEPTH * w);
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(int h1, int h2, int row) {
+        return row * width + ((h1 + row * h2) & mask);
+    }
+
+    /**
+     * Add {@code n} occurrences of the key.
+     *
+     * @param key a non-null key
+     * @param n   occurrences to add, which should be positive
+     * @return estimated frequency of the key after adding
+     */
+    public long add(Object key, long n) {
+        int h1 = spread(key.hashCode());
+        int h2 = (h1 >>> 16) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters.addAndGet(indexOf(h1, h2, row), n));
+        }
+        return min;
+    }
+
+    /**
+     * Estimate the frequency of the key.
+     *
+     * @param key a non-null key
+     * @return estimated frequency of the key
+     */
+    public long estimate(Object key) {
+        int h1 = spread(key.hashCode());
+        int h2 = (h1 >>> 16) | 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters.get(indexOf(h1, h2, row)));
+        }
+        return min;
+    }
+
+    /**
+     * Reset all counters. Concurrent updates during the reset may be partially kept.
+     */
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link HeavyHitterParamCounter}.
+ */
+public class HeavyHitterParamCounterTest {
+
+    @Test
+    public void testColdValueThenHotBucket() {
+        long now = 10000;
+        HeavyHitterParamCounter counter = new HeavyHitterParamCounter(1000, 1024, 16, now);
+        String value = "user-1";
+
+        // Cold values are counted by the sketch only.
+        for (int i = 0; i < 5; i++) {
+            assertTrue(counter.tryAcquire(value, 1, 10, 10, now));
+        }
+        assertFalse(counter.isHot(value));
+
+        // Promoted to an exact bucket with the tokens left in current window.
+        assertTrue(counter.tryAcquire(value, 1, 10, 10, now));
+        assertTrue(counter.isHot(value));
+        for (int i = 0; i < 4; i++) {
+            assertTrue(counter.tryAcquire(value, 1, 10, 10, now + 100));
+        }
+        assertFalse(counter.tryAcquire(value, 1, 10, 10, now + 200));
+
+        // Tokens are replenished after the window has passed.
+        assertTrue(counter.tryAcquire(value, 1, 10, 10, now + 1100));
+        assertEquals(1, counter.getPromotedCount());
+    }
+
+    @Test
+    public void testEvictedHotValueNotExceedThreshold() {
+        long now = 10000;
+        HeavyHitterParamCounter counter = new HeavyHitterParamCounter(1000, 1024, 1, now);
+        int passed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (counter.tryAcquire("hot-a", 1, 10, 10, now)) {
+                passed++;
+            }
+        }
+        assertEquals(10, passed);
+        assertTrue(counter.isHot("hot-a"));
+
+        // A hotter value takes the only bucket in the same window, once its estimate crosses a power of two
+        // above the hits of the hot value.
+        for (int i = 0; i < 12; i++) {
+            counter.tryAcquire("hot-b", 1, 10, 10, now);
+        }
+        assertTrue(counter.isHot("hot-a"));
+        for (int i = 12; i < 16; i++) {
+            counter.tryAcquire("hot-b", 1, 10, 10, now);
+        }
+        assertTrue(counter.isHot("hot-b"));
+        assertFalse(counter.isHot("hot-a"));
+        assertEquals(1, counter.getEvictedCount());
+
+        // The evicted value still counts its hits in current window.
+        assertFalse(counter.tryAcquire("hot-a", 1, 10, 10, now + 100));
+        assertTrue(counter.estimate("hot-a") > 10);
+    }
+
+    @Test
+    public void testHotValuesNotEvictedByLongTail() {
+        long now = 10000;
+        HeavyHitterParamCounter counter = new HeavyHitterParamCounter(1000, 4096, 2, now);
+        for (int i = 0; i < 100; i++) {
+            counter.tryAcquire("hot-a", 1, 1000, 1000, now);
+            counter.tryAcquire("hot-b", 1, 1000, 1000, now);
+        }
+        assertEquals(0, counter.getHotCount());
+
+        // Threshold of 2: every value is promoted as a candidate on its second hit.
+        for (int i = 0; i < 100; i++) {
+            counter.tryAcquire("hot-a", 1, 2, 2, now);
+            counter.tryAcquire("hot-b", 1, 2, 2, now);
+        }
+        assertTrue(counter.isHot("hot-a"));
+        assertTrue(counter.isHot("hot-b"));
+
+        int passed = 0;
+        for (int i = 0; i < 100000; i++) {
+            String value = "cold-" + i;
+            for (int j = 0; j < 3; j++) {
+                if (counter.tryAcquire(value, 1, 2, 2, now)) {
+                    passed++;
+                }
+            }
+        }
+        assertTrue(counter.isHot("hot-a"));
+        assertTrue(counter.isHot("hot-b"));
+        assertEquals(2, counter.getHotCount());
+        assertEquals(0, counter.getEvictedCount());
+        // Cold values can't pass more than the threshold in the window.
+        assertTrue(passed <= 100000 * 2);
+    }
+}
@@ -18,6 +18,7 @@ package com.alibaba.csp.sentinel.slots.block.flow.param;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -25,8 +26,11 @@ import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
+import com.alibaba.csp.sentinel.config.SentinelConfig;
 import com.alibaba.csp.sentinel.slots.block.RuleConstant;
 import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
 
@@ -38,6 +42,17 @@ import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
  */
 public class ParameterMetricTest {
 
+    @Before
+    public void setUp() {
+        // Cases here verify the generic thread counters, see PrimitiveParamCounterTest for the primitive ones.
+        SentinelConfig.setConfig(PrimitiveParamCounter.PRIMITIVE_ENABLED, "false");
+    }
+
+    @After
+    public void tearDown() {
+        SentinelConfig.setConfig(PrimitiveParamCounter.PRIMITIVE_ENABLED, "true");
+    }
+
     @Test
     public void testInitAndClearParameterMetric() {
         // Create a parameter metric for resource "abc".
@@ -76,6 +91,47 @@ public class ParameterMetricTest {
         assertEquals(0, metric.getRuleTokenCounterMap().size());
     }
 
+    @Test
+    public void testReloadKeepsAndMigratesCounters() {
+        ParameterMetric metric = new ParameterMetric();
+        ParamFlowRule unchanged = new ParamFlowRule("abc").setParamIdx(0).setCount(10);
+        ParamFlowRule modified = new ParamFlowRule("abc").setParamIdx(1).setCount(10);
+        ParamFlowRule removed = new ParamFlowRule("abc").setParamIdx(2).setCount(10);
+        metric.initialize(unchanged);
+        metric.initialize(modified);
+        metric.initialize(removed);
+        CacheMap<Object, AtomicLong> unchangedCounter = metric.getRuleTokenCounter(unchanged);
+        CacheMap<Object, AtomicLong> modifiedCounter = metric.getRuleTokenCounter(modified);
+        unchangedCounter.put("a", new AtomicLong(3));
+        modifiedCounter.put("b", new AtomicLong(5));
+        CacheMap<Object, AtomicInteger> threadCountMap = metric.getThreadCountMap().get(0);
+
+        // Only the threshold changes, so the counters are migrated.
+        ParamFlowRule newModified = new ParamFlowRule("abc").setParamIdx(1).setCount(20);
+        // Another statistic window, which can't take the counters.
+        ParamFlowRule added = new ParamFlowRule("abc").setParamIdx(2).setCount(10).setDurationInSec(2);
+        metric.reload(Arrays.asList(new ParamFlowRule("abc").setParamIdx(0).setCount(10), newModified, added));
+
+        assertSame(unchangedCounter, metric.getRuleTokenCounter(unchanged));
+        assertSame(modifiedCounter, metric.getRuleTokenCounter(newModified));
+        assertEquals(5, metric.getRuleTokenCounter(newModified).get("b").get());
+        assertNull(metric.getRuleTokenCounter(modified));
+        assertNull(metric.getRuleTokenCounter(removed));
+        assertNull(metric.getRuleTokenCounter(added));
+        assertSame(threadCountMap, metric.getThreadCountMap().get(0));
+        assertEquals(3, metric.getThreadCountMap().size());
+
+        // Initialization of migrated rules is a no-op, while new rules get their counters.
+        metric.initialize(newModified);
+        assertSame(modifiedCounter, metric.getRuleTokenCounter(newModified));
+        metric.initialize(added);
+        assertNotNull(metric.getRuleTokenCounter(added));
+
+        metric.reload(Arrays.asList(unchanged));
+        assertEquals(1, metric.getRuleTokenCounterMap().size());
+        assertEquals(1, metric.getThreadCountMap().size());
+    }
+
     @Test
     public void testAddAndDecreaseThreadCountCommon() {
         testAddAndDecreaseThreadCount(PARAM_TYPE_NORMAL);
@@ -0,0 +1,165 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.block.flow.param;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slotchain.StringResourceWrapper;
+import com.alibaba.csp.sentinel.slots.statistic.cache.CacheMap;
+import com.alibaba.csp.sentinel.test.AbstractTimeBasedTest;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link PrimitiveParamCounter}.
+ */
+public class PrimitiveParamCounterTest extends AbstractTimeBasedTest {
+
+    @After
+    public void tearDown() {
+        ParameterMetricStorage.getMetricsMap().clear();
+    }
+
+    @Test
+    public void testTokenBucket() {
+        setCurrentMillis(10000);
+        PrimitiveParamCounter counter = PrimitiveParamCounter.forTokens(16);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(PrimitiveParamCounter.PASSED, counter.tryAcquire(7L, 1, 5, 5, 1000));
+        }
+        assertEquals(PrimitiveParamCounter.BLOCKED, counter.tryAcquire(7L, 1, 5, 5, 1000));
+        // Other values have their own tokens.
+        assertEquals(PrimitiveParamCounter.PASSED, counter.tryAcquire(8, 1, 5, 5, 1000));
+        assertEquals(PrimitiveParamCounter.PASSED, counter.tryAcquire("7", 1, 5, 5, 1000));
+
+        sleep(1001);
+        assertEquals(PrimitiveParamCounter.PASSED, counter.tryAcquire(7L, 1, 5, 5, 1000));
+        assertEquals(3, counter.size());
+
+        assertEquals(PrimitiveParamCounter.NOT_HANDLED, counter.tryAcquire(7.0d, 1, 5, 5, 1000));
+    }
+
+    @Test
+    public void testLeastRecentlyReplenishedValueEvicted() {
+        setCurrentMillis(10000);
+        PrimitiveParamCounter counter = PrimitiveParamCounter.forTokens(16);
+        int inserted = 0;
+        for (long v = 0; v < 1000; v++) {
+            sleep(1);
+            if (counter.tryAcquire(v, 1, 1, 1, 1000) == PrimitiveParamCounter.PASSED) {
+                inserted++;
+            }
+        }
+        // All values got their tokens by evicting older values, while the table stays bounded.
+        assertEquals(1000, inserted);
+        assertEquals(16, counter.size());
+    }
+
+    @Test
+    public void testThreadCount() {
+        PrimitiveParamCounter counter = PrimitiveParamCounter.forThreads(16);
+        assertEquals(PrimitiveParamCounter.NOT_HANDLED, counter.getThreadCount("a"));
+        assertEquals(PrimitiveParamCounter.PASSED, counter.increaseThreadCount("a"));
+        assertEquals(PrimitiveParamCounter.PASSED, counter.increaseThreadCount("a"));
+        assertEquals(PrimitiveParamCounter.PASSED, counter.increaseThreadCount(1));
+        assertEquals(2, counter.getThreadCount("a"));
+        assertEquals(1, counter.getThreadCount(1L));
+
+        assertEquals(PrimitiveParamCounter.PASSED, counter.decreaseThreadCount("a"));
+        assertEquals(PrimitiveParamCounter.PASSED, counter.decreaseThreadCount("a"));
+        assertEquals(PrimitiveParamCounter.PASSED, counter.decreaseThreadCount("a"));
+        assertEquals(0, counter.getThreadCount("a"));
+
+        assertEquals(PrimitiveParamCounter.NOT_HANDLED, counter.decreaseThreadCount("b"));
+        assertEquals(PrimitiveParamCounter.NOT_HANDLED, counter.increaseThreadCount(new Object()));
+    }
+
+    @Test
+    public void testThreadCountSlotReclaimed() {
+        PrimitiveParamCounter counter = PrimitiveParamCounter.forThreads(16);
+        assertEquals(PrimitiveParamCounter.PASSED, counter.increaseThreadCount(-1L));
+        // Far more values than the slots, but slots of values that have been released are reclaimed.
+        for (long v = 0; v < 1000; v++) {
+            assertEquals(PrimitiveParamCounter.PASSED, counter.increaseThreadCount(v));
+            assertEquals(1, counter.getThreadCount(v));
+            assertEquals(PrimitiveParamCounter.PASSED, counter.decreaseThreadCount(v));
+        }
+        assertTrue(counter.size() <= 16);
+        // Values still counted keep their slots.
+        assertEquals(1, counter.getThreadCount(-1L));
+    }
+
+    @Test
+    public void testThreadCountFallbackWhenFull() {
+        ParamFlowRule rule = new ParamFlowRule("abc").setParamIdx(0);
+        ParameterMetric metric = new ParameterMetric();
+        metric.initialize(rule);
+        PrimitiveParamCounter counter = metric.getPrimitiveThreadCounterMap().get(0);
+        assertNotNull(counter);
+
+        // More values than the slots of the table, but within the capacity of the fallback counters.
+        int n = 6000;
+        for (long v = 0; v < n; v++) {
+            metric.addThreadCount(v);
+        }
+        metric.addThreadCount(Arrays.asList("x", "y"));
+        CacheMap<Object, AtomicInteger> fallback = metric.getThreadCountMap().get(0);
+        assertTrue(counter.size() > 0);
+        assertTrue(fallback.size() > 0);
+        for (long v = 0; v < n; v++) {
+            assertEquals(1, metric.getThreadCount(0, v));
+        }
+        assertEquals(1, metric.getThreadCount(0, "y"));
+
+        for (long v = 0; v < n; v++) {
+            metric.decreaseThreadCount(v);
+            assertEquals(0, metric.getThreadCount(0, v));
+        }
+        assertEquals(0, fallback.size());
+    }
+
+    @Test
+    public void testDefaultCheckWithPrimitiveCounter() {
+        final String resourceName = "testDefaultCheckWithPrimitiveCounter";
+        final ResourceWrapper resourceWrapper = new StringResourceWrapper(resourceName, EntryType.IN);
+        ParamFlowRule rule = new ParamFlowRule(resourceName).setCount(3).setParamIdx(0);
+        ParameterMetric metric = new ParameterMetric();
+        ParameterMetricStorage.getMetricsMap().put(resourceWrapper.getName(), metric);
+        metric.initialize(rule);
+        assertNotNull(metric.getRulePrimitiveCounter(rule));
+
+        setCurrentMillis(10000);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, 42L));
+        }
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, 42L));
+        // Values of other types are still counted by the generic counters.
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, 42.0d));
+        assertEquals(1, metric.getRuleTokenCounter(rule).size());
+        assertNull(metric.getRuleTokenCounter(rule).get(42L));
+
+        sleep(1000);
+        assertFalse(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, 42L));
+        sleep(1);
+        assertTrue(ParamFlowChecker.passSingleValueCheck(resourceWrapper, rule, 1, 42L));
+    }
+}
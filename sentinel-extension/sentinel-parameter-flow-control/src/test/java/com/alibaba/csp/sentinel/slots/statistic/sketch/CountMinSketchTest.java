@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.slots.statistic.sketch;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test cases for {@link CountMinSketch}.
+ */
+public class CountMinSketchTest {
+
+    @Test
+    public void testNeverUnderestimate() {
+        CountMinSketch sketch = new CountMinSketch(1000);
+        assertEquals(1024, sketch.getWidth());
+
+        for (int i = 0; i < 10000; i++) {
+            sketch.add("key-" + i, 1);
+        }
+        sketch.add("hot", 500);
+        assertTrue(sketch.estimate("hot") >= 500);
+        // Error is bounded by e / width * total (about 36 here) in most cases.
+        assertTrue(sketch.estimate("hot") < 600);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(sketch.estimate("key-" + i) >= 1);
+        }
+
+        sketch.clear();
+        assertEquals(0, sketch.estimate("hot"));
+    }
+}
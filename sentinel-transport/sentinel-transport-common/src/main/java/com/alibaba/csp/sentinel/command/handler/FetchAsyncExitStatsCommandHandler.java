@@ -0,0 +1,51 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.slots.statistic.AsyncExitStatistics;
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Get the lag and overflow statistics of asynchronous exit statistics.
+ *
+ * @since 1.8.6
+ */
+@CommandMapping(name = "asyncExitStats", desc = "get the lag and overflow statistics of asynchronous exit statistics")
+public class FetchAsyncExitStatsCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        Map<String, Object> stats = new HashMap<String, Object>();
+        stats.put("enabled", AsyncExitStatistics.isEnabled());
+        stats.put("maxLagConfig", AsyncExitStatistics.getMaxLagConfig());
+        stats.put("recorded", AsyncExitStatistics.getRecordedCount());
+        stats.put("overflowed", AsyncExitStatistics.getOverflowCount());
+        stats.put("inlineDrained", AsyncExitStatistics.getInlineDrainCount());
+        stats.put("pending", AsyncExitStatistics.getPendingCount());
+        stats.put("buffers", AsyncExitStatistics.getBufferCount());
+        stats.put("lastLag", AsyncExitStatistics.getLastLagMs());
+        stats.put("maxLag", AsyncExitStatistics.getMaxLagMs());
+        stats.put("lastDrainTime", AsyncExitStatistics.getLastDrainTime());
+        return CommandResponse.ofSuccess(JSONObject.toJSONString(stats));
+    }
+}
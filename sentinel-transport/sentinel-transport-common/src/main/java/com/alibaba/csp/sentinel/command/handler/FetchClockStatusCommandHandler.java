@@ -0,0 +1,56 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+import com.alibaba.csp.sentinel.util.clock.Clock;
+import com.alibaba.csp.sentinel.util.clock.TickerClock;
+import com.alibaba.csp.sentinel.util.function.Tuple2;
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Get the clock used by {@link TimeUtil} and its recent read/write rates, which helps choosing
+ * the proper clock for the service.
+ *
+ * @since 1.8.6
+ */
+@CommandMapping(name = "clockStatus", desc = "get the clock in use and its read/write rates")
+public class FetchClockStatusCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        TimeUtil timeUtil = TimeUtil.instance();
+        Clock clock = timeUtil.getClock();
+        Tuple2<Long, Long> qps = timeUtil.currentQps(TimeUtil.currentTimeMillis());
+
+        Map<String, Object> status = new HashMap<String, Object>();
+        status.put("clock", clock.getClass().getName());
+        status.put("state", timeUtil.getState().name());
+        if (clock instanceof TickerClock) {
+            status.put("tickInterval", ((TickerClock) clock).getTickIntervalMs());
+        }
+        status.put("readQps", qps.r1);
+        status.put("writeQps", qps.r2);
+        return CommandResponse.ofSuccess(JSONObject.toJSONString(status));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.CtSph;
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.context.ContextUtil;
+import com.alibaba.csp.sentinel.node.IdleResourceEvictor;
+import com.alibaba.csp.sentinel.slots.clusterbuilder.ClusterBuilderSlot;
+import com.alibaba.csp.sentinel.util.ConcurrentRegistry;
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Get the amount of live resources (slot chains, cluster nodes and contexts) and the statistics
+ * of idle resource eviction.
+ *
+ * @since 1.8.6
+ */
+@CommandMapping(name = "resourceStats", desc = "get the amount of live resources and idle resource eviction statistics")
+public class FetchResourceStatsCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        Map<String, Object> stats = new HashMap<String, Object>();
+        stats.put("chains", registryStats(CtSph.getChainRegistry()));
+        stats.put("clusterNodes", registryStats(ClusterBuilderSlot.getClusterNodeRegistry()));
+        stats.put("contexts", registryStats(ContextUtil.getContextNameNodeRegistry()));
+
+        Map<String, Object> eviction = new HashMap<String, Object>();
+        eviction.put("enabled", IdleResourceEvictor.isStarted());
+        eviction.put("idleTimeout", IdleResourceEvictor.getIdleTimeoutMs());
+        eviction.put("evicted", IdleResourceEvictor.getEvictedCount());
+        eviction.put("lastEvicted", IdleResourceEvictor.getLastEvictedCount());
+        eviction.put("lastCheckTime", IdleResourceEvictor.getLastCheckTime());
+        stats.put("eviction", eviction);
+
+        return CommandResponse.ofSuccess(JSONObject.toJSONString(stats));
+    }
+
+    private static Map<String, Object> registryStats(ConcurrentRegistry<?, ?> registry) {
+        Map<String, Object> stats = new HashMap<String, Object>();
+        stats.put("live", registry.size());
+        stats.put("maxSize", registry.getMaxSize());
+        stats.put("created", registry.getCreatedCount());
+        stats.put("contended", registry.getContendedCount());
+        stats.put("rejected", registry.getRejectedCount());
+        return stats;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.slotchain.SlotProfile;
+import com.alibaba.csp.sentinel.slotchain.SlotProfiler;
+import com.alibaba.csp.sentinel.slots.statistic.metric.LogLinearHistogram;
+import com.alibaba.fastjson.JSONObject;
+
+/**
+ * Get the latency and allocation histograms of each processor slot recorded by {@link SlotProfiler}.
+ *
+ * @since 1.8.6
+ */
+@CommandMapping(name = "slotProfile", desc = "get the latency and allocation profile of each processor slot")
+public class FetchSlotProfileCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        List<Map<String, Object>> slots = new ArrayList<Map<String, Object>>();
+        for (SlotProfile profile : SlotProfiler.getProfiles().values()) {
+            Map<String, Object> slot = new HashMap<String, Object>();
+            slot.put("slot", profile.getSlotName());
+            slot.put("entryNanos", summarize(profile.getEntryNanos()));
+            slot.put("entryBytes", summarize(profile.getEntryBytes()));
+            slot.put("exitNanos", summarize(profile.getExitNanos()));
+            slot.put("exitBytes", summarize(profile.getExitBytes()));
+            slots.add(slot);
+        }
+
+        Map<String, Object> result = new HashMap<String, Object>();
+        result.put("enabled", SlotProfiler.isEnabled());
+        result.put("sampleInterval", SlotProfiler.getSampleInterval());
+        result.put("allocationSupported", SlotProfiler.isAllocationSupported());
+        result.put("nanosOverhead", SlotProfiler.getNanosOverhead());
+        result.put("bytesOverhead", SlotProfiler.getBytesOverhead());
+        result.put("slots", slots);
+        return CommandResponse.ofSuccess(JSONObject.toJSONString(result));
+    }
+
+    private Map<String, Object> summarize(LogLinearHistogram histogram) {
+        LogLinearHistogram.Snapshot snapshot = histogram.snapshot();
+        Map<String, Object> summary = new HashMap<String, Object>();
+        summary.put("count", snapshot.getCount());
+        summary.put("mean", snapshot.getMean());
+        summary.put("p50", snapshot.getValueAtPercentile(50));
+        summary.put("p90", snapshot.getValueAtPercentile(90));
+        summary.put("p99", snapshot.getValueAtPercentile(99));
+        summary.put("p999", snapshot.getValueAtPercentile(99.9));
+        summary.put("max", snapshot.getMax());
+        return summary;
+    }
+}
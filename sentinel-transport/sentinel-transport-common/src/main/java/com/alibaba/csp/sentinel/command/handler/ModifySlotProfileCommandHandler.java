@@ -0,0 +1,62 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.csp.sentinel.command.handler;
+
+import com.alibaba.csp.sentinel.command.CommandHandler;
+import com.alibaba.csp.sentinel.command.CommandRequest;
+import com.alibaba.csp.sentinel.command.CommandResponse;
+import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
+import com.alibaba.csp.sentinel.log.RecordLog;
+import com.alibaba.csp.sentinel.slotchain.SlotProfiler;
+import com.alibaba.csp.sentinel.util.StringUtil;
+
+/**
+ * Switch the slot profiling of {@link SlotProfiler} at runtime.
+ *
+ * @since 1.8.6
+ */
+@CommandMapping(name = "setSlotProfile", desc = "set slot profiling, accept param: "
+    + "enabled={true|false}, sampleInterval={positive int}, reset={true|false}")
+public class ModifySlotProfileCommandHandler implements CommandHandler<String> {
+
+    @Override
+    public CommandResponse<String> handle(CommandRequest request) {
+        String sampleInterval = request.getParam("sampleInterval");
+        if (StringUtil.isNotBlank(sampleInterval)) {
+            try {
+                int interval = Integer.parseInt(sampleInterval.trim());
+                if (interval <= 0) {
+                    return CommandResponse.ofFailure(new IllegalArgumentException("sampleInterval should be positive"));
+                }
+                SlotProfiler.setSampleInterval(interval);
+            } catch (NumberFormatException ex) {
+                return CommandResponse.ofFailure(new IllegalArgumentException("invalid sampleInterval"));
+            }
+        }
+        if (Boolean.parseBoolean(request.getParam("reset"))) {
+            SlotProfiler.reset();
+        }
+        String enabled = request.getParam("enabled");
+        if (StringUtil.isNotBlank(enabled)) {
+            SlotProfiler.setEnabled(Boolean.parseBoolean(enabled.trim()));
+        }
+
+        String info = "Slot profiling: enabled=" + SlotProfiler.isEnabled()
+            + ", sampleInterval=" + SlotProfiler.getSampleInterval();
+        RecordLog.info("[ModifySlotProfileCommandHandler] {}", info);
+        return CommandResponse.ofSuccess(info);
+    }
+}
@@ -15,8 +15,14 @@
  */
 package com.alibaba.csp.sentinel.command.handler;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import com.alibaba.csp.sentinel.Constants;
 import com.alibaba.csp.sentinel.command.CommandHandler;
@@ -24,6 +30,10 @@ import com.alibaba.csp.sentinel.command.CommandRequest;
 import com.alibaba.csp.sentinel.command.CommandResponse;
 import com.alibaba.csp.sentinel.command.annotation.CommandMapping;
 import com.alibaba.csp.sentinel.config.SentinelConfig;
+import com.alibaba.csp.sentinel.node.metric.BinaryMetricSearcher;
+import com.alibaba.csp.sentinel.node.metric.BinaryMetricWriter;
+import com.alibaba.csp.sentinel.node.metric.MetricCursor;
+import com.alibaba.csp.sentinel.node.metric.MetricCursorResult;
 import com.alibaba.csp.sentinel.node.metric.MetricNode;
 import com.alibaba.csp.sentinel.node.metric.MetricSearcher;
 import com.alibaba.csp.sentinel.node.metric.MetricWriter;
@@ -40,10 +50,28 @@ import com.alibaba.csp.sentinel.util.TimeUtil;
  * @author Eric Zhao
  */
 @CommandMapping(name = "metric", desc = "get and aggregate metrics, accept param: "
-    + "startTime={startTime}&endTime={endTime}&maxLines={maxLines}&identify={resourceName}")
+    + "startTime={startTime}&endTime={endTime}&maxLines={maxLines}&identify={resourceName}"
+    + "&sinceOffset={cursor}&resources={resourceNames}&encoding={gzip}")
 public class SendMetricCommandHandler implements CommandHandler<String> {
 
+    /**
+     * Prefix of the first line of the response in cursor mode, which carries the cursor for the next query.
+     *
+     * @since 1.8.6
+     */
+    public static final String CURSOR_LINE_PREFIX = "#cursor:";
+    /**
+     * With this encoding, the response is the Base64 form of the gzip-compressed metric lines.
+     *
+     * @since 1.8.6
+     */
+    public static final String ENCODING_GZIP = "gzip";
+
+    private static final int DEFAULT_MAX_LINES = 6000;
+    private static final int MAX_LINES_LIMIT = 12000;
+
     private volatile MetricSearcher searcher;
+    private volatile BinaryMetricSearcher binarySearcher;
 
     private final Object lock = new Object();
 
@@ -57,6 +85,10 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
                     appName = "";
                 }
                 if (searcher == null) {
+                    if (SentinelConfig.METRIC_FILE_FORMAT_BINARY.equals(SentinelConfig.metricFileFormat())) {
+                        binarySearcher = new BinaryMetricSearcher(MetricWriter.METRIC_BASE_DIR,
+                            BinaryMetricWriter.formMetricFileName(appName, PidUtil.getPid()));
+                    }
                     searcher = new MetricSearcher(MetricWriter.METRIC_BASE_DIR,
                         MetricWriter.formMetricFileName(appName, PidUtil.getPid()));
                 }
@@ -66,25 +98,46 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
         String endTimeStr = request.getParam("endTime");
         String maxLinesStr = request.getParam("maxLines");
         String identity = request.getParam("identity");
+        String sinceOffset = request.getParam("sinceOffset");
+        Set<String> resources = parseResources(request.getParam("resources"));
+        boolean gzip = ENCODING_GZIP.equalsIgnoreCase(request.getParam("encoding"));
         long startTime = -1;
-        int maxLines = 6000;
+        int maxLines = DEFAULT_MAX_LINES;
         if (StringUtil.isNotBlank(startTimeStr)) {
             startTime = Long.parseLong(startTimeStr);
-        } else {
+        } else if (sinceOffset == null) {
             return CommandResponse.ofSuccess("");
         }
+        if (StringUtil.isNotBlank(maxLinesStr)) {
+            try {
+                maxLines = Integer.parseInt(maxLinesStr);
+            } catch (NumberFormatException ex) {
+                return CommandResponse.ofFailure(new IllegalArgumentException("invalid maxLines: " + maxLinesStr));
+            }
+        }
+        maxLines = Math.max(1, Math.min(maxLines, MAX_LINES_LIMIT));
         List<MetricNode> list;
+        MetricCursor nextCursor = null;
         try {
-            // Find by end time if set.
-            if (StringUtil.isNotBlank(endTimeStr)) {
+            if (sinceOffset != null) {
+                // Cursor mode: read only the metrics appended since last query.
+                MetricCursor cursor = MetricCursor.parse(sinceOffset);
+                if (cursor == null && StringUtil.isNotBlank(sinceOffset)) {
+                    return CommandResponse.ofFailure(new IllegalArgumentException("invalid sinceOffset"));
+                }
+                MetricCursorResult result = binarySearcher != null
+                    ? binarySearcher.findSince(cursor, startTime, maxLines, resources)
+                    : searcher.findSince(cursor, startTime, maxLines, resources);
+                list = result.getNodes();
+                nextCursor = result.getNextCursor();
+            } else if (StringUtil.isNotBlank(endTimeStr)) {
+                // Find by end time if set.
                 long endTime = Long.parseLong(endTimeStr);
-                list = searcher.findByTimeAndResource(startTime, endTime, identity);
+                list = binarySearcher != null ? binarySearcher.findByTimeAndResource(startTime, endTime, identity)
+                    : searcher.findByTimeAndResource(startTime, endTime, identity);
             } else {
-                if (StringUtil.isNotBlank(maxLinesStr)) {
-                    maxLines = Integer.parseInt(maxLinesStr);
-                }
-                maxLines = Math.min(maxLines, 12000);
-                list = searcher.find(startTime, maxLines);
+                list = binarySearcher != null ? binarySearcher.find(startTime, maxLines)
+                    : searcher.find(startTime, maxLines);
             }
         } catch (Exception ex) {
             return CommandResponse.ofFailure(new RuntimeException("Error when retrieving metrics", ex));
@@ -92,16 +145,68 @@ public class SendMetricCommandHandler implements CommandHandler<String> {
         if (list == null) {
             list = new ArrayList<>();
         }
-        if (StringUtil.isBlank(identity)) {
+        if (resources != null) {
+            // Metrics found by cursor have been filtered by the searcher.
+            if (sinceOffset == null) {
+                list = filterByResources(list, resources);
+            }
+        } else if (StringUtil.isBlank(identity)) {
             addCpuUsageAndLoad(list);
         }
         StringBuilder sb = new StringBuilder();
+        if (sinceOffset != null) {
+            sb.append(CURSOR_LINE_PREFIX).append(nextCursor == null ? "" : nextCursor.toString()).append("\n");
+        }
         for (MetricNode node : list) {
             sb.append(node.toThinString()).append("\n");
         }
+        if (gzip) {
+            try {
+                return CommandResponse.ofSuccess(gzipBase64(sb.toString()));
+            } catch (Exception ex) {
+                return CommandResponse.ofFailure(new RuntimeException("Error when encoding metrics", ex));
+            }
+        }
         return CommandResponse.ofSuccess(sb.toString());
     }
 
+    private static Set<String> parseResources(String resourcesStr) {
+        if (StringUtil.isBlank(resourcesStr)) {
+            return null;
+        }
+        Set<String> resources = new HashSet<>();
+        for (String resource : resourcesStr.split(",")) {
+            if (StringUtil.isNotBlank(resource)) {
+                resources.add(resource.trim());
+            }
+        }
+        return resources;
+    }
+
+    private static List<MetricNode> filterByResources(List<MetricNode> list, Set<String> resources) {
+        List<MetricNode> filtered = new ArrayList<>(list.size());
+        for (MetricNode node : list) {
+            if (resources.contains(node.getResource())) {
+                filtered.add(node);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * The command center transports only write text responses, so the compressed bytes are carried in Base64.
+     */
+    private static String gzipBase64(String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, text.length() / 4));
+        GZIPOutputStream gzipOut = new GZIPOutputStream(out);
+        try {
+            gzipOut.write(text.getBytes(Charset.forName(SentinelConfig.charset())));
+        } finally {
+            gzipOut.close();
+        }
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
     /**
      * add current cpu usage and load to the metric list.
      *
@@ -37,6 +37,19 @@ public class TransportConfig {
     public static final String HEARTBEAT_INTERVAL_MS = "csp.sentinel.heartbeat.interval.ms";
     public static final String HEARTBEAT_CLIENT_IP = "csp.sentinel.heartbeat.client.ip";
     public static final String HEARTBEAT_API_PATH = "csp.sentinel.heartbeat.api.path";
+    /**
+     * Whether the command center uses the native epoll transport (on Linux, if available).
+     * Only supported by the Netty command center.
+     *
+     * @since 1.8.6
+     */
+    public static final String SERVER_NATIVE_TRANSPORT = "csp.sentinel.api.native.transport";
+    /**
+     * Amount of I/O worker threads of the command center. Only supported by the Netty command center.
+     *
+     * @since 1.8.6
+     */
+    public static final String SERVER_WORKER_THREADS = "csp.sentinel.api.worker.threads";
 
     public static final String HEARTBEAT_DEFAULT_PATH = "/registry/machine";
 
@@ -152,6 +165,33 @@ public class TransportConfig {
         runtimePort = port;
     }
 
+    /**
+     * @return whether the command center should use the native epoll transport
+     * @since 1.8.6
+     */
+    public static boolean isServerNativeTransport() {
+        return Boolean.parseBoolean(SentinelConfig.getConfig(SERVER_NATIVE_TRANSPORT, true));
+    }
+
+    /**
+     * Get the amount of I/O worker threads of the command center.
+     *
+     * @return the amount of worker threads, or 0 if not configured or invalid config
+     * @since 1.8.6
+     */
+    public static int getServerWorkerThreads() {
+        String threads = SentinelConfig.getConfig(SERVER_WORKER_THREADS, true);
+        if (StringUtil.isBlank(threads)) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(threads));
+        } catch (Exception ex) {
+            RecordLog.warn("[TransportConfig] Failed to parse worker threads of command center: " + threads);
+            return 0;
+        }
+    }
+
     /**
      * Get heartbeat client local ip.
      * If the client ip not configured,it will be the address of local host
@@ -30,6 +30,9 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 
@@ -46,12 +49,15 @@ public final class HttpServer {
     final static Map<String, CommandHandler> handlerMap = new ConcurrentHashMap<String, CommandHandler>();
 
     public void start() throws Exception {
-        EventLoopGroup bossGroup = new NioEventLoopGroup(1);
-        EventLoopGroup workerGroup = new NioEventLoopGroup();
+        boolean epoll = useNativeTransport();
+        int workerThreads = TransportConfig.getServerWorkerThreads();
+        EventLoopGroup bossGroup = epoll ? new EpollEventLoopGroup(1) : new NioEventLoopGroup(1);
+        EventLoopGroup workerGroup = epoll ? new EpollEventLoopGroup(workerThreads)
+            : new NioEventLoopGroup(workerThreads);
         try {
             ServerBootstrap b = new ServerBootstrap();
             b.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
                 .childHandler(new HttpServerInitializer());
             int port;
             try {
@@ -90,6 +96,18 @@ public final class HttpServer {
         }
     }
     
+    private boolean useNativeTransport() {
+        if (!TransportConfig.isServerNativeTransport()) {
+            return false;
+        }
+        if (!Epoll.isAvailable()) {
+            RecordLog.warn("[HttpServer] Native epoll transport is unavailable, using NIO transport instead",
+                Epoll.unavailabilityCause());
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Increase port number every 3 tries.
      * 